@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.cbor;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeType;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import io.github.grumpystuff.grumpyjson.OutputProfile;
+import io.github.grumpystuff.grumpyjson.StructuralJsonEngine;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
+import io.github.grumpystuff.grumpyjson.gson.JacksonBasedJsonEngine;
+import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
+import io.github.grumpystuff.grumpyjson.serialize.JsonSerializationException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.util.Objects;
+
+/**
+ * JSON engine that reads and writes <a href="https://cbor.io/">CBOR</a> instead of JSON text. CBOR is a binary
+ * encoding of the same data model, so all converters work unchanged: values are converted to and from the grumpyjson
+ * tree model as usual, and only the tree is encoded differently. Compared to JSON text, CBOR is smaller (especially
+ * for numbers) and cheaper to parse, which makes it useful for service-to-service traffic.
+ * <p>
+ * Since CBOR is binary, only the byte-based methods such as {@link #deserialize(InputStream, Type)},
+ * {@link #deserialize(byte[], Type)} and {@link #writeTo(Object, OutputStream)} can be used. Methods that use
+ * strings, {@link Reader}s or {@link Writer}s throw an {@link UnsupportedOperationException}. The
+ * {@link OutputProfile#PRETTY pretty} output profile has no meaning for CBOR and is treated like
+ * {@link OutputProfile#COMPACT}.
+ * <p>
+ * Usually, an application uses this engine alongside a JSON engine and wants the same converters for both. Use the
+ * constructor that takes a converter source for that; the converters are then only registered with, and sealed by,
+ * the JSON engine.
+ */
+public class CborJsonEngine extends JacksonBasedJsonEngine {
+
+    private static final ObjectMapper RAW_JSON_MAPPER = new ObjectMapper();
+
+    private final CBORMapper cborMapper = CBORMapper.builder()
+            .disable(JsonParser.Feature.AUTO_CLOSE_SOURCE)
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .build();
+
+    /**
+     * Creates a new CBOR engine with standard converters registered.
+     */
+    public CborJsonEngine() {
+    }
+
+    /**
+     * Creates a new CBOR engine that uses the converters of another engine, usually the JSON engine of the
+     * application. See
+     * {@link io.github.grumpystuff.grumpyjson.StructuralJsonEngine#StructuralJsonEngine(StructuralJsonEngine)}.
+     *
+     * @param converterSource the engine whose converters are used
+     */
+    public CborJsonEngine(StructuralJsonEngine converterSource) {
+        super(converterSource);
+    }
+
+    @Override
+    protected Object deserializeFromStream(InputStream source, Type type) throws JsonDeserializationException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(type, "type");
+
+        JsonNode jsonNode;
+        try {
+            jsonNode = cborMapper.readTree(source);
+        } catch (IOException e) {
+            throw new JsonDeserializationException("malformed CBOR");
+        }
+        return deserializeCbor(jsonNode, type);
+    }
+
+    @Override
+    protected Object deserializeFromBytes(byte[] source, int offset, int length, Type type) throws JsonDeserializationException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(type, "type");
+
+        JsonNode jsonNode;
+        try {
+            jsonNode = cborMapper.readTree(source, offset, length);
+        } catch (IOException e) {
+            throw new JsonDeserializationException("malformed CBOR");
+        }
+        return deserializeCbor(jsonNode, type);
+    }
+
+    private Object deserializeCbor(JsonNode jsonNode, Type type) throws JsonDeserializationException {
+        if (jsonNode == null || jsonNode.getNodeType() == JsonNodeType.MISSING) {
+            throw new JsonDeserializationException("no CBOR to deserialize");
+        }
+        return deserialize(jsonNode, type);
+    }
+
+    // CBOR has values that JSON does not have, most notably byte strings, which Jackson reads as binary nodes
+    @Override
+    protected void checkTree(JsonNode jsonNode) throws JsonDeserializationException {
+        switch (jsonNode.getNodeType()) {
+            case NULL, BOOLEAN, NUMBER, STRING -> {
+            }
+            case ARRAY, OBJECT -> {
+                for (JsonNode child : jsonNode) {
+                    checkTree(child);
+                }
+            }
+            case BINARY -> throw new JsonDeserializationException("CBOR byte strings are not supported");
+            default -> throw new JsonDeserializationException("unsupported CBOR value");
+        }
+    }
+
+    @Override
+    protected JsonParser createParser(InputStream source) throws IOException {
+        return cborMapper.createParser(source);
+    }
+
+    @Override
+    protected void serializeToStream(JsonElement json, OutputStream destination, boolean pretty) throws JsonSerializationException {
+        Objects.requireNonNull(json, "json");
+        Objects.requireNonNull(destination, "destination");
+
+        try {
+            cborMapper.writeValue(destination, toJsonNode(json));
+        } catch (IOException e) {
+            throw new JsonSerializationException(e);
+        }
+    }
+
+    @Override
+    protected JsonNode mapRawText(String text) {
+        try {
+            return RAW_JSON_MAPPER.readTree(text);
+        } catch (IOException e) {
+            throw new JsonSerializationException("invalid raw JSON");
+        }
+    }
+
+    @Override
+    protected JsonNode readJson(Reader source) {
+        throw new UnsupportedOperationException("CBOR is a binary format and cannot be read from a Reader");
+    }
+
+    @Override
+    protected void writeJson(JsonNode json, Writer destination, boolean pretty) {
+        throw new UnsupportedOperationException("CBOR is a binary format and cannot be written to a Writer");
+    }
+
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.cbor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import io.github.grumpystuff.grumpyjson.JsonEngine;
+import io.github.grumpystuff.grumpyjson.builtin.helper_types.RawJson;
+import io.github.grumpystuff.grumpyjson.builtin.primitive.StringConverter;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonArrayIterator;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
+import io.github.grumpystuff.grumpyjson.deserialize.UncheckedJsonDeserializationException;
+import io.github.grumpystuff.grumpyjson.gson.JacksonBasedJsonEngine;
+import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
+import io.github.grumpystuff.grumpyjson.json_model.JsonNumber;
+import io.github.grumpystuff.grumpyjson.json_model.JsonObject;
+import io.github.grumpystuff.grumpyjson.json_model.JsonString;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+public class CborJsonEngineTest {
+
+    private final JsonEngine jsonEngine = JacksonBasedJsonEngine.fromObjectMapper(new ObjectMapper());
+    private final CborJsonEngine cborEngine = new CborJsonEngine(jsonEngine);
+
+    public CborJsonEngineTest() {
+        jsonEngine.seal();
+        cborEngine.seal();
+    }
+
+    private byte[] write(Object value) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        cborEngine.writeTo(value, out);
+        return out.toByteArray();
+    }
+
+    private <T> T read(byte[] cbor, Class<T> clazz) throws JsonDeserializationException {
+        return cborEngine.deserialize(new ByteArrayInputStream(cbor), clazz);
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        Product product = new Product(12345, "Widget", List.of("a", "b"), List.of(1000000L, -5L));
+        byte[] cbor = write(product);
+        Assertions.assertEquals(product, read(cbor, Product.class));
+
+        // CBOR is smaller than the same data as JSON text
+        byte[] json = jsonEngine.serializeToString(product).getBytes(StandardCharsets.UTF_8);
+        Assertions.assertTrue(cbor.length < json.length, cbor.length + " vs. " + json.length);
+    }
+
+    @Test
+    public void testSharedConverters() throws Exception {
+        // both engines use the same registries, which got sealed once by the JSON engine
+        Assertions.assertThrows(IllegalStateException.class, () -> cborEngine.registerDualConverter(new StringConverter()));
+        Assertions.assertEquals(JsonString.of("foo"), read(write("foo"), JsonElement.class));
+    }
+
+    @Test
+    public void testRawJson() throws Exception {
+        byte[] cbor = write(new WithRawJson(1, RawJson.of("{\"a\" : [1, 2, \"x\"]}")));
+        Assertions.assertEquals(new WithRawJson(1, RawJson.of("{\"a\":[1,2,\"x\"]}")), read(cbor, WithRawJson.class));
+        Assertions.assertEquals(JsonObject.of("id", JsonNumber.of(1), "raw", JsonObject.of("a", jsonEngine.deserialize("[1,2,\"x\"]", JsonElement.class))),
+                read(cbor, JsonElement.class));
+    }
+
+    @Test
+    public void testEmptyInput() {
+        var exception = Assertions.assertThrows(JsonDeserializationException.class, () -> read(new byte[0], JsonElement.class));
+        Assertions.assertTrue(exception.getMessage().contains("no CBOR to deserialize"));
+    }
+
+    @Test
+    public void testMalformedInput() {
+        // a map header announcing one entry, then end of input
+        var exception = Assertions.assertThrows(JsonDeserializationException.class, () -> read(new byte[] {(byte) 0xa1}, JsonElement.class));
+        Assertions.assertTrue(exception.getMessage().contains("malformed CBOR"), exception.getMessage());
+    }
+
+    @Test
+    public void testByteStrings() throws Exception {
+        CBORMapper mapper = new CBORMapper();
+        byte[] topLevel = mapper.writeValueAsBytes(Map.of("id", 1, "name", new byte[] {1}, "tags", List.of(), "amounts", List.of()));
+        var exception = Assertions.assertThrows(JsonDeserializationException.class, () -> read(topLevel, Product.class));
+        Assertions.assertTrue(exception.getMessage().contains("CBOR byte strings are not supported"), exception.getMessage());
+
+        byte[] nested = mapper.writeValueAsBytes(List.of(Map.of("raw", List.of(new byte[] {1}))));
+        exception = Assertions.assertThrows(JsonDeserializationException.class, () -> read(nested, JsonElement.class));
+        Assertions.assertTrue(exception.getMessage().contains("CBOR byte strings are not supported"), exception.getMessage());
+        Assertions.assertThrows(UncheckedJsonDeserializationException.class, () -> {
+            try (JsonArrayIterator<JsonElement> iterator = cborEngine.deserializeElements(new ByteArrayInputStream(nested), JsonElement.class)) {
+                iterator.stream().toList();
+            }
+        });
+    }
+
+    @Test
+    public void testElementStreaming() throws Exception {
+        List<Product> products = List.of(new Product(1, "a", List.of(), List.of()), new Product(2, "b", List.of("x"), List.of(3L)));
+        try (JsonArrayIterator<Product> iterator = cborEngine.deserializeElements(new ByteArrayInputStream(write(products)), Product.class)) {
+            Assertions.assertEquals(products, iterator.stream().toList());
+        }
+    }
+
+    @Test
+    public void testTextIsNotSupported() {
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> cborEngine.serializeToString("foo"));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> cborEngine.deserialize("\"foo\"", String.class));
+    }
+
+    public record Product(int id, String name, List<String> tags, List<Long> amounts) {}
+
+    public record WithRawJson(int id, RawJson raw) {}
+
+}
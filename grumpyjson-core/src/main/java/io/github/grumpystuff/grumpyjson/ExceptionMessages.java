@@ -30,4 +30,9 @@ public class ExceptionMessages {
      */
     public static final String MISSING_PROPERTY = "missing property";
 
+    /**
+     * Error message that marks the point where errors have been omitted because there were too many of them.
+     */
+    public static final String TOO_MANY_ERRORS = "too many errors, further errors omitted";
+
 }
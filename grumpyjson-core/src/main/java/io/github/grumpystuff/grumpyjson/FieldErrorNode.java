@@ -7,6 +7,7 @@
 package io.github.grumpystuff.grumpyjson;
 
 import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializerProvider;
 import io.github.grumpystuff.grumpyjson.serialize.JsonSerializationException;
 import io.github.grumpystuff.grumpyjson.util.StringUtil;
 
@@ -41,7 +42,12 @@ import java.util.Objects;
  */
 public abstract class FieldErrorNode {
 
-    private FieldErrorNode() {
+    private final int errorCount;
+    private final boolean truncated;
+
+    private FieldErrorNode(int errorCount, boolean truncated) {
+        this.errorCount = errorCount;
+        this.truncated = truncated;
     }
 
     /**
@@ -64,6 +70,39 @@ public abstract class FieldErrorNode {
         return new InternalException(exception);
     }
 
+    /**
+     * Returns a node that contains the errors from this node, plus a marker that further errors have been omitted.
+     * Containers use this to stop collecting errors once the maximum number of errors has been reached, see
+     * {@link JsonDeserializerProvider#getMaxDeserializationErrors()}. If this node already contains such a marker,
+     * this method returns this node itself, so the marker appears only once no matter how many nesting levels stop
+     * collecting.
+     *
+     * @return the node with the marker
+     */
+    public final FieldErrorNode truncate() {
+        return truncated ? this : new Siblings(this, new Truncated());
+    }
+
+    /**
+     * Returns the number of errors contained in this node and its subnodes. The marker added by {@link #truncate()}
+     * does not count as an error. This number is computed when the node is created, so this method is cheap.
+     *
+     * @return the number of errors
+     */
+    public final int getErrorCount() {
+        return errorCount;
+    }
+
+    /**
+     * Checks whether some errors have been omitted from this node because there were too many of them, see
+     * {@link #truncate()}.
+     *
+     * @return true if errors have been omitted, false if this node contains all errors
+     */
+    public final boolean isTruncated() {
+        return truncated;
+    }
+
     /**
      * Groups two error sets together in a single new node. This and the other node may both contain multiple errors
      * and possibly use field path suffixes. If this node is later used below another field path prefix, then that
@@ -133,6 +172,7 @@ public abstract class FieldErrorNode {
         private final String message;
 
         private Message(String message) {
+            super(1, false);
             Objects.requireNonNull(message, "message");
 
             this.message = message;
@@ -170,6 +210,7 @@ public abstract class FieldErrorNode {
         private final Exception exception;
 
         private InternalException(Exception exception) {
+            super(1, false);
             Objects.requireNonNull(exception, "exception");
 
             this.exception = exception;
@@ -194,6 +235,27 @@ public abstract class FieldErrorNode {
 
     }
 
+    /**
+     * A leaf node that marks the point where errors have been omitted because there were too many of them. It
+     * appears as an error with the message {@link ExceptionMessages#TOO_MANY_ERRORS} when flattened, but does not
+     * count as an error in {@link #getErrorCount()}.
+     */
+    public static final class Truncated extends FieldErrorNode {
+
+        private Truncated() {
+            super(0, true);
+        }
+
+        @Override
+        protected void flatten(List<FlattenedError> errors, List<String> segments) {
+            Objects.requireNonNull(errors, "errors");
+            Objects.requireNonNull(segments, "segments");
+
+            errors.add(new FlattenedError(ExceptionMessages.TOO_MANY_ERRORS, segments));
+        }
+
+    }
+
     /**
      * A node that groups two subtrees together to allow the tree to store multiple errors.
      */
@@ -203,6 +265,7 @@ public abstract class FieldErrorNode {
         private final FieldErrorNode second;
 
         private Siblings(FieldErrorNode first, FieldErrorNode second) {
+            super(first.errorCount + second.errorCount, first.truncated || second.truncated);
             Objects.requireNonNull(first, "first");
             Objects.requireNonNull(second, "second");
 
@@ -248,6 +311,7 @@ public abstract class FieldErrorNode {
         private final FieldErrorNode node;
 
         private Field(String name, FieldErrorNode node) {
+            super(node.errorCount, node.truncated);
             Objects.requireNonNull(name, "name");
             Objects.requireNonNull(node, "node");
 
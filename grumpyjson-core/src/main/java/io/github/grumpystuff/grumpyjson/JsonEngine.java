@@ -7,15 +7,32 @@
 package io.github.grumpystuff.grumpyjson;
 
 
+import io.github.grumpystuff.grumpyjson.builtin.helper_types.RawJsonConverter;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonArrayIterator;
 import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
 import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializer;
 import io.github.grumpystuff.grumpyjson.serialize.JsonSerializationException;
 import io.github.grumpystuff.grumpyjson.serialize.JsonSerializer;
+import io.github.grumpystuff.grumpyjson.jfr.DeserializeEvent;
+import io.github.grumpystuff.grumpyjson.jfr.SerializeEvent;
+import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
+import io.github.grumpystuff.grumpyjson.json_model.JsonRawText;
+import io.github.grumpystuff.grumpyjson.registry.NotRegisteredException;
+import io.github.grumpystuff.grumpyjson.util.ByteCountingInputStream;
+import io.github.grumpystuff.grumpyjson.util.ByteCountingOutputStream;
+import io.github.grumpystuff.grumpyjson.util.CanonicalJsonUtil;
 import io.github.grumpystuff.grumpyjson.util.CloseShieldOutputStream;
+import io.github.grumpystuff.grumpyjson.util.MappedFileInputStream;
+import io.github.grumpystuff.grumpyjson.util.TypeInterner;
+import io.github.grumpystuff.grumpyjson.util.Utf8CountingReader;
+import io.github.grumpystuff.grumpyjson.util.Utf8CountingWriter;
 
 import java.io.*;
 import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Iterator;
 import java.util.Objects;
 
 /**
@@ -38,10 +55,24 @@ import java.util.Objects;
  */
 public abstract class JsonEngine extends StructuralJsonEngine {
 
+    private OutputProfile outputProfile = OutputProfile.COMPACT;
+
     /**
      * Creates a new JSON engine with standard converters registered.
      */
     public JsonEngine() {
+        registerDualConverter(new RawJsonConverter());
+    }
+
+    /**
+     * Creates a new JSON engine that uses the converters of another engine, see
+     * {@link StructuralJsonEngine#StructuralJsonEngine(StructuralJsonEngine)}. This is used for engines for other
+     * formats, so the same Java types can be sent in a different format without registering any converters again.
+     *
+     * @param converterSource the engine whose converters are used
+     */
+    public JsonEngine(StructuralJsonEngine converterSource) {
+        super(converterSource);
     }
 
     // -----------------------------------------------------------------------
@@ -109,7 +140,7 @@ public abstract class JsonEngine extends StructuralJsonEngine {
         Objects.requireNonNull(source, "source");
         Objects.requireNonNull(clazz, "clazz");
 
-        return deserialize(wrapSource(source), clazz);
+        return clazz.cast(deserialize(source, (Type) clazz));
     }
 
     /**
@@ -126,13 +157,17 @@ public abstract class JsonEngine extends StructuralJsonEngine {
         Objects.requireNonNull(source, "source");
         Objects.requireNonNull(typeToken, "typeToken");
 
-        return deserialize(wrapSource(source), typeToken);
+        //noinspection unchecked
+        return (T) deserialize(source, typeToken.getType());
     }
 
 
     /**
      * deserializes JSON from an {@link InputStream}. As demanded by the MIME type application/json, the input must be
      * UTF-8 encoded.
+     * <p>
+     * All other methods to deserialize from a stream end up here. If enabled, this method emits a Java Flight Recorder
+     * event named "grumpyjson.Deserialize".
      *
      * @param source the source stream
      * @param type the target type to deserialize to
@@ -143,7 +178,399 @@ public abstract class JsonEngine extends StructuralJsonEngine {
         Objects.requireNonNull(source, "source");
         Objects.requireNonNull(type, "type");
 
-        return deserialize(wrapSource(source), type);
+        return deserialize(source, type, null);
+    }
+
+    // Typed readers pass the deserializer they have resolved in advance, all other callers pass null. The same holds
+    // for the other methods with a deserializer or serializer parameter.
+    Object deserialize(InputStream source, Type type, JsonDeserializer deserializer) throws JsonDeserializationException {
+        DeserializeEvent event = new DeserializeEvent();
+        if (!event.isEnabled()) {
+            return bindStream(source, type, deserializer);
+        }
+        ByteCountingInputStream countingSource = new ByteCountingInputStream(source);
+        event.begin();
+        try {
+            return bindStream(countingSource, type, deserializer);
+        } finally {
+            commitDeserializeEvent(event, type, countingSource.getCount());
+        }
+    }
+
+    private Object bindStream(InputStream source, Type type, JsonDeserializer deserializer) throws JsonDeserializationException {
+        if (deserializer == null) {
+            return deserializeFromStream(source, type);
+        }
+        return deserializer.deserialize((JsonElement) deserializeFromStream(source, JsonElement.class), type);
+    }
+
+    /**
+     * Implements {@link #deserialize(InputStream, Type)} using the underlying JSON library. The default
+     * implementation decodes the stream as UTF-8 and calls {@link #deserializeFromReader(Reader, Type)}. Engines whose
+     * library can parse bytes directly should override this method, since that is usually faster than decoding
+     * the bytes to characters first. Engines for binary formats must override it.
+     *
+     * @param source the source stream
+     * @param type the target type to deserialize to
+     * @return the deserialized value
+     * @throws JsonDeserializationException if the input is malformed or does not match the target type
+     */
+    protected Object deserializeFromStream(InputStream source, Type type) throws JsonDeserializationException {
+        return deserializeFromReader(wrapSource(source), type);
+    }
+
+    /**
+     * deserializes JSON from a byte array. As demanded by the MIME type application/json, the input must be UTF-8
+     * encoded.
+     *
+     * @param source the source bytes
+     * @param clazz the target type to deserialize to
+     * @return the deserialized value
+     * @param <T> the static target type
+     * @throws JsonDeserializationException if the JSON is malformed or does not match the target type
+     */
+    public <T> T deserialize(byte[] source, Class<T> clazz) throws JsonDeserializationException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(clazz, "clazz");
+
+        return clazz.cast(deserialize(source, (Type) clazz));
+    }
+
+    /**
+     * deserializes JSON from a byte array. As demanded by the MIME type application/json, the input must be UTF-8
+     * encoded.
+     *
+     * @param source the source bytes
+     * @param typeToken a type token for the target type to deserialize to
+     * @return the deserialized value
+     * @param <T> the static target type
+     * @throws JsonDeserializationException if the JSON is malformed or does not match the target type
+     */
+    public <T> T deserialize(byte[] source, TypeToken<T> typeToken) throws JsonDeserializationException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(typeToken, "typeToken");
+
+        //noinspection unchecked
+        return (T) deserialize(source, typeToken.getType());
+    }
+
+    /**
+     * deserializes JSON from a byte array. As demanded by the MIME type application/json, the input must be UTF-8
+     * encoded.
+     *
+     * @param source the source bytes
+     * @param type the target type to deserialize to
+     * @return the deserialized value
+     * @throws JsonDeserializationException if the JSON is malformed or does not match the target type
+     */
+    public Object deserialize(byte[] source, Type type) throws JsonDeserializationException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(type, "type");
+
+        return deserialize(source, 0, source.length, type, null);
+    }
+
+    /**
+     * deserializes JSON from a {@link ByteBuffer}, reading the bytes between its position and its limit. The position
+     * of the buffer is not changed. As demanded by the MIME type application/json, the input must be UTF-8 encoded.
+     * <p>
+     * Heap buffers are read in place. The contents of direct buffers are copied to a byte array first, since JSON
+     * libraries cannot parse them directly.
+     *
+     * @param source the source buffer
+     * @param type the target type to deserialize to
+     * @return the deserialized value
+     * @throws JsonDeserializationException if the JSON is malformed or does not match the target type
+     */
+    public Object deserialize(ByteBuffer source, Type type) throws JsonDeserializationException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(type, "type");
+
+        if (source.hasArray()) {
+            return deserialize(source.array(), source.arrayOffset() + source.position(), source.remaining(), type, null);
+        }
+        byte[] bytes = new byte[source.remaining()];
+        source.duplicate().get(bytes);
+        return deserialize(bytes, 0, bytes.length, type, null);
+    }
+
+    /**
+     * deserializes JSON from a {@link ByteBuffer}, see {@link #deserialize(ByteBuffer, Type)}.
+     *
+     * @param source the source buffer
+     * @param clazz the target type to deserialize to
+     * @return the deserialized value
+     * @param <T> the static target type
+     * @throws JsonDeserializationException if the JSON is malformed or does not match the target type
+     */
+    public <T> T deserialize(ByteBuffer source, Class<T> clazz) throws JsonDeserializationException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(clazz, "clazz");
+
+        return clazz.cast(deserialize(source, (Type) clazz));
+    }
+
+    /**
+     * deserializes JSON from a {@link ByteBuffer}, see {@link #deserialize(ByteBuffer, Type)}.
+     *
+     * @param source the source buffer
+     * @param typeToken a type token for the target type to deserialize to
+     * @return the deserialized value
+     * @param <T> the static target type
+     * @throws JsonDeserializationException if the JSON is malformed or does not match the target type
+     */
+    public <T> T deserialize(ByteBuffer source, TypeToken<T> typeToken) throws JsonDeserializationException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(typeToken, "typeToken");
+
+        //noinspection unchecked
+        return (T) deserialize(source, typeToken.getType());
+    }
+
+    /**
+     * deserializes JSON from a file, see {@link #deserialize(Path, Type)}.
+     *
+     * @param source the source file
+     * @param clazz the target type to deserialize to
+     * @return the deserialized value
+     * @param <T> the static target type
+     * @throws JsonDeserializationException if the JSON is malformed or does not match the target type
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    public <T> T deserialize(Path source, Class<T> clazz) throws JsonDeserializationException, IOException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(clazz, "clazz");
+
+        return clazz.cast(deserialize(source, (Type) clazz));
+    }
+
+    /**
+     * deserializes JSON from a file, see {@link #deserialize(Path, Type)}.
+     *
+     * @param source the source file
+     * @param typeToken a type token for the target type to deserialize to
+     * @return the deserialized value
+     * @param <T> the static target type
+     * @throws JsonDeserializationException if the JSON is malformed or does not match the target type
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    public <T> T deserialize(Path source, TypeToken<T> typeToken) throws JsonDeserializationException, IOException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(typeToken, "typeToken");
+
+        //noinspection unchecked
+        return (T) deserialize(source, typeToken.getType());
+    }
+
+    /**
+     * deserializes JSON from a file. As demanded by the MIME type application/json, the file must be UTF-8 encoded.
+     * <p>
+     * The file is memory-mapped and parsed from the mapping, in segments of up to 1 GB so files larger than 2 GB
+     * can be read, rather than through a heap copy of the file contents. This is meant for large files, e.g. in
+     * batch jobs; note that the whole JSON tree is still built before it gets converted to the target type. Mapped
+     * segments are released by the garbage collector, not when this method returns.
+     *
+     * @param source the source file
+     * @param type the target type to deserialize to
+     * @return the deserialized value
+     * @throws JsonDeserializationException if the JSON is malformed or does not match the target type
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    public Object deserialize(Path source, Type type) throws JsonDeserializationException, IOException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(type, "type");
+
+        try (MappedFileInputStream in = new MappedFileInputStream(source)) {
+            return deserialize(in, type);
+        }
+    }
+
+    // All methods to deserialize from bytes in memory end up here.
+    Object deserialize(byte[] source, int offset, int length, Type type, JsonDeserializer deserializer) throws JsonDeserializationException {
+        DeserializeEvent event = new DeserializeEvent();
+        if (!event.isEnabled()) {
+            return bindBytes(source, offset, length, type, deserializer);
+        }
+        event.begin();
+        try {
+            return bindBytes(source, offset, length, type, deserializer);
+        } finally {
+            commitDeserializeEvent(event, type, length);
+        }
+    }
+
+    private Object bindBytes(byte[] source, int offset, int length, Type type, JsonDeserializer deserializer) throws JsonDeserializationException {
+        if (deserializer == null) {
+            return deserializeFromBytes(source, offset, length, type);
+        }
+        return deserializer.deserialize((JsonElement) deserializeFromBytes(source, offset, length, JsonElement.class), type);
+    }
+
+    /**
+     * Implements the methods to deserialize from a byte array or {@link ByteBuffer} using the underlying JSON library.
+     * The default implementation calls {@link #deserializeFromStream(InputStream, Type)} with a
+     * {@link ByteArrayInputStream}. Engines whose library can parse a byte array directly should override this method.
+     *
+     * @param source the array that contains the source bytes
+     * @param offset the index of the first source byte in the array
+     * @param length the number of source bytes
+     * @param type the target type to deserialize to
+     * @return the deserialized value
+     * @throws JsonDeserializationException if the input is malformed or does not match the target type
+     */
+    protected Object deserializeFromBytes(byte[] source, int offset, int length, Type type) throws JsonDeserializationException {
+        return deserializeFromStream(new ByteArrayInputStream(source, offset, length), type);
+    }
+
+    /**
+     * Deserializes the elements of a JSON array one at a time, see {@link #deserializeElements(InputStream, Type)}.
+     *
+     * @param source the source stream
+     * @param elementClazz the type to deserialize elements to
+     * @return an iterator for the elements
+     * @param <T> the static element type
+     * @throws JsonDeserializationException if the source does not start with a JSON array
+     */
+    public <T> JsonArrayIterator<T> deserializeElements(InputStream source, Class<T> elementClazz) throws JsonDeserializationException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(elementClazz, "elementClazz");
+
+        //noinspection unchecked
+        return (JsonArrayIterator<T>) deserializeElements(source, (Type) elementClazz);
+    }
+
+    /**
+     * Deserializes the elements of a JSON array one at a time, see {@link #deserializeElements(InputStream, Type)}.
+     *
+     * @param source the source stream
+     * @param elementTypeToken a type token for the type to deserialize elements to
+     * @return an iterator for the elements
+     * @param <T> the static element type
+     * @throws JsonDeserializationException if the source does not start with a JSON array
+     */
+    public <T> JsonArrayIterator<T> deserializeElements(InputStream source, TypeToken<T> elementTypeToken) throws JsonDeserializationException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(elementTypeToken, "elementTypeToken");
+
+        //noinspection unchecked
+        return (JsonArrayIterator<T>) deserializeElements(source, elementTypeToken.getType());
+    }
+
+    /**
+     * Deserializes the elements of a JSON array one at a time. The source must contain a single JSON array. Each
+     * element is read and deserialized only when the returned iterator is asked for it, so arrays of any size can be
+     * processed in constant memory, as long as the elements themselves are small. See {@link JsonArrayIterator} for
+     * how errors are reported.
+     * <p>
+     * The returned iterator must be closed, which closes the source. If this method throws an exception, it closes
+     * the source itself.
+     *
+     * @param source the source stream
+     * @param elementType the type to deserialize elements to
+     * @return an iterator for the elements
+     * @throws JsonDeserializationException if the source does not start with a JSON array
+     */
+    public JsonArrayIterator<?> deserializeElements(InputStream source, Type elementType) throws JsonDeserializationException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(elementType, "elementType");
+
+        try {
+            return deserializeElementsFromStream(source, elementType);
+        } catch (JsonDeserializationException | RuntimeException e) {
+            try {
+                source.close();
+            } catch (IOException e2) {
+                e.addSuppressed(e2);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Deserializes the elements of a JSON array in a file one at a time, see
+     * {@link #deserializeElements(InputStream, Type)}. The file is read through memory mapping like in
+     * {@link #deserialize(Path, Type)}.
+     *
+     * @param source the source file
+     * @param elementClazz the type to deserialize elements to
+     * @return an iterator for the elements
+     * @param <T> the static element type
+     * @throws JsonDeserializationException if the file does not start with a JSON array
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    public <T> JsonArrayIterator<T> deserializeElements(Path source, Class<T> elementClazz) throws JsonDeserializationException, IOException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(elementClazz, "elementClazz");
+
+        return deserializeElements(new MappedFileInputStream(source), elementClazz);
+    }
+
+    /**
+     * Deserializes the elements of a JSON array in a file one at a time, see
+     * {@link #deserializeElements(Path, Class)}.
+     *
+     * @param source the source file
+     * @param elementTypeToken a type token for the type to deserialize elements to
+     * @return an iterator for the elements
+     * @param <T> the static element type
+     * @throws JsonDeserializationException if the file does not start with a JSON array
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    public <T> JsonArrayIterator<T> deserializeElements(Path source, TypeToken<T> elementTypeToken) throws JsonDeserializationException, IOException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(elementTypeToken, "elementTypeToken");
+
+        return deserializeElements(new MappedFileInputStream(source), elementTypeToken);
+    }
+
+    /**
+     * Deserializes the elements of a JSON array in a file one at a time, see
+     * {@link #deserializeElements(Path, Class)}.
+     *
+     * @param source the source file
+     * @param elementType the type to deserialize elements to
+     * @return an iterator for the elements
+     * @throws JsonDeserializationException if the file does not start with a JSON array
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    public JsonArrayIterator<?> deserializeElements(Path source, Type elementType) throws JsonDeserializationException, IOException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(elementType, "elementType");
+
+        return deserializeElements(new MappedFileInputStream(source), elementType);
+    }
+
+    /**
+     * Implements {@link #deserializeElements(InputStream, Type)} using the underlying JSON library. The default
+     * implementation reads the whole array first and only converts the elements one at a time, so it does not
+     * process large arrays in constant memory. Engines should override this method to read the elements one at a
+     * time as well.
+     *
+     * @param source the source stream
+     * @param elementType the type to deserialize elements to
+     * @return an iterator for the elements
+     * @throws JsonDeserializationException if the source does not start with a JSON array
+     */
+    protected JsonArrayIterator<?> deserializeElementsFromStream(InputStream source, Type elementType) throws JsonDeserializationException {
+        JsonElement json = (JsonElement) deserializeFromStream(source, JsonElement.class);
+        Iterator<JsonElement> elements = json.deserializerExpectsArray().iterator();
+        return new JsonArrayIterator<>(this, elementType) {
+
+            @Override
+            protected JsonElement readNextElement() {
+                return elements.hasNext() ? elements.next() : null;
+            }
+
+            @Override
+            protected void readEnd() {
+            }
+
+            @Override
+            protected void closeSource() throws IOException {
+                source.close();
+            }
+
+        };
     }
 
     /**
@@ -181,13 +608,61 @@ public abstract class JsonEngine extends StructuralJsonEngine {
 
     /**
      * deserializes JSON from an {@link Reader}.
+     * <p>
+     * All other methods to deserialize JSON from characters end up here. If enabled, this method emits a Java Flight
+     * Recorder event named "grumpyjson.Deserialize".
      *
      * @param source the source reader
      * @param type the target type to deserialize to
      * @return the deserialized value
      * @throws JsonDeserializationException if the JSON is malformed or does not match the target type
      */
-    public abstract Object deserialize(Reader source, Type type) throws JsonDeserializationException;
+    public Object deserialize(Reader source, Type type) throws JsonDeserializationException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(type, "type");
+
+        return deserialize(source, type, null);
+    }
+
+    Object deserialize(Reader source, Type type, JsonDeserializer deserializer) throws JsonDeserializationException {
+        DeserializeEvent event = new DeserializeEvent();
+        if (!event.isEnabled()) {
+            return bindReader(source, type, deserializer);
+        }
+        Utf8CountingReader countingSource = new Utf8CountingReader(source);
+        event.begin();
+        try {
+            return bindReader(countingSource, type, deserializer);
+        } finally {
+            commitDeserializeEvent(event, type, countingSource.getCount());
+        }
+    }
+
+    private Object bindReader(Reader source, Type type, JsonDeserializer deserializer) throws JsonDeserializationException {
+        if (deserializer == null) {
+            return deserializeFromReader(source, type);
+        }
+        return deserializer.deserialize((JsonElement) deserializeFromReader(source, JsonElement.class), type);
+    }
+
+    private static void commitDeserializeEvent(DeserializeEvent event, Type type, long bytes) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.type = type.getTypeName();
+            event.bytes = bytes;
+            event.commit();
+        }
+    }
+
+    /**
+     * Implements {@link #deserialize(Reader, Type)} using the underlying JSON library.
+     *
+     * @param source the source reader
+     * @param type the target type to deserialize to
+     * @return the deserialized value
+     * @throws JsonDeserializationException if the JSON is malformed or does not match the target type
+     */
+    protected abstract Object deserializeFromReader(Reader source, Type type) throws JsonDeserializationException;
 
     private static Reader wrapSource(String source) {
         Objects.requireNonNull(source, "source");
@@ -206,7 +681,28 @@ public abstract class JsonEngine extends StructuralJsonEngine {
     // -----------------------------------------------------------------------
 
     /**
-     * Turns a value into a JSON string.
+     * Sets the output profile that is used when no profile is specified explicitly. The default is
+     * {@link OutputProfile#COMPACT}. This is a configuration method and must be called before sealing the engine.
+     *
+     * @param outputProfile the default output profile
+     */
+    public void setOutputProfile(OutputProfile outputProfile) {
+        Objects.requireNonNull(outputProfile, "outputProfile");
+
+        this.outputProfile = outputProfile;
+    }
+
+    /**
+     * Getter method for the output profile that is used when no profile is specified explicitly.
+     *
+     * @return the default output profile
+     */
+    public OutputProfile getOutputProfile() {
+        return outputProfile;
+    }
+
+    /**
+     * Turns a value into a JSON string, using the default output profile.
      *
      * @param value the value to serialize
      * @return the JSON string
@@ -215,29 +711,95 @@ public abstract class JsonEngine extends StructuralJsonEngine {
     public String serializeToString(Object value) throws JsonSerializationException {
         Objects.requireNonNull(value, "value");
 
+        return serializeToString(value, outputProfile);
+    }
+
+    /**
+     * Turns a value into a JSON string.
+     *
+     * @param value the value to serialize
+     * @param profile the output profile that determines the format
+     * @return the JSON string
+     * @throws JsonSerializationException if the value is in an inconsistent state or a state that cannot be turned into JSON
+     */
+    public String serializeToString(Object value, OutputProfile profile) throws JsonSerializationException {
+        Objects.requireNonNull(value, "value");
+        Objects.requireNonNull(profile, "profile");
+
         StringWriter writer = new StringWriter();
-        writeTo(value, writer);
+        writeTo(value, writer, profile);
         return writer.toString();
     }
 
+    /**
+     * Turns a value into JSON that is written to an output stream, using the default output profile. As demanded by
+     * the MIME type application/json, the output will be UTF-8 encoded.
+     *
+     * @param value the value to convert
+     * @param destination the stream to write to
+     * @throws JsonSerializationException if the value is in an inconsistent state or a state that cannot be turned into JSON
+     */
+    public void writeTo(Object value, OutputStream destination) throws JsonSerializationException {
+        Objects.requireNonNull(value, "value");
+        Objects.requireNonNull(destination, "destination");
+
+        writeTo(value, destination, outputProfile);
+    }
+
     /**
      * Turns a value into JSON that is written to an output stream. As demanded by the MIME type application/json,
      * the output will be UTF-8 encoded.
+     * <p>
+     * All other methods to serialize to a stream end up here. If enabled, this method emits a Java Flight Recorder
+     * event named "grumpyjson.Serialize".
      *
      * @param value the value to convert
      * @param destination the stream to write to
+     * @param profile the output profile that determines the format
      * @throws JsonSerializationException if the value is in an inconsistent state or a state that cannot be turned into JSON
      */
-    public void writeTo(Object value, OutputStream destination) throws JsonSerializationException {
+    public void writeTo(Object value, OutputStream destination, OutputProfile profile) throws JsonSerializationException {
         Objects.requireNonNull(value, "value");
         Objects.requireNonNull(destination, "destination");
+        Objects.requireNonNull(profile, "profile");
 
+        writeTo(value, destination, profile, null);
+    }
+
+    void writeTo(Object value, OutputStream destination, OutputProfile profile, JsonSerializer<Object> serializer) throws JsonSerializationException {
+        SerializeEvent event = new SerializeEvent();
+        if (!event.isEnabled()) {
+            serializeToStream(toJsonElement(value, profile, serializer), destination, profile == OutputProfile.PRETTY);
+            return;
+        }
+        ByteCountingOutputStream countingDestination = new ByteCountingOutputStream(destination);
+        event.begin();
+        try {
+            serializeToStream(toJsonElement(value, profile, serializer), countingDestination, profile == OutputProfile.PRETTY);
+        } finally {
+            commitSerializeEvent(event, value, countingDestination.getCount());
+        }
+    }
+
+    /**
+     * Implements {@link #writeTo(Object, OutputStream, OutputProfile)} using the underlying JSON library, like
+     * {@link #serializeToWriter(JsonElement, Writer, boolean)} does for writers. The default implementation encodes
+     * the output as UTF-8 and calls {@link #serializeToWriter(JsonElement, Writer, boolean)}. Engines whose library
+     * can write bytes directly should override this method, since that is usually faster than encoding characters
+     * separately. Engines for binary formats must override it.
+     *
+     * @param json the JSON tree to write
+     * @param destination the stream to write to. Must not be closed by this method.
+     * @param pretty true to add line breaks and indentation, false to write without any whitespace
+     * @throws JsonSerializationException if writing fails
+     */
+    protected void serializeToStream(JsonElement json, OutputStream destination, boolean pretty) throws JsonSerializationException {
         // We need to flush the encoding logic of the OutputStreamWriter at the end, but not cloe the underlying
         // OutputStream. Unfortunately, OutputStreamWriter.close() does more flushing than just flush(), so we HAVE
         // to close the OSW. We solve this by using a CloseShieldOutputStream to prevent the close() from closing the
         // underlying stream.
         OutputStreamWriter writer = new OutputStreamWriter(new CloseShieldOutputStream(destination), StandardCharsets.UTF_8);
-        writeTo(value, writer);
+        serializeToWriter(json, writer, pretty);
         try {
             writer.flush();
             writer.close();
@@ -246,13 +808,201 @@ public abstract class JsonEngine extends StructuralJsonEngine {
         }
     }
 
+    /**
+     * Turns a value into JSON that is written to a writer, using the default output profile.
+     *
+     * @param value the value to convert
+     * @param destination the writer to write to
+     * @throws JsonSerializationException if the value is in an inconsistent state or a state that cannot be turned into JSON
+     */
+    public void writeTo(Object value, Writer destination) throws JsonSerializationException {
+        Objects.requireNonNull(value, "value");
+        Objects.requireNonNull(destination, "destination");
+
+        writeTo(value, destination, outputProfile);
+    }
+
+    /**
+     * Turns a value into JSON that is written to a writer as a single line, i.e. without any line breaks. This is
+     * needed for line-based formats such as NDJSON. No line break is written at the end either.
+     * <p>
+     * This uses the default output profile, except that {@link OutputProfile#PRETTY} is replaced by
+     * {@link OutputProfile#COMPACT}.
+     *
+     * @param value the value to convert
+     * @param destination the writer to write to
+     * @throws JsonSerializationException if the value is in an inconsistent state or a state that cannot be turned into JSON
+     */
+    public void writeSingleLineTo(Object value, Writer destination) throws JsonSerializationException {
+        Objects.requireNonNull(value, "value");
+        Objects.requireNonNull(destination, "destination");
+
+        writeTo(value, destination, outputProfile == OutputProfile.PRETTY ? OutputProfile.COMPACT : outputProfile);
+    }
+
     /**
      * Turns a value into JSON that is written to a writer.
+     * <p>
+     * All other methods to serialize JSON to characters end up here. If enabled, this method emits a Java Flight
+     * Recorder event named "grumpyjson.Serialize".
      *
      * @param value the value to convert
      * @param destination the writer to write to
+     * @param profile the output profile that determines the format
      * @throws JsonSerializationException if the value is in an inconsistent state or a state that cannot be turned into JSON
      */
-    public abstract void writeTo(Object value, Writer destination) throws JsonSerializationException;
+    public void writeTo(Object value, Writer destination, OutputProfile profile) throws JsonSerializationException {
+        Objects.requireNonNull(value, "value");
+        Objects.requireNonNull(destination, "destination");
+        Objects.requireNonNull(profile, "profile");
+
+        writeTo(value, destination, profile, null);
+    }
+
+    void writeTo(Object value, Writer destination, OutputProfile profile, JsonSerializer<Object> serializer) throws JsonSerializationException {
+        SerializeEvent event = new SerializeEvent();
+        if (!event.isEnabled()) {
+            write(value, destination, profile, serializer);
+            return;
+        }
+        Utf8CountingWriter countingDestination = new Utf8CountingWriter(destination);
+        event.begin();
+        try {
+            write(value, countingDestination, profile, serializer);
+        } finally {
+            commitSerializeEvent(event, value, countingDestination.getCount());
+        }
+    }
+
+    private static void commitSerializeEvent(SerializeEvent event, Object value, long bytes) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.type = value.getClass().getName();
+            event.bytes = bytes;
+            event.commit();
+        }
+    }
+
+    private void write(Object value, Writer destination, OutputProfile profile, JsonSerializer<Object> serializer) throws JsonSerializationException {
+        serializeToWriter(toJsonElement(value, profile, serializer), destination, profile == OutputProfile.PRETTY);
+    }
+
+    /**
+     * Turns a value into a JSON tree for output with the specified profile. For {@link OutputProfile#CANONICAL}, the
+     * tree is brought into canonical form; the other profiles only affect whitespace, so they return the same tree
+     * as {@link #toJsonElement(Object)}.
+     *
+     * @param value the value to convert
+     * @param profile the output profile
+     * @return the JSON tree
+     * @throws JsonSerializationException if the value is in an inconsistent state or a state that cannot be turned into JSON
+     */
+    public final JsonElement toJsonElement(Object value, OutputProfile profile) throws JsonSerializationException {
+        Objects.requireNonNull(value, "value");
+        Objects.requireNonNull(profile, "profile");
+
+        return toJsonElement(value, profile, null);
+    }
+
+    JsonElement toJsonElement(Object value, OutputProfile profile, JsonSerializer<Object> serializer) throws JsonSerializationException {
+        JsonElement json = serializer == null ? toJsonElement(value) : serializer.serialize(value);
+        return profile == OutputProfile.CANONICAL ? CanonicalJsonUtil.canonicalize(json) : json;
+    }
+
+    /**
+     * Implements {@link #writeTo(Object, Writer, OutputProfile)} using the underlying JSON library. The value has
+     * already been turned into a JSON tree, and for {@link OutputProfile#CANONICAL}, that tree has already been
+     * brought into canonical form, so this method only has to write the tree as it is -- object properties in
+     * map order, and {@link JsonRawText} verbatim.
+     *
+     * @param json the JSON tree to write
+     * @param destination the writer to write to
+     * @param pretty true to add line breaks and indentation, false to write without any whitespace
+     * @throws JsonSerializationException if writing fails
+     */
+    protected abstract void serializeToWriter(JsonElement json, Writer destination, boolean pretty) throws JsonSerializationException;
+
+
+    // -----------------------------------------------------------------------
+    // typed readers and writers
+    // -----------------------------------------------------------------------
+
+    /**
+     * Creates a reader that deserializes JSON to the specified type. The deserializer for the type is looked up only
+     * once, when the reader is created, so code that deserializes many values of the same type can create the reader
+     * outside its loop. This method can only be called after sealing the engine.
+     *
+     * @param clazz the target type to deserialize to
+     * @return the reader
+     * @param <T> the static target type
+     * @throws NotRegisteredException if no deserializer is registered for the type
+     */
+    public final <T> JsonValueReader<T> readerFor(Class<T> clazz) throws NotRegisteredException {
+        Objects.requireNonNull(clazz, "clazz");
+
+        return new JsonValueReader<>(this, clazz, getDeserializerRegistry().getDeserializer(clazz));
+    }
+
+    /**
+     * Creates a reader that deserializes JSON to the specified type, see {@link #readerFor(Class)}.
+     *
+     * @param typeToken a type token for the target type to deserialize to
+     * @return the reader
+     * @param <T> the static target type
+     * @throws NotRegisteredException if no deserializer is registered for the type
+     */
+    public final <T> JsonValueReader<T> readerFor(TypeToken<T> typeToken) throws NotRegisteredException {
+        Objects.requireNonNull(typeToken, "typeToken");
+
+        Type type = typeToken.getType();
+        return new JsonValueReader<>(this, type, getDeserializerRegistry().getDeserializer(type));
+    }
+
+    /**
+     * Creates a reader that deserializes JSON to the specified type, see {@link #readerFor(Class)}.
+     *
+     * @param type the target type to deserialize to
+     * @return the reader
+     * @throws NotRegisteredException if no deserializer is registered for the type
+     */
+    public final JsonValueReader<?> readerFor(Type type) throws NotRegisteredException {
+        Objects.requireNonNull(type, "type");
+
+        type = TypeInterner.intern(type);
+        return new JsonValueReader<>(this, type, getDeserializerRegistry().getDeserializer(type));
+    }
+
+    /**
+     * Creates a writer that serializes values of the specified class, using the default output profile. The
+     * serializer for the class is looked up only once, when the writer is created, so code that serializes many
+     * values of the same class can create the writer outside its loop. This method can only be called after
+     * sealing the engine.
+     *
+     * @param clazz the class of the values to serialize
+     * @return the writer
+     * @param <T> the static type of the values
+     * @throws NotRegisteredException if no serializer is registered for the class
+     */
+    public final <T> JsonValueWriter<T> writerFor(Class<T> clazz) throws NotRegisteredException {
+        Objects.requireNonNull(clazz, "clazz");
+
+        return writerFor(clazz, outputProfile);
+    }
+
+    /**
+     * Creates a writer that serializes values of the specified class, see {@link #writerFor(Class)}.
+     *
+     * @param clazz the class of the values to serialize
+     * @param profile the output profile that determines the format
+     * @return the writer
+     * @param <T> the static type of the values
+     * @throws NotRegisteredException if no serializer is registered for the class
+     */
+    public final <T> JsonValueWriter<T> writerFor(Class<T> clazz, OutputProfile profile) throws NotRegisteredException {
+        Objects.requireNonNull(clazz, "clazz");
+        Objects.requireNonNull(profile, "profile");
+
+        return new JsonValueWriter<>(this, clazz, getSerializerRegistry().getSerializer(clazz), profile);
+    }
 
 }
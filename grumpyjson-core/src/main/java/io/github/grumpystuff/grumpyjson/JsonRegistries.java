@@ -108,6 +108,11 @@ public record JsonRegistries(
         return deserializerRegistry.getDeserializer(type);
     }
 
+    @Override
+    public int getMaxDeserializationErrors() {
+        return deserializerRegistry.getMaxDeserializationErrors();
+    }
+
     /**
      * Seals the registries, moving from the configuration phase to the run-time phase.
      */
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson;
+
+import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializer;
+import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.lang.reflect.Type;
+import java.util.Objects;
+
+/**
+ * Deserializes JSON to a fixed type, using a deserializer that was looked up once when this reader was created. Get
+ * an instance from {@link JsonEngine#readerFor(Class)}. Reading works like the corresponding
+ * {@link JsonEngine#deserialize(InputStream, Type) deserialize} methods of the engine, including Java Flight Recorder
+ * events, but skips looking up the deserializer for each value.
+ * <p>
+ * Instances are immutable and can be shared between threads.
+ *
+ * @param <T> the static target type
+ */
+public final class JsonValueReader<T> {
+
+    private final JsonEngine engine;
+    private final Type type;
+    private final JsonDeserializer deserializer;
+
+    JsonValueReader(JsonEngine engine, Type type, JsonDeserializer deserializer) {
+        this.engine = engine;
+        this.type = type;
+        this.deserializer = deserializer;
+    }
+
+    /**
+     * Getter method for the target type.
+     *
+     * @return the type that this reader deserializes to
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Deserializes a JSON tree.
+     *
+     * @param source the source element
+     * @return the deserialized value
+     * @throws JsonDeserializationException if the JSON does not match the target type
+     */
+    public T read(JsonElement source) throws JsonDeserializationException {
+        Objects.requireNonNull(source, "source");
+
+        //noinspection unchecked
+        return (T) deserializer.deserialize(source, type);
+    }
+
+    /**
+     * Deserializes JSON from a string.
+     *
+     * @param source the source string
+     * @return the deserialized value
+     * @throws JsonDeserializationException if the JSON is malformed or does not match the target type
+     */
+    public T read(String source) throws JsonDeserializationException {
+        Objects.requireNonNull(source, "source");
+
+        return read(new StringReader(source));
+    }
+
+    /**
+     * Deserializes JSON from a {@link Reader}.
+     *
+     * @param source the source reader
+     * @return the deserialized value
+     * @throws JsonDeserializationException if the JSON is malformed or does not match the target type
+     */
+    public T read(Reader source) throws JsonDeserializationException {
+        Objects.requireNonNull(source, "source");
+
+        //noinspection unchecked
+        return (T) engine.deserialize(source, type, deserializer);
+    }
+
+    /**
+     * Deserializes JSON from an {@link InputStream}. The input must be UTF-8 encoded, like for
+     * {@link JsonEngine#deserialize(InputStream, Type)}.
+     *
+     * @param source the source stream
+     * @return the deserialized value
+     * @throws JsonDeserializationException if the JSON is malformed or does not match the target type
+     */
+    public T read(InputStream source) throws JsonDeserializationException {
+        Objects.requireNonNull(source, "source");
+
+        //noinspection unchecked
+        return (T) engine.deserialize(source, type, deserializer);
+    }
+
+    /**
+     * Deserializes JSON from a byte array. The input must be UTF-8 encoded, like for
+     * {@link JsonEngine#deserialize(byte[], Type)}.
+     *
+     * @param source the source bytes
+     * @return the deserialized value
+     * @throws JsonDeserializationException if the JSON is malformed or does not match the target type
+     */
+    public T read(byte[] source) throws JsonDeserializationException {
+        Objects.requireNonNull(source, "source");
+
+        //noinspection unchecked
+        return (T) engine.deserialize(source, 0, source.length, type, deserializer);
+    }
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson;
+
+import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
+import io.github.grumpystuff.grumpyjson.serialize.JsonSerializationException;
+import io.github.grumpystuff.grumpyjson.serialize.JsonSerializer;
+
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Objects;
+
+/**
+ * Serializes values of a fixed class with a fixed {@link OutputProfile}, using a serializer that was looked up once
+ * when this writer was created. Get an instance from {@link JsonEngine#writerFor(Class)}. Writing works like the
+ * corresponding methods of the engine, including Java Flight Recorder events, but skips looking up the serializer for
+ * each value.
+ * <p>
+ * Serializers are selected by the run-time class of a value. A value whose class is not exactly the class of this
+ * writer, such as an instance of a subclass, is serialized with the serializer for its own class, like the engine
+ * would.
+ * <p>
+ * Instances are immutable and can be shared between threads.
+ *
+ * @param <T> the static type of the values
+ */
+public final class JsonValueWriter<T> {
+
+    private final JsonEngine engine;
+    private final Class<T> clazz;
+    private final JsonSerializer<Object> serializer;
+    private final OutputProfile profile;
+
+    JsonValueWriter(JsonEngine engine, Class<T> clazz, JsonSerializer<T> serializer, OutputProfile profile) {
+        this.engine = engine;
+        this.clazz = clazz;
+        //noinspection unchecked
+        this.serializer = (JsonSerializer<Object>) serializer;
+        this.profile = profile;
+    }
+
+    /**
+     * Getter method for the output profile.
+     *
+     * @return the output profile that determines the format
+     */
+    public OutputProfile getProfile() {
+        return profile;
+    }
+
+    private JsonSerializer<Object> getSerializer(T value) {
+        return value.getClass() == clazz ? serializer : null;
+    }
+
+    /**
+     * Turns a value into a {@link JsonElement}, brought into canonical form for {@link OutputProfile#CANONICAL}.
+     *
+     * @param value the value to convert
+     * @return the JSON element
+     * @throws JsonSerializationException if the value is in an inconsistent state or a state that cannot be turned into JSON
+     */
+    public JsonElement toJsonElement(T value) throws JsonSerializationException {
+        Objects.requireNonNull(value, "value");
+
+        return engine.toJsonElement(value, profile, getSerializer(value));
+    }
+
+    /**
+     * Turns a value into a JSON string.
+     *
+     * @param value the value to convert
+     * @return the JSON string
+     * @throws JsonSerializationException if the value is in an inconsistent state or a state that cannot be turned into JSON
+     */
+    public String writeToString(T value) throws JsonSerializationException {
+        Objects.requireNonNull(value, "value");
+
+        StringWriter writer = new StringWriter();
+        writeTo(value, writer);
+        return writer.toString();
+    }
+
+    /**
+     * Turns a value into JSON that is written to a writer.
+     *
+     * @param value the value to convert
+     * @param destination the writer to write to
+     * @throws JsonSerializationException if the value is in an inconsistent state or a state that cannot be turned into JSON
+     */
+    public void writeTo(T value, Writer destination) throws JsonSerializationException {
+        Objects.requireNonNull(value, "value");
+        Objects.requireNonNull(destination, "destination");
+
+        engine.writeTo(value, destination, profile, getSerializer(value));
+    }
+
+    /**
+     * Turns a value into JSON that is written to an output stream. The output is UTF-8 encoded, like for
+     * {@link JsonEngine#writeTo(Object, OutputStream)}.
+     *
+     * @param value the value to convert
+     * @param destination the stream to write to
+     * @throws JsonSerializationException if the value is in an inconsistent state or a state that cannot be turned into JSON
+     */
+    public void writeTo(T value, OutputStream destination) throws JsonSerializationException {
+        Objects.requireNonNull(value, "value");
+        Objects.requireNonNull(destination, "destination");
+
+        engine.writeTo(value, destination, profile, getSerializer(value));
+    }
+
+}
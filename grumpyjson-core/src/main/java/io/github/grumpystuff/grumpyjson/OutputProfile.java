@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson;
+
+/**
+ * Determines how a {@link JsonEngine} formats the JSON it writes.
+ */
+public enum OutputProfile {
+
+    /**
+     * No whitespace at all, and object properties in the order they have in the JSON tree, which is the order of the
+     * record components for records. This is the default because it is the smallest and fastest format.
+     */
+    COMPACT,
+
+    /**
+     * Like {@link #COMPACT}, but with line breaks and indentation so the output can be read by humans.
+     */
+    PRETTY,
+
+    /**
+     * Like {@link #COMPACT}, but with the properties of each object sorted by name, and numbers written in a
+     * normalized form: without trailing zeros in the fraction, without a fraction at all for integral values, and
+     * with an exponent only for very large or small numbers, following the rules of RFC 8785 (e.g. 1e+21 and 1e-7,
+     * but 100 and 0.000001). This means that equal JSON values are always written as the same text, which makes the output
+     * suitable for hashing, caching and diffing.
+     * <p>
+     * Raw JSON text (see {@link io.github.grumpystuff.grumpyjson.builtin.helper_types.RawJson}) is written verbatim,
+     * so it is only canonical if the text itself is.
+     */
+    CANONICAL
+
+}
@@ -8,8 +8,14 @@ package io.github.grumpystuff.grumpyjson;
 
 
 import io.github.grumpystuff.grumpyjson.builtin.*;
+import io.github.grumpystuff.grumpyjson.builtin.collection.BooleanArrayConverter;
+import io.github.grumpystuff.grumpyjson.builtin.collection.DoubleArrayConverter;
+import io.github.grumpystuff.grumpyjson.builtin.collection.EnumKeyMapConverter;
+import io.github.grumpystuff.grumpyjson.builtin.collection.IntArrayConverter;
 import io.github.grumpystuff.grumpyjson.builtin.collection.ListConverter;
+import io.github.grumpystuff.grumpyjson.builtin.collection.LongArrayConverter;
 import io.github.grumpystuff.grumpyjson.builtin.collection.MapConverter;
+import io.github.grumpystuff.grumpyjson.builtin.collection.StringKeyMapConverter;
 import io.github.grumpystuff.grumpyjson.builtin.helper_types.FieldMustBeNullConverter;
 import io.github.grumpystuff.grumpyjson.builtin.helper_types.NullableFieldConverter;
 import io.github.grumpystuff.grumpyjson.builtin.helper_types.OptionalFieldConverter;
@@ -39,12 +45,14 @@ import java.util.Objects;
 public class StructuralJsonEngine {
 
     private final JsonRegistries registries;
+    private final boolean ownsRegistries;
 
     /**
      * Creates a new JSON engine with standard converters registered.
      */
     public StructuralJsonEngine() {
         registries = JsonRegistries.createDefault();
+        ownsRegistries = true;
 
         // Java types
         registerDualConverter(new BooleanConverter());
@@ -55,6 +63,12 @@ public class StructuralJsonEngine {
         // collection types
         registerDualConverter(new ListConverter(registries));
         registerDualConverter(new MapConverter(registries));
+        registerDeserializer(new StringKeyMapConverter(registries));
+        registerDeserializer(new EnumKeyMapConverter(registries));
+        registerDualConverter(new IntArrayConverter(registries));
+        registerDualConverter(new LongArrayConverter(registries));
+        registerDualConverter(new DoubleArrayConverter(registries));
+        registerDualConverter(new BooleanArrayConverter(registries));
 
         // helper types
         registerDualConverter(new FieldMustBeNullConverter());
@@ -64,6 +78,19 @@ public class StructuralJsonEngine {
 
     }
 
+    /**
+     * Creates a new JSON engine that uses the converters of another engine. Converters registered with either engine
+     * are used by both. Sealing this engine does nothing; the converters get sealed when the other engine is sealed.
+     *
+     * @param converterSource the engine whose converters are used
+     */
+    public StructuralJsonEngine(StructuralJsonEngine converterSource) {
+        Objects.requireNonNull(converterSource, "converterSource");
+
+        registries = converterSource.registries;
+        ownsRegistries = false;
+    }
+
     /**
      * Registers the specified serializer.
      *
@@ -121,10 +148,13 @@ public class StructuralJsonEngine {
     }
 
     /**
-     * Seals this JSON engine, moving from the configuration phase to the run-time phase.
+     * Seals this JSON engine, moving from the configuration phase to the run-time phase. This does nothing for an
+     * engine that uses the converters of another engine.
      */
     public void seal() {
-        registries.seal();
+        if (ownsRegistries) {
+            registries.seal();
+        }
     }
 
     /**
@@ -1,5 +1,7 @@
 package io.github.grumpystuff.grumpyjson;
 
+import io.github.grumpystuff.grumpyjson.util.TypeInterner;
+
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 
@@ -22,6 +24,21 @@ import java.lang.reflect.Type;
 @SuppressWarnings("unused")
 public abstract class TypeToken<T> {
 
+    // each place in the code that creates a type token defines its own anonymous subclass, so the type can be
+    // determined once per subclass instead of once per token
+    private static final ClassValue<Type> TYPES = new ClassValue<>() {
+        @Override
+        protected Type computeValue(Class<?> tokenClass) {
+            if (tokenClass.getGenericSuperclass() instanceof ParameterizedType parameterizedType) {
+                var arguments = parameterizedType.getActualTypeArguments();
+                if (parameterizedType.getRawType() == TypeToken.class && arguments.length == 1) {
+                    return TypeInterner.intern(arguments[0]);
+                }
+            }
+            throw new RuntimeException("wrong TypeToken usage");
+        }
+    };
+
     /**
      * Constructor
      */
@@ -29,18 +46,13 @@ public abstract class TypeToken<T> {
     }
 
     /**
-     * Obtains the type represented by this type token.
+     * Obtains the type represented by this type token. Equal types from different type tokens are returned as the
+     * same object.
      *
      * @return the type
      */
     public final Type getType() {
-        if (getClass().getGenericSuperclass() instanceof ParameterizedType parameterizedType) {
-            var arguments = parameterizedType.getActualTypeArguments();
-            if (parameterizedType.getRawType() == TypeToken.class && arguments.length == 1) {
-                return arguments[0];
-            }
-        }
-        throw new RuntimeException("wrong TypeToken usage");
+        return TYPES.get(getClass());
     }
 
 }
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.builtin.collection;
+
+import io.github.grumpystuff.grumpyjson.JsonProviders;
+import io.github.grumpystuff.grumpyjson.JsonRegistries;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
+import io.github.grumpystuff.grumpyjson.json_model.JsonBoolean;
+import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
+
+/**
+ * This converter handles the array type boolean[] and the list type {@link BooleanList}, which map to and from JSON arrays of
+ * JSON booleans.
+ * <p>
+ * Unlike List&lt;Boolean&gt;, these types store the
+ * values without boxing them, which makes them much more compact for large arrays such as time series.
+ * <p>
+ * This converter is registered by default, and only needs to be manually registered if it gets removed, such as by
+ * calling {@link JsonRegistries#clear()}.
+ */
+public final class BooleanArrayConverter extends PrimitiveArrayConverter<boolean[]> {
+
+    /**
+     * Constructor.
+     *
+     * @param providers the JSON providers -- needed to get the maximum number of errors to report
+     */
+    public BooleanArrayConverter(JsonProviders providers) {
+        super(providers, boolean[].class, BooleanList.class);
+    }
+
+    @Override
+    boolean[] newArray(int length) {
+        return new boolean[length];
+    }
+
+    @Override
+    void deserializeElement(JsonElement json, boolean[] array, int index) throws JsonDeserializationException {
+        array[index] = json.deserializerExpectsBoolean();
+    }
+
+    @Override
+    JsonElement serializeElement(boolean[] array, int index) {
+        return JsonBoolean.of(array[index]);
+    }
+
+    @Override
+    Object toList(boolean[] array) {
+        return new BooleanList(array);
+    }
+
+    @Override
+    boolean[] fromList(Object list) {
+        return ((BooleanList) list).getValuesWithoutCopying();
+    }
+
+}
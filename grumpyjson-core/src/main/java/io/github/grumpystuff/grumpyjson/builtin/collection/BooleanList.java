@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.builtin.collection;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * An immutable list of boolean values, backed by a boolean[] array. This uses much less memory than a
+ * List&lt;Boolean&gt; because the values are not boxed. It implements List&lt;Boolean&gt; for convenience, but
+ * {@link #getBoolean(int)} and {@link #toBooleanArray()} should be preferred since they do not box the values.
+ * <p>
+ * This type can be used for fields of records that get converted to and from JSON arrays, see
+ * {@link BooleanArrayConverter}.
+ */
+public final class BooleanList extends AbstractList<Boolean> implements RandomAccess {
+
+    private static final BooleanList EMPTY = new BooleanList(new boolean[0]);
+
+    private final boolean[] values;
+
+    // does not copy the array, so callers must make sure that it is not modified anymore
+    BooleanList(boolean[] values) {
+        this.values = values;
+    }
+
+    /**
+     * Creates a list that contains the specified values.
+     *
+     * @param values the values; the array is copied, so it can be modified afterward without affecting the list
+     * @return the list
+     */
+    public static BooleanList of(boolean... values) {
+        return values.length == 0 ? EMPTY : new BooleanList(values.clone());
+    }
+
+    /**
+     * Returns the value at the specified index without boxing it.
+     *
+     * @param index the index
+     * @return the value
+     */
+    public boolean getBoolean(int index) {
+        return values[index];
+    }
+
+    @Override
+    public Boolean get(int index) {
+        return values[index];
+    }
+
+    // does not copy the array, so callers must not modify it
+    boolean[] getValuesWithoutCopying() {
+        return values;
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * Returns the values of this list as a new array.
+     *
+     * @return the values
+     */
+    public boolean[] toBooleanArray() {
+        return values.clone();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (other instanceof BooleanList otherList) {
+            return Arrays.equals(values, otherList.values);
+        }
+        return super.equals(other);
+    }
+
+    @Override
+    public int hashCode() {
+        // must be consistent with List.hashCode() so this list can be compared with other lists
+        int hashCode = 1;
+        for (boolean value : values) {
+            hashCode = 31 * hashCode + Boolean.hashCode(value);
+        }
+        return hashCode;
+    }
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.builtin.collection;
+
+import io.github.grumpystuff.grumpyjson.JsonProviders;
+import io.github.grumpystuff.grumpyjson.JsonRegistries;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
+import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
+import io.github.grumpystuff.grumpyjson.json_model.JsonNumber;
+import io.github.grumpystuff.grumpyjson.serialize.JsonSerializationException;
+
+/**
+ * This converter handles the array type double[] and the list type {@link DoubleList}, which map to and from JSON arrays of
+ * JSON numbers. Numbers that cannot be represented exactly are rounded to the nearest double value. Numbers that are
+ * too large for a double are rejected instead of becoming infinite. NaN and infinite values cannot be represented in
+ * JSON, so serializing them fails.
+ * <p>
+ * Unlike List&lt;Double&gt;, these types store the
+ * values without boxing them, which makes them much more compact for large arrays such as time series.
+ * <p>
+ * This converter is registered by default, and only needs to be manually registered if it gets removed, such as by
+ * calling {@link JsonRegistries#clear()}.
+ */
+public final class DoubleArrayConverter extends PrimitiveArrayConverter<double[]> {
+
+    /**
+     * Constructor.
+     *
+     * @param providers the JSON providers -- needed to get the maximum number of errors to report
+     */
+    public DoubleArrayConverter(JsonProviders providers) {
+        super(providers, double[].class, DoubleList.class);
+    }
+
+    @Override
+    double[] newArray(int length) {
+        return new double[length];
+    }
+
+    @Override
+    void deserializeElement(JsonElement json, double[] array, int index) throws JsonDeserializationException {
+        Number number = json.deserializerExpectsNumber();
+        double value = number.doubleValue();
+        if (!Double.isFinite(value)) {
+            throw new JsonDeserializationException("value out of bounds: " + number);
+        }
+        array[index] = value;
+    }
+
+    @Override
+    JsonElement serializeElement(double[] array, int index) throws JsonSerializationException {
+        if (!Double.isFinite(array[index])) {
+            throw new JsonSerializationException("value cannot be represented in JSON: " + array[index]);
+        }
+        return JsonNumber.of(array[index]);
+    }
+
+    @Override
+    Object toList(double[] array) {
+        return new DoubleList(array);
+    }
+
+    @Override
+    double[] fromList(Object list) {
+        return ((DoubleList) list).getValuesWithoutCopying();
+    }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.builtin.collection;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * An immutable list of double values, backed by a double[] array. This uses much less memory than a
+ * List&lt;Double&gt; because the values are not boxed. It implements List&lt;Double&gt; for convenience, but
+ * {@link #getDouble(int)} and {@link #toDoubleArray()} should be preferred since they do not box the values.
+ * <p>
+ * This type can be used for fields of records that get converted to and from JSON arrays, see
+ * {@link DoubleArrayConverter}.
+ */
+public final class DoubleList extends AbstractList<Double> implements RandomAccess {
+
+    private static final DoubleList EMPTY = new DoubleList(new double[0]);
+
+    private final double[] values;
+
+    // does not copy the array, so callers must make sure that it is not modified anymore
+    DoubleList(double[] values) {
+        this.values = values;
+    }
+
+    /**
+     * Creates a list that contains the specified values.
+     *
+     * @param values the values; the array is copied, so it can be modified afterward without affecting the list
+     * @return the list
+     */
+    public static DoubleList of(double... values) {
+        return values.length == 0 ? EMPTY : new DoubleList(values.clone());
+    }
+
+    /**
+     * Returns the value at the specified index without boxing it.
+     *
+     * @param index the index
+     * @return the value
+     */
+    public double getDouble(int index) {
+        return values[index];
+    }
+
+    @Override
+    public Double get(int index) {
+        return values[index];
+    }
+
+    // does not copy the array, so callers must not modify it
+    double[] getValuesWithoutCopying() {
+        return values;
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * Returns the values of this list as a new array.
+     *
+     * @return the values
+     */
+    public double[] toDoubleArray() {
+        return values.clone();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (other instanceof DoubleList otherList) {
+            return Arrays.equals(values, otherList.values);
+        }
+        return super.equals(other);
+    }
+
+    @Override
+    public int hashCode() {
+        // must be consistent with List.hashCode() so this list can be compared with other lists
+        int hashCode = 1;
+        for (double value : values) {
+            hashCode = 31 * hashCode + Double.hashCode(value);
+        }
+        return hashCode;
+    }
+
+}
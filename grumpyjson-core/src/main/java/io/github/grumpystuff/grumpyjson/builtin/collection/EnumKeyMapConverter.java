@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.builtin.collection;
+
+import io.github.grumpystuff.grumpyjson.FieldErrorNode;
+import io.github.grumpystuff.grumpyjson.JsonProviders;
+import io.github.grumpystuff.grumpyjson.JsonRegistries;
+import io.github.grumpystuff.grumpyjson.builtin.primitive.EnumConverter;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializer;
+import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
+import io.github.grumpystuff.grumpyjson.json_model.JsonString;
+import io.github.grumpystuff.grumpyjson.registry.NotRegisteredException;
+import io.github.grumpystuff.grumpyjson.util.TypeUtil;
+
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * This converter handles type Map&lt;E, ...&gt; for deserialization, where E is an enum type. The result is an
+ * unmodifiable {@link EnumMap}, which is more compact than a hash map and iterates in the order of the enum
+ * constants. If the enum type uses the auto-generated {@link EnumConverter}, the keys are looked up by constant name
+ * directly instead of passing each of them through the key deserializer; if a custom deserializer is registered for
+ * the enum type, it is used for the keys, like {@link MapConverter} would.
+ * <p>
+ * Serialization is handled by {@link MapConverter} for all maps.
+ * <p>
+ * This converter is registered by default, and only needs to be manually registered if it gets removed, such as by
+ * calling {@link JsonRegistries#clear()}.
+ */
+public final class EnumKeyMapConverter implements JsonDeserializer {
+
+    private final JsonProviders providers;
+
+    /**
+     * Constructor.
+     *
+     * @param providers the JSON providers -- needed to fetch the converters for the key and value types at run-time
+     */
+    public EnumKeyMapConverter(JsonProviders providers) {
+        Objects.requireNonNull(providers, "providers");
+
+        this.providers = providers;
+    }
+
+    @Override
+    public boolean supportsTypeForDeserialization(Type type) {
+        Objects.requireNonNull(type, "type");
+
+        Type[] keyAndValueTypes = TypeUtil.isParameterizedType(type, Map.class, 2);
+        return keyAndValueTypes != null && keyAndValueTypes[0] instanceof Class<?> keyClass && keyClass.isEnum();
+    }
+
+    @Override
+    public Map<?, ?> deserialize(JsonElement json, Type type) throws JsonDeserializationException {
+        Objects.requireNonNull(json, "json");
+        Objects.requireNonNull(type, "type");
+
+        Type[] keyAndValueTypes = TypeUtil.expectParameterizedType(type, Map.class, 2);
+        //noinspection unchecked,rawtypes
+        return deserialize(json, (Class) keyAndValueTypes[0], keyAndValueTypes[1]);
+    }
+
+    private <E extends Enum<E>> Map<E, ?> deserialize(JsonElement json, Class<E> keyClass, Type valueType) throws JsonDeserializationException {
+        Map<String, JsonElement> jsonProperties = json.deserializerExpectsObject();
+        JsonDeserializer keyDeserializer, valueDeserializer;
+        try {
+            keyDeserializer = providers.getDeserializer(keyClass);
+            valueDeserializer = providers.getDeserializer(valueType);
+        } catch (NotRegisteredException e) {
+            throw new JsonDeserializationException(e.getMessage());
+        }
+        boolean customKeys = !(keyDeserializer instanceof EnumConverter<?>);
+        EnumMap<E, Object> result = new EnumMap<>(keyClass);
+        FieldErrorNode errorNode = null;
+        int maxErrors = providers.getMaxDeserializationErrors();
+        for (Map.Entry<String, JsonElement> entry : jsonProperties.entrySet()) {
+            String keyText = entry.getKey();
+            boolean isAtKey = true;
+            try {
+                E key;
+                if (customKeys) {
+                    key = keyClass.cast(keyDeserializer.deserialize(JsonString.of(keyText), keyClass));
+                } else {
+                    try {
+                        key = Enum.valueOf(keyClass, keyText);
+                    } catch (IllegalArgumentException e) {
+                        throw new JsonDeserializationException("unknown value");
+                    }
+                }
+                isAtKey = false;
+                result.put(key, valueDeserializer.deserialize(entry.getValue(), valueType));
+            } catch (JsonDeserializationException e) {
+                errorNode = e.getFieldErrorNode().in(MapConverter.buildFromJsonFieldName(isAtKey, keyText)).and(errorNode);
+            } catch (Exception e) {
+                errorNode = FieldErrorNode.create(e).in(MapConverter.buildFromJsonFieldName(isAtKey, keyText)).and(errorNode);
+            }
+            if (errorNode != null && errorNode.getErrorCount() >= maxErrors) {
+                errorNode = errorNode.truncate();
+                break;
+            }
+        }
+        if (errorNode != null) {
+            throw new JsonDeserializationException(errorNode);
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+}
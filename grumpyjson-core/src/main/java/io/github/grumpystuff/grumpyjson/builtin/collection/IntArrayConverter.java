@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.builtin.collection;
+
+import io.github.grumpystuff.grumpyjson.JsonProviders;
+import io.github.grumpystuff.grumpyjson.JsonRegistries;
+import io.github.grumpystuff.grumpyjson.builtin.primitive.IntegralNumberDeserializationUtil;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
+import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
+import io.github.grumpystuff.grumpyjson.json_model.JsonNumber;
+
+/**
+ * This converter handles the array type int[] and the list type {@link IntList}, which map to and from JSON arrays of
+ * integral JSON numbers in the 32-bit signed integer range.
+ * <p>
+ * Unlike List&lt;Integer&gt;, these types store the
+ * values without boxing them, which makes them much more compact for large arrays such as time series.
+ * <p>
+ * This converter is registered by default, and only needs to be manually registered if it gets removed, such as by
+ * calling {@link JsonRegistries#clear()}.
+ */
+public final class IntArrayConverter extends PrimitiveArrayConverter<int[]> {
+
+    /**
+     * Constructor.
+     *
+     * @param providers the JSON providers -- needed to get the maximum number of errors to report
+     */
+    public IntArrayConverter(JsonProviders providers) {
+        super(providers, int[].class, IntList.class);
+    }
+
+    @Override
+    int[] newArray(int length) {
+        return new int[length];
+    }
+
+    @Override
+    void deserializeElement(JsonElement json, int[] array, int index) throws JsonDeserializationException {
+        long longValue = IntegralNumberDeserializationUtil.deserialize(json.deserializerExpectsNumber());
+        int intValue = (int)longValue;
+        IntegralNumberDeserializationUtil.verifyBounds(longValue, intValue);
+        array[index] = intValue;
+    }
+
+    @Override
+    JsonElement serializeElement(int[] array, int index) {
+        return JsonNumber.of(array[index]);
+    }
+
+    @Override
+    Object toList(int[] array) {
+        return new IntList(array);
+    }
+
+    @Override
+    int[] fromList(Object list) {
+        return ((IntList) list).getValuesWithoutCopying();
+    }
+
+}
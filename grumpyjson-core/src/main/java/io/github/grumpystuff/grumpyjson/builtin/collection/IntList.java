@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.builtin.collection;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * An immutable list of int values, backed by a int[] array. This uses much less memory than a
+ * List&lt;Integer&gt; because the values are not boxed. It implements List&lt;Integer&gt; for convenience, but
+ * {@link #getInt(int)} and {@link #toIntArray()} should be preferred since they do not box the values.
+ * <p>
+ * This type can be used for fields of records that get converted to and from JSON arrays, see
+ * {@link IntArrayConverter}.
+ */
+public final class IntList extends AbstractList<Integer> implements RandomAccess {
+
+    private static final IntList EMPTY = new IntList(new int[0]);
+
+    private final int[] values;
+
+    // does not copy the array, so callers must make sure that it is not modified anymore
+    IntList(int[] values) {
+        this.values = values;
+    }
+
+    /**
+     * Creates a list that contains the specified values.
+     *
+     * @param values the values; the array is copied, so it can be modified afterward without affecting the list
+     * @return the list
+     */
+    public static IntList of(int... values) {
+        return values.length == 0 ? EMPTY : new IntList(values.clone());
+    }
+
+    /**
+     * Returns the value at the specified index without boxing it.
+     *
+     * @param index the index
+     * @return the value
+     */
+    public int getInt(int index) {
+        return values[index];
+    }
+
+    @Override
+    public Integer get(int index) {
+        return values[index];
+    }
+
+    // does not copy the array, so callers must not modify it
+    int[] getValuesWithoutCopying() {
+        return values;
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * Returns the values of this list as a new array.
+     *
+     * @return the values
+     */
+    public int[] toIntArray() {
+        return values.clone();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (other instanceof IntList otherList) {
+            return Arrays.equals(values, otherList.values);
+        }
+        return super.equals(other);
+    }
+
+    @Override
+    public int hashCode() {
+        // must be consistent with List.hashCode() so this list can be compared with other lists
+        int hashCode = 1;
+        for (int value : values) {
+            hashCode = 31 * hashCode + Integer.hashCode(value);
+        }
+        return hashCode;
+    }
+
+}
@@ -14,14 +14,18 @@ import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializer;
 import io.github.grumpystuff.grumpyjson.json_model.JsonArray;
 import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
 import io.github.grumpystuff.grumpyjson.registry.NotRegisteredException;
+import io.github.grumpystuff.grumpyjson.serialize.FieldSelection;
 import io.github.grumpystuff.grumpyjson.serialize.JsonSerializationException;
 import io.github.grumpystuff.grumpyjson.serialize.JsonSerializer;
 import io.github.grumpystuff.grumpyjson.util.TypeUtil;
 
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * This converter handles type List&lt;...&gt; for deserialization, and the List interface and its implementing
@@ -29,10 +33,70 @@ import java.util.Objects;
  * <p>
  * This converter is registered by default, and only needs to be manually registered if it gets removed, such as by
  * calling {@link JsonRegistries#clear()}.
+ * <p>
+ * By default, elements are converted one after another on the calling thread. For very large lists, the converter can
+ * be registered with {@link Options} that convert lists above a size threshold in parallel using a
+ * {@link ForkJoinPool}, to make use of multiple cores for a single request:
+ * <pre>
+ *     engine.registerDualConverter(new ListConverter(engine.getRegistries(), ListConverter.Options.parallel(10_000)));
+ * </pre>
+ * The result is the same as for sequential conversion: Elements appear in their original order, and the errors are
+ * collected in the same order as well. The only exception is when there are more errors than the maximum number of
+ * errors (see {@link io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializerProvider#getMaxDeserializationErrors()}):
+ * Which errors get reported before conversion stops then depends on timing. The converters for the element type must
+ * be thread-safe, which all converters should be anyway because they are shared between requests.
  */
 public final class ListConverter implements JsonSerializer<List<?>>, JsonDeserializer {
 
+    /**
+     * Controls the behavior of a {@link ListConverter}.
+     *
+     * @param parallelThreshold the minimum number of elements for which a list gets converted in parallel. Smaller
+     *                          lists get converted sequentially. Use {@link Integer#MAX_VALUE} to never convert in
+     *                          parallel. Must be at least 2.
+     * @param pool              the pool to run parallel conversion in
+     */
+    public record Options(int parallelThreshold, ForkJoinPool pool) {
+
+        /**
+         * The default options, which convert all lists sequentially.
+         */
+        public static final Options SEQUENTIAL = new Options(Integer.MAX_VALUE, ForkJoinPool.commonPool());
+
+        /**
+         * Constructor.
+         *
+         * @param parallelThreshold the minimum number of elements for which a list gets converted in parallel
+         * @param pool              the pool to run parallel conversion in
+         */
+        public Options {
+            if (parallelThreshold < 2) {
+                throw new IllegalArgumentException("parallelThreshold must be at least 2");
+            }
+            Objects.requireNonNull(pool, "pool");
+        }
+
+        /**
+         * Creates options that convert lists in parallel in the {@link ForkJoinPool#commonPool() common pool} if
+         * they have at least the specified number of elements.
+         *
+         * @param parallelThreshold the minimum number of elements for which a list gets converted in parallel
+         * @return the options
+         */
+        public static Options parallel(int parallelThreshold) {
+            return new Options(parallelThreshold, ForkJoinPool.commonPool());
+        }
+
+    }
+
+    /**
+     * Parallel conversion splits the list into chunks of at least this many elements, so the overhead of forking
+     * tasks stays small compared to the actual conversion.
+     */
+    private static final int MIN_CHUNK_SIZE = 256;
+
     private final JsonProviders providers;
+    private final Options options;
 
     /**
      * Constructor.
@@ -40,9 +104,21 @@ public final class ListConverter implements JsonSerializer<List<?>>, JsonDeseria
      * @param providers the JSON providers -- needed to fetch the converter for the element type at run-time
      */
     public ListConverter(JsonProviders providers) {
+        this(providers, Options.SEQUENTIAL);
+    }
+
+    /**
+     * This constructor adds extra options, such as parallel conversion of large lists.
+     *
+     * @param providers the JSON providers -- needed to fetch the converter for the element type at run-time
+     * @param options   options that control the conversion from and to JSON
+     */
+    public ListConverter(JsonProviders providers, Options options) {
         Objects.requireNonNull(providers, "providers");
+        Objects.requireNonNull(options, "options");
 
         this.providers = providers;
+        this.options = options;
     }
 
     @Override
@@ -65,21 +141,23 @@ public final class ListConverter implements JsonSerializer<List<?>>, JsonDeseria
         } catch (NotRegisteredException e) {
             throw new JsonDeserializationException(e.getMessage());
         }
-        List<Object> resultChildren = new ArrayList<>();
-        FieldErrorNode errorNode = null;
-        for (int i = 0; i < jsonChildren.size(); i++) {
-            try {
-                resultChildren.add(elementDeserializer.deserialize(jsonChildren.get(i), elementType));
-            } catch (JsonDeserializationException e) {
-                errorNode = e.getFieldErrorNode().in(Integer.toString(i)).and(errorNode);
-            } catch (Exception e) {
-                errorNode = FieldErrorNode.create(e).in(Integer.toString(i)).and(errorNode);
-            }
+        Object[] resultChildren = new Object[jsonChildren.size()];
+        ElementDeserialization deserialization = new ElementDeserialization(jsonChildren, elementDeserializer,
+                elementType, resultChildren, providers.getMaxDeserializationErrors());
+        FieldErrorNode errorNode;
+        if (resultChildren.length >= options.parallelThreshold()) {
+            errorNode = options.pool().invoke(new RangeTask(deserialization, 0, resultChildren.length,
+                    getChunkSize(resultChildren.length)));
+        } else {
+            errorNode = deserialization.convertRange(0, resultChildren.length);
+        }
+        if (deserialization.stopped) {
+            errorNode = errorNode.truncate();
         }
         if (errorNode != null) {
             throw new JsonDeserializationException(errorNode);
         }
-        return List.copyOf(resultChildren);
+        return List.of(resultChildren);
     }
 
     @Override
@@ -93,6 +171,17 @@ public final class ListConverter implements JsonSerializer<List<?>>, JsonDeseria
     public JsonElement serialize(List<?> value) throws JsonSerializationException {
         Objects.requireNonNull(value, "value");
 
+        if (value.size() >= options.parallelThreshold()) {
+            Object[] elements = value.toArray();
+            JsonElement[] jsonChildren = new JsonElement[elements.length];
+            FieldErrorNode errorNode = options.pool().invoke(new RangeTask(new ElementSerialization(elements, jsonChildren),
+                    0, elements.length, getChunkSize(elements.length)));
+            if (errorNode != null) {
+                throw new JsonSerializationException(errorNode);
+            }
+            return JsonArray.of(Arrays.asList(jsonChildren));
+        }
+
         List<JsonElement> jsonChildren = new ArrayList<>();
         FieldErrorNode errorNode = null;
         for (int i = 0; i < value.size(); i++) {
@@ -110,4 +199,129 @@ public final class ListConverter implements JsonSerializer<List<?>>, JsonDeseria
         return JsonArray.of(jsonChildren);
     }
 
+    private int getChunkSize(int size) {
+        return Math.max(MIN_CHUNK_SIZE, size / (options.pool().getParallelism() * 4));
+    }
+
+    /**
+     * Converts a range of elements and returns the errors for that range, or null if there were no errors. Errors
+     * for later elements come first, like for the sequential conversion, so that combining the results of two
+     * adjacent ranges gives the same error tree as converting both ranges at once.
+     */
+    private interface RangeConversion {
+        FieldErrorNode convertRange(int from, int to);
+    }
+
+    private static final class ElementDeserialization implements RangeConversion {
+
+        private final List<JsonElement> jsonChildren;
+        private final JsonDeserializer elementDeserializer;
+        private final Type elementType;
+        private final Object[] resultChildren;
+        private final int maxErrors;
+
+        // set when a range has reached the maximum number of errors, so the other ranges stop too
+        private volatile boolean stopped;
+
+        ElementDeserialization(List<JsonElement> jsonChildren, JsonDeserializer elementDeserializer, Type elementType,
+                               Object[] resultChildren, int maxErrors) {
+            this.jsonChildren = jsonChildren;
+            this.elementDeserializer = elementDeserializer;
+            this.elementType = elementType;
+            this.resultChildren = resultChildren;
+            this.maxErrors = maxErrors;
+        }
+
+        @Override
+        public FieldErrorNode convertRange(int from, int to) {
+            FieldErrorNode errorNode = null;
+            for (int i = from; i < to && !stopped; i++) {
+                try {
+                    resultChildren[i] = elementDeserializer.deserialize(jsonChildren.get(i), elementType);
+                } catch (JsonDeserializationException e) {
+                    errorNode = e.getFieldErrorNode().in(Integer.toString(i)).and(errorNode);
+                } catch (Exception e) {
+                    errorNode = FieldErrorNode.create(e).in(Integer.toString(i)).and(errorNode);
+                }
+                if (errorNode != null && errorNode.getErrorCount() >= maxErrors) {
+                    stopped = true;
+                }
+            }
+            return errorNode;
+        }
+
+    }
+
+    private final class ElementSerialization implements RangeConversion {
+
+        private final Object[] elements;
+        private final JsonElement[] jsonChildren;
+        private final FieldSelection selection;
+
+        ElementSerialization(Object[] elements, JsonElement[] jsonChildren) {
+            this.elements = elements;
+            this.jsonChildren = jsonChildren;
+            this.selection = FieldSelection.getCurrent();
+        }
+
+        @Override
+        public FieldErrorNode convertRange(int from, int to) {
+            // ranges may run in other threads, which need the selection of the thread that started the conversion
+            FieldSelection previousSelection = FieldSelection.setCurrent(selection);
+            try {
+                return convertRangeWithSelection(from, to);
+            } finally {
+                FieldSelection.setCurrent(previousSelection);
+            }
+        }
+
+        private FieldErrorNode convertRangeWithSelection(int from, int to) {
+            FieldErrorNode errorNode = null;
+            for (int i = from; i < to; i++) {
+                try {
+                    jsonChildren[i] = providers.serialize(elements[i]);
+                } catch (JsonSerializationException e) {
+                    errorNode = e.getFieldErrorNode().in(Integer.toString(i)).and(errorNode);
+                } catch (Exception e) {
+                    errorNode = FieldErrorNode.create(e).in(Integer.toString(i)).and(errorNode);
+                }
+            }
+            return errorNode;
+        }
+
+    }
+
+    private static final class RangeTask extends RecursiveTask<FieldErrorNode> {
+
+        private final RangeConversion conversion;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+
+        RangeTask(RangeConversion conversion, int from, int to, int chunkSize) {
+            this.conversion = conversion;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected FieldErrorNode compute() {
+            if (to - from <= chunkSize) {
+                return conversion.convertRange(from, to);
+            }
+            int middle = (from + to) >>> 1;
+            RangeTask left = new RangeTask(conversion, from, middle, chunkSize);
+            RangeTask right = new RangeTask(conversion, middle, to, chunkSize);
+            left.fork();
+            FieldErrorNode rightErrors = right.compute();
+            FieldErrorNode leftErrors = left.join();
+            if (rightErrors == null) {
+                return leftErrors;
+            }
+            return rightErrors.and(leftErrors);
+        }
+
+    }
+
 }
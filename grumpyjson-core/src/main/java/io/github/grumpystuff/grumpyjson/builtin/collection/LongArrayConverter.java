@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.builtin.collection;
+
+import io.github.grumpystuff.grumpyjson.JsonProviders;
+import io.github.grumpystuff.grumpyjson.JsonRegistries;
+import io.github.grumpystuff.grumpyjson.builtin.primitive.IntegralNumberDeserializationUtil;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
+import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
+import io.github.grumpystuff.grumpyjson.json_model.JsonNumber;
+
+/**
+ * This converter handles the array type long[] and the list type {@link LongList}, which map to and from JSON arrays of
+ * integral JSON numbers in the 64-bit signed integer range.
+ * <p>
+ * Unlike List&lt;Long&gt;, these types store the
+ * values without boxing them, which makes them much more compact for large arrays such as time series.
+ * <p>
+ * This converter is registered by default, and only needs to be manually registered if it gets removed, such as by
+ * calling {@link JsonRegistries#clear()}.
+ */
+public final class LongArrayConverter extends PrimitiveArrayConverter<long[]> {
+
+    /**
+     * Constructor.
+     *
+     * @param providers the JSON providers -- needed to get the maximum number of errors to report
+     */
+    public LongArrayConverter(JsonProviders providers) {
+        super(providers, long[].class, LongList.class);
+    }
+
+    @Override
+    long[] newArray(int length) {
+        return new long[length];
+    }
+
+    @Override
+    void deserializeElement(JsonElement json, long[] array, int index) throws JsonDeserializationException {
+        array[index] = IntegralNumberDeserializationUtil.deserialize(json.deserializerExpectsNumber());
+    }
+
+    @Override
+    JsonElement serializeElement(long[] array, int index) {
+        return JsonNumber.of(array[index]);
+    }
+
+    @Override
+    Object toList(long[] array) {
+        return new LongList(array);
+    }
+
+    @Override
+    long[] fromList(Object list) {
+        return ((LongList) list).getValuesWithoutCopying();
+    }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.builtin.collection;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * An immutable list of long values, backed by a long[] array. This uses much less memory than a
+ * List&lt;Long&gt; because the values are not boxed. It implements List&lt;Long&gt; for convenience, but
+ * {@link #getLong(int)} and {@link #toLongArray()} should be preferred since they do not box the values.
+ * <p>
+ * This type can be used for fields of records that get converted to and from JSON arrays, see
+ * {@link LongArrayConverter}.
+ */
+public final class LongList extends AbstractList<Long> implements RandomAccess {
+
+    private static final LongList EMPTY = new LongList(new long[0]);
+
+    private final long[] values;
+
+    // does not copy the array, so callers must make sure that it is not modified anymore
+    LongList(long[] values) {
+        this.values = values;
+    }
+
+    /**
+     * Creates a list that contains the specified values.
+     *
+     * @param values the values; the array is copied, so it can be modified afterward without affecting the list
+     * @return the list
+     */
+    public static LongList of(long... values) {
+        return values.length == 0 ? EMPTY : new LongList(values.clone());
+    }
+
+    /**
+     * Returns the value at the specified index without boxing it.
+     *
+     * @param index the index
+     * @return the value
+     */
+    public long getLong(int index) {
+        return values[index];
+    }
+
+    @Override
+    public Long get(int index) {
+        return values[index];
+    }
+
+    // does not copy the array, so callers must not modify it
+    long[] getValuesWithoutCopying() {
+        return values;
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * Returns the values of this list as a new array.
+     *
+     * @return the values
+     */
+    public long[] toLongArray() {
+        return values.clone();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (other instanceof LongList otherList) {
+            return Arrays.equals(values, otherList.values);
+        }
+        return super.equals(other);
+    }
+
+    @Override
+    public int hashCode() {
+        // must be consistent with List.hashCode() so this list can be compared with other lists
+        int hashCode = 1;
+        for (long value : values) {
+            hashCode = 31 * hashCode + Long.hashCode(value);
+        }
+        return hashCode;
+    }
+
+}
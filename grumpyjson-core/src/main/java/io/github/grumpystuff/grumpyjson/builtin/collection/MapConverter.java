@@ -9,6 +9,7 @@ package io.github.grumpystuff.grumpyjson.builtin.collection;
 import io.github.grumpystuff.grumpyjson.FieldErrorNode;
 import io.github.grumpystuff.grumpyjson.JsonProviders;
 import io.github.grumpystuff.grumpyjson.JsonRegistries;
+import io.github.grumpystuff.grumpyjson.builtin.primitive.StringConverter;
 import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
 import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializer;
 import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
@@ -20,13 +21,16 @@ import io.github.grumpystuff.grumpyjson.serialize.JsonSerializer;
 import io.github.grumpystuff.grumpyjson.util.TypeUtil;
 
 import java.lang.reflect.Type;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
 
 /**
  * This converter handles type Map&lt;...&gt; for deserialization, and the Map interface and its implementing
- * classes for serialization.
+ * classes for serialization. Maps with String or enum keys are deserialized by the more specialized
+ * {@link StringKeyMapConverter} and {@link EnumKeyMapConverter} instead.
  * <p>
  * This converter is registered by default, and only needs to be manually registered if it gets removed, such as by
  * calling {@link JsonRegistries#clear()}.
@@ -51,7 +55,7 @@ public final class MapConverter implements JsonSerializer<Map<?, ?>>, JsonDeseri
         return TypeUtil.isParameterizedType(type, Map.class, 2) != null;
     }
 
-    private static String buildFromJsonFieldName(boolean isAtKey, String key) {
+    static String buildFromJsonFieldName(boolean isAtKey, String key) {
         return (isAtKey ? "key[" : "value[") + key + "]";
     }
 
@@ -71,8 +75,9 @@ public final class MapConverter implements JsonSerializer<Map<?, ?>>, JsonDeseri
         } catch (NotRegisteredException e) {
             throw new JsonDeserializationException(e.getMessage());
         }
-        Map<Object, Object> result = new HashMap<>();
+        Map<Object, Object> result = new HashMap<>(jsonProperties.size() * 4 / 3 + 1);
         FieldErrorNode errorNode = null;
+        int maxErrors = providers.getMaxDeserializationErrors();
         for (Map.Entry<String, JsonElement> entry : jsonProperties.entrySet()) {
             String keyText = entry.getKey();
             boolean isAtKey = true;
@@ -86,11 +91,15 @@ public final class MapConverter implements JsonSerializer<Map<?, ?>>, JsonDeseri
             } catch (Exception e) {
                 errorNode = FieldErrorNode.create(e).in(buildFromJsonFieldName(isAtKey, keyText)).and(errorNode);
             }
+            if (errorNode != null && errorNode.getErrorCount() >= maxErrors) {
+                errorNode = errorNode.truncate();
+                break;
+            }
         }
         if (errorNode != null) {
             throw new JsonDeserializationException(errorNode);
         }
-        return Map.copyOf(result);
+        return Collections.unmodifiableMap(result);
     }
 
     @Override
@@ -104,8 +113,9 @@ public final class MapConverter implements JsonSerializer<Map<?, ?>>, JsonDeseri
     public JsonElement serialize(Map<?, ?> map) throws JsonSerializationException {
         Objects.requireNonNull(map, "value"); // called value in the interface
 
-        Map<String, JsonElement> jsonProperties = new HashMap<>();
+        Map<String, JsonElement> jsonProperties = new LinkedHashMap<>(map.size() * 4 / 3 + 1);
         FieldErrorNode errorNode = null;
+        boolean plainStringKeys = !map.isEmpty() && usesStringConverter();
         for (Map.Entry<?, ?> entry : map.entrySet()) {
 
             // handle key
@@ -113,9 +123,10 @@ public final class MapConverter implements JsonSerializer<Map<?, ?>>, JsonDeseri
             if (keyObject == null) {
                 throw new JsonSerializationException("map contains null key");
             }
+            // String keys are by far the most common ones, and are used as they are unless there is a custom serializer
             JsonElement keyJson;
             try {
-                keyJson = providers.serialize(keyObject);
+                keyJson = (keyObject instanceof String && plainStringKeys) ? null : providers.serialize(keyObject);
             } catch (JsonSerializationException e) {
                 errorNode = e.getFieldErrorNode().in("[" + keyObject + "]").and(errorNode);
                 continue;
@@ -124,7 +135,9 @@ public final class MapConverter implements JsonSerializer<Map<?, ?>>, JsonDeseri
                 continue;
             }
             String keyText;
-            if (keyJson instanceof JsonString s) {
+            if (keyJson == null) {
+                keyText = (String) keyObject;
+            } else if (keyJson instanceof JsonString s) {
                 keyText = s.getValue();
             } else {
                 errorNode = FieldErrorNode.create("map key does not serialize to a JSON string")
@@ -152,4 +165,13 @@ public final class MapConverter implements JsonSerializer<Map<?, ?>>, JsonDeseri
         }
         return JsonObject.of(jsonProperties);
     }
+
+    private boolean usesStringConverter() {
+        try {
+            return providers.getSerializer(String.class) instanceof StringConverter;
+        } catch (NotRegisteredException e) {
+            return false;
+        }
+    }
+
 }
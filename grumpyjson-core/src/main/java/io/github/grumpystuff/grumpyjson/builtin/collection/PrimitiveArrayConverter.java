@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.builtin.collection;
+
+import io.github.grumpystuff.grumpyjson.FieldErrorNode;
+import io.github.grumpystuff.grumpyjson.JsonProviders;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializer;
+import io.github.grumpystuff.grumpyjson.json_model.JsonArray;
+import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
+import io.github.grumpystuff.grumpyjson.serialize.JsonSerializationException;
+import io.github.grumpystuff.grumpyjson.serialize.JsonSerializer;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Common base class for the converters that handle an array type of primitive elements and the corresponding unboxed
+ * list type. Subclasses only convert single elements; iterating, collecting field errors with the element index as
+ * the field path, and limiting the number of reported errors happens here.
+ *
+ * @param <A> the array type
+ */
+abstract class PrimitiveArrayConverter<A> implements JsonSerializer<Object>, JsonDeserializer {
+
+    private final JsonProviders providers;
+    private final Class<A> arrayClass;
+    private final Class<?> listClass;
+
+    PrimitiveArrayConverter(JsonProviders providers, Class<A> arrayClass, Class<?> listClass) {
+        Objects.requireNonNull(providers, "providers");
+
+        this.providers = providers;
+        this.arrayClass = arrayClass;
+        this.listClass = listClass;
+    }
+
+    @Override
+    public final boolean supportsTypeForDeserialization(Type type) {
+        Objects.requireNonNull(type, "type");
+
+        return type.equals(arrayClass) || type.equals(listClass);
+    }
+
+    @Override
+    public final Object deserialize(JsonElement json, Type type) throws JsonDeserializationException {
+        Objects.requireNonNull(json, "json");
+        Objects.requireNonNull(type, "type");
+
+        List<JsonElement> jsonElements = json.deserializerExpectsArray();
+        A values = newArray(jsonElements.size());
+        FieldErrorNode errorNode = null;
+        int maxErrors = providers.getMaxDeserializationErrors();
+        for (int i = 0; i < jsonElements.size(); i++) {
+            try {
+                deserializeElement(jsonElements.get(i), values, i);
+            } catch (JsonDeserializationException e) {
+                errorNode = e.getFieldErrorNode().in(Integer.toString(i)).and(errorNode);
+            } catch (Exception e) {
+                errorNode = FieldErrorNode.create(e).in(Integer.toString(i)).and(errorNode);
+            }
+            if (errorNode != null && errorNode.getErrorCount() >= maxErrors) {
+                errorNode = errorNode.truncate();
+                break;
+            }
+        }
+        if (errorNode != null) {
+            throw new JsonDeserializationException(errorNode);
+        }
+        return type.equals(listClass) ? toList(values) : values;
+    }
+
+    @Override
+    public final boolean supportsClassForSerialization(Class<?> clazz) {
+        Objects.requireNonNull(clazz, "clazz");
+
+        return clazz.equals(arrayClass) || clazz.equals(listClass);
+    }
+
+    @Override
+    public final JsonElement serialize(Object value) throws JsonSerializationException {
+        Objects.requireNonNull(value, "value");
+
+        A values = value.getClass() == listClass ? fromList(value) : arrayClass.cast(value);
+        JsonElement[] jsonElements = new JsonElement[Array.getLength(values)];
+        FieldErrorNode errorNode = null;
+        for (int i = 0; i < jsonElements.length; i++) {
+            try {
+                jsonElements[i] = serializeElement(values, i);
+            } catch (JsonSerializationException e) {
+                errorNode = e.getFieldErrorNode().in(Integer.toString(i)).and(errorNode);
+            }
+        }
+        if (errorNode != null) {
+            throw new JsonSerializationException(errorNode);
+        }
+        return JsonArray.of(jsonElements);
+    }
+
+    abstract A newArray(int length);
+
+    abstract void deserializeElement(JsonElement json, A array, int index) throws JsonDeserializationException;
+
+    abstract JsonElement serializeElement(A array, int index) throws JsonSerializationException;
+
+    // does not copy the array
+    abstract Object toList(A array);
+
+    // does not copy the array
+    abstract A fromList(Object list);
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.builtin.collection;
+
+import io.github.grumpystuff.grumpyjson.FieldErrorNode;
+import io.github.grumpystuff.grumpyjson.JsonProviders;
+import io.github.grumpystuff.grumpyjson.JsonRegistries;
+import io.github.grumpystuff.grumpyjson.builtin.primitive.StringConverter;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializer;
+import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
+import io.github.grumpystuff.grumpyjson.json_model.JsonString;
+import io.github.grumpystuff.grumpyjson.registry.NotRegisteredException;
+import io.github.grumpystuff.grumpyjson.util.TypeUtil;
+
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * This converter handles type Map&lt;String, ...&gt; for deserialization. It produces the same results as
+ * {@link MapConverter}, but uses the JSON property names as keys directly instead of passing each of them through
+ * the key deserializer, and builds the result map without copying it. If a custom deserializer is registered for
+ * type String, it is used for the keys, like {@link MapConverter} would.
+ * <p>
+ * Serialization is handled by {@link MapConverter} for all maps.
+ * <p>
+ * This converter is registered by default, and only needs to be manually registered if it gets removed, such as by
+ * calling {@link JsonRegistries#clear()}.
+ */
+public final class StringKeyMapConverter implements JsonDeserializer {
+
+    private final JsonProviders providers;
+
+    /**
+     * Constructor.
+     *
+     * @param providers the JSON providers -- needed to fetch the converter for the value type at run-time
+     */
+    public StringKeyMapConverter(JsonProviders providers) {
+        Objects.requireNonNull(providers, "providers");
+
+        this.providers = providers;
+    }
+
+    @Override
+    public boolean supportsTypeForDeserialization(Type type) {
+        Objects.requireNonNull(type, "type");
+
+        Type[] keyAndValueTypes = TypeUtil.isParameterizedType(type, Map.class, 2);
+        return keyAndValueTypes != null && keyAndValueTypes[0] == String.class;
+    }
+
+    @Override
+    public Map<String, ?> deserialize(JsonElement json, Type type) throws JsonDeserializationException {
+        Objects.requireNonNull(json, "json");
+        Objects.requireNonNull(type, "type");
+
+        Map<String, JsonElement> jsonProperties = json.deserializerExpectsObject();
+        Type valueType = TypeUtil.expectParameterizedType(type, Map.class, 2)[1];
+        JsonDeserializer keyDeserializer, valueDeserializer;
+        try {
+            keyDeserializer = providers.getDeserializer(String.class);
+            valueDeserializer = providers.getDeserializer(valueType);
+        } catch (NotRegisteredException e) {
+            throw new JsonDeserializationException(e.getMessage());
+        }
+        boolean customKeys = !(keyDeserializer instanceof StringConverter);
+        Map<String, Object> result = new HashMap<>(jsonProperties.size() * 4 / 3 + 1);
+        FieldErrorNode errorNode = null;
+        int maxErrors = providers.getMaxDeserializationErrors();
+        for (Map.Entry<String, JsonElement> entry : jsonProperties.entrySet()) {
+            String keyText = entry.getKey();
+            boolean isAtKey = true;
+            try {
+                String key = customKeys ? (String) keyDeserializer.deserialize(JsonString.of(keyText), String.class) : keyText;
+                isAtKey = false;
+                result.put(key, valueDeserializer.deserialize(entry.getValue(), valueType));
+            } catch (JsonDeserializationException e) {
+                errorNode = e.getFieldErrorNode().in(MapConverter.buildFromJsonFieldName(isAtKey, keyText)).and(errorNode);
+            } catch (Exception e) {
+                errorNode = FieldErrorNode.create(e).in(MapConverter.buildFromJsonFieldName(isAtKey, keyText)).and(errorNode);
+            }
+            if (errorNode != null && errorNode.getErrorCount() >= maxErrors) {
+                errorNode = errorNode.truncate();
+                break;
+            }
+        }
+        if (errorNode != null) {
+            throw new JsonDeserializationException(errorNode);
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+}
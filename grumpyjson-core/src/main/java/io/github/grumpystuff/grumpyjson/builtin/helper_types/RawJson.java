@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.builtin.helper_types;
+
+import java.util.Objects;
+
+/**
+ * This can be used for a property whose value should be kept as JSON text instead of being converted to Java objects,
+ * such as a client-supplied document that gets stored and later returned unchanged.
+ * <p>
+ * When deserializing, any JSON value is accepted and kept as normalized JSON text, not as the exact text that was
+ * received: formatting whitespace is removed, strings are written with the minimal escaping, and numbers are written
+ * in the form the JSON library has parsed them, which keeps their original text for some libraries but not for
+ * others. The value is semantically the same, so this matters only if the exact bytes are significant, such as for
+ * signatures computed over the source text. When serializing, the text is written verbatim into the output, without
+ * building a JSON tree for it.
+ * <p>
+ * The text is not validated when an instance is created with {@link #of(String)}, because the main use case is to
+ * return text that has been validated when it was received. Creating an instance from text that is not valid JSON
+ * results in invalid JSON output.
+ */
+public final class RawJson {
+
+    private final String json;
+
+    private RawJson(String json) {
+        this.json = json;
+    }
+
+    /**
+     * Creates an instance for the specified JSON text.
+     *
+     * @param json the JSON text, which must be valid JSON
+     * @return the new instance
+     */
+    public static RawJson of(String json) {
+        return new RawJson(Objects.requireNonNull(json, "json"));
+    }
+
+    /**
+     * Getter method for the JSON text.
+     *
+     * @return the JSON text
+     */
+    public String getJson() {
+        return json;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        RawJson that = (RawJson) o;
+        return json.equals(that.json);
+    }
+
+    @Override
+    public int hashCode() {
+        return json.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "RawJson{json=" + json + '}';
+    }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.builtin.helper_types;
+
+import io.github.grumpystuff.grumpyjson.JsonEngine;
+import io.github.grumpystuff.grumpyjson.JsonRegistries;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializer;
+import io.github.grumpystuff.grumpyjson.json_model.JsonArray;
+import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
+import io.github.grumpystuff.grumpyjson.json_model.JsonObject;
+import io.github.grumpystuff.grumpyjson.json_model.JsonRawText;
+import io.github.grumpystuff.grumpyjson.serialize.JsonSerializationException;
+import io.github.grumpystuff.grumpyjson.serialize.JsonSerializer;
+import io.github.grumpystuff.grumpyjson.util.CompactJsonUtil;
+
+import java.lang.reflect.Type;
+import java.util.Objects;
+
+/**
+ * The converter for {@link RawJson}.
+ * <p>
+ * Serialization produces a {@link JsonRawText} which the JSON engine writes verbatim. Deserialization writes the
+ * parsed value back as compact JSON text, so the result is normalized JSON, not the exact source text (see
+ * {@link RawJson}). An array or object that was mapped from the tree of the underlying JSON library gets written
+ * by that library from its own node (see {@link JsonObject#getOrigin()}), so the lazily mapped grumpyjson tree is not
+ * built just to be written again. This does not depend on a specific JSON engine, so the same converter works for all
+ * engines that share it, including engines for other formats that read JSON values from e.g. CBOR.
+ * <p>
+ * This converter is registered by default in each {@link JsonEngine}, and only needs to be manually registered if it
+ * gets removed, such as by calling {@link JsonRegistries#clear()}.
+ */
+public final class RawJsonConverter implements JsonSerializer<RawJson>, JsonDeserializer {
+
+    /**
+     * Constructor.
+     */
+    public RawJsonConverter() {
+    }
+
+    @Override
+    public boolean supportsTypeForDeserialization(Type type) {
+        Objects.requireNonNull(type, "type");
+
+        return type.equals(RawJson.class);
+    }
+
+    @Override
+    public RawJson deserialize(JsonElement json, Type type) throws JsonDeserializationException {
+        Objects.requireNonNull(json, "json");
+        Objects.requireNonNull(type, "type");
+
+        if (json instanceof JsonRawText rawText) {
+            return RawJson.of(rawText.getText());
+        }
+        Object origin = null;
+        if (json instanceof JsonArray array) {
+            origin = array.getOrigin();
+        } else if (json instanceof JsonObject object) {
+            origin = object.getOrigin();
+        }
+        if (origin != null) {
+            return RawJson.of(origin.toString());
+        }
+        try {
+            return RawJson.of(CompactJsonUtil.toText(json));
+        } catch (JsonSerializationException e) {
+            throw new JsonDeserializationException(e);
+        }
+    }
+
+    @Override
+    public boolean supportsClassForSerialization(Class<?> clazz) {
+        Objects.requireNonNull(clazz, "clazz");
+
+        return clazz.equals(RawJson.class);
+    }
+
+    @Override
+    public JsonElement serialize(RawJson value) throws JsonSerializationException {
+        Objects.requireNonNull(value, "value");
+
+        return JsonRawText.of(value.getJson());
+    }
+
+}
@@ -28,7 +28,7 @@ The problem does not occur for non-integral target types. For those, a loss of p
 even desired. For example, users would be confused if the number 0.1 in JSON was rejected for target type double
 because that value cannot be represented exactly. Also, all of Java's non-integral types are unbounded.
  */
-final class IntegralNumberDeserializationUtil {
+public final class IntegralNumberDeserializationUtil {
 
     // prevent instantiation
     private IntegralNumberDeserializationUtil() {
@@ -38,7 +38,14 @@ final class IntegralNumberDeserializationUtil {
     // integral
     // ----------------------------------------------------------------------------------------------------------------
 
-    static long deserialize(Number number) throws JsonDeserializationException {
+    /**
+     * NOT PUBLIC API
+     *
+     * @param number ...
+     * @return ...
+     * @throws JsonDeserializationException ...
+     */
+    public static long deserialize(Number number) throws JsonDeserializationException {
         Objects.requireNonNull(number, "number");
 
         if (number instanceof Long l) {
@@ -84,7 +91,14 @@ final class IntegralNumberDeserializationUtil {
         return converted;
     }
 
-    static void verifyBounds(long original, long converted) throws JsonDeserializationException {
+    /**
+     * NOT PUBLIC API
+     *
+     * @param original ...
+     * @param converted ...
+     * @throws JsonDeserializationException ...
+     */
+    public static void verifyBounds(long original, long converted) throws JsonDeserializationException {
         if (converted != original) {
             throw new JsonDeserializationException("value out of bounds: " + original);
         }
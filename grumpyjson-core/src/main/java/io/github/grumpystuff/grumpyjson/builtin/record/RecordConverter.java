@@ -13,6 +13,7 @@ import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException
 import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializer;
 import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
 import io.github.grumpystuff.grumpyjson.json_model.JsonObject;
+import io.github.grumpystuff.grumpyjson.serialize.FieldSelection;
 import io.github.grumpystuff.grumpyjson.serialize.JsonSerializationException;
 import io.github.grumpystuff.grumpyjson.serialize.JsonSerializer;
 
@@ -20,6 +21,8 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Maps a record class to and from a JSON object.
@@ -27,9 +30,11 @@ import java.util.*;
  * A RecordConverter is built for the raw type (class) of a record, so a single instance handles all
  * parameterized types for that raw type.
  * <p>
- * Serialization is based on the run-time classes of all values and so is straightforward.
+ * Serialization is based on the run-time classes of all values and so is straightforward. If a
+ * {@link FieldSelection} is installed for the current thread, only the selected components are serialized, and the
+ * nested selection for each component is installed while serializing its value.
  * <p>
- * For deserialization, at run time (potential optimization: at selection time) the deserializer is used for a concrete
+ * For deserialization, at run time the deserializer is used for a concrete
  * parameterized type. This type must be concrete in the sense that it cannot contain type variables anymore (nor
  * wildcards -- we do not support those anyway). If the field that uses the record type *did* use type variables, then
  * these must have been replaced by concrete types before passing on to this deserializer. So at this point the record
@@ -45,6 +50,7 @@ import java.util.*;
  * parameters by name, then the type argument at the same index is bound to the variable.
  * <p>
  * Finally, the fields get deserialized from the JSON fields using the deserializers for the resulting concrete types.
+ * The concrete field types and their deserializers are determined once per concrete record type and then cached.
  *
  * @param <T> the record type
  */
@@ -61,6 +67,12 @@ public final class RecordConverter<T> implements JsonSerializer<T>, JsonDeserial
     private final RecordInfo recordInfo;
     private final JsonProviders providers;
     private final Options options;
+    private final ConcurrentMap<Type, Binding> bindings = new ConcurrentHashMap<>();
+
+    // the concrete component types for one concrete record type, and the deserializers for them -- or, for components
+    // whose type is not supported, the exception to report for them
+    private record Binding(Type[] componentTypes, JsonDeserializer[] deserializers, Exception[] errors) {
+    }
 
     /**
      * Application code usually does not have to call this constructor because instances of this class will be
@@ -114,6 +126,8 @@ public final class RecordConverter<T> implements JsonSerializer<T>, JsonDeserial
         int numberOfPresentKnownProperties = 0;
         Object[] fieldValues = new Object[componentInfos.size()];
         FieldErrorNode errorNode = null;
+        int maxErrors = providers.getMaxDeserializationErrors();
+        Binding binding = getBinding(recordType, componentInfos);
 
         for (int i = 0; i < componentInfos.size(); i++) {
             RecordInfo.ComponentInfo componentInfo = componentInfos.get(i);
@@ -123,8 +137,11 @@ public final class RecordConverter<T> implements JsonSerializer<T>, JsonDeserial
                 numberOfPresentKnownProperties++;
             }
             try {
-                Type concreteFieldType = componentInfo.getConcreteType(recordType);
-                JsonDeserializer deserializer = providers.getDeserializer(concreteFieldType);
+                if (binding.errors[i] != null) {
+                    throw binding.errors[i];
+                }
+                Type concreteFieldType = binding.componentTypes[i];
+                JsonDeserializer deserializer = binding.deserializers[i];
                 if (propertyJson == null) {
                     fieldValues[i] = deserializer.deserializeAbsent(concreteFieldType);
                 } else {
@@ -135,11 +152,16 @@ public final class RecordConverter<T> implements JsonSerializer<T>, JsonDeserial
             } catch (Exception e) {
                 errorNode = FieldErrorNode.create(e).in(name).and(errorNode);
             }
+            if (errorNode != null && errorNode.getErrorCount() >= maxErrors) {
+                errorNode = errorNode.truncate();
+                break;
+            }
         }
 
         // jsonObject.size() counts the present properties; numberOfPresentKnownProperties counts the present
         // *known* properties. So they differ iff there is at least one present unknown property.
-        if (!options.ignoreUnknownProperties() && numberOfPresentKnownProperties != jsonProperties.size()) {
+        boolean truncated = errorNode != null && errorNode.isTruncated();
+        if (!truncated && !options.ignoreUnknownProperties() && numberOfPresentKnownProperties != jsonProperties.size()) {
             // this is more expensive, so only do this if there is really an error
             Set<String> propertyNames = new HashSet<>(jsonProperties.keySet());
             for (RecordInfo.ComponentInfo componentInfo : componentInfos) {
@@ -147,6 +169,10 @@ public final class RecordConverter<T> implements JsonSerializer<T>, JsonDeserial
             }
             for (String unexpectedProperty : propertyNames) {
                 errorNode = FieldErrorNode.create(ExceptionMessages.UNEXPECTED_PROPERTY).in(unexpectedProperty).and(errorNode);
+                if (errorNode.getErrorCount() >= maxErrors) {
+                    errorNode = errorNode.truncate();
+                    break;
+                }
             }
         }
 
@@ -167,6 +193,32 @@ public final class RecordConverter<T> implements JsonSerializer<T>, JsonDeserial
         }
     }
 
+    /**
+     * Returns the binding for the specified record type, creating it on first use. Components whose type is not
+     * supported get the exception in the binding instead, so they are reported as field errors without looking them
+     * up again for every record.
+     */
+    private Binding getBinding(Type recordType, List<RecordInfo.ComponentInfo> componentInfos) {
+        Binding binding = bindings.get(recordType);
+        if (binding != null) {
+            return binding;
+        }
+        Type[] componentTypes = new Type[componentInfos.size()];
+        JsonDeserializer[] deserializers = new JsonDeserializer[componentInfos.size()];
+        Exception[] errors = new Exception[componentInfos.size()];
+        for (int i = 0; i < componentInfos.size(); i++) {
+            try {
+                componentTypes[i] = componentInfos.get(i).getConcreteType(recordType);
+                deserializers[i] = providers.getDeserializer(componentTypes[i]);
+            } catch (Exception e) {
+                errors[i] = e;
+            }
+        }
+        binding = new Binding(componentTypes, deserializers, errors);
+        Binding existing = bindings.putIfAbsent(recordType, binding);
+        return existing == null ? binding : existing;
+    }
+
     @Override
     public boolean supportsClassForSerialization(Class<?> clazz) {
         Objects.requireNonNull(clazz, "clazz");
@@ -178,16 +230,34 @@ public final class RecordConverter<T> implements JsonSerializer<T>, JsonDeserial
     public JsonElement serialize(T record) {
         Objects.requireNonNull(record, "value"); // called value in the interface
 
-        Map<String, JsonElement> jsonProperties = new HashMap<>();
+        Map<String, JsonElement> jsonProperties = new LinkedHashMap<>();
         FieldErrorNode errorNode = null;
+        FieldSelection selection = FieldSelection.getCurrent();
         for (RecordInfo.ComponentInfo componentInfo : recordInfo.getComponentInfos()) {
             String name = componentInfo.getName();
+            FieldSelection componentSelection = null;
+            if (selection != null) {
+                componentSelection = selection.getFieldSelection(name);
+                if (componentSelection == null) {
+                    continue;
+                }
+            }
             try {
                 Object value = componentInfo.invokeGetter(record);
                 if (value == null) {
                     throw new JsonSerializationException("field is null");
                 }
-                Optional<JsonElement> optionalJson = providers.serializeOptional(value);
+                Optional<JsonElement> optionalJson;
+                if (selection == null) {
+                    optionalJson = providers.serializeOptional(value);
+                } else {
+                    FieldSelection.setCurrent(componentSelection);
+                    try {
+                        optionalJson = providers.serializeOptional(value);
+                    } finally {
+                        FieldSelection.setCurrent(selection);
+                    }
+                }
                 optionalJson.ifPresent(jsonElement -> jsonProperties.put(name, jsonElement));
             } catch (JsonSerializationException e) {
                 errorNode = e.getFieldErrorNode().in(name).and(errorNode);
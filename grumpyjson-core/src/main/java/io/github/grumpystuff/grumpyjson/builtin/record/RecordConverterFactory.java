@@ -8,6 +8,7 @@ package io.github.grumpystuff.grumpyjson.builtin.record;
 
 import io.github.grumpystuff.grumpyjson.JsonProviders;
 import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializer;
+import io.github.grumpystuff.grumpyjson.jfr.ConverterGenerationEvent;
 import io.github.grumpystuff.grumpyjson.serialize.JsonSerializer;
 
 import java.util.Objects;
@@ -79,7 +80,25 @@ public final class RecordConverterFactory {
     public RecordConverter<?> getConverter(Class<?> clazz) {
         Objects.requireNonNull(clazz, "clazz");
 
-        return map.computeIfAbsent(clazz, ignored -> new RecordConverter<>(clazz, providers));
+        RecordConverter<?> converter = map.get(clazz);
+        if (converter == null) {
+            converter = map.computeIfAbsent(clazz, this::generateConverter);
+        }
+        return converter;
+    }
+
+    private RecordConverter<?> generateConverter(Class<?> clazz) {
+        ConverterGenerationEvent event = new ConverterGenerationEvent();
+        event.begin();
+        RecordConverter<?> converter = new RecordConverter<>(clazz, providers);
+        event.end();
+        if (event.shouldCommit()) {
+            event.registry = RecordConverterFactory.class.getName();
+            event.key = clazz.getName();
+            event.result = RecordConverter.class.getName();
+            event.commit();
+        }
+        return converter;
     }
 
 }
@@ -7,6 +7,7 @@
 package io.github.grumpystuff.grumpyjson.builtin.record;
 
 import io.github.grumpystuff.grumpyjson.serialize.JsonSerializationException;
+import io.github.grumpystuff.grumpyjson.util.TypeInterner;
 import io.github.grumpystuff.grumpyjson.util.TypeUtil;
 
 import java.lang.reflect.*;
@@ -14,6 +15,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * NOT PUBLIC API
@@ -92,6 +95,11 @@ public final class RecordInfo {
     public class ComponentInfo {
 
         private final RecordComponent component;
+        private final Type genericType;
+
+        // Generic records would otherwise build the concrete component types again for each deserialized value. The
+        // record types used as keys are usually canonical (see TypeInterner), so looking them up is cheap.
+        private final ConcurrentMap<Type, Type> concreteTypes = new ConcurrentHashMap<>();
 
         /**
          * ...
@@ -102,6 +110,7 @@ public final class RecordInfo {
             Objects.requireNonNull(component, "component");
 
             this.component = component;
+            this.genericType = TypeInterner.intern(component.getGenericType());
             component.getAccessor().setAccessible(true);
         }
 
@@ -120,7 +129,7 @@ public final class RecordInfo {
          * @return ...
          */
         public Type getType() {
-            return component.getGenericType();
+            return genericType;
         }
 
         /**
@@ -159,8 +168,17 @@ public final class RecordInfo {
             Objects.requireNonNull(concreteRecordType, "concreteRecordType");
 
             if (concreteRecordType instanceof Class<?>) {
-                return component.getGenericType();
-            } else if (concreteRecordType instanceof ParameterizedType parameterizedRecordType) {
+                return genericType;
+            }
+            Type result = concreteTypes.get(concreteRecordType);
+            if (result == null) {
+                result = concreteTypes.computeIfAbsent(concreteRecordType, this::computeConcreteType);
+            }
+            return result;
+        }
+
+        private Type computeConcreteType(Type concreteRecordType) {
+            if (concreteRecordType instanceof ParameterizedType parameterizedRecordType) {
                 TypeVariable<?>[] recordTypeParameters = recordClass.getTypeParameters();
                 Type[] recordTypeArguments = parameterizedRecordType.getActualTypeArguments();
                 if (recordTypeParameters.length != recordTypeArguments.length) {
@@ -170,7 +188,7 @@ public final class RecordInfo {
                 for (int i = 0; i < recordTypeParameters.length; i++) {
                     typeArguments.put(recordTypeParameters[i].getName(), recordTypeArguments[i]);
                 }
-                return TypeUtil.replaceTypeVariables(component.getGenericType(), typeArguments);
+                return TypeInterner.intern(TypeUtil.replaceTypeVariables(genericType, typeArguments));
             } else {
                 throw new RuntimeException("cannot find concrete component type for record type " + concreteRecordType);
             }
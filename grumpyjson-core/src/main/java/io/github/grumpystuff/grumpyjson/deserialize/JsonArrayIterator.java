@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.deserialize;
+
+import io.github.grumpystuff.grumpyjson.StructuralJsonEngine;
+import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Deserializes the elements of a top-level JSON array one at a time, see
+ * {@link io.github.grumpystuff.grumpyjson.JsonEngine#deserializeElements(java.io.InputStream, Type)}. Each element
+ * is read from the source and converted to the element type only when it is requested, so arrays of any size can be
+ * processed in constant memory, and the consumer controls how fast the source is read.
+ * <p>
+ * Since {@link Iterator} methods cannot throw checked exceptions, errors are thrown as
+ * {@link UncheckedJsonDeserializationException}. Errors for an element have the element index as the first segment
+ * of their field path, like errors from deserializing a whole list. If an element cannot be converted to the element
+ * type, iteration can continue with the next element; after a syntax error, it cannot.
+ * <p>
+ * The iterator must be closed when no longer needed, which closes the source. {@link #stream()} returns a stream
+ * that closes this iterator when the stream is closed.
+ * <p>
+ * JSON engines implement this class for their JSON library; application code only uses it.
+ *
+ * @param <T> the element type
+ */
+public abstract class JsonArrayIterator<T> implements Iterator<T>, Closeable {
+
+    private final StructuralJsonEngine engine;
+    private final Type elementType;
+    private int index = 0;
+    private JsonElement nextElement;
+    private boolean finished = false;
+
+    /**
+     * Constructor.
+     *
+     * @param engine the engine used to convert elements
+     * @param elementType the type to convert elements to
+     */
+    protected JsonArrayIterator(StructuralJsonEngine engine, Type elementType) {
+        Objects.requireNonNull(engine, "engine");
+        Objects.requireNonNull(elementType, "elementType");
+
+        this.engine = engine;
+        this.elementType = elementType;
+    }
+
+    /**
+     * Reads the next element of the array from the source.
+     *
+     * @return the element, or null if the end of the array has been reached
+     * @throws JsonDeserializationException on syntax errors
+     */
+    protected abstract JsonElement readNextElement() throws JsonDeserializationException;
+
+    /**
+     * Called after the end of the array has been reached, to check that the source contains nothing else.
+     *
+     * @throws JsonDeserializationException if there is more content after the end of the array
+     */
+    protected abstract void readEnd() throws JsonDeserializationException;
+
+    /**
+     * Closes the source.
+     *
+     * @throws IOException on I/O errors
+     */
+    protected abstract void closeSource() throws IOException;
+
+    /**
+     * Returns the index of the element that the next call to {@link #next()} returns, which is also the number of
+     * elements returned so far.
+     *
+     * @return the index
+     */
+    public final int getIndex() {
+        return index;
+    }
+
+    @Override
+    public final boolean hasNext() {
+        if (nextElement == null && !finished) {
+            try {
+                nextElement = readNextElement();
+            } catch (JsonDeserializationException e) {
+                finished = true;
+                throw new UncheckedJsonDeserializationException(
+                        new JsonDeserializationException(e.getFieldErrorNode().in(Integer.toString(index))));
+            }
+            if (nextElement == null) {
+                finished = true;
+                try {
+                    readEnd();
+                } catch (JsonDeserializationException e) {
+                    throw new UncheckedJsonDeserializationException(e);
+                }
+            }
+        }
+        return nextElement != null;
+    }
+
+    @Override
+    public final T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        JsonElement element = nextElement;
+        nextElement = null;
+        int elementIndex = index;
+        index++;
+        try {
+            //noinspection unchecked
+            return (T) engine.deserialize(element, elementType);
+        } catch (JsonDeserializationException e) {
+            throw new UncheckedJsonDeserializationException(
+                    new JsonDeserializationException(e.getFieldErrorNode().in(Integer.toString(elementIndex))));
+        }
+    }
+
+    /**
+     * Returns a sequential stream of the remaining elements. Closing the stream closes this iterator.
+     *
+     * @return the stream
+     */
+    public final Stream<T> stream() {
+        Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(this::close);
+    }
+
+    /**
+     * Closes this iterator and its source.
+     *
+     * @throws UncheckedIOException on I/O errors
+     */
+    @Override
+    public final void close() {
+        finished = true;
+        nextElement = null;
+        try {
+            closeSource();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
@@ -18,6 +18,11 @@ import java.util.Objects;
 
 /**
  * This exception type gets thrown when the incoming JSON does not match the expected structure.
+ * <p>
+ * This exception does not record a stack trace. It describes a problem with the input, not with the code, and gets
+ * created and re-thrown at every nesting level of a structured value, so capturing the stack each time would be a
+ * significant cost for malformed input while being of no use. If the error was caused by an internal exception,
+ * that exception is available as the cause, with its own stack trace.
  */
 public class JsonDeserializationException extends Exception {
 
@@ -65,11 +70,17 @@ public class JsonDeserializationException extends Exception {
      * @param fieldErrorNode the node that contains one or more actual errors
      */
     public JsonDeserializationException(FieldErrorNode fieldErrorNode) {
-        super("exception during JSON deserialization");
-        this.fieldErrorNode = Objects.requireNonNull(fieldErrorNode, "fieldErrorNode");
+        super("exception during JSON deserialization", getCause(fieldErrorNode), true, false);
+        this.fieldErrorNode = fieldErrorNode;
+    }
+
+    private static Throwable getCause(FieldErrorNode fieldErrorNode) {
+        Objects.requireNonNull(fieldErrorNode, "fieldErrorNode");
+
         if (fieldErrorNode instanceof FieldErrorNode.InternalException exceptionNode) {
-            initCause(exceptionNode.getException());
+            return exceptionNode.getException();
         }
+        return null;
     }
 
     /**
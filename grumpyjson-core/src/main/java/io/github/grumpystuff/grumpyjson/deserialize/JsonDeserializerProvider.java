@@ -12,6 +12,26 @@ import java.util.Objects;
  */
 public interface JsonDeserializerProvider {
 
+    /**
+     * The default for {@link #getMaxDeserializationErrors()}.
+     */
+    int DEFAULT_MAX_DESERIALIZATION_ERRORS = 100;
+
+    /**
+     * Returns the number of errors after which deserializers for structured types (lists, maps, records) stop looking
+     * at further elements and report the errors found so far, marked as truncated (see
+     * {@link io.github.grumpystuff.grumpyjson.FieldErrorNode#truncate()}). This bounds the work spent on malicious
+     * or badly broken input, such as a huge array in which every element is invalid.
+     * <p>
+     * The limit is checked by each structured type against the errors collected so far, including those from nested
+     * values, so the total number of errors reported stays in the order of this limit.
+     *
+     * @return the maximum number of errors
+     */
+    default int getMaxDeserializationErrors() {
+        return DEFAULT_MAX_DESERIALIZATION_ERRORS;
+    }
+
     /**
      * Checks whether the specified type is supported for deserialization by any deserializer that is known to this
      * provider. Since this provider usually abstracts a {@link JsonDeserializerRegistry}, this includes deserializers
@@ -11,6 +11,7 @@ import io.github.grumpystuff.grumpyjson.builtin.primitive.EnumConverter;
 import io.github.grumpystuff.grumpyjson.builtin.record.RecordConverterFactory;
 import io.github.grumpystuff.grumpyjson.registry.NotRegisteredException;
 import io.github.grumpystuff.grumpyjson.registry.Registry;
+import io.github.grumpystuff.grumpyjson.util.TypeInterner;
 
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
@@ -22,6 +23,7 @@ import java.util.Objects;
 public final class JsonDeserializerRegistry extends Registry<Type, JsonDeserializer> implements JsonDeserializerProvider {
 
     private final RecordConverterFactory recordConverterFactory;
+    private int maxDeserializationErrors = DEFAULT_MAX_DESERIALIZATION_ERRORS;
 
     /**
      * NOT PUBLIC API
@@ -34,6 +36,31 @@ public final class JsonDeserializerRegistry extends Registry<Type, JsonDeseriali
         this.recordConverterFactory = recordConverterFactory;
     }
 
+    /**
+     * Sets the number of errors after which deserialization stops collecting further errors, see
+     * {@link #getMaxDeserializationErrors()}. The default is {@link #DEFAULT_MAX_DESERIALIZATION_ERRORS}. This method
+     * can only be called in the configuration phase.
+     *
+     * @param maxDeserializationErrors the maximum number of errors; must be positive
+     */
+    public void setMaxDeserializationErrors(int maxDeserializationErrors) {
+        ensureConfigurationPhase();
+        if (maxDeserializationErrors < 1) {
+            throw new IllegalArgumentException("maxDeserializationErrors must be positive");
+        }
+        this.maxDeserializationErrors = maxDeserializationErrors;
+    }
+
+    @Override
+    public int getMaxDeserializationErrors() {
+        return maxDeserializationErrors;
+    }
+
+    @Override
+    protected Type canonicalizeKey(Type key) {
+        return TypeInterner.intern(key);
+    }
+
     @Override
     protected boolean registrableSupports(JsonDeserializer registrable, Type key) {
         Objects.requireNonNull(registrable, "registrable");
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.deserialize;
+
+import java.util.Objects;
+
+/**
+ * Wraps a {@link JsonDeserializationException} where checked exceptions cannot be thrown, such as in a
+ * {@link JsonArrayIterator}.
+ */
+public class UncheckedJsonDeserializationException extends RuntimeException {
+
+    /**
+     * Constructor.
+     *
+     * @param cause the wrapped exception
+     */
+    public UncheckedJsonDeserializationException(JsonDeserializationException cause) {
+        super(Objects.requireNonNull(cause, "cause").getMessage(), cause);
+    }
+
+    /**
+     * Returns the wrapped exception.
+     *
+     * @return the wrapped exception
+     */
+    @Override
+    public JsonDeserializationException getCause() {
+        return (JsonDeserializationException) super.getCause();
+    }
+
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * NOT PUBLIC API
+ * <p>
+ * Java Flight Recorder event for looking up or generating a registrable for a key that was not requested from a
+ * registry before, or for generating a record converter. These events only happen the first time a key is used, so
+ * many of them after startup indicate that keys are not being cached, e.g. because generic types are constructed
+ * on the fly. The event name is stable and can be used to configure recordings.
+ */
+@Name("grumpyjson.ConverterGeneration")
+@Label("Converter Generation")
+@Category("grumpyjson")
+@Description("Looking up or generating a converter for a key that was not used before")
+public final class ConverterGenerationEvent extends Event {
+
+    /**
+     * NOT PUBLIC API
+     */
+    @Label("Registry")
+    @Description("The class of the registry or factory")
+    public String registry;
+
+    /**
+     * NOT PUBLIC API
+     */
+    @Label("Key")
+    @Description("The key, usually a type, for which a converter was requested")
+    public String key;
+
+    /**
+     * NOT PUBLIC API
+     */
+    @Label("Result")
+    @Description("The class of the converter found or generated, or null if none")
+    public String result;
+
+    /**
+     * NOT PUBLIC API
+     */
+    public ConverterGenerationEvent() {
+    }
+
+}
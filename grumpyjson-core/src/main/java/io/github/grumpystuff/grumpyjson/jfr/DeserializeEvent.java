@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * NOT PUBLIC API
+ * <p>
+ * Java Flight Recorder event for deserializing JSON from text with a {@link io.github.grumpystuff.grumpyjson.JsonEngine}.
+ * The event name is stable and can be used to configure recordings.
+ */
+@Name("grumpyjson.Deserialize")
+@Label("JSON Deserialize")
+@Category("grumpyjson")
+@Description("Parsing JSON text and converting it to a Java value")
+@StackTrace(false)
+public final class DeserializeEvent extends Event {
+
+    /**
+     * NOT PUBLIC API
+     */
+    @Label("Type")
+    @Description("The type to deserialize to")
+    public String type;
+
+    /**
+     * NOT PUBLIC API
+     */
+    @Label("Bytes")
+    @Description("The length of the input read, in bytes (UTF-8 for JSON text)")
+    @DataAmount
+    public long bytes;
+
+    /**
+     * NOT PUBLIC API
+     */
+    public DeserializeEvent() {
+    }
+
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * NOT PUBLIC API
+ * <p>
+ * Java Flight Recorder event for serializing a Java value to JSON text with a
+ * {@link io.github.grumpystuff.grumpyjson.JsonEngine}. The event name is stable and can be used to configure
+ * recordings.
+ */
+@Name("grumpyjson.Serialize")
+@Label("JSON Serialize")
+@Category("grumpyjson")
+@Description("Converting a Java value to JSON and writing it as text")
+@StackTrace(false)
+public final class SerializeEvent extends Event {
+
+    /**
+     * NOT PUBLIC API
+     */
+    @Label("Type")
+    @Description("The class of the serialized value")
+    public String type;
+
+    /**
+     * NOT PUBLIC API
+     */
+    @Label("Bytes")
+    @Description("The length of the output written, in bytes (UTF-8 for JSON text)")
+    @DataAmount
+    public long bytes;
+
+    /**
+     * NOT PUBLIC API
+     */
+    public SerializeEvent() {
+    }
+
+}
@@ -1,6 +1,8 @@
 package io.github.grumpystuff.grumpyjson.json_model;
 
 import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
 
 /**
  * This class represents JSON arrays.
@@ -27,10 +29,44 @@ public abstract class JsonArray extends JsonElement {
         return new VariableLenthArray(List.of(elements));
     }
 
+    /**
+     * Creates an instance of this class whose elements are only determined when they are first accessed. JSON engines
+     * use this to map a tree of the underlying JSON library to a grumpyjson tree level by level, as the tree gets
+     * visited, so subtrees that are never visited -- such as the value of an ignored field -- never get mapped.
+     * <p>
+     * The supplier usually gets called only once, but may get called more than once if multiple threads access
+     * the elements concurrently. It must therefore return equal elements each time, and each element must itself be
+     * immutable.
+     *
+     * @param elementsSupplier supplies the elements of the JSON array on first access
+     * @param origin the node of the underlying JSON library that this array gets mapped from, see
+     *               {@link #getOrigin()}. Must not be modified afterward. Its toString() method must return the
+     *               node as compact JSON text, which is the case for the tree models of the common JSON libraries.
+     * @return the JSON array
+     */
+    public static JsonArray ofLazy(Supplier<List<JsonElement>> elementsSupplier, Object origin) {
+        Objects.requireNonNull(elementsSupplier, "elementsSupplier");
+        Objects.requireNonNull(origin, "origin");
+
+        return new LazyArray(elementsSupplier, origin);
+    }
+
     // only allow our own subclasses
     private JsonArray() {
     }
 
+    /**
+     * Returns the node of the underlying JSON library that this array was created from by {@link #ofLazy}, or null
+     * if it was created in another way. JSON engines use this to write an unchanged array, such as a passthrough
+     * {@link JsonElement} field, without mapping it back to their own tree model. Application code should not use
+     * this method.
+     *
+     * @return the origin node or null
+     */
+    public Object getOrigin() {
+        return null;
+    }
+
     /**
      * Returns the elements of this JSON array as a {@link List}.
      *
@@ -58,6 +94,36 @@ public abstract class JsonArray extends JsonElement {
 
     }
 
+    private static final class LazyArray extends JsonArray {
+
+        private final Supplier<List<JsonElement>> elementsSupplier;
+        private final Object origin;
+        private List<JsonElement> elements;
+
+        LazyArray(Supplier<List<JsonElement>> elementsSupplier, Object origin) {
+            this.elementsSupplier = elementsSupplier;
+            this.origin = origin;
+        }
+
+        @Override
+        public List<JsonElement> getAsList() {
+            // Racy but safe: List.copyOf() returns an immutable list whose fields are final, so another thread
+            // either sees null and creates an equal list itself, or sees the complete list.
+            List<JsonElement> result = elements;
+            if (result == null) {
+                result = List.copyOf(elementsSupplier.get());
+                elements = result;
+            }
+            return result;
+        }
+
+        @Override
+        public Object getOrigin() {
+            return origin;
+        }
+
+    }
+
     @Override
     public boolean equals(Object obj) {
         return obj instanceof JsonArray a && a.getAsList().equals(getAsList());
@@ -1,6 +1,10 @@
 package io.github.grumpystuff.grumpyjson.json_model;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
 
 /**
  * This class represents JSON objects.
@@ -8,13 +12,14 @@ import java.util.Map;
 public abstract class JsonObject extends JsonElement {
 
     /**
-     * Creates an instance of this class from a {@link Map} containing the properties of the JSON object.
+     * Creates an instance of this class from a {@link Map} containing the properties of the JSON object. The
+     * properties keep the iteration order of the map, which is the order in which they get written.
      *
      * @param properties the properties of the JSON object to create
      * @return the JSON object
      */
     public static JsonObject of(Map<String, JsonElement> properties) {
-        return new VariableSizeObject(Map.copyOf(properties));
+        return new VariableSizeObject(copyProperties(properties));
     }
 
     /**
@@ -34,7 +39,7 @@ public abstract class JsonObject extends JsonElement {
      * @return the JSON object
      */
     public static JsonObject of(String key1, JsonElement value1) {
-        return new VariableSizeObject(Map.of(key1, value1));
+        return new VariableSizeObject(copyProperties(key1, value1));
     }
 
     /**
@@ -47,7 +52,7 @@ public abstract class JsonObject extends JsonElement {
      * @return the JSON object
      */
     public static JsonObject of(String key1, JsonElement value1, String key2, JsonElement value2) {
-        return new VariableSizeObject(Map.of(key1, value1, key2, value2));
+        return new VariableSizeObject(copyProperties(key1, value1, key2, value2));
     }
 
     /**
@@ -62,13 +67,68 @@ public abstract class JsonObject extends JsonElement {
      * @return the JSON object
      */
     public static JsonObject of(String key1, JsonElement value1, String key2, JsonElement value2, String key3, JsonElement value3) {
-        return new VariableSizeObject(Map.of(key1, value1, key2, value2, key3, value3));
+        return new VariableSizeObject(copyProperties(key1, value1, key2, value2, key3, value3));
+    }
+
+    /**
+     * Creates an instance of this class whose properties are only determined when they are first accessed. JSON
+     * engines use this to map a tree of the underlying JSON library to a grumpyjson tree level by level, as the tree
+     * gets visited, so subtrees that are never visited -- such as the value of an ignored field -- never get mapped.
+     * <p>
+     * The supplier usually gets called only once, but may get called more than once if multiple threads access
+     * the properties concurrently. It must therefore return equal properties each time, and each property value must
+     * itself be immutable.
+     *
+     * @param propertiesSupplier supplies the properties of the JSON object on first access
+     * @param origin the node of the underlying JSON library that this object gets mapped from, see
+     *               {@link #getOrigin()}. Must not be modified afterward. Its toString() method must return the
+     *               node as compact JSON text, which is the case for the tree models of the common JSON libraries.
+     * @return the JSON object
+     */
+    public static JsonObject ofLazy(Supplier<Map<String, JsonElement>> propertiesSupplier, Object origin) {
+        Objects.requireNonNull(propertiesSupplier, "propertiesSupplier");
+        Objects.requireNonNull(origin, "origin");
+
+        return new LazyObject(propertiesSupplier, origin);
+    }
+
+    private static Map<String, JsonElement> copyProperties(Object... keysAndValues) {
+        Map<String, JsonElement> properties = new LinkedHashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            if (properties.put((String) keysAndValues[i], (JsonElement) keysAndValues[i + 1]) != null) {
+                throw new IllegalArgumentException("duplicate key: " + keysAndValues[i]);
+            }
+        }
+        return copyProperties(properties);
+    }
+
+    // Like Map.copyOf(), this rejects null keys and values and returns an unmodifiable map, but keeps the order. The
+    // map is only reachable through a final field of the wrapper, so it is safely published along with the wrapper.
+    private static Map<String, JsonElement> copyProperties(Map<String, JsonElement> properties) {
+        Map<String, JsonElement> copy = new LinkedHashMap<>(properties);
+        for (Map.Entry<String, JsonElement> entry : copy.entrySet()) {
+            Objects.requireNonNull(entry.getKey(), "properties contains null key");
+            Objects.requireNonNull(entry.getValue(), "properties contains null value");
+        }
+        return Collections.unmodifiableMap(copy);
     }
 
     // only allow our own subclasses
     private JsonObject() {
     }
 
+    /**
+     * Returns the node of the underlying JSON library that this object was created from by {@link #ofLazy}, or null
+     * if it was created in another way. JSON engines use this to write an unchanged object, such as a passthrough
+     * {@link JsonElement} field, without mapping it back to their own tree model. Application code should not use
+     * this method.
+     *
+     * @return the origin node or null
+     */
+    public Object getOrigin() {
+        return null;
+    }
+
     /**
      * Returns the properties of this JSON object as a {@link Map}.
      *
@@ -96,6 +156,36 @@ public abstract class JsonObject extends JsonElement {
 
     }
 
+    private static final class LazyObject extends JsonObject {
+
+        private final Supplier<Map<String, JsonElement>> propertiesSupplier;
+        private final Object origin;
+        private Map<String, JsonElement> properties;
+
+        LazyObject(Supplier<Map<String, JsonElement>> propertiesSupplier, Object origin) {
+            this.propertiesSupplier = propertiesSupplier;
+            this.origin = origin;
+        }
+
+        @Override
+        public Map<String, JsonElement> getAsMap() {
+            // Racy but safe: copyProperties() returns an unmodifiable map that is only reachable through final
+            // fields, so another thread either sees null and creates an equal map itself, or sees the complete map.
+            Map<String, JsonElement> result = properties;
+            if (result == null) {
+                result = copyProperties(propertiesSupplier.get());
+                properties = result;
+            }
+            return result;
+        }
+
+        @Override
+        public Object getOrigin() {
+            return origin;
+        }
+
+    }
+
     @Override
     public boolean equals(Object obj) {
         return obj instanceof JsonObject o && o.getAsMap().equals(getAsMap());
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.json_model;
+
+import java.util.Objects;
+
+/**
+ * This class represents a JSON value that is given as JSON text and gets written verbatim by the JSON engine, without
+ * building a tree for it. It is created by serializers, typically from a
+ * {@link io.github.grumpystuff.grumpyjson.builtin.helper_types.RawJson}, but never by parsing JSON, so deserializers
+ * usually do not have to deal with it. The text is not validated, so it must be valid JSON.
+ * <p>
+ * Since the text is not parsed, this element does not know what kind of JSON value it contains. All
+ * deserializerExpectsXXX methods throw an exception.
+ */
+public final class JsonRawText extends JsonElement {
+
+    /**
+     * Creates an instance of this class for the specified JSON text.
+     *
+     * @param text the JSON text, which must be valid JSON
+     * @return the JSON element
+     */
+    public static JsonRawText of(String text) {
+        Objects.requireNonNull(text, "text");
+
+        return new JsonRawText(text);
+    }
+
+    private final String text;
+
+    private JsonRawText(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return the JSON text
+     */
+    public String getText() {
+        return text;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof JsonRawText r && r.text.equals(text);
+    }
+
+    @Override
+    public int hashCode() {
+        return text.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "JSON(raw):" + text;
+    }
+
+}
@@ -6,6 +6,7 @@
  */
 package io.github.grumpystuff.grumpyjson.registry;
 
+import io.github.grumpystuff.grumpyjson.jfr.ConverterGenerationEvent;
 import io.github.grumpystuff.grumpyjson.util.ListUtil;
 
 import java.lang.reflect.Type;
@@ -132,14 +133,49 @@ public abstract class Registry<K, V> extends Sealable {
         Objects.requireNonNull(key, "key");
 
         ensureRunTimePhase();
-        return map.computeIfAbsent(key, ignored -> {
+        V result = map.get(key);
+        if (result == null) {
+            result = map.computeIfAbsent(canonicalizeKey(key), this::findOrGenerateRegistrable);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the canonical instance of a key, which is then used to store the registrable for that key. Lookups with
+     * the canonical instance find it by identity, without calling equals(), which matters for keys whose equals()
+     * method is expensive. The default implementation returns the key unchanged.
+     * <p>
+     * This method is only called when the key is looked up for the first time.
+     *
+     * @param key the key (never null)
+     * @return the canonical instance, which must be equal to the key
+     */
+    protected K canonicalizeKey(K key) {
+        return key;
+    }
+
+    private V findOrGenerateRegistrable(K key) {
+        ConverterGenerationEvent event = new ConverterGenerationEvent();
+        event.begin();
+        V result = null;
+        try {
             for (V registrable : manuallyAddedRegistrables) {
                 if (registrableSupports(registrable, key)) {
-                    return registrable;
+                    result = registrable;
+                    return result;
                 }
             }
-            return generateRegistrable(key);
-        });
+            result = generateRegistrable(key);
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.registry = getClass().getName();
+                event.key = (key instanceof Type type) ? type.getTypeName() : String.valueOf(key);
+                event.result = (result == null) ? null : result.getClass().getName();
+                event.commit();
+            }
+        }
     }
 
     /**
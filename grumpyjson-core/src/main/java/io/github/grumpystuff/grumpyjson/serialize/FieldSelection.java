@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.serialize;
+
+import io.github.grumpystuff.grumpyjson.builtin.record.RecordConverter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Selects which fields of records get serialized, also known as a "sparse fieldset". Unselected record components
+ * are skipped by the {@link RecordConverter} -- their getter is not even called, so neither the value nor anything
+ * nested in it gets serialized.
+ * <p>
+ * A selection is written as a comma-separated list of field paths, and each path is a dot-separated list of field
+ * names, such as "id,name,products.name,products.price". A field that is selected without a nested path, such as
+ * "id" above, is serialized completely. A field that is only selected with nested paths, such as "products" above,
+ * is serialized with only the selected fields. Nested selections are applied "through" lists, maps and other
+ * containers, so "products.name" selects the name of each product if the products field is a list of records.
+ * Selecting a field that does not exist selects nothing; selecting nested fields of a value that is not a record
+ * selects the whole value.
+ * <p>
+ * A selection is not passed explicitly but installed for the current thread with {@link #setCurrent(FieldSelection)}
+ * while serializing, because serializers have no other means to pass context to their nested serializers. Serializers
+ * that hand off work to other threads must install the current selection in those threads, as the
+ * {@link io.github.grumpystuff.grumpyjson.builtin.collection.ListConverter} does for parallel conversion.
+ * <p>
+ * Since the text form typically comes from the client, {@link #parse(String)} limits its length to
+ * {@link #MAX_TEXT_LENGTH} characters and the nesting depth of paths to {@link #MAX_DEPTH} field names.
+ * <p>
+ * Instances are immutable and can be cached and shared between threads.
+ */
+public final class FieldSelection {
+
+    /**
+     * Selects all fields, including all nested fields.
+     */
+    public static final FieldSelection ALL = new FieldSelection(null);
+
+    /**
+     * The maximum length of the text form accepted by {@link #parse(String)}.
+     */
+    public static final int MAX_TEXT_LENGTH = 2000;
+
+    /**
+     * The maximum number of field names in a single path accepted by {@link #parse(String)}.
+     */
+    public static final int MAX_DEPTH = 20;
+
+    private static final ThreadLocal<FieldSelection> CURRENT = new ThreadLocal<>();
+
+    // null for ALL
+    private final Map<String, FieldSelection> fields;
+
+    private FieldSelection(Map<String, FieldSelection> fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * Parses a field selection from its text form, see the class comment for the syntax.
+     *
+     * @param text the text to parse
+     * @return the field selection
+     * @throws IllegalArgumentException if the text is malformed, e.g. contains empty field names, or exceeds
+     * {@link #MAX_TEXT_LENGTH} or {@link #MAX_DEPTH}
+     */
+    public static FieldSelection parse(String text) {
+        Objects.requireNonNull(text, "text");
+
+        if (text.length() > MAX_TEXT_LENGTH) {
+            throw new IllegalArgumentException("field selection is longer than " + MAX_TEXT_LENGTH + " characters");
+        }
+        Map<String, Object> root = new HashMap<>();
+        for (String path : text.split(",", -1)) {
+            Map<String, Object> node = root;
+            String[] names = path.split("\\.", -1);
+            if (names.length > MAX_DEPTH) {
+                throw new IllegalArgumentException("field selection is nested deeper than " + MAX_DEPTH + " levels");
+            }
+            for (int i = 0; i < names.length; i++) {
+                String name = names[i].trim();
+                if (name.isEmpty()) {
+                    throw new IllegalArgumentException("empty field name in field selection: " + text);
+                }
+                Object child = node.get(name);
+                if (child == ALL) {
+                    // the whole field is already selected
+                    break;
+                }
+                if (i == names.length - 1) {
+                    node.put(name, ALL);
+                } else {
+                    if (child == null) {
+                        child = new HashMap<String, Object>();
+                        node.put(name, child);
+                    }
+                    //noinspection unchecked
+                    node = (Map<String, Object>) child;
+                }
+            }
+        }
+        return build(root);
+    }
+
+    private static FieldSelection build(Map<String, Object> node) {
+        Map<String, FieldSelection> fields = new HashMap<>();
+        for (Map.Entry<String, Object> entry : node.entrySet()) {
+            Object child = entry.getValue();
+            //noinspection unchecked
+            fields.put(entry.getKey(), child == ALL ? ALL : build((Map<String, Object>) child));
+        }
+        return new FieldSelection(Map.copyOf(fields));
+    }
+
+    /**
+     * Returns the selection for the value of the specified field.
+     *
+     * @param name the field name
+     * @return the selection for the field value, {@link #ALL} if the field is selected completely, or null if the
+     * field is not selected at all
+     */
+    public FieldSelection getFieldSelection(String name) {
+        Objects.requireNonNull(name, "name");
+
+        return fields == null ? ALL : fields.get(name);
+    }
+
+    /**
+     * Returns the field selection that is installed for the current thread.
+     *
+     * @return the field selection, or null if none is installed, which means that all fields are selected
+     */
+    public static FieldSelection getCurrent() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Installs a field selection for the current thread. The caller should restore the previous selection (returned
+     * by this method) when done, typically in a finally block.
+     *
+     * @param selection the field selection to install, or null to select all fields
+     * @return the previously installed field selection, or null if there was none
+     */
+    public static FieldSelection setCurrent(FieldSelection selection) {
+        FieldSelection previous = CURRENT.get();
+        if (selection == null || selection == ALL) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(selection);
+        }
+        return previous;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof FieldSelection selection && Objects.equals(fields, selection.fields);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(fields);
+    }
+
+    @Override
+    public String toString() {
+        return fields == null ? "FieldSelection{ALL}" : "FieldSelection" + fields;
+    }
+
+}
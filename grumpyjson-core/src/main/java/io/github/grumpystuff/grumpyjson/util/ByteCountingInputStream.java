@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.util;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * NOT PUBLIC API
+ * <p>
+ * Counts the bytes read from the wrapped stream.
+ */
+public final class ByteCountingInputStream extends FilterInputStream {
+
+    private long count;
+
+    /**
+     * NOT PUBLIC API
+     *
+     * @param in ...
+     */
+    public ByteCountingInputStream(InputStream in) {
+        super(in);
+    }
+
+    /**
+     * NOT PUBLIC API
+     *
+     * @return ...
+     */
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            count++;
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int result = super.read(buffer, offset, length);
+        if (result > 0) {
+            count += result;
+        }
+        return result;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long result = super.skip(n);
+        count += result;
+        return result;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.util;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * NOT PUBLIC API
+ * <p>
+ * Counts the bytes written to the wrapped stream.
+ */
+public final class ByteCountingOutputStream extends FilterOutputStream {
+
+    private long count;
+
+    /**
+     * NOT PUBLIC API
+     *
+     * @param out ...
+     */
+    public ByteCountingOutputStream(OutputStream out) {
+        super(out);
+    }
+
+    /**
+     * NOT PUBLIC API
+     *
+     * @return ...
+     */
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        out.write(b);
+        count++;
+    }
+
+    @Override
+    public void write(byte[] buffer, int offset, int length) throws IOException {
+        out.write(buffer, offset, length);
+        count += length;
+    }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.util;
+
+import io.github.grumpystuff.grumpyjson.OutputProfile;
+import io.github.grumpystuff.grumpyjson.json_model.*;
+import io.github.grumpystuff.grumpyjson.serialize.JsonSerializationException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * NOT PUBLIC API
+ * <p>
+ * Transforms a JSON tree into the form written for {@link OutputProfile#CANONICAL}. Numbers are turned into
+ * {@link JsonRawText} so the JSON library writes them exactly in the normalized form.
+ */
+public final class CanonicalJsonUtil {
+
+    // prevent instantiation
+    private CanonicalJsonUtil() {
+    }
+
+    /**
+     * NOT PUBLIC API
+     *
+     * @param json ...
+     * @return ...
+     * @throws JsonSerializationException ...
+     */
+    public static JsonElement canonicalize(JsonElement json) throws JsonSerializationException {
+        Parameters.notNull(json, "json");
+
+        if (json instanceof JsonNumber number) {
+            return JsonRawText.of(formatNumber(number.getValue()));
+        } else if (json instanceof JsonArray array) {
+            List<JsonElement> elements = new ArrayList<>(array.getAsList().size());
+            for (JsonElement element : array.getAsList()) {
+                elements.add(canonicalize(element));
+            }
+            return JsonArray.of(elements);
+        } else if (json instanceof JsonObject object) {
+            // String.compareTo() compares UTF-16 code units, which is independent of locale and JVM
+            Map<String, JsonElement> properties = new LinkedHashMap<>();
+            for (Map.Entry<String, JsonElement> entry : new TreeMap<>(object.getAsMap()).entrySet()) {
+                properties.put(entry.getKey(), canonicalize(entry.getValue()));
+            }
+            return JsonObject.of(properties);
+        } else {
+            return json;
+        }
+    }
+
+    /**
+     * NOT PUBLIC API
+     *
+     * @param value ...
+     * @return ...
+     * @throws JsonSerializationException ...
+     */
+    public static String formatNumber(Number value) throws JsonSerializationException {
+        Parameters.notNull(value, "value");
+
+        BigDecimal decimal;
+        if (value instanceof BigDecimal d) {
+            decimal = d;
+        } else if (value instanceof BigInteger i) {
+            decimal = new BigDecimal(i);
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            decimal = BigDecimal.valueOf(value.longValue());
+        } else {
+            // this also covers numbers that keep their original text, such as those from a JSON library
+            try {
+                decimal = new BigDecimal(value.toString());
+            } catch (NumberFormatException e) {
+                throw new JsonSerializationException("cannot write number in JSON: " + value);
+            }
+        }
+        if (decimal.signum() == 0) {
+            return "0";
+        }
+
+        // Like ECMAScript's Number.prototype.toString (and therefore RFC 8785), write the number without exponent
+        // only if its most significant digit is in a moderate range. Writing 1e999999999 in plain form would produce
+        // a gigabyte of zeros from a dozen characters of input.
+        BigDecimal stripped = decimal.stripTrailingZeros();
+        long exponent = (long) stripped.precision() - stripped.scale() - 1;
+        if (exponent >= -6 && exponent <= 20) {
+            return stripped.toPlainString();
+        }
+        String digits = stripped.unscaledValue().abs().toString();
+        StringBuilder builder = new StringBuilder(digits.length() + 16);
+        if (stripped.signum() < 0) {
+            builder.append('-');
+        }
+        builder.append(digits.charAt(0));
+        if (digits.length() > 1) {
+            builder.append('.').append(digits, 1, digits.length());
+        }
+        builder.append('e').append(exponent < 0 ? '-' : '+').append(Math.abs(exponent));
+        return builder.toString();
+    }
+
+}
@@ -0,0 +1,34 @@
+package io.github.grumpystuff.grumpyjson.util;
+
+import java.io.IOException;
+import java.io.Writer;
+
+public final class CloseShieldWriter extends Writer {
+
+    private final Writer out;
+
+    public CloseShieldWriter(Writer out) {
+        this.out = out;
+    }
+
+    public void write(int c) throws IOException {
+        out.write(c);
+    }
+
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        out.write(cbuf, off, len);
+    }
+
+    public void write(String str, int off, int len) throws IOException {
+        out.write(str, off, len);
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    public void close() {
+        // do nothing
+    }
+
+}
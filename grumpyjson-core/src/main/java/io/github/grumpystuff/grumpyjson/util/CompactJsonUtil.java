@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.util;
+
+import io.github.grumpystuff.grumpyjson.json_model.*;
+import io.github.grumpystuff.grumpyjson.serialize.JsonSerializationException;
+
+import java.util.Map;
+
+/**
+ * NOT PUBLIC API
+ * <p>
+ * Writes a JSON tree as compact JSON text, i.e. without formatting whitespace, independent of any JSON engine.
+ * Numbers are written using their {@link Number#toString()} form, which keeps the original text for numbers that
+ * come from a JSON library.
+ */
+public final class CompactJsonUtil {
+
+    // prevent instantiation
+    private CompactJsonUtil() {
+    }
+
+    /**
+     * NOT PUBLIC API
+     *
+     * @param json ...
+     * @return ...
+     * @throws JsonSerializationException ...
+     */
+    public static String toText(JsonElement json) throws JsonSerializationException {
+        Parameters.notNull(json, "json");
+
+        StringBuilder builder = new StringBuilder();
+        write(json, builder);
+        return builder.toString();
+    }
+
+    private static void write(JsonElement json, StringBuilder builder) throws JsonSerializationException {
+        if (json instanceof JsonNull) {
+            builder.append("null");
+        } else if (json instanceof JsonBoolean b) {
+            builder.append(b.getValue());
+        } else if (json instanceof JsonNumber number) {
+            Number value = number.getValue();
+            if ((value instanceof Double d && !Double.isFinite(d)) || (value instanceof Float f && !Float.isFinite(f))) {
+                throw new JsonSerializationException("cannot write number in JSON: " + value);
+            }
+            builder.append(value);
+        } else if (json instanceof JsonString string) {
+            writeString(string.getValue(), builder);
+        } else if (json instanceof JsonArray array) {
+            builder.append('[');
+            boolean first = true;
+            for (JsonElement element : array.getAsList()) {
+                if (!first) {
+                    builder.append(',');
+                }
+                first = false;
+                write(element, builder);
+            }
+            builder.append(']');
+        } else if (json instanceof JsonObject object) {
+            builder.append('{');
+            boolean first = true;
+            for (Map.Entry<String, JsonElement> entry : object.getAsMap().entrySet()) {
+                if (!first) {
+                    builder.append(',');
+                }
+                first = false;
+                writeString(entry.getKey(), builder);
+                builder.append(':');
+                write(entry.getValue(), builder);
+            }
+            builder.append('}');
+        } else if (json instanceof JsonRawText rawText) {
+            builder.append(rawText.getText());
+        } else {
+            throw new JsonSerializationException("unknown JSON element: " + json);
+        }
+    }
+
+    private static void writeString(String value, StringBuilder builder) {
+        builder.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> builder.append("\\\"");
+                case '\\' -> builder.append("\\\\");
+                case '\n' -> builder.append("\\n");
+                case '\r' -> builder.append("\\r");
+                case '\t' -> builder.append("\\t");
+                case '\b' -> builder.append("\\b");
+                case '\f' -> builder.append("\\f");
+                default -> {
+                    if (c < 0x20) {
+                        builder.append("\\u00");
+                        builder.append(Character.forDigit(c >> 4, 16));
+                        builder.append(Character.forDigit(c & 15, 16));
+                    } else {
+                        builder.append(c);
+                    }
+                }
+            }
+        }
+        builder.append('"');
+    }
+
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * NOT PUBLIC API
+ * <p>
+ * Reads a file through memory mapping. A single {@link MappedByteBuffer} cannot be larger than 2 GB, so the file is
+ * mapped in segments, each of which is mapped when reading reaches it. The mapping of a segment is released by the
+ * garbage collector after reading has moved on, since Java has no API to release it explicitly.
+ */
+public final class MappedFileInputStream extends InputStream {
+
+    /**
+     * NOT PUBLIC API
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 1 << 30;
+
+    private final FileChannel channel;
+    private final long size;
+    private final int segmentSize;
+    private long segmentStart;
+    private MappedByteBuffer segment;
+
+    /**
+     * NOT PUBLIC API
+     *
+     * @param path ...
+     * @throws IOException ...
+     */
+    public MappedFileInputStream(Path path) throws IOException {
+        this(path, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * NOT PUBLIC API
+     *
+     * @param path ...
+     * @param segmentSize ...
+     * @throws IOException ...
+     */
+    public MappedFileInputStream(Path path, int segmentSize) throws IOException {
+        if (segmentSize <= 0) {
+            throw new IllegalArgumentException("segmentSize must be positive");
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            this.size = channel.size();
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        this.segmentSize = segmentSize;
+        this.segmentStart = 0;
+        this.segment = null;
+    }
+
+    /**
+     * NOT PUBLIC API
+     *
+     * @return ...
+     */
+    public long getSize() {
+        return size;
+    }
+
+    // returns false at the end of the file
+    private boolean ensureSegment() throws IOException {
+        if (segment != null && segment.hasRemaining()) {
+            return true;
+        }
+        long nextStart = segment == null ? segmentStart : segmentStart + segment.capacity();
+        if (nextStart >= size) {
+            return false;
+        }
+        segmentStart = nextStart;
+        segment = channel.map(FileChannel.MapMode.READ_ONLY, segmentStart, Math.min(segmentSize, size - segmentStart));
+        return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+        return ensureSegment() ? (segment.get() & 0xff) : -1;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (!ensureSegment()) {
+            return -1;
+        }
+        int count = Math.min(length, segment.remaining());
+        segment.get(buffer, offset, count);
+        return count;
+    }
+
+    @Override
+    public int available() {
+        if (segment == null) {
+            return (int) Math.min(size, Integer.MAX_VALUE);
+        }
+        long remaining = size - segmentStart - segment.position();
+        return (int) Math.min(remaining, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void close() throws IOException {
+        segment = null;
+        channel.close();
+    }
+
+}
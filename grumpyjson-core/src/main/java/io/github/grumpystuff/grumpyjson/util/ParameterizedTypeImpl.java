@@ -13,16 +13,17 @@ import java.util.Objects;
 
 /**
  * NOT PUBLIC API
- *
- * @param owner     ...
- * @param raw       ...
- * @param arguments ...
+ * <p>
+ * Implements equals() and hashCode() like the JDK's own implementation of {@link ParameterizedType}, so instances of
+ * both can be mixed as map keys. The hash code is computed once, since these types are used as registry keys and
+ * can be deeply nested.
  */
-public record ParameterizedTypeImpl(
-    Type owner,
-    Type raw,
-    Type... arguments
-) implements ParameterizedType {
+public final class ParameterizedTypeImpl implements ParameterizedType {
+
+    private final Type owner;
+    private final Type raw;
+    private final Type[] arguments;
+    private final int hashCode;
 
     /**
      * NOT PUBLIC API
@@ -31,13 +32,24 @@ public record ParameterizedTypeImpl(
      * @param raw       ...
      * @param arguments ...
      */
-    public ParameterizedTypeImpl {
-        arguments = arguments == null ? new Type[0] : arguments.clone();
+    public ParameterizedTypeImpl(Type owner, Type raw, Type... arguments) {
+        this.owner = owner;
+        this.raw = raw;
+        this.arguments = arguments == null ? new Type[0] : arguments.clone();
+        this.hashCode = Arrays.hashCode(this.arguments) ^ Objects.hashCode(owner) ^ Objects.hashCode(raw);
     }
 
     @Override
     public Type[] getActualTypeArguments() {
-        return arguments;
+        return arguments.clone();
+    }
+
+    /**
+     * Returns the type arguments of the specified type, without copying them if it is an instance of this class.
+     * The returned array must not be modified.
+     */
+    static Type[] getArgumentsWithoutCopying(ParameterizedType type) {
+        return type instanceof ParameterizedTypeImpl impl ? impl.arguments : type.getActualTypeArguments();
     }
 
     @Override
@@ -52,17 +64,40 @@ public record ParameterizedTypeImpl(
 
     @Override
     public boolean equals(Object o) {
-        if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        ParameterizedTypeImpl that = (ParameterizedTypeImpl) o;
-        return Objects.equals(owner, that.owner) && Objects.equals(raw, that.raw) && Arrays.equals(arguments, that.arguments);
+        if (this == o) {
+            return true;
+        }
+        if (o instanceof ParameterizedTypeImpl that && hashCode != that.hashCode) {
+            return false;
+        }
+        return o instanceof ParameterizedType that && Objects.equals(owner, that.getOwnerType())
+                && Objects.equals(raw, that.getRawType()) && Arrays.equals(arguments, getArgumentsWithoutCopying(that));
     }
 
     @Override
     public int hashCode() {
-        int result = Objects.hash(owner, raw);
-        result = 31 * result + Arrays.hashCode(arguments);
-        return result;
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        if (owner != null && raw instanceof Class<?> rawClass) {
+            builder.append(owner.getTypeName()).append('$').append(rawClass.getSimpleName());
+        } else {
+            builder.append(raw.getTypeName());
+        }
+        if (arguments.length > 0) {
+            builder.append('<');
+            for (int i = 0; i < arguments.length; i++) {
+                if (i > 0) {
+                    builder.append(", ");
+                }
+                builder.append(arguments[i].getTypeName());
+            }
+            builder.append('>');
+        }
+        return builder.toString();
     }
 
 }
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.util;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+
+/**
+ * NOT PUBLIC API
+ * <p>
+ * Maps equal types to a single canonical instance. Types are used as keys in the converter registries and in
+ * per-type caches, and equal types can come from different places -- a {@link io.github.grumpystuff.grumpyjson.TypeToken},
+ * reflection on a record component, or {@link TypeUtil#replaceTypeVariables} -- as different objects. Looking up a
+ * canonical instance in a hash map is cheap because its hash code is cached and the key is found by identity before
+ * calling equals(), so the deep type structure is not visited again.
+ * <p>
+ * Classes are already canonical. Parameterized types are replaced by a {@link ParameterizedTypeImpl} whose owner and
+ * type arguments are canonical too. Other types, such as wildcards and type variables, are returned unchanged.
+ * <p>
+ * Canonical instances are only referenced weakly by this class, so they get garbage-collected together with the
+ * registries and caches that use them. In particular, this class does not keep the classes used in type arguments, and
+ * with them their class loaders, alive after an application has been undeployed.
+ */
+public final class TypeInterner {
+
+    // The values must not reference their keys strongly, otherwise the entries would never be removed. Each value
+    // refers to the key of the same entry, since the canonical instance is stored under itself.
+    private static final Map<Type, WeakReference<Type>> CANONICAL_TYPES = new WeakHashMap<>();
+
+    private TypeInterner() {
+    }
+
+    /**
+     * NOT PUBLIC API
+     *
+     * @param type ...
+     * @return ...
+     */
+    public static Type intern(Type type) {
+        Objects.requireNonNull(type, "type");
+
+        if (!(type instanceof ParameterizedType parameterized)) {
+            return type;
+        }
+        Type canonical = lookup(type);
+        if (canonical != null) {
+            return canonical;
+        }
+        Type owner = parameterized.getOwnerType();
+        Type[] arguments = parameterized.getActualTypeArguments();
+        for (int i = 0; i < arguments.length; i++) {
+            arguments[i] = intern(arguments[i]);
+        }
+        Type candidate = new ParameterizedTypeImpl(owner == null ? null : intern(owner), parameterized.getRawType(), arguments);
+        synchronized (CANONICAL_TYPES) {
+            canonical = lookup(candidate);
+            if (canonical != null) {
+                return canonical;
+            }
+            CANONICAL_TYPES.put(candidate, new WeakReference<>(candidate));
+            return candidate;
+        }
+    }
+
+    private static Type lookup(Type type) {
+        synchronized (CANONICAL_TYPES) {
+            WeakReference<Type> reference = CANONICAL_TYPES.get(type);
+            return reference == null ? null : reference.get();
+        }
+    }
+
+}
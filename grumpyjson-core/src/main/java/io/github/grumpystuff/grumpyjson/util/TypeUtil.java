@@ -64,8 +64,13 @@ public class TypeUtil {
         Objects.requireNonNull(type, "type");
         Objects.requireNonNull(expectedRawClass, "expectedRawClass");
 
-        Type[] result = isParameterizedType(type, expectedRawClass, 1);
-        return result == null ? null : result[0];
+        if (type instanceof ParameterizedType p && p.getRawType().equals(expectedRawClass)) {
+            Type[] typeArguments = ParameterizedTypeImpl.getArgumentsWithoutCopying(p);
+            if (typeArguments.length == 1) {
+                return typeArguments[0];
+            }
+        }
+        return null;
     }
 
     /**
@@ -129,6 +134,8 @@ public class TypeUtil {
      * grumpyjson because they cause other problems downstream -- fields using such types cannot be converted from
      * JSON because the type information is not sufficient. However, they can occur due to user error and therefore
      * should produce a clean error message.
+     * <p>
+     * Parameterized result types are canonical, see {@link TypeInterner}.
      *
      * @param original the original type to replace type variables in
      * @param bindings the bindings of variables to types
@@ -146,14 +153,14 @@ public class TypeUtil {
             // owner too. I'm leaving this note just in case this works differently, so I have a hint how to solve it.
             Type ownerBeforeReplacement = parameterized.getOwnerType();
             Type ownerAfterReplacement = ownerBeforeReplacement == null ? null : replaceTypeVariables(ownerBeforeReplacement, bindings);
-            Type[] argumentsBeforeReplacement = parameterized.getActualTypeArguments();
+            Type[] argumentsBeforeReplacement = ParameterizedTypeImpl.getArgumentsWithoutCopying(parameterized);
             Type[] argumentsAfterReplacement = new Type[argumentsBeforeReplacement.length];
             for (int i = 0; i < argumentsBeforeReplacement.length; i++) {
                 // This recursion _is_ necessary. If a field uses type List<List<A>>, and we have a binding A->String,
                 // then the result should be List<List<String>>.
                 argumentsAfterReplacement[i] = replaceTypeVariables(argumentsBeforeReplacement[i], bindings);
             }
-            return new ParameterizedTypeImpl(ownerAfterReplacement, parameterized.getRawType(), argumentsAfterReplacement);
+            return TypeInterner.intern(new ParameterizedTypeImpl(ownerAfterReplacement, parameterized.getRawType(), argumentsAfterReplacement));
         } else if (original instanceof TypeVariable<?> variable) {
             Type boundType = bindings.get(variable.getName());
             if (boundType == null) {
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.util;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * NOT PUBLIC API
+ * <p>
+ * Counts the characters read from the wrapped reader as the number of bytes they take in UTF-8.
+ */
+public final class Utf8CountingReader extends FilterReader {
+
+    private long count;
+
+    /**
+     * NOT PUBLIC API
+     *
+     * @param in ...
+     */
+    public Utf8CountingReader(Reader in) {
+        super(in);
+    }
+
+    /**
+     * NOT PUBLIC API
+     *
+     * @return ...
+     */
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int c = super.read();
+        if (c >= 0) {
+            count += Utf8CountingWriter.getUtf8Length((char) c);
+        }
+        return c;
+    }
+
+    @Override
+    public int read(char[] buffer, int offset, int length) throws IOException {
+        int result = super.read(buffer, offset, length);
+        for (int i = 0; i < result; i++) {
+            count += Utf8CountingWriter.getUtf8Length(buffer[offset + i]);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.util;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * NOT PUBLIC API
+ * <p>
+ * Counts the characters written to the wrapped writer as the number of bytes they take in UTF-8.
+ */
+public final class Utf8CountingWriter extends FilterWriter {
+
+    private long count;
+
+    /**
+     * NOT PUBLIC API
+     *
+     * @param out ...
+     */
+    public Utf8CountingWriter(Writer out) {
+        super(out);
+    }
+
+    /**
+     * NOT PUBLIC API
+     *
+     * @return ...
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * NOT PUBLIC API
+     * <p>
+     * Each half of a surrogate pair counts as 2 bytes, so a complete pair counts as 4 bytes like in UTF-8.
+     *
+     * @param c ...
+     * @return ...
+     */
+    public static int getUtf8Length(char c) {
+        if (c < 0x80) {
+            return 1;
+        } else if (c < 0x800 || Character.isSurrogate(c)) {
+            return 2;
+        } else {
+            return 3;
+        }
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        out.write(c);
+        count += getUtf8Length((char) c);
+    }
+
+    @Override
+    public void write(char[] buffer, int offset, int length) throws IOException {
+        out.write(buffer, offset, length);
+        for (int i = 0; i < length; i++) {
+            count += getUtf8Length(buffer[offset + i]);
+        }
+    }
+
+    @Override
+    public void write(String s, int offset, int length) throws IOException {
+        out.write(s, offset, length);
+        for (int i = 0; i < length; i++) {
+            count += getUtf8Length(s.charAt(offset + i));
+        }
+    }
+
+}
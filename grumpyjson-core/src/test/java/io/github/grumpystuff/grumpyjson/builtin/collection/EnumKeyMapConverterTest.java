@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.builtin.collection;
+
+import io.github.grumpystuff.grumpyjson.FieldErrorNode;
+import io.github.grumpystuff.grumpyjson.JsonRegistries;
+import io.github.grumpystuff.grumpyjson.TypeToken;
+import io.github.grumpystuff.grumpyjson.builtin.primitive.IntegerConverter;
+import io.github.grumpystuff.grumpyjson.json_model.JsonNumber;
+import io.github.grumpystuff.grumpyjson.json_model.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Type;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.github.grumpystuff.grumpyjson.JsonTestUtil.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EnumKeyMapConverterTest {
+
+    public enum Color {
+        RED, GREEN, BLUE
+    }
+
+    private static final Type COLOR_INTEGER_MAP_TYPE = new TypeToken<Map<Color, Integer>>() {}.getType();
+
+    private final JsonRegistries registries = createRegistries(new IntegerConverter());
+    private final EnumKeyMapConverter converter = new EnumKeyMapConverter(registries);
+
+    public EnumKeyMapConverterTest() {
+        registries.seal();
+    }
+
+    @Test
+    public void testSupportedTypes() {
+        assertTrue(converter.supportsTypeForDeserialization(COLOR_INTEGER_MAP_TYPE));
+        assertFalse(converter.supportsTypeForDeserialization(new TypeToken<Map<String, Integer>>() {}.getType()));
+        assertFalse(converter.supportsTypeForDeserialization(new TypeToken<Map<?, Integer>>() {}.getType()));
+        assertFalse(converter.supportsTypeForDeserialization(Map.class));
+    }
+
+    @Test
+    public void testDeserializationHappyCase() throws Exception {
+        var json = JsonObject.of("BLUE", JsonNumber.of(3), "RED", JsonNumber.of(1));
+        Map<?, ?> result = converter.deserialize(json, COLOR_INTEGER_MAP_TYPE);
+        assertEquals(new EnumMap<>(Map.of(Color.RED, 1, Color.BLUE, 3)), result);
+
+        // iterates in the order of the enum constants, and cannot be modified
+        assertEquals(List.of(Color.RED, Color.BLUE), List.copyOf(result.keySet()));
+        assertThrows(UnsupportedOperationException.class, () -> result.clear());
+    }
+
+    @Test
+    public void testDeserializationErrors() throws Exception {
+        forNull(json -> assertFailsDeserialization(converter, json, COLOR_INTEGER_MAP_TYPE));
+        forArrays(json -> assertFailsDeserialization(converter, json, COLOR_INTEGER_MAP_TYPE));
+
+        var json = JsonObject.of("RED", JsonNumber.of(1), "PINK", JsonNumber.of(2));
+        var exception = assertFailsDeserialization(converter, json, COLOR_INTEGER_MAP_TYPE);
+        assertFieldErrors(exception, new FieldErrorNode.FlattenedError("unknown value", "key[PINK]"));
+    }
+
+    @Test
+    public void testSerializationIsUnchanged() {
+        var converter = new MapConverter(registries);
+        assertEquals(JsonObject.of("RED", JsonNumber.of(1), "BLUE", JsonNumber.of(3)),
+                converter.serialize(new EnumMap<>(Map.of(Color.BLUE, 3, Color.RED, 1))));
+    }
+
+}
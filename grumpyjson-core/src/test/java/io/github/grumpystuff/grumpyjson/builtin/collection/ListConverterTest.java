@@ -6,15 +6,26 @@
  */
 package io.github.grumpystuff.grumpyjson.builtin.collection;
 
+import io.github.grumpystuff.grumpyjson.ExceptionMessages;
+import io.github.grumpystuff.grumpyjson.FieldErrorNode;
 import io.github.grumpystuff.grumpyjson.JsonRegistries;
 import io.github.grumpystuff.grumpyjson.TypeToken;
 import io.github.grumpystuff.grumpyjson.builtin.primitive.IntegerConverter;
 import io.github.grumpystuff.grumpyjson.builtin.primitive.StringConverter;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
+import io.github.grumpystuff.grumpyjson.json_model.JsonArray;
+import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
+import io.github.grumpystuff.grumpyjson.json_model.JsonNumber;
+import io.github.grumpystuff.grumpyjson.json_model.JsonString;
 import org.junit.jupiter.api.Test;
 
 import java.io.OutputStream;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import static io.github.grumpystuff.grumpyjson.JsonTestUtil.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -78,6 +89,76 @@ public class ListConverterTest {
         assertFailsDeserialization(converter, buildIntArray(12, 34), STRING_LIST_TYPE);
     }
 
+    @Test
+    public void testDeserializationStopsAtMaxErrors() {
+        JsonRegistries limitedRegistries = createRegistries(new IntegerConverter());
+        limitedRegistries.deserializerRegistry().setMaxDeserializationErrors(10);
+        limitedRegistries.seal();
+        ListConverter limitedConverter = new ListConverter(limitedRegistries);
+        String[] elements = new String[1000];
+        Arrays.fill(elements, "foo");
+
+        JsonDeserializationException exception = assertFailsDeserialization(limitedConverter, buildStringArray(elements), INTEGER_LIST_TYPE);
+        FieldErrorNode errorNode = exception.getFieldErrorNode();
+        assertEquals(10, errorNode.getErrorCount());
+        assertTrue(errorNode.isTruncated());
+        List<FieldErrorNode.FlattenedError> flattenedErrors = errorNode.flatten();
+        assertEquals(11, flattenedErrors.size());
+        assertTrue(flattenedErrors.contains(new FieldErrorNode.FlattenedError(ExceptionMessages.TOO_MANY_ERRORS)));
+        assertEquals(0, exception.getStackTrace().length);
+    }
+
+    @Test
+    public void testDeserializationBelowMaxErrorsIsNotTruncated() {
+        JsonDeserializationException exception = assertFailsDeserialization(converter, buildStringArray("foo", "bar"), INTEGER_LIST_TYPE);
+        assertEquals(2, exception.getFieldErrorNode().getErrorCount());
+        assertFalse(exception.getFieldErrorNode().isTruncated());
+    }
+
+    @Test
+    public void testParallelDeserialization() throws Exception {
+        ListConverter parallelConverter = new ListConverter(registries, ListConverter.Options.parallel(2));
+        int[] numbers = new int[10_000];
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < numbers.length; i++) {
+            numbers[i] = i;
+            expected.add(i);
+        }
+        assertEquals(expected, parallelConverter.deserialize(buildIntArray(numbers), INTEGER_LIST_TYPE));
+        assertEquals(List.of(), parallelConverter.deserialize(buildIntArray(), INTEGER_LIST_TYPE));
+    }
+
+    @Test
+    public void testParallelDeserializationErrorsMatchSequential() {
+        ListConverter parallelConverter = new ListConverter(registries, ListConverter.Options.parallel(2));
+        List<JsonElement> elements = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            elements.add(i % 40 == 0 ? JsonString.of("foo") : JsonNumber.of(i));
+        }
+        JsonArray array = JsonArray.of(elements);
+        List<FieldErrorNode.FlattenedError> sequentialErrors = assertFailsDeserialization(converter, array, INTEGER_LIST_TYPE).getFieldErrorNode().flatten();
+        List<FieldErrorNode.FlattenedError> parallelErrors = assertFailsDeserialization(parallelConverter, array, INTEGER_LIST_TYPE).getFieldErrorNode().flatten();
+        assertEquals(50, sequentialErrors.size());
+        assertEquals(sequentialErrors, parallelErrors);
+    }
+
+    @Test
+    public void testParallelSerialization() {
+        ListConverter parallelConverter = new ListConverter(registries, new ListConverter.Options(2, new ForkJoinPool(3)));
+        int[] numbers = new int[10_000];
+        List<Integer> list = new LinkedList<>();
+        for (int i = 0; i < numbers.length; i++) {
+            numbers[i] = i;
+            list.add(i);
+        }
+        assertEquals(buildIntArray(numbers), parallelConverter.serialize(list));
+    }
+
+    @Test
+    public void testInvalidOptions() {
+        assertThrows(IllegalArgumentException.class, () -> ListConverter.Options.parallel(1));
+    }
+
     @Test
     public void testSerializationHappyCase() {
         assertEquals(buildIntArray(), converter.serialize(List.of()));
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.builtin.collection;
+
+import io.github.grumpystuff.grumpyjson.JsonRegistries;
+import io.github.grumpystuff.grumpyjson.StructuralJsonEngine;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
+import io.github.grumpystuff.grumpyjson.json_model.JsonArray;
+import io.github.grumpystuff.grumpyjson.json_model.JsonBoolean;
+import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
+import io.github.grumpystuff.grumpyjson.json_model.JsonNumber;
+import io.github.grumpystuff.grumpyjson.json_model.JsonString;
+import io.github.grumpystuff.grumpyjson.serialize.JsonSerializationException;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.util.List;
+
+import static io.github.grumpystuff.grumpyjson.JsonTestUtil.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PrimitiveArrayConverterTest {
+
+    private final JsonRegistries registries = createRegistries();
+    private final List<Fixture> fixtures = List.of(
+            new Fixture(new BooleanArrayConverter(registries), boolean[].class, BooleanList.class, Boolean[].class,
+                    new boolean[] {true, false, true}, BooleanList.of(true, false, true), List.of(true, false, true),
+                    JsonArray.of(JsonBoolean.TRUE, JsonBoolean.FALSE, JsonBoolean.TRUE), JsonNumber.of(1)),
+            new Fixture(new IntArrayConverter(registries), int[].class, IntList.class, Integer[].class,
+                    new int[] {12, -34, 2147483647}, IntList.of(12, -34, 2147483647), List.of(12, -34, 2147483647),
+                    JsonArray.of(JsonNumber.of(12), JsonNumber.of(-34), JsonNumber.of(2147483647)), JsonNumber.of(2147483648L)),
+            new Fixture(new LongArrayConverter(registries), long[].class, LongList.class, Long[].class,
+                    new long[] {12L, -34L, 9007199254740993L}, LongList.of(12L, -34L, 9007199254740993L), List.of(12L, -34L, 9007199254740993L),
+                    JsonArray.of(JsonNumber.of(12L), JsonNumber.of(-34L), JsonNumber.of(9007199254740993L)), JsonNumber.of(1.5)),
+            new Fixture(new DoubleArrayConverter(registries), double[].class, DoubleList.class, Double[].class,
+                    new double[] {1.5, -34.0, 0.1}, DoubleList.of(1.5, -34.0, 0.1), List.of(1.5, -34.0, 0.1),
+                    JsonArray.of(JsonNumber.of(1.5), JsonNumber.of(-34.0), JsonNumber.of(0.1)), JsonString.of("1.5"))
+    );
+
+    public PrimitiveArrayConverterTest() {
+        registries.seal();
+    }
+
+    // boxedArrayClass is a similar type that the converter does not handle; invalidElement is a JSON element that
+    // cannot be converted to an array element
+    private record Fixture(PrimitiveArrayConverter<?> converter, Class<?> arrayClass, Class<?> listClass,
+                           Class<?> boxedArrayClass, Object array, List<?> list, List<?> boxedList, JsonArray json,
+                           JsonElement invalidElement) {}
+
+    // ----------------------------------------------------------------------------------------------------------------
+    // common behavior
+    // ----------------------------------------------------------------------------------------------------------------
+
+    @Test
+    public void testSupportedTypes() {
+        for (Fixture fixture : fixtures) {
+            assertTrue(fixture.converter.supportsTypeForDeserialization(fixture.arrayClass));
+            assertTrue(fixture.converter.supportsTypeForDeserialization(fixture.listClass));
+            assertFalse(fixture.converter.supportsTypeForDeserialization(fixture.boxedArrayClass));
+            assertTrue(fixture.converter.supportsClassForSerialization(fixture.arrayClass));
+            assertTrue(fixture.converter.supportsClassForSerialization(fixture.listClass));
+            assertFalse(fixture.converter.supportsClassForSerialization(List.class));
+        }
+    }
+
+    @Test
+    public void testDeserializationHappyCase() throws Exception {
+        for (Fixture fixture : fixtures) {
+            assertArrayEquals(new Object[] {fixture.array}, new Object[] {fixture.converter.deserialize(fixture.json, fixture.arrayClass)});
+            Object list = fixture.converter.deserialize(fixture.json, fixture.listClass);
+            assertInstanceOf(fixture.listClass, list);
+            assertEquals(fixture.list, list);
+            assertEquals(fixture.boxedList, list);
+            assertEquals(fixture.boxedList.hashCode(), list.hashCode());
+            Object emptyArray = fixture.converter.deserialize(JsonArray.of(), fixture.arrayClass);
+            assertEquals(0, Array.getLength(emptyArray));
+        }
+    }
+
+    @Test
+    public void testDeserializationWrongType() throws Exception {
+        for (Fixture fixture : fixtures) {
+            var converter = fixture.converter;
+            var type = fixture.arrayClass;
+            forNull(json -> assertFailsDeserialization(converter, json, type));
+            forBooleans(json -> assertFailsDeserialization(converter, json, type));
+            forNumbers(json -> assertFailsDeserialization(converter, json, type));
+            forStrings(json -> assertFailsDeserialization(converter, json, type));
+            forObjects(json -> assertFailsDeserialization(converter, json, type));
+        }
+    }
+
+    @Test
+    public void testDeserializationWrongElement() {
+        for (Fixture fixture : fixtures) {
+            List<JsonElement> elements = fixture.json.getAsList();
+            JsonArray json = JsonArray.of(elements.get(0), fixture.invalidElement, elements.get(1), fixture.invalidElement);
+            JsonDeserializationException exception = assertFailsDeserialization(fixture.converter, json, fixture.listClass);
+            assertEquals(2, exception.getFieldErrorNode().getErrorCount());
+            assertEquals(List.of("1"), exception.getFieldErrorNode().flatten().get(1).fieldPath());
+        }
+    }
+
+    @Test
+    public void testSerializationHappyCase() {
+        for (Fixture fixture : fixtures) {
+            assertEquals(fixture.json, fixture.converter.serialize(fixture.array));
+            assertEquals(fixture.json, fixture.converter.serialize(fixture.list));
+            assertEquals(JsonArray.of(), fixture.converter.serialize(fixture.converter.newArray(0)));
+        }
+    }
+
+    @Test
+    public void testRegisteredByDefault() throws Exception {
+        StructuralJsonEngine engine = new StructuralJsonEngine();
+        engine.seal();
+        for (Fixture fixture : fixtures) {
+            assertInstanceOf(fixture.converter.getClass(), engine.getSerializerRegistry().getSerializer(fixture.listClass));
+            assertEquals(fixture.list, engine.deserialize(fixture.json, fixture.listClass));
+        }
+    }
+
+    // ----------------------------------------------------------------------------------------------------------------
+    // double
+    // ----------------------------------------------------------------------------------------------------------------
+
+    @Test
+    public void testDoubleSerializationNotFinite() {
+        var converter = new DoubleArrayConverter(registries);
+        JsonSerializationException exception = assertFailsSerialization(converter, new double[] {1.0, Double.NaN, Double.POSITIVE_INFINITY});
+        assertEquals(2, exception.getFieldErrorNode().getErrorCount());
+    }
+
+    @Test
+    public void testDoubleDeserializationOutOfRange() {
+        var converter = new DoubleArrayConverter(registries);
+        JsonArray json = JsonArray.of(JsonNumber.of(1.0), JsonNumber.of(new BigDecimal("1e400")), JsonNumber.of(new BigDecimal("-1e400")));
+        JsonDeserializationException exception = assertFailsDeserialization(converter, json, double[].class);
+        assertEquals(2, exception.getFieldErrorNode().getErrorCount());
+        assertEquals(List.of("1"), exception.getFieldErrorNode().flatten().get(1).fieldPath());
+        assertEquals(List.of("2"), exception.getFieldErrorNode().flatten().get(0).fieldPath());
+    }
+
+    @Test
+    public void testDoubleDeserializationIntegral() throws Exception {
+        var converter = new DoubleArrayConverter(registries);
+        assertArrayEquals(new double[] {3.0}, (double[]) converter.deserialize(JsonArray.of(JsonNumber.of(3)), double[].class));
+    }
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.builtin.collection;
+
+import io.github.grumpystuff.grumpyjson.FieldErrorNode;
+import io.github.grumpystuff.grumpyjson.JsonRegistries;
+import io.github.grumpystuff.grumpyjson.TypeToken;
+import io.github.grumpystuff.grumpyjson.builtin.primitive.IntegerConverter;
+import io.github.grumpystuff.grumpyjson.builtin.primitive.StringConverter;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializer;
+import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
+import io.github.grumpystuff.grumpyjson.json_model.JsonNumber;
+import io.github.grumpystuff.grumpyjson.json_model.JsonObject;
+import io.github.grumpystuff.grumpyjson.json_model.JsonString;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Type;
+import java.util.Map;
+
+import static io.github.grumpystuff.grumpyjson.JsonTestUtil.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StringKeyMapConverterTest {
+
+    private static final Type STRING_INTEGER_MAP_TYPE = new TypeToken<Map<String, Integer>>() {}.getType();
+
+    private final JsonRegistries registries = createRegistries(new IntegerConverter(), new StringConverter());
+    private final StringKeyMapConverter converter = new StringKeyMapConverter(registries);
+
+    public StringKeyMapConverterTest() {
+        registries.seal();
+    }
+
+    @Test
+    public void testSupportedTypes() {
+        assertTrue(converter.supportsTypeForDeserialization(STRING_INTEGER_MAP_TYPE));
+        assertTrue(converter.supportsTypeForDeserialization(new TypeToken<Map<String, ?>>() {}.getType()));
+        assertFalse(converter.supportsTypeForDeserialization(new TypeToken<Map<Integer, String>>() {}.getType()));
+        assertFalse(converter.supportsTypeForDeserialization(new TypeToken<Map<?, String>>() {}.getType()));
+        assertFalse(converter.supportsTypeForDeserialization(Map.class));
+    }
+
+    @Test
+    public void testDeserializationHappyCase() throws Exception {
+        var json = JsonObject.of("foo", JsonNumber.of(12), "bar", JsonNumber.of(34));
+        Map<String, ?> result = converter.deserialize(json, STRING_INTEGER_MAP_TYPE);
+        assertEquals(Map.of("foo", 12, "bar", 34), result);
+        assertThrows(UnsupportedOperationException.class, () -> result.clear());
+        assertEquals(Map.of(), converter.deserialize(JsonObject.of(), STRING_INTEGER_MAP_TYPE));
+    }
+
+    @Test
+    public void testDeserializationWrongType() throws Exception {
+        forNull(json -> assertFailsDeserialization(converter, json, STRING_INTEGER_MAP_TYPE));
+        forNumbers(json -> assertFailsDeserialization(converter, json, STRING_INTEGER_MAP_TYPE));
+        forArrays(json -> assertFailsDeserialization(converter, json, STRING_INTEGER_MAP_TYPE));
+    }
+
+    @Test
+    public void testDeserializationWrongValueType() {
+        var json = JsonObject.of("foo", JsonNumber.of(12), "bar", JsonString.of("x"));
+        var exception = assertFailsDeserialization(converter, json, STRING_INTEGER_MAP_TYPE);
+        assertFieldErrors(exception, new FieldErrorNode.FlattenedError("expected number, found: JSON:\"x\"", "value[bar]"));
+    }
+
+    @Test
+    public void testCustomKeyDeserializerIsUsed() throws Exception {
+        JsonDeserializer upperCaseStrings = new JsonDeserializer() {
+
+            @Override
+            public boolean supportsTypeForDeserialization(Type type) {
+                return type == String.class;
+            }
+
+            @Override
+            public Object deserialize(JsonElement json, Type type) throws JsonDeserializationException {
+                return json.deserializerExpectsString().toUpperCase();
+            }
+
+        };
+        JsonRegistries customRegistries = createRegistries(new IntegerConverter(), upperCaseStrings);
+        customRegistries.seal();
+        var json = JsonObject.of("foo", JsonNumber.of(12));
+        assertEquals(Map.of("FOO", 12), new StringKeyMapConverter(customRegistries).deserialize(json, STRING_INTEGER_MAP_TYPE));
+    }
+
+}
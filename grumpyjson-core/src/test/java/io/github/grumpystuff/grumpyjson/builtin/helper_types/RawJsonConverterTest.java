@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.builtin.helper_types;
+
+import io.github.grumpystuff.grumpyjson.json_model.*;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static io.github.grumpystuff.grumpyjson.JsonTestUtil.assertFailsDeserialization;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+public class RawJsonConverterTest {
+
+    private final RawJsonConverter converter = new RawJsonConverter();
+
+    @Test
+    public void testDeserialization() throws Exception {
+        JsonElement json = JsonObject.of(
+                "a", JsonArray.of(JsonNumber.of(1), JsonNumber.of(new BigDecimal("2.50")), JsonNull.INSTANCE),
+                "b\"", JsonString.of("x\\y\n\u0001"),
+                "c", JsonObject.of("d", JsonBoolean.TRUE)
+        );
+        assertEquals(RawJson.of("{\"a\":[1,2.50,null],\"b\\\"\":\"x\\\\y\\n\\u0001\",\"c\":{\"d\":true}}"),
+                converter.deserialize(json, RawJson.class));
+    }
+
+    @Test
+    public void testDeserializationFromOrigin() throws Exception {
+        // the origin node writes itself, without the lazily mapped tree being built
+        Object origin = new Object() {
+            @Override
+            public String toString() {
+                return "{\"a\":1}";
+            }
+        };
+        JsonElement json = JsonObject.ofLazy(() -> fail("tree was built"), origin);
+        assertEquals(RawJson.of("{\"a\":1}"), converter.deserialize(json, RawJson.class));
+    }
+
+    @Test
+    public void testDeserializationNotFinite() {
+        assertFailsDeserialization(converter, JsonArray.of(JsonNumber.of(Double.NaN)), RawJson.class);
+    }
+
+    @Test
+    public void testSerialization() {
+        assertEquals(JsonRawText.of("{\"a\" : 1}"), converter.serialize(RawJson.of("{\"a\" : 1}")));
+    }
+
+}
@@ -26,11 +26,14 @@ public class ShallowRecordConverterTest {
 
     private record Record(int myInt, String myString) {}
 
+    private record UnsupportedRecord(int myInt, Thread myThread) {}
+
+    private final JsonRegistries registries;
     private final JsonSerializer<Record> serializer;
     private final JsonDeserializer deserializer;
 
     public ShallowRecordConverterTest() throws Exception {
-        JsonRegistries registries = JsonTestUtil.createRegistries(new IntegerConverter(), new StringConverter());
+        registries = JsonTestUtil.createRegistries(new IntegerConverter(), new StringConverter());
         registries.seal();
         serializer = registries.getSerializer(Record.class);
         deserializer = registries.getDeserializer(Record.class);
@@ -73,6 +76,19 @@ public class ShallowRecordConverterTest {
         );
     }
 
+    @Test
+    public void testUnsupportedComponentType() throws Exception {
+        JsonDeserializer unsupportedDeserializer = registries.getDeserializer(UnsupportedRecord.class);
+        JsonObject json = JsonObject.of("myInt", JsonNumber.of(123), "myThread", JsonString.of("foo"));
+        for (int i = 0; i < 2; i++) {
+            // the second time, the error comes from the cached binding
+            JsonTestUtil.assertFieldErrors(
+                    assertFailsDeserialization(unsupportedDeserializer, json, UnsupportedRecord.class),
+                    new FieldErrorNode.FlattenedError(ExceptionMessages.INTERNAL_ERROR, "myThread")
+            );
+        }
+    }
+
     @Test
     public void testUnexpectedProperty() {
         JsonObject json = JsonObject.of(
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.serialize;
+
+import io.github.grumpystuff.grumpyjson.JsonRegistries;
+import io.github.grumpystuff.grumpyjson.builtin.collection.ListConverter;
+import io.github.grumpystuff.grumpyjson.builtin.primitive.IntegerConverter;
+import io.github.grumpystuff.grumpyjson.builtin.primitive.StringConverter;
+import io.github.grumpystuff.grumpyjson.json_model.JsonArray;
+import io.github.grumpystuff.grumpyjson.json_model.JsonNumber;
+import io.github.grumpystuff.grumpyjson.json_model.JsonObject;
+import io.github.grumpystuff.grumpyjson.json_model.JsonString;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static io.github.grumpystuff.grumpyjson.JsonTestUtil.createRegistries;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FieldSelectionTest {
+
+    private record Product(int id, String name) {}
+
+    private record Category(int id, String name, List<Product> products) {}
+
+    private record Unreadable(int id) {
+        @Override
+        public int id() {
+            throw new RuntimeException("must not be read");
+        }
+    }
+
+    private record WithUnreadable(String name, Unreadable unreadable) {}
+
+    private final JsonRegistries registries = createRegistries(new IntegerConverter(), new StringConverter());
+    private final Category category = new Category(1, "shoes", List.of(new Product(2, "boot"), new Product(3, "sandal")));
+
+    public FieldSelectionTest() {
+        registries.registerDualConverter(new ListConverter(registries));
+        registries.seal();
+    }
+
+    @AfterEach
+    public void clearCurrent() {
+        FieldSelection.setCurrent(null);
+    }
+
+    @Test
+    public void testParse() {
+        FieldSelection selection = FieldSelection.parse("id, products.name,products.id");
+        assertSame(FieldSelection.ALL, selection.getFieldSelection("id"));
+        assertNull(selection.getFieldSelection("name"));
+        FieldSelection products = selection.getFieldSelection("products");
+        assertSame(FieldSelection.ALL, products.getFieldSelection("name"));
+        assertSame(FieldSelection.ALL, products.getFieldSelection("id"));
+        assertEquals(FieldSelection.parse("products.id,id,products.name"), selection);
+    }
+
+    @Test
+    public void testWholeFieldWinsOverNestedSelection() {
+        assertSame(FieldSelection.ALL, FieldSelection.parse("products.name,products").getFieldSelection("products"));
+        assertSame(FieldSelection.ALL, FieldSelection.parse("products,products.name").getFieldSelection("products"));
+    }
+
+    @Test
+    public void testMalformed() {
+        assertThrows(IllegalArgumentException.class, () -> FieldSelection.parse(""));
+        assertThrows(IllegalArgumentException.class, () -> FieldSelection.parse("id,,name"));
+        assertThrows(IllegalArgumentException.class, () -> FieldSelection.parse("products."));
+        assertThrows(IllegalArgumentException.class, () -> FieldSelection.parse(".name"));
+    }
+
+    @Test
+    public void testLimits() {
+        String deep = "a" + ".a".repeat(FieldSelection.MAX_DEPTH - 1);
+        assertNotNull(FieldSelection.parse(deep));
+        assertThrows(IllegalArgumentException.class, () -> FieldSelection.parse(deep + ".a"));
+        assertThrows(IllegalArgumentException.class, () -> FieldSelection.parse("a.".repeat(100_000) + "a"));
+        assertThrows(IllegalArgumentException.class, () -> FieldSelection.parse("a,".repeat(FieldSelection.MAX_TEXT_LENGTH / 2) + "a"));
+    }
+
+    @Test
+    public void testSetCurrent() {
+        FieldSelection selection = FieldSelection.parse("id");
+        assertNull(FieldSelection.setCurrent(selection));
+        assertSame(selection, FieldSelection.getCurrent());
+        assertSame(selection, FieldSelection.setCurrent(FieldSelection.ALL));
+        assertNull(FieldSelection.getCurrent());
+    }
+
+    @Test
+    public void testWithoutSelection() {
+        JsonObject json = (JsonObject) registries.serialize(category);
+        assertEquals(3, json.getAsMap().size());
+    }
+
+    @Test
+    public void testNestedSelection() {
+        FieldSelection.setCurrent(FieldSelection.parse("name,products.name"));
+        assertEquals(JsonObject.of(
+                "name", JsonString.of("shoes"),
+                "products", JsonArray.of(JsonObject.of("name", JsonString.of("boot")), JsonObject.of("name", JsonString.of("sandal")))
+        ), registries.serialize(category));
+        assertEquals(FieldSelection.parse("name,products.name"), FieldSelection.getCurrent());
+    }
+
+    @Test
+    public void testWholeField() {
+        FieldSelection.setCurrent(FieldSelection.parse("products"));
+        assertEquals(JsonObject.of("products", JsonArray.of(
+                JsonObject.of("id", JsonNumber.of(2), "name", JsonString.of("boot")),
+                JsonObject.of("id", JsonNumber.of(3), "name", JsonString.of("sandal"))
+        )), registries.serialize(category));
+    }
+
+    @Test
+    public void testUnselectedComponentIsNotRead() {
+        FieldSelection.setCurrent(FieldSelection.parse("name"));
+        assertEquals(JsonObject.of("name", JsonString.of("foo")), registries.serialize(new WithUnreadable("foo", new Unreadable(1))));
+    }
+
+}
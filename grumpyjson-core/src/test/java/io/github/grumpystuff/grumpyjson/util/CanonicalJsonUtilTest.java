@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class CanonicalJsonUtilTest {
+
+    @Test
+    public void testPlainNumbers() {
+        assertEquals("0", CanonicalJsonUtil.formatNumber(new BigDecimal("0.000")));
+        assertEquals("100", CanonicalJsonUtil.formatNumber(100));
+        assertEquals("1.5", CanonicalJsonUtil.formatNumber(new BigDecimal("1.50")));
+        assertEquals("-0.000001", CanonicalJsonUtil.formatNumber(-0.000001));
+        assertEquals("100000000000000000000", CanonicalJsonUtil.formatNumber(1e20));
+        assertEquals("12345678901234567890", CanonicalJsonUtil.formatNumber(new BigInteger("12345678901234567890")));
+    }
+
+    @Test
+    public void testExponentNumbers() {
+        assertEquals("1e+21", CanonicalJsonUtil.formatNumber(1e21));
+        assertEquals("1.23e+22", CanonicalJsonUtil.formatNumber(new BigDecimal("123e20")));
+        assertEquals("1e-7", CanonicalJsonUtil.formatNumber(1e-7));
+        assertEquals("-1.5e-10", CanonicalJsonUtil.formatNumber(new BigDecimal("-15E-11")));
+    }
+
+    @Test
+    public void testHugeExponent() {
+        // must not expand to a billion digits
+        assertEquals("1e+999999999", CanonicalJsonUtil.formatNumber(new BigDecimal("1e999999999")));
+        assertEquals("-2.5e-999999999", CanonicalJsonUtil.formatNumber(new BigDecimal("-25e-1000000000")));
+    }
+
+}
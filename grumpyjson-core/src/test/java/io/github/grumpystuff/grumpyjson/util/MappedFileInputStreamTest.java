@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class MappedFileInputStreamTest {
+
+    @TempDir
+    Path directory;
+
+    private Path createFile(int size) throws IOException {
+        byte[] data = new byte[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = (byte) (i * 7);
+        }
+        return Files.write(directory.resolve("data.bin"), data);
+    }
+
+    @Test
+    public void testReadAcrossSegments() throws IOException {
+        Path file = createFile(1000);
+        for (int segmentSize : new int[] {1, 7, 999, 1000, 1001}) {
+            try (MappedFileInputStream in = new MappedFileInputStream(file, segmentSize)) {
+                Assertions.assertEquals(1000, in.getSize());
+                Assertions.assertArrayEquals(Files.readAllBytes(file), in.readAllBytes());
+                Assertions.assertEquals(-1, in.read());
+                Assertions.assertEquals(0, in.available());
+            }
+        }
+    }
+
+    @Test
+    public void testSingleByteReads() throws IOException {
+        Path file = createFile(20);
+        try (MappedFileInputStream in = new MappedFileInputStream(file, 8)) {
+            for (int i = 0; i < 20; i++) {
+                Assertions.assertEquals(20 - i, in.available());
+                Assertions.assertEquals((i * 7) & 0xff, in.read());
+            }
+            Assertions.assertEquals(-1, in.read());
+        }
+    }
+
+    @Test
+    public void testEmptyFile() throws IOException {
+        Path file = createFile(0);
+        try (MappedFileInputStream in = new MappedFileInputStream(file)) {
+            Assertions.assertEquals(-1, in.read());
+            Assertions.assertEquals(-1, in.read(new byte[10], 0, 10));
+        }
+    }
+
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.util;
+
+import io.github.grumpystuff.grumpyjson.TypeToken;
+import io.github.grumpystuff.grumpyjson.builtin.record.RecordInfo;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TypeInternerTest {
+
+    private record Generic<A>(List<A> list) {}
+
+    private record Holder(List<Map<String, Integer>> field) {}
+
+    private record Collectable(Map<Long, List<Short>> field) {}
+
+    @Test
+    public void testClassesAreUnchanged() {
+        assertSame(String.class, TypeInterner.intern(String.class));
+    }
+
+    @Test
+    public void testEqualTypesAreInternedToTheSameInstance() {
+        Type fromToken = new TypeToken<List<Map<String, Integer>>>() {}.getType();
+        Type fromOtherToken = new TypeToken<List<Map<String, Integer>>>() {}.getType();
+        Type fromReflection = new RecordInfo(Holder.class).getComponentInfos().get(0).getType();
+        Type fromReplacement = TypeUtil.replaceTypeVariables(
+                new RecordInfo(Generic.class).getComponentInfos().get(0).getType(),
+                Map.of("A", new TypeToken<Map<String, Integer>>() {}.getType()));
+        assertSame(fromToken, fromOtherToken);
+        assertSame(fromToken, fromReflection);
+        assertSame(fromToken, fromReplacement);
+        assertSame(fromToken, TypeInterner.intern(fromToken));
+
+        // type arguments are canonical too
+        Type elementType = ((ParameterizedType) fromToken).getActualTypeArguments()[0];
+        assertSame(new TypeToken<Map<String, Integer>>() {}.getType(), elementType);
+    }
+
+    @Test
+    public void testCompatibleWithJdkTypes() throws Exception {
+        Type jdkType = Holder.class.getDeclaredField("field").getGenericType();
+        Type interned = TypeInterner.intern(jdkType);
+        assertNotSame(jdkType, interned);
+        assertEquals(jdkType, interned);
+        assertEquals(interned, jdkType);
+        assertEquals(jdkType.hashCode(), interned.hashCode());
+        assertEquals(jdkType.getTypeName(), interned.getTypeName());
+    }
+
+    @Test
+    public void testTypeArgumentsCannotBeModified() {
+        Type type = new TypeToken<Map<String, Integer>>() {}.getType();
+        ((ParameterizedType) type).getActualTypeArguments()[0] = Long.class;
+        assertEquals(String.class, ((ParameterizedType) type).getActualTypeArguments()[0]);
+        assertSame(type, new TypeToken<Map<String, Integer>>() {}.getType());
+    }
+
+    @Test
+    public void testCanonicalInstancesAreNotKeptAlive() throws Exception {
+        WeakReference<Type> reference = new WeakReference<>(TypeInterner.intern(
+                Collectable.class.getDeclaredField("field").getGenericType()));
+        for (int i = 0; i < 100 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(reference.get());
+    }
+
+}
@@ -8,8 +8,13 @@ package io.github.grumpystuff.grumpyjson.gson;
 
 
 import com.google.gson.*;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.google.gson.stream.MalformedJsonException;
 import io.github.grumpystuff.grumpyjson.JsonEngine;
 import io.github.grumpystuff.grumpyjson.TypeToken;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonArrayIterator;
 import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
 import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
 import io.github.grumpystuff.grumpyjson.serialize.JsonSerializationException;
@@ -27,6 +32,7 @@ import java.util.regex.Pattern;
 public final class GsonBasedJsonEngine extends JsonEngine {
 
     private final Gson gson = new GsonBuilder().setStrictness(Strictness.STRICT).setPrettyPrinting().serializeNulls().create();
+    private final Gson singleLineGson = new GsonBuilder().setStrictness(Strictness.STRICT).serializeNulls().create();
 
     /**
      * Creates a new JSON engine with standard converters registered.
@@ -39,7 +45,7 @@ public final class GsonBasedJsonEngine extends JsonEngine {
     // -----------------------------------------------------------------------
 
     @Override
-    public Object deserialize(Reader source, Type type) throws JsonDeserializationException {
+    protected Object deserializeFromReader(Reader source, Type type) throws JsonDeserializationException {
         Objects.requireNonNull(source, "source");
         Objects.requireNonNull(type, "type");
 
@@ -62,6 +68,64 @@ public final class GsonBasedJsonEngine extends JsonEngine {
         return deserialize(json, type);
     }
 
+    @Override
+    protected JsonArrayIterator<?> deserializeElementsFromStream(InputStream source, Type elementType) throws JsonDeserializationException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(elementType, "elementType");
+
+        JsonReader reader = gson.newJsonReader(new InputStreamReader(source, StandardCharsets.UTF_8));
+        try {
+            if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+                throw new JsonDeserializationException("expected a JSON array");
+            }
+            reader.beginArray();
+        } catch (EOFException e) {
+            throw new JsonDeserializationException("no JSON to deserialize");
+        } catch (IOException e) {
+            throw mapReaderException(e);
+        }
+        TypeAdapter<com.google.gson.JsonElement> adapter = gson.getAdapter(com.google.gson.JsonElement.class);
+        return new JsonArrayIterator<>(this, elementType) {
+
+            @Override
+            protected JsonElement readNextElement() throws JsonDeserializationException {
+                try {
+                    if (!reader.hasNext()) {
+                        reader.endArray();
+                        return null;
+                    }
+                    return GsonTreeMapper.mapFromGson(adapter.read(reader));
+                } catch (IOException | IllegalStateException e) {
+                    throw mapReaderException(e);
+                }
+            }
+
+            @Override
+            protected void readEnd() throws JsonDeserializationException {
+                try {
+                    if (reader.peek() != JsonToken.END_DOCUMENT) {
+                        throw new JsonDeserializationException("unexpected content after JSON array");
+                    }
+                } catch (IOException e) {
+                    throw mapReaderException(e);
+                }
+            }
+
+            @Override
+            protected void closeSource() throws IOException {
+                reader.close();
+            }
+
+        };
+    }
+
+    private static JsonDeserializationException mapReaderException(Exception e) {
+        if (e instanceof MalformedJsonException || e instanceof EOFException || e instanceof IllegalStateException) {
+            return new JsonDeserializationException(mapGsonErrorMessage(Objects.requireNonNullElse(e.getMessage(), "")));
+        }
+        return new JsonDeserializationException("I/O error while reading JSON");
+    }
+
     // the message looks like this: "at line 1 column 20 path"
     private static final Pattern GSON_SYNTAX_ERROR_LOCATION_PATTERN = Pattern.compile("at line (\\d+) column (\\d+) ");
 
@@ -83,13 +147,20 @@ public final class GsonBasedJsonEngine extends JsonEngine {
     // -----------------------------------------------------------------------
 
     @Override
-    public void writeTo(Object value, Writer destination) throws JsonSerializationException {
-        Objects.requireNonNull(value, "value");
+    protected void serializeToWriter(JsonElement json, Writer destination, boolean pretty) throws JsonSerializationException {
+        Objects.requireNonNull(json, "json");
         Objects.requireNonNull(destination, "destination");
 
-        JsonElement json = toJsonElement(value);
-        com.google.gson.JsonElement gsonElement = GsonTreeMapper.mapToGson(json);
-        gson.toJson(gsonElement, destination);
+        write(json, pretty ? gson : singleLineGson, destination);
+    }
+
+    private static void write(JsonElement json, Gson gson, Writer destination) {
+        try {
+            JsonWriter writer = gson.newJsonWriter(destination);
+            GsonTreeMapper.write(json, gson, writer);
+        } catch (IOException e) {
+            throw new JsonIOException(e);
+        }
     }
 
 }
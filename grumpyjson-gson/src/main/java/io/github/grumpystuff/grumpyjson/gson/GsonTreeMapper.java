@@ -1,13 +1,24 @@
 package io.github.grumpystuff.grumpyjson.gson;
 
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
 import io.github.grumpystuff.grumpyjson.json_model.*;
 import io.github.grumpystuff.grumpyjson.util.Parameters;
 
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * Maps between Gson's tree model and grumpyjson's tree model. Arrays and objects from Gson are mapped lazily, level by
+ * level, when they are first visited, so subtrees that nobody looks at (such as ignored fields) are never mapped.
+ * <p>
+ * The other direction does not build a Gson tree, but writes grumpyjson's tree to a Gson {@link JsonWriter} directly.
+ * Arrays and objects that were mapped from Gson are written from the original Gson node, and
+ * {@link JsonRawText raw JSON text} is written verbatim.
+ */
 final class GsonTreeMapper {
 
     // prevent instantiation
@@ -31,45 +42,64 @@ final class GsonTreeMapper {
                 throw new IllegalArgumentException("unknown primitive type: " + primitive);
             }
         } else if (gsonElement.isJsonArray()) {
-            List<JsonElement> mappedChildren = new ArrayList<>();
-            for (com.google.gson.JsonElement gsonChild : gsonElement.getAsJsonArray()) {
-                mappedChildren.add(mapFromGson(gsonChild));
-            }
-            return JsonArray.of(mappedChildren);
+            com.google.gson.JsonArray gsonArray = gsonElement.getAsJsonArray();
+            return JsonArray.ofLazy(() -> {
+                List<JsonElement> mappedChildren = new ArrayList<>(gsonArray.size());
+                for (com.google.gson.JsonElement gsonChild : gsonArray) {
+                    mappedChildren.add(mapFromGson(gsonChild));
+                }
+                return mappedChildren;
+            }, gsonArray);
         } else if (gsonElement.isJsonObject()) {
-            Map<String, JsonElement> mappedProperties = new HashMap<>();
-            for (java.util.Map.Entry<String, com.google.gson.JsonElement> gsonEntry : gsonElement.getAsJsonObject().entrySet()) {
-                mappedProperties.put(gsonEntry.getKey(), mapFromGson(gsonEntry.getValue()));
-            }
-            return JsonObject.of(mappedProperties);
+            com.google.gson.JsonObject gsonObject = gsonElement.getAsJsonObject();
+            return JsonObject.ofLazy(() -> {
+                Map<String, JsonElement> mappedProperties = new LinkedHashMap<>();
+                for (java.util.Map.Entry<String, com.google.gson.JsonElement> gsonEntry : gsonObject.entrySet()) {
+                    mappedProperties.put(gsonEntry.getKey(), mapFromGson(gsonEntry.getValue()));
+                }
+                return mappedProperties;
+            }, gsonObject);
         } else {
             throw new IllegalArgumentException("unknown element type: " + gsonElement);
         }
     }
 
-    static com.google.gson.JsonElement mapToGson(JsonElement jsonElement) {
+    static void write(JsonElement jsonElement, Gson gson, JsonWriter writer) throws IOException {
         Parameters.notNull(jsonElement, "jsonElement");
+        Parameters.notNull(gson, "gson");
+        Parameters.notNull(writer, "writer");
 
         if (jsonElement instanceof JsonNull) {
-            return com.google.gson.JsonNull.INSTANCE;
+            writer.nullValue();
         } else if (jsonElement instanceof JsonBoolean b) {
-            return new com.google.gson.JsonPrimitive(b.getValue());
+            writer.value(b.getValue());
         } else if (jsonElement instanceof JsonNumber n) {
-            return new com.google.gson.JsonPrimitive(n.getValue());
+            writer.value(n.getValue());
         } else if (jsonElement instanceof JsonString s) {
-            return new com.google.gson.JsonPrimitive(s.getValue());
+            writer.value(s.getValue());
+        } else if (jsonElement instanceof JsonRawText r) {
+            writer.jsonValue(r.getText());
         } else if (jsonElement instanceof JsonArray a) {
-            com.google.gson.JsonArray result = new com.google.gson.JsonArray();
+            if (a.getOrigin() instanceof com.google.gson.JsonArray origin) {
+                gson.toJson(origin, writer);
+                return;
+            }
+            writer.beginArray();
             for (JsonElement child : a.getAsList()) {
-                result.add(mapToGson(child));
+                write(child, gson, writer);
             }
-            return result;
+            writer.endArray();
         } else if (jsonElement instanceof JsonObject o) {
-            com.google.gson.JsonObject result = new com.google.gson.JsonObject();
+            if (o.getOrigin() instanceof com.google.gson.JsonObject origin) {
+                gson.toJson(origin, writer);
+                return;
+            }
+            writer.beginObject();
             for (java.util.Map.Entry<String, JsonElement> entry : o.getAsMap().entrySet()) {
-                result.add(entry.getKey(), mapToGson(entry.getValue()));
+                writer.name(entry.getKey());
+                write(entry.getValue(), gson, writer);
             }
-            return result;
+            writer.endObject();
         } else {
             throw new IllegalArgumentException("unknown element type: " + jsonElement);
         }
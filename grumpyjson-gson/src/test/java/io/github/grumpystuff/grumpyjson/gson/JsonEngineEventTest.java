@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyjson.gson;
+
+import io.github.grumpystuff.grumpyjson.JsonEngine;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+public class JsonEngineEventTest {
+
+    public record Record(String text, List<Integer> numbers) {}
+
+    private static List<RecordedEvent> record(String eventName, int expectedCount, Predicate<RecordedEvent> filter,
+                                              Executable body) throws Throwable {
+        List<RecordedEvent> events = new ArrayList<>();
+        CountDownLatch latch = new CountDownLatch(expectedCount);
+        try (RecordingStream stream = new RecordingStream()) {
+            stream.enable(eventName).withThreshold(Duration.ZERO);
+            stream.onEvent(eventName, event -> {
+                if (filter.test(event)) {
+                    synchronized (events) {
+                        events.add(event);
+                    }
+                    latch.countDown();
+                }
+            });
+            stream.startAsync();
+            body.execute();
+            Assertions.assertTrue(latch.await(20, TimeUnit.SECONDS), "events not received");
+        }
+        synchronized (events) {
+            return List.copyOf(events);
+        }
+    }
+
+    @Test
+    public void testDeserializeEvent() throws Throwable {
+        JsonEngine engine = new GsonBasedJsonEngine();
+        engine.seal();
+        String json = "{\"text\": \"ä\", \"numbers\": [1, 2]}";
+        List<RecordedEvent> events = record("grumpyjson.Deserialize", 3,
+                event -> Record.class.getTypeName().equals(event.getString("type")), () -> {
+            engine.deserialize(json, Record.class);
+            engine.deserialize(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), Record.class);
+            engine.deserialize(json.getBytes(StandardCharsets.UTF_8), Record.class);
+        });
+        Assertions.assertEquals(3, events.size());
+        for (RecordedEvent event : events) {
+            Assertions.assertEquals(json.getBytes(StandardCharsets.UTF_8).length, event.getLong("bytes"));
+        }
+    }
+
+    @Test
+    public void testSerializeEvent() throws Throwable {
+        JsonEngine engine = new GsonBasedJsonEngine();
+        engine.seal();
+        Record record = new Record("foo", List.of(1, 2, 3));
+        StringWriter writer = new StringWriter();
+        StringWriter singleLineWriter = new StringWriter();
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        List<RecordedEvent> events = record("grumpyjson.Serialize", 3,
+                event -> Record.class.getName().equals(event.getString("type")), () -> {
+            engine.writeTo(record, writer);
+            engine.writeSingleLineTo(record, singleLineWriter);
+            engine.writeTo(record, stream);
+        });
+        Assertions.assertEquals(3, events.size());
+        List<Long> sizes = events.stream().map(event -> event.getLong("bytes")).toList();
+        Assertions.assertTrue(sizes.contains((long) writer.toString().length()));
+        Assertions.assertTrue(sizes.contains((long) singleLineWriter.toString().length()));
+        Assertions.assertTrue(sizes.contains((long) stream.size()));
+    }
+
+    @Test
+    public void testConverterGenerationEvents() throws Throwable {
+        JsonEngine engine = new GsonBasedJsonEngine();
+        engine.seal();
+        List<RecordedEvent> events = record("grumpyjson.ConverterGeneration", 2,
+                event -> Record.class.getName().equals(event.getString("key")), () -> {
+            engine.deserialize("{\"text\": \"foo\", \"numbers\": []}", Record.class);
+            engine.deserialize("{\"text\": \"foo\", \"numbers\": []}", Record.class);
+        });
+
+        // one event for the registry lookup, one for the record converter factory -- none for the second call
+        Assertions.assertEquals(2, events.size());
+        for (RecordedEvent event : events) {
+            Assertions.assertEquals("io.github.grumpystuff.grumpyjson.builtin.record.RecordConverter", event.getString("result"));
+        }
+    }
+
+}
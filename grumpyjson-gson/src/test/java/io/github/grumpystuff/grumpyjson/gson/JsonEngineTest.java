@@ -7,16 +7,202 @@
 package io.github.grumpystuff.grumpyjson.gson;
 
 import io.github.grumpystuff.grumpyjson.JsonEngine;
+import io.github.grumpystuff.grumpyjson.JsonValueReader;
+import io.github.grumpystuff.grumpyjson.JsonValueWriter;
+import io.github.grumpystuff.grumpyjson.OutputProfile;
+import io.github.grumpystuff.grumpyjson.TypeToken;
+import io.github.grumpystuff.grumpyjson.builtin.helper_types.RawJson;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonArrayIterator;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
+import io.github.grumpystuff.grumpyjson.deserialize.UncheckedJsonDeserializationException;
+import io.github.grumpystuff.grumpyjson.json_model.JsonArray;
+import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
+import io.github.grumpystuff.grumpyjson.json_model.JsonNull;
+import io.github.grumpystuff.grumpyjson.json_model.JsonNumber;
+import io.github.grumpystuff.grumpyjson.json_model.JsonObject;
+import io.github.grumpystuff.grumpyjson.json_model.JsonString;
+import io.github.grumpystuff.grumpyjson.registry.NotRegisteredException;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
 
 public class JsonEngineTest {
 
     private final JsonEngine engine = new GsonBasedJsonEngine();
 
+    public JsonEngineTest() {
+        engine.seal();
+    }
+
     @Test
     public void testNullToJson() {
         Assertions.assertThrows(NullPointerException.class, () -> engine.serializeToString(null));
     }
 
+    @Test
+    public void testWriteSingleLine() {
+        StringWriter writer = new StringWriter();
+        engine.writeSingleLineTo(new Record("a\nb", List.of(1, 2)), writer);
+        Assertions.assertEquals(-1, writer.toString().indexOf('\n'));
+        Assertions.assertTrue(writer.toString().contains("\"a\\nb\""));
+    }
+
+    @Test
+    public void testPassthroughElementIsWrittenFromOrigin() throws Exception {
+        Passthrough passthrough = engine.deserialize("{\"id\": 1, \"payload\": {\"a\": [1, 2.50, \"x\"]}}", Passthrough.class);
+        JsonObject payload = (JsonObject) passthrough.payload();
+        Assertions.assertInstanceOf(com.google.gson.JsonObject.class, payload.getOrigin());
+        Assertions.assertEquals(JsonObject.of("a", JsonArray.of(JsonNumber.of(1), JsonNumber.of(2.5), JsonString.of("x"))), payload);
+
+        // the number is written as it was in the input because the Gson node is reused
+        String json = engine.serializeToString(passthrough);
+        Assertions.assertTrue(json.contains("2.50"), json);
+        Assertions.assertEquals(passthrough, engine.deserialize(json, Passthrough.class));
+        Assertions.assertNull(JsonObject.of().getOrigin());
+    }
+
+    public record Record(String text, List<Integer> numbers) {}
+
+    @Test
+    public void testRawJson() throws Exception {
+        WithRawJson value = engine.deserialize("{\"id\": 1, \"raw\": {\"a\": [1, 2.50, \"x\"]}}", WithRawJson.class);
+        Assertions.assertEquals(RawJson.of("{\"a\":[1,2.50,\"x\"]}"), value.raw());
+
+        // the text is written verbatim, including its whitespace
+        String json = engine.serializeToString(new WithRawJson(2, RawJson.of("{\"b\" : [ true,null ]}")));
+        Assertions.assertTrue(json.contains("{\"b\" : [ true,null ]}"), json);
+        Assertions.assertEquals(RawJson.of("{\"b\":[true,null]}"), engine.deserialize(json, WithRawJson.class).raw());
+    }
+
+    @Test
+    public void testOutputProfiles() throws Exception {
+        Ordered value = new Ordered("x", 2, JsonObject.of("b", JsonNumber.of(new BigDecimal("1.50")), "a", JsonNumber.of(1e21)));
+        Assertions.assertEquals(OutputProfile.COMPACT, engine.getOutputProfile());
+        Assertions.assertEquals("{\"z\":\"x\",\"m\":2,\"a\":{\"b\":1.50,\"a\":1.0E21}}", engine.serializeToString(value));
+        Assertions.assertEquals("{\"a\":{\"a\":1e+21,\"b\":1.5},\"m\":2,\"z\":\"x\"}",
+                engine.serializeToString(value, OutputProfile.CANONICAL));
+        String pretty = engine.serializeToString(value, OutputProfile.PRETTY);
+        Assertions.assertTrue(pretty.contains("\n"), pretty);
+        JsonElement parsed = engine.deserialize(pretty, JsonElement.class);
+        Assertions.assertEquals(engine.serializeToString(value, OutputProfile.CANONICAL), engine.serializeToString(parsed, OutputProfile.CANONICAL));
+    }
+
+    @Test
+    public void testByteInputAndOutput() throws Exception {
+        Ordered value = new Ordered("ä", 2, JsonObject.of("b", JsonString.of("x")));
+        String json = engine.serializeToString(value);
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        engine.writeTo(value, out);
+        Assertions.assertArrayEquals(bytes, out.toByteArray());
+
+        Assertions.assertEquals(value, engine.deserialize(bytes, Ordered.class));
+        Assertions.assertEquals(value, engine.deserialize(new ByteArrayInputStream(bytes), Ordered.class));
+
+        // only the bytes between position and limit are read, and the position is not changed
+        byte[] padded = ("xx" + json + "yy").getBytes(StandardCharsets.UTF_8);
+        ByteBuffer heapBuffer = ByteBuffer.wrap(padded, 2, bytes.length).slice();
+        Assertions.assertEquals(value, engine.deserialize(heapBuffer, Ordered.class));
+        Assertions.assertEquals(0, heapBuffer.position());
+        ByteBuffer directBuffer = ByteBuffer.allocateDirect(padded.length).put(padded).position(2).limit(2 + bytes.length);
+        Assertions.assertEquals(value, engine.deserialize(directBuffer, Ordered.class));
+        Assertions.assertEquals(2, directBuffer.position());
+    }
+
+    @Test
+    public void testFileInput(@TempDir Path directory) throws Exception {
+        List<Ordered> values = List.of(new Ordered("ä", 1, JsonString.of("x")), new Ordered("b", 2, JsonObject.of()));
+        Path file = Files.writeString(directory.resolve("values.json"), engine.serializeToString(values));
+        Assertions.assertEquals(values, engine.deserialize(file, new TypeToken<List<Ordered>>() {}));
+
+        Path emptyFile = Files.writeString(directory.resolve("empty.json"), "");
+        Assertions.assertThrows(JsonDeserializationException.class, () -> engine.deserialize(emptyFile, Ordered.class));
+        Assertions.assertThrows(NoSuchFileException.class, () -> engine.deserialize(directory.resolve("missing.json"), Ordered.class));
+    }
+
+    @Test
+    public void testElementStreaming(@TempDir Path directory) throws Exception {
+        String json = "[{\"z\": \"a\", \"m\": 1, \"a\": null}, {\"z\": \"b\", \"m\": \"x\", \"a\": 1}, {\"z\": \"c\", \"m\": 3, \"a\": []}]";
+        try (JsonArrayIterator<Ordered> iterator = engine.deserializeElements(stream(json), Ordered.class)) {
+            Assertions.assertEquals(new Ordered("a", 1, JsonNull.of()), iterator.next());
+
+            // an element of the wrong type is reported with its index, and iteration continues
+            var exception = Assertions.assertThrows(UncheckedJsonDeserializationException.class, iterator::next);
+            Assertions.assertEquals(List.of("1", "m"), exception.getCause().getFieldErrorNode().flatten().get(0).fieldPath());
+            Assertions.assertEquals(new Ordered("c", 3, JsonArray.of()), iterator.next());
+            Assertions.assertFalse(iterator.hasNext());
+            Assertions.assertEquals(3, iterator.getIndex());
+        }
+
+        try (Stream<Integer> stream = engine.deserializeElements(stream("[1, 2, 3]"), Integer.class).stream()) {
+            Assertions.assertEquals(List.of(1, 2, 3), stream.toList());
+        }
+        Path file = Files.writeString(directory.resolve("numbers.json"), "[[1], [], [2, 3]]");
+        try (JsonArrayIterator<List<Integer>> iterator = engine.deserializeElements(file, new TypeToken<List<Integer>>() {})) {
+            Assertions.assertEquals(List.of(List.of(1), List.of(), List.of(2, 3)), iterator.stream().toList());
+        }
+
+        // a syntax error ends the iteration
+        try (JsonArrayIterator<Integer> iterator = engine.deserializeElements(stream("[1, 2,, 3]"), Integer.class)) {
+            Assertions.assertEquals(1, iterator.next());
+            Assertions.assertEquals(2, iterator.next());
+            var exception = Assertions.assertThrows(UncheckedJsonDeserializationException.class, iterator::hasNext);
+            Assertions.assertTrue(exception.getMessage().contains("syntax error"), exception.getMessage());
+            Assertions.assertFalse(iterator.hasNext());
+        }
+        try (JsonArrayIterator<Integer> iterator = engine.deserializeElements(stream("[1] 2"), Integer.class)) {
+            Assertions.assertEquals(1, iterator.next());
+            Assertions.assertThrows(UncheckedJsonDeserializationException.class, iterator::hasNext);
+        }
+
+        Assertions.assertThrows(JsonDeserializationException.class, () -> engine.deserializeElements(stream("{}"), Integer.class));
+        Assertions.assertThrows(JsonDeserializationException.class, () -> engine.deserializeElements(stream(""), Integer.class));
+    }
+
+    private static InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testTypedReaderAndWriter() throws Exception {
+        JsonValueReader<List<Ordered>> reader = engine.readerFor(new TypeToken<List<Ordered>>() {});
+        JsonValueWriter<Ordered> writer = engine.writerFor(Ordered.class);
+        Ordered value = new Ordered("ä", 1, JsonObject.of("b", JsonNumber.of(2)));
+        String json = writer.writeToString(value);
+        Assertions.assertEquals(engine.serializeToString(value), json);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.writeTo(value, out);
+        Assertions.assertEquals(json, out.toString(StandardCharsets.UTF_8));
+
+        String listJson = "[" + json + "," + json + "]";
+        Assertions.assertEquals(List.of(value, value), reader.read(listJson));
+        Assertions.assertEquals(List.of(value, value), reader.read(listJson.getBytes(StandardCharsets.UTF_8)));
+        Assertions.assertEquals(List.of(value, value), reader.read(stream(listJson)));
+        var exception = Assertions.assertThrows(JsonDeserializationException.class, () -> reader.read("[{\"z\": 1, \"m\": 1, \"a\": null}]"));
+        Assertions.assertEquals(List.of("0", "z"), exception.getFieldErrorNode().flatten().get(0).fieldPath());
+
+        Assertions.assertEquals("{\"a\":{\"b\":2},\"m\":1,\"z\":\"x\"}",
+                engine.writerFor(Ordered.class, OutputProfile.CANONICAL).writeToString(new Ordered("x", 1, JsonObject.of("b", JsonNumber.of(2)))));
+        Assertions.assertThrows(NotRegisteredException.class, () -> engine.readerFor(Object.class));
+    }
+
+    public record Passthrough(int id, JsonElement payload) {}
+
+    public record Ordered(String z, int m, JsonElement a) {}
+
+    public record WithRawJson(int id, RawJson raw) {}
+
 }
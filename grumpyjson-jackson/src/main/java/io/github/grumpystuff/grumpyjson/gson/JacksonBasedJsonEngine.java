@@ -8,20 +8,36 @@ package io.github.grumpystuff.grumpyjson.gson;
 
 
 import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.PrettyPrinter;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.node.JsonNodeType;
+import com.fasterxml.jackson.databind.node.POJONode;
+import com.fasterxml.jackson.databind.util.RawValue;
 import io.github.grumpystuff.grumpyjson.FieldErrorNode;
 import io.github.grumpystuff.grumpyjson.JsonEngine;
+import io.github.grumpystuff.grumpyjson.StructuralJsonEngine;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonArrayIterator;
 import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
+import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
 import io.github.grumpystuff.grumpyjson.serialize.JsonSerializationException;
+import io.github.grumpystuff.grumpyjson.util.CloseShieldOutputStream;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.Writer;
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
 import java.util.Objects;
 
 /**
@@ -29,33 +45,167 @@ import java.util.Objects;
  */
 public abstract class JacksonBasedJsonEngine extends JsonEngine {
 
+    private static final ObjectMapper DEFAULT_PARSER_MAPPER = new ObjectMapper();
+
     /**
      * Creates a new JSON engine with standard converters registered.
      */
     public JacksonBasedJsonEngine() {
     }
 
+    /**
+     * Creates a new JSON engine that uses the converters of another engine, see
+     * {@link io.github.grumpystuff.grumpyjson.StructuralJsonEngine#StructuralJsonEngine(StructuralJsonEngine)}.
+     *
+     * @param converterSource the engine whose converters are used
+     */
+    public JacksonBasedJsonEngine(StructuralJsonEngine converterSource) {
+        super(converterSource);
+    }
+
     // -----------------------------------------------------------------------
     // deserialize
     // -----------------------------------------------------------------------
 
     @Override
-    public Object deserialize(Reader source, Type type) throws JsonDeserializationException {
+    protected Object deserializeFromReader(Reader source, Type type) throws JsonDeserializationException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(type, "type");
+
+        JsonNode jsonNode;
+        try {
+            jsonNode = readJson(source);
+        } catch (JsonDeserializationException e) {
+            throw mapDeserializationException(e);
+        }
+        return deserialize(jsonNode, type);
+    }
+
+    @Override
+    protected Object deserializeFromStream(InputStream source, Type type) throws JsonDeserializationException {
         Objects.requireNonNull(source, "source");
         Objects.requireNonNull(type, "type");
 
+        JsonNode jsonNode;
+        try {
+            jsonNode = readJson(source);
+        } catch (JsonDeserializationException e) {
+            throw mapDeserializationException(e);
+        }
+        return deserialize(jsonNode, type);
+    }
+
+    @Override
+    protected Object deserializeFromBytes(byte[] source, int offset, int length, Type type) throws JsonDeserializationException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(type, "type");
+
+        JsonNode jsonNode;
+        try {
+            jsonNode = readJson(source, offset, length);
+        } catch (JsonDeserializationException e) {
+            throw mapDeserializationException(e);
+        }
+        return deserialize(jsonNode, type);
+    }
+
+    @Override
+    protected JsonArrayIterator<?> deserializeElementsFromStream(InputStream source, Type elementType) throws JsonDeserializationException {
+        Objects.requireNonNull(source, "source");
+        Objects.requireNonNull(elementType, "elementType");
+
+        JsonParser parser;
+        try {
+            parser = createParser(source);
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                throw new JsonDeserializationException("no JSON to deserialize");
+            }
+            if (token != JsonToken.START_ARRAY) {
+                throw new JsonDeserializationException("expected a JSON array");
+            }
+        } catch (IOException e) {
+            throw mapDeserializationException(new JsonDeserializationException(e));
+        }
+        return new JsonArrayIterator<>(this, elementType) {
+
+            @Override
+            protected JsonElement readNextElement() throws JsonDeserializationException {
+                try {
+                    JsonToken token = parser.nextToken();
+                    if (token == null) {
+                        throw new JsonDeserializationException("unexpected end of input inside JSON array");
+                    }
+                    if (token == JsonToken.END_ARRAY) {
+                        return null;
+                    }
+                    JsonNode element = parser.readValueAsTree();
+                    checkTree(element);
+                    return JacksonTreeMapper.mapFromJackson(element);
+                } catch (IOException e) {
+                    throw mapDeserializationException(new JsonDeserializationException(e));
+                }
+            }
+
+            @Override
+            protected void readEnd() throws JsonDeserializationException {
+                try {
+                    if (parser.nextToken() != null) {
+                        throw new JsonDeserializationException("unexpected content after JSON array");
+                    }
+                } catch (IOException e) {
+                    throw mapDeserializationException(new JsonDeserializationException(e));
+                }
+            }
+
+            @Override
+            protected void closeSource() throws IOException {
+                // the parser might be configured not to close its source
+                try (source) {
+                    parser.close();
+                }
+            }
+
+        };
+    }
+
+    /**
+     * Deserializes a Jackson tree. This is used by subclasses that read the tree in a way other than from a
+     * {@link Reader}, such as from a binary format.
+     *
+     * @param jsonNode the tree to deserialize, or null or a missing node if the input was empty
+     * @param type the target type to deserialize to
+     * @return the deserialized value
+     * @throws JsonDeserializationException if the tree is empty or does not match the target type
+     */
+    protected final Object deserialize(JsonNode jsonNode, Type type) throws JsonDeserializationException {
+        Objects.requireNonNull(type, "type");
+
         try {
-            JsonNode jsonNode = readJson(source);
             if (jsonNode == null || jsonNode.getNodeType() == JsonNodeType.MISSING) {
                 // this happens if the source does not even contain malformed JSON, but just nothing (EOF)
                 throw new JsonDeserializationException("no JSON to deserialize");
             }
+            checkTree(jsonNode);
             return deserialize(JacksonTreeMapper.mapFromJackson(jsonNode), type);
         } catch (JsonDeserializationException e) {
             throw mapDeserializationException(e);
         }
     }
 
+    /**
+     * Checks a Jackson tree that has been read from the input, before it gets mapped to the grumpyjson tree model.
+     * Arrays and objects are mapped lazily, while the tree is being deserialized, and mapping cannot report errors to
+     * the client at that point anymore. Parsing JSON text only produces node types that can be mapped, so the default
+     * implementation does nothing. Subclasses that read a different format, which can produce other node types, must
+     * reject these here.
+     *
+     * @param jsonNode the tree to check
+     * @throws JsonDeserializationException if the tree contains nodes that cannot be mapped
+     */
+    protected void checkTree(JsonNode jsonNode) throws JsonDeserializationException {
+    }
+
     /**
      * This method transforms the error message so it does not reveal too much internals.
      */
@@ -78,11 +228,45 @@ public abstract class JacksonBasedJsonEngine extends JsonEngine {
     // -----------------------------------------------------------------------
 
     @Override
-    public void writeTo(Object value, Writer destination) throws JsonSerializationException {
-        Objects.requireNonNull(value, "value");
+    protected void serializeToWriter(JsonElement json, Writer destination, boolean pretty) throws JsonSerializationException {
+        Objects.requireNonNull(json, "json");
         Objects.requireNonNull(destination, "destination");
 
-        writeJson(JacksonTreeMapper.mapToJackson(toJsonElement(value)), destination);
+        writeJson(toJsonNode(json), destination, pretty);
+    }
+
+    @Override
+    protected void serializeToStream(JsonElement json, OutputStream destination, boolean pretty) throws JsonSerializationException {
+        Objects.requireNonNull(json, "json");
+        Objects.requireNonNull(destination, "destination");
+
+        // Jackson closes the stream when done, but it belongs to the caller
+        writeJson(toJsonNode(json), new CloseShieldOutputStream(destination), pretty);
+    }
+
+    /**
+     * Maps a grumpyjson tree to a Jackson tree. This is used by subclasses that write the tree in a way other than to
+     * a {@link Writer}, such as in a binary format.
+     *
+     * @param json the tree to map
+     * @return the Jackson tree
+     */
+    protected final JsonNode toJsonNode(JsonElement json) {
+        Objects.requireNonNull(json, "json");
+
+        return JacksonTreeMapper.mapToJackson(json, this::mapRawText);
+    }
+
+    /**
+     * Maps {@link io.github.grumpystuff.grumpyjson.json_model.JsonRawText raw JSON text} to a Jackson node. The default
+     * implementation returns a node that Jackson writes verbatim, which is correct for JSON output only. Subclasses
+     * for other formats must parse the text instead.
+     *
+     * @param text the raw JSON text
+     * @return the Jackson node
+     */
+    protected JsonNode mapRawText(String text) {
+        return new POJONode(new RawValue(text));
     }
 
     // -----------------------------------------------------------------------
@@ -90,9 +274,50 @@ public abstract class JacksonBasedJsonEngine extends JsonEngine {
     // -----------------------------------------------------------------------
 
     protected abstract JsonNode readJson(Reader source) throws JsonDeserializationException;
-    protected abstract void writeJson(JsonNode json, Writer destination) throws JsonSerializationException;
+    protected abstract void writeJson(JsonNode json, Writer destination, boolean pretty) throws JsonSerializationException;
+
+    // The byte-level back-ends decode and encode UTF-8 through the character-level ones by default. The factory
+    // methods override them, since Jackson's byte-level parser and generator are faster.
+
+    protected JsonNode readJson(InputStream source) throws JsonDeserializationException {
+        return readJson(new InputStreamReader(source, StandardCharsets.UTF_8));
+    }
+
+    protected JsonNode readJson(byte[] source, int offset, int length) throws JsonDeserializationException {
+        return readJson(new ByteArrayInputStream(source, offset, length));
+    }
+
+    protected void writeJson(JsonNode json, OutputStream destination, boolean pretty) throws JsonSerializationException {
+        Writer writer = new OutputStreamWriter(destination, StandardCharsets.UTF_8);
+        writeJson(json, writer, pretty);
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new JsonSerializationException(e);
+        }
+    }
+
+    /**
+     * Creates a streaming parser for {@link #deserializeElements(InputStream, Type)}. The default implementation
+     * decodes UTF-8 and uses a parser with Jackson's default configuration. The factory methods override this method
+     * to use the configured {@link ObjectMapper} or {@link ObjectReader}.
+     *
+     * @param source the source stream
+     * @return the parser
+     * @throws IOException on I/O errors
+     */
+    protected JsonParser createParser(InputStream source) throws IOException {
+        return DEFAULT_PARSER_MAPPER.createParser(new InputStreamReader(source, StandardCharsets.UTF_8));
+    }
+
+    // removes any pretty-printing the application may have configured, since that is selected by the output profile
+    private static ObjectWriter getCompactWriter(ObjectWriter objectWriter) {
+        return objectWriter.with((PrettyPrinter) null).without(SerializationFeature.INDENT_OUTPUT);
+    }
 
     public static JacksonBasedJsonEngine fromObjectMapper(ObjectMapper objectMapper) {
+        ObjectWriter compactWriter = getCompactWriter(objectMapper.writer());
+        ObjectWriter prettyWriter = objectMapper.writerWithDefaultPrettyPrinter();
         return new JacksonBasedJsonEngine() {
 
             @Override
@@ -105,9 +330,41 @@ public abstract class JacksonBasedJsonEngine extends JsonEngine {
             }
 
             @Override
-            protected void writeJson(JsonNode json, Writer destination) throws JsonSerializationException {
+            protected JsonNode readJson(InputStream source) throws JsonDeserializationException {
+                try {
+                    return objectMapper.readTree(source);
+                } catch (IOException e) {
+                    throw new JsonDeserializationException(e);
+                }
+            }
+
+            @Override
+            protected JsonNode readJson(byte[] source, int offset, int length) throws JsonDeserializationException {
+                try {
+                    return objectMapper.readTree(source, offset, length);
+                } catch (IOException e) {
+                    throw new JsonDeserializationException(e);
+                }
+            }
+
+            @Override
+            protected JsonParser createParser(InputStream source) throws IOException {
+                return objectMapper.createParser(source);
+            }
+
+            @Override
+            protected void writeJson(JsonNode json, Writer destination, boolean pretty) throws JsonSerializationException {
                 try {
-                    objectMapper.writeValue(destination, json);
+                    (pretty ? prettyWriter : compactWriter).writeValue(destination, json);
+                } catch (IOException e) {
+                    throw new JsonSerializationException(e);
+                }
+            }
+
+            @Override
+            protected void writeJson(JsonNode json, OutputStream destination, boolean pretty) throws JsonSerializationException {
+                try {
+                    (pretty ? prettyWriter : compactWriter).writeValue(destination, json);
                 } catch (IOException e) {
                     throw new JsonSerializationException(e);
                 }
@@ -117,6 +374,8 @@ public abstract class JacksonBasedJsonEngine extends JsonEngine {
     }
 
     public static JacksonBasedJsonEngine fromObjectReaderAndWriter(ObjectReader objectReader, ObjectWriter objectWriter) {
+        ObjectWriter compactWriter = getCompactWriter(objectWriter);
+        ObjectWriter prettyWriter = objectWriter.withDefaultPrettyPrinter();
         return new JacksonBasedJsonEngine() {
 
             @Override
@@ -129,9 +388,41 @@ public abstract class JacksonBasedJsonEngine extends JsonEngine {
             }
 
             @Override
-            protected void writeJson(JsonNode json, Writer destination) throws JsonSerializationException {
+            protected JsonNode readJson(InputStream source) throws JsonDeserializationException {
+                try {
+                    return objectReader.readTree(source);
+                } catch (IOException e) {
+                    throw new JsonDeserializationException(e);
+                }
+            }
+
+            @Override
+            protected JsonNode readJson(byte[] source, int offset, int length) throws JsonDeserializationException {
                 try {
-                    objectWriter.writeValue(destination, json);
+                    return objectReader.readTree(source, offset, length);
+                } catch (IOException e) {
+                    throw new JsonDeserializationException(e);
+                }
+            }
+
+            @Override
+            protected JsonParser createParser(InputStream source) throws IOException {
+                return objectReader.createParser(source);
+            }
+
+            @Override
+            protected void writeJson(JsonNode json, Writer destination, boolean pretty) throws JsonSerializationException {
+                try {
+                    (pretty ? prettyWriter : compactWriter).writeValue(destination, json);
+                } catch (IOException e) {
+                    throw new JsonSerializationException(e);
+                }
+            }
+
+            @Override
+            protected void writeJson(JsonNode json, OutputStream destination, boolean pretty) throws JsonSerializationException {
+                try {
+                    (pretty ? prettyWriter : compactWriter).writeValue(destination, json);
                 } catch (IOException e) {
                     throw new JsonSerializationException(e);
                 }
@@ -153,7 +444,35 @@ public abstract class JacksonBasedJsonEngine extends JsonEngine {
             }
 
             @Override
-            protected void writeJson(JsonNode json, Writer destination) {
+            protected JsonNode readJson(InputStream source) throws JsonDeserializationException {
+                try {
+                    return objectReader.readTree(source);
+                } catch (IOException e) {
+                    throw new JsonDeserializationException(e);
+                }
+            }
+
+            @Override
+            protected JsonNode readJson(byte[] source, int offset, int length) throws JsonDeserializationException {
+                try {
+                    return objectReader.readTree(source, offset, length);
+                } catch (IOException e) {
+                    throw new JsonDeserializationException(e);
+                }
+            }
+
+            @Override
+            protected JsonParser createParser(InputStream source) throws IOException {
+                return objectReader.createParser(source);
+            }
+
+            @Override
+            protected void writeJson(JsonNode json, Writer destination, boolean pretty) {
+                throw new UnsupportedOperationException("no ObjectWriter");
+            }
+
+            @Override
+            protected void writeJson(JsonNode json, OutputStream destination, boolean pretty) {
                 throw new UnsupportedOperationException("no ObjectWriter");
             }
 
@@ -161,6 +480,8 @@ public abstract class JacksonBasedJsonEngine extends JsonEngine {
     }
 
     public static JacksonBasedJsonEngine fromObjectWriter(ObjectWriter objectWriter) {
+        ObjectWriter compactWriter = getCompactWriter(objectWriter);
+        ObjectWriter prettyWriter = objectWriter.withDefaultPrettyPrinter();
         return new JacksonBasedJsonEngine() {
 
             @Override
@@ -169,9 +490,33 @@ public abstract class JacksonBasedJsonEngine extends JsonEngine {
             }
 
             @Override
-            protected void writeJson(JsonNode json, Writer destination) throws JsonSerializationException {
+            protected JsonNode readJson(InputStream source) {
+                throw new UnsupportedOperationException("no ObjectReader");
+            }
+
+            @Override
+            protected JsonNode readJson(byte[] source, int offset, int length) {
+                throw new UnsupportedOperationException("no ObjectReader");
+            }
+
+            @Override
+            protected JsonParser createParser(InputStream source) {
+                throw new UnsupportedOperationException("no ObjectReader");
+            }
+
+            @Override
+            protected void writeJson(JsonNode json, Writer destination, boolean pretty) throws JsonSerializationException {
+                try {
+                    (pretty ? prettyWriter : compactWriter).writeValue(destination, json);
+                } catch (IOException e) {
+                    throw new JsonSerializationException(e);
+                }
+            }
+
+            @Override
+            protected void writeJson(JsonNode json, OutputStream destination, boolean pretty) throws JsonSerializationException {
                 try {
-                    objectWriter.writeValue(destination, json);
+                    (pretty ? prettyWriter : compactWriter).writeValue(destination, json);
                 } catch (IOException e) {
                     throw new JsonSerializationException(e);
                 }
@@ -9,10 +9,18 @@ import io.github.grumpystuff.grumpyjson.util.Parameters;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
+/**
+ * Maps between Jackson's tree model and grumpyjson's tree model. Arrays and objects from Jackson are mapped lazily,
+ * level by level, when they are first visited, so subtrees that nobody looks at (such as ignored fields) are never
+ * mapped. Arrays and objects that were mapped from Jackson are mapped back to the original Jackson node.
+ * {@link JsonRawText Raw JSON text} is mapped by a function supplied by the engine, usually to a node that Jackson
+ * writes verbatim.
+ */
 final class JacksonTreeMapper {
 
     // prevent instantiation
@@ -27,27 +35,39 @@ final class JacksonTreeMapper {
             case BOOLEAN -> JsonBoolean.of(treeNode.booleanValue());
             case NUMBER -> JsonNumber.of(treeNode.numberValue());
             case STRING -> JsonString.of(treeNode.textValue());
-            case ARRAY -> {
-                List<JsonElement> outputChildren = new ArrayList<>();
+            case ARRAY -> JsonArray.ofLazy(() -> {
+                List<JsonElement> outputChildren = new ArrayList<>(treeNode.size());
                 for (JsonNode inputChild : treeNode) {
-                    outputChildren.add(mapFromJackson(inputChild));
+                    outputChildren.add(mapChildFromJackson(inputChild));
                 }
-                yield JsonArray.of(outputChildren);
-            }
-            case OBJECT -> {
+                return outputChildren;
+            }, treeNode);
+            case OBJECT -> JsonObject.ofLazy(() -> {
                 Iterable<Map.Entry<String, JsonNode>> inputFields = treeNode::fields;
-                Map<String, JsonElement> outputMap = new HashMap<>();
+                Map<String, JsonElement> outputMap = new LinkedHashMap<>();
                 for (Map.Entry<String, JsonNode> inputField : inputFields) {
-                    outputMap.put(inputField.getKey(), mapFromJackson(inputField.getValue()));
+                    outputMap.put(inputField.getKey(), mapChildFromJackson(inputField.getValue()));
                 }
-                yield JsonObject.of(outputMap);
-            }
+                return outputMap;
+            }, treeNode);
             default -> throw new JsonDeserializationException("unknown node type: " + treeNode.getNodeType());
         };
     }
 
-    static JsonNode mapToJackson(JsonElement jsonElement) {
+    // Children are mapped lazily, when the deserializer cannot handle checked exceptions anymore. Parsing JSON text
+    // never produces the node types that cause an exception, and engines for other formats reject them up-front (see
+    // JacksonBasedJsonEngine.checkTree()), so this is only a safeguard.
+    private static JsonElement mapChildFromJackson(JsonNode treeNode) {
+        try {
+            return mapFromJackson(treeNode);
+        } catch (JsonDeserializationException e) {
+            throw new IllegalArgumentException(e.getMessage());
+        }
+    }
+
+    static JsonNode mapToJackson(JsonElement jsonElement, Function<String, JsonNode> rawTextMapper) {
         Parameters.notNull(jsonElement, "jsonElement");
+        Parameters.notNull(rawTextMapper, "rawTextMapper");
 
         if (jsonElement instanceof JsonNull) {
             return NullNode.instance;
@@ -57,16 +77,24 @@ final class JacksonTreeMapper {
             return createNumericNode(n.getValue());
         } else if (jsonElement instanceof JsonString s) {
             return TextNode.valueOf(s.getValue());
+        } else if (jsonElement instanceof JsonRawText r) {
+            return rawTextMapper.apply(r.getText());
         } else if (jsonElement instanceof JsonArray a) {
+            if (a.getOrigin() instanceof ArrayNode origin) {
+                return origin;
+            }
             ArrayNode outputArray = new ArrayNode(JsonNodeFactory.instance);
             for (JsonElement child : a.getAsList()) {
-                outputArray.add(mapToJackson(child));
+                outputArray.add(mapToJackson(child, rawTextMapper));
             }
             return outputArray;
         } else if (jsonElement instanceof JsonObject o) {
+            if (o.getOrigin() instanceof ObjectNode origin) {
+                return origin;
+            }
             ObjectNode outputObject = new ObjectNode(JsonNodeFactory.instance);
             for (Map.Entry<String, JsonElement> entry : o.getAsMap().entrySet()) {
-                outputObject.set(entry.getKey(), mapToJackson(entry.getValue()));
+                outputObject.set(entry.getKey(), mapToJackson(entry.getValue(), rawTextMapper));
             }
             return outputObject;
         } else {
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest_benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.grumpystuff.grumpyjson.JsonEngine;
+import io.github.grumpystuff.grumpyjson.TypeToken;
+import io.github.grumpystuff.grumpyjson.builtin.helper_types.OptionalField;
+import io.github.grumpystuff.grumpyjson.gson.GsonBasedJsonEngine;
+import io.github.grumpystuff.grumpyjson.gson.JacksonBasedJsonEngine;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data types and sample values shared by the benchmarks. The shapes are chosen to exercise different parts of the
+ * converters: flat records (record converter and primitives), deeply nested records (recursion), generic records
+ * (type variable resolution) and list-heavy records (list converter).
+ */
+public final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    public record Flat(String name, int count, long id, long priceInCents, boolean active, String description) {}
+
+    public record Deep(int level, String label, OptionalField<Deep> child) {}
+
+    public record DeepRoot(Deep root) {}
+
+    public record Page<T>(int offset, int total, List<T> items) {}
+
+    public record Item(int id, String name, long priceInCents) {}
+
+    public record ListHeavy(List<Integer> numbers, List<String> tags, List<Item> items) {}
+
+    /**
+     * The type of the generic sample value.
+     */
+    public static final Type PAGE_OF_ITEMS = new TypeToken<Page<Item>>() {}.getType();
+
+    /**
+     * Creates and seals a JSON engine by name.
+     *
+     * @param name "gson" or "jackson"
+     * @return the engine
+     */
+    public static JsonEngine createEngine(String name) {
+        JsonEngine engine = createEngineUnsealed(name);
+        engine.seal();
+        return engine;
+    }
+
+    /**
+     * Creates a JSON engine by name without sealing it, e.g. to pass it to a {@link io.github.grumpystuff.grumpyrest.RestApi}
+     * which seals it.
+     *
+     * @param name "gson" or "jackson"
+     * @return the engine
+     */
+    public static JsonEngine createEngineUnsealed(String name) {
+        return switch (name) {
+            case "gson" -> new GsonBasedJsonEngine();
+            case "jackson" -> JacksonBasedJsonEngine.fromObjectMapper(new ObjectMapper());
+            default -> throw new IllegalArgumentException("unknown engine: " + name);
+        };
+    }
+
+    /**
+     * Returns the static type of a sample shape.
+     *
+     * @param shape the shape name
+     * @return the type
+     */
+    public static Type getType(String shape) {
+        return switch (shape) {
+            case "flat" -> Flat.class;
+            case "deep" -> DeepRoot.class;
+            case "generic" -> PAGE_OF_ITEMS;
+            case "listHeavy" -> ListHeavy.class;
+            default -> throw new IllegalArgumentException("unknown shape: " + shape);
+        };
+    }
+
+    /**
+     * Creates a sample value of a specific shape.
+     *
+     * @param shape the shape name
+     * @return the value
+     */
+    public static Object createValue(String shape) {
+        return switch (shape) {
+            case "flat" -> createFlat();
+            case "deep" -> new DeepRoot(createDeep(0, 30));
+            case "generic" -> new Page<>(100, 12345, createItems(50));
+            case "listHeavy" -> createListHeavy();
+            default -> throw new IllegalArgumentException("unknown shape: " + shape);
+        };
+    }
+
+    public static Flat createFlat() {
+        return new Flat("some product", 42, 1234567890123L, 1999, true, "a moderately long description text");
+    }
+
+    public static Item createItem(int i) {
+        return new Item(i, "item " + i, i * 150L);
+    }
+
+    public static List<Item> createItems(int count) {
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            items.add(createItem(i));
+        }
+        return items;
+    }
+
+    private static Deep createDeep(int level, int maxLevel) {
+        return new Deep(level, "level " + level,
+                level == maxLevel ? OptionalField.ofNothing() : OptionalField.ofValue(createDeep(level + 1, maxLevel)));
+    }
+
+    private static ListHeavy createListHeavy() {
+        List<Integer> numbers = new ArrayList<>();
+        List<String> tags = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            numbers.add(i * 7);
+            tags.add("tag" + i);
+        }
+        return new ListHeavy(numbers, tags, createItems(100));
+    }
+
+}
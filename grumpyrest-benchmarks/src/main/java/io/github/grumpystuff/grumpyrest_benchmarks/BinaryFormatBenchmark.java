@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest_benchmarks;
+
+import io.github.grumpystuff.grumpyjson.JsonEngine;
+import io.github.grumpystuff.grumpyjson.cbor.CborJsonEngine;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Type;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares JSON text with CBOR for serialization and deserialization of differently shaped values. Both formats use
+ * Jackson and the same converters, and both go through byte streams as they do when handling a request, so the
+ * difference is only the encoding. The encoded size of each shape is listed in doc/performance.md.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BinaryFormatBenchmark {
+
+    @Param({"json", "cbor"})
+    public String format;
+
+    @Param({"flat", "deep", "generic", "listHeavy"})
+    public String shape;
+
+    private JsonEngine engine;
+    private Type type;
+    private Object value;
+    private byte[] encoded;
+
+    @Setup
+    public void setup() {
+        JsonEngine jsonEngine = BenchmarkData.createEngine("jackson");
+        engine = format.equals("cbor") ? new CborJsonEngine(jsonEngine) : jsonEngine;
+        type = BenchmarkData.getType(shape);
+        value = BenchmarkData.createValue(shape);
+        encoded = serialize().toByteArray();
+    }
+
+    @Benchmark
+    public Object deserialize() throws Exception {
+        return engine.deserialize(new ByteArrayInputStream(encoded), type);
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream serialize() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        engine.writeTo(value, out);
+        return out;
+    }
+
+}
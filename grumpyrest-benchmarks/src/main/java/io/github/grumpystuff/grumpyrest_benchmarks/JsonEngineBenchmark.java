@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest_benchmarks;
+
+import io.github.grumpystuff.grumpyjson.JsonEngine;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the Gson- and Jackson-based engines for serialization and deserialization of differently shaped values.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonEngineBenchmark {
+
+    @Param({"gson", "jackson"})
+    public String engineName;
+
+    @Param({"flat", "deep", "generic", "listHeavy"})
+    public String shape;
+
+    private JsonEngine engine;
+    private Type type;
+    private Object value;
+    private String json;
+
+    @Setup
+    public void setup() {
+        engine = BenchmarkData.createEngine(engineName);
+        type = BenchmarkData.getType(shape);
+        value = BenchmarkData.createValue(shape);
+        json = engine.serializeToString(value);
+    }
+
+    @Benchmark
+    public Object deserialize() throws Exception {
+        return engine.deserialize(json, type);
+    }
+
+    @Benchmark
+    public String serialize() {
+        return engine.serializeToString(value);
+    }
+
+}
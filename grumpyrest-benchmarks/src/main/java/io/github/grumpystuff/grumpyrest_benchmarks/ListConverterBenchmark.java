@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest_benchmarks;
+
+import io.github.grumpystuff.grumpyjson.JsonEngine;
+import io.github.grumpystuff.grumpyjson.TypeToken;
+import io.github.grumpystuff.grumpyjson.builtin.collection.ListConverter;
+import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
+import io.github.grumpystuff.grumpyrest_benchmarks.BenchmarkData.Item;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares sequential and parallel conversion of large lists of records by the {@link ListConverter}, between the
+ * JSON tree model and Java objects, to find the list size above which parallel conversion pays off on the machine
+ * the benchmark runs on. Parsing and formatting JSON text are not included since they are always sequential.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListConverterBenchmark {
+
+    private static final Type ITEM_LIST = new TypeToken<List<Item>>() {}.getType();
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int size;
+
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    private JsonEngine engine;
+    private List<Item> items;
+    private JsonElement json;
+
+    @Setup
+    public void setup() throws Exception {
+        engine = BenchmarkData.createEngineUnsealed("gson");
+        if (parallel) {
+            engine.registerDualConverter(new ListConverter(engine.getRegistries(), ListConverter.Options.parallel(2)));
+        }
+        engine.seal();
+        items = BenchmarkData.createItems(size);
+        json = engine.toJsonElement(items);
+    }
+
+    @Benchmark
+    public Object deserialize() throws Exception {
+        return engine.deserialize(json, ITEM_LIST);
+    }
+
+    @Benchmark
+    public Object serialize() throws Exception {
+        return engine.toJsonElement(items);
+    }
+
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest_benchmarks;
+
+import io.github.grumpystuff.grumpyjson.builtin.helper_types.OptionalField;
+import io.github.grumpystuff.grumpyjson.gson.GsonBasedJsonEngine;
+import io.github.grumpystuff.grumpyrest.RestApi;
+import io.github.grumpystuff.grumpyrest.request.querystring.QuerystringParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing a querystring into a record using the auto-generated record parser.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QuerystringBenchmark {
+
+    public record Query(int offset, int limit, String sort, long customerId, LocalDate since,
+                        OptionalField<String> filter, OptionalField<Integer> minimumPrice) {}
+
+    private QuerystringParser parser;
+    private Map<String, String> querystring;
+
+    @Setup
+    public void setup() throws Exception {
+        RestApi api = new RestApi(new GsonBasedJsonEngine());
+        api.seal();
+        parser = api.getQuerystringParserRegistry().get(Query.class);
+        querystring = Map.of(
+                "offset", "100",
+                "limit", "50",
+                "sort", "name",
+                "customerId", "1234567890123",
+                "since", "2023-05-01",
+                "filter", "shoes"
+        );
+    }
+
+    @Benchmark
+    public Object parse() throws Exception {
+        return parser.parse(querystring, Query.class);
+    }
+
+}
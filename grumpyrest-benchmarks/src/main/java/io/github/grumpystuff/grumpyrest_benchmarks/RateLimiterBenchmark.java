@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest_benchmarks;
+
+import io.github.grumpystuff.grumpyrest.limit.RateLimiter;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a single rate limiting decision by {@link RateLimiter#tryAcquire(String)}, with requests spread over a
+ * number of keys, from several threads at once. The limit is high enough that all requests are allowed, so every
+ * decision updates a bucket.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class RateLimiterBenchmark {
+
+    @Param({"1", "10000"})
+    public int keyCount;
+
+    private RateLimiter limiter;
+    private String[] keys;
+
+    @Setup
+    public void setup() {
+        limiter = new RateLimiter("benchmark", RateLimiter.Options.createDefault(1_000_000_000, Duration.ofSeconds(1)));
+        keys = new String[keyCount];
+        for (int i = 0; i < keyCount; i++) {
+            keys[i] = "10.0." + (i / 256) + "." + (i % 256);
+        }
+    }
+
+    @Benchmark
+    public long tryAcquire() {
+        return limiter.tryAcquire(keys[ThreadLocalRandom.current().nextInt(keyCount)]);
+    }
+
+}
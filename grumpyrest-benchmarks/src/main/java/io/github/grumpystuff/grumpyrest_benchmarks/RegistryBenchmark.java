@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest_benchmarks;
+
+import io.github.grumpystuff.grumpyjson.JsonEngine;
+import io.github.grumpystuff.grumpyjson.JsonRegistries;
+import io.github.grumpystuff.grumpyrest_benchmarks.BenchmarkData.Flat;
+import io.github.grumpystuff.grumpyrest_benchmarks.BenchmarkData.Item;
+import io.github.grumpystuff.grumpyrest_benchmarks.BenchmarkData.ListHeavy;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures converter lookup in the serializer and deserializer registries, once single-threaded and once with many
+ * threads hitting the same keys. All keys are looked up once during setup, so this measures the steady state after
+ * auto-generation, which is what happens on every request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RegistryBenchmark {
+
+    private static final Class<?>[] SERIALIZER_KEYS = {Flat.class, Item.class, String.class};
+    private static final Type[] DESERIALIZER_KEYS = {Flat.class, ListHeavy.class, BenchmarkData.PAGE_OF_ITEMS};
+
+    private JsonRegistries registries;
+
+    @Setup
+    public void setup() throws Exception {
+        JsonEngine engine = BenchmarkData.createEngine("gson");
+        registries = engine.getRegistries();
+        for (Class<?> key : SERIALIZER_KEYS) {
+            registries.getSerializer(key);
+        }
+        for (Type key : DESERIALIZER_KEYS) {
+            registries.getDeserializer(key);
+        }
+    }
+
+    private void lookup(Blackhole blackhole) throws Exception {
+        for (Class<?> key : SERIALIZER_KEYS) {
+            blackhole.consume(registries.getSerializer(key));
+        }
+        for (Type key : DESERIALIZER_KEYS) {
+            blackhole.consume(registries.getDeserializer(key));
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void uncontended(Blackhole blackhole) throws Exception {
+        lookup(blackhole);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void contended(Blackhole blackhole) throws Exception {
+        lookup(blackhole);
+    }
+
+}
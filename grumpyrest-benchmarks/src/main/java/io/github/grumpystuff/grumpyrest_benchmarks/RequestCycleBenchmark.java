@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest_benchmarks;
+
+import io.github.grumpystuff.grumpyjson.JsonEngine;
+import io.github.grumpystuff.grumpyrest.RequestCycle;
+import io.github.grumpystuff.grumpyrest.RestApi;
+import io.github.grumpystuff.grumpyrest.metrics.StandardRequestMetrics;
+import io.github.grumpystuff.grumpyrest.request.HttpMethod;
+import io.github.grumpystuff.grumpyrest.transport.InMemoryExchange;
+import io.github.grumpystuff.grumpyrest_benchmarks.BenchmarkData.Item;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the full handling of a request by {@link RestApi#handle(RequestCycle)}: matching, argument parsing,
+ * invoking the handler, mapping the response value and transmitting the response. The request is taken from memory
+ * and the response is captured in memory using {@link InMemoryExchange}, so no network or servlet container is
+ * involved. The "metrics" parameter shows the overhead of collecting {@link StandardRequestMetrics}, with "allocation"
+ * additionally measuring allocation for every request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestCycleBenchmark {
+
+    @Param({"gson", "jackson"})
+    public String engineName;
+
+    @Param({"none", "latency", "allocation"})
+    public String metrics;
+
+    private RestApi api;
+    private byte[] itemBody;
+
+    @Setup
+    public void setup() {
+        JsonEngine engine = BenchmarkData.createEngineUnsealed(engineName);
+        api = new RestApi(engine);
+        if (!metrics.equals("none")) {
+            api.setMetrics(new StandardRequestMetrics());
+        }
+        if (metrics.equals("allocation")) {
+            api.setAllocationSamplingInterval(1);
+        }
+        List<Item> items = BenchmarkData.createItems(50);
+        api.addRoute(HttpMethod.GET, "/items/:id", request -> items.get(request.getPathArguments().get(0).getValue(Integer.class)));
+        api.addRoute(HttpMethod.GET, "/items", request -> items);
+        api.addRoute(HttpMethod.POST, "/items", request -> request.parseBody(Item.class));
+        api.seal();
+        itemBody = engine.serializeToString(BenchmarkData.createItem(1)).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private byte[] handle(String method, String path, String contentType, byte[] body) {
+        var exchange = new InMemoryExchange(method, path, Map.of(), name -> null, contentType, body);
+        api.handle(new RequestCycle(api, exchange));
+        return exchange.getResponseBody();
+    }
+
+    @Benchmark
+    public byte[] getSingle() {
+        return handle("GET", "/items/7", null, new byte[0]);
+    }
+
+    @Benchmark
+    public byte[] getList() {
+        return handle("GET", "/items", null, new byte[0]);
+    }
+
+    @Benchmark
+    public byte[] post() {
+        return handle("POST", "/items", "application/json", itemBody);
+    }
+
+}
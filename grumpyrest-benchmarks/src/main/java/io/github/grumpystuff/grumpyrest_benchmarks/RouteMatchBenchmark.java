@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest_benchmarks;
+
+import io.github.grumpystuff.grumpyjson.gson.GsonBasedJsonEngine;
+import io.github.grumpystuff.grumpyrest.RequestCycle;
+import io.github.grumpystuff.grumpyrest.RestApi;
+import io.github.grumpystuff.grumpyrest.RouteMatchResult;
+import io.github.grumpystuff.grumpyrest.request.HttpMethod;
+import io.github.grumpystuff.grumpyrest.transport.InMemoryExchange;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures matching a request against the routes of an API with many routes. Each route has a literal prefix and a
+ * path parameter, similar to typical resource URLs. "first" and "last" hit the first and last route, "miss" matches
+ * no route at all.
+ * <p>
+ * The request cycle is created per invocation, like it is for real requests, because splitting the path into segments
+ * happens there.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RouteMatchBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int routeCount;
+
+    private RestApi api;
+    private String firstPath;
+    private String lastPath;
+
+    @Setup
+    public void setup() {
+        api = new RestApi(new GsonBasedJsonEngine());
+        for (int i = 0; i < routeCount; i++) {
+            api.addRoute(HttpMethod.GET, "/resource" + i + "/:id/details", request -> null);
+        }
+        api.seal();
+        firstPath = "/resource0/123/details";
+        lastPath = "/resource" + (routeCount - 1) + "/123/details";
+    }
+
+    private RouteMatchResult match(String path) {
+        var exchange = new InMemoryExchange("GET", path, Map.of(), name -> null, null, new byte[0]);
+        return api.match(new RequestCycle(api, exchange));
+    }
+
+    @Benchmark
+    public RouteMatchResult first() {
+        return match(firstPath);
+    }
+
+    @Benchmark
+    public RouteMatchResult last() {
+        return match(lastPath);
+    }
+
+    @Benchmark
+    public RouteMatchResult miss() {
+        return match("/unknown/123/details");
+    }
+
+}
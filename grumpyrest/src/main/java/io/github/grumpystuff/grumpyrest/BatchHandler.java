@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest;
+
+import io.github.grumpystuff.grumpyjson.JsonEngine;
+import io.github.grumpystuff.grumpyjson.TypeToken;
+import io.github.grumpystuff.grumpyjson.builtin.helper_types.OptionalField;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
+import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
+import io.github.grumpystuff.grumpyjson.json_model.JsonString;
+import io.github.grumpystuff.grumpyrest.request.Request;
+import io.github.grumpystuff.grumpyrest.response.standard.StandardErrorResponse;
+import io.github.grumpystuff.grumpyrest.transport.InMemoryExchange;
+import io.github.grumpystuff.grumpyrest.util.ExecutorUtil;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Handles batch requests, i.e. requests that contain a list of sub-requests which are each run through the normal
+ * route matching and handler pipeline of the same {@link RestApi}. This allows clients to save the per-request
+ * overhead of HTTP when they need many small calls at once. Use {@link RestApi#addBatchRoute(String)} to add a route
+ * for this handler.
+ * <p>
+ * The request body is a JSON array of {@link BatchRequestItem}s, and the response is a JSON array of
+ * {@link BatchResponseItem}s in the same order. Sub-requests are processed in parallel, but with a configurable cap on
+ * how many are processed at the same time for a single batch request. A failing sub-request only affects its own
+ * result, not the batch request or the other sub-requests. Batch requests cannot be nested.
+ * <p>
+ * Sub-requests see the same headers as the batch request, except for the headers that describe the body, such as
+ * Content-Type and Content-Length, and the output profile header (see {@link RestApi#setOutputProfileHeader(String)}).
+ * The Content-Type is application/json if the sub-request has a body and absent otherwise, the other body headers and
+ * the output profile header are absent, and the Accept header is always application/json. Sub-requests also see the
+ * same remote address. Response headers of sub-requests are not included in the result.
+ */
+public final class BatchHandler implements ComplexHandler {
+
+    private final Options options;
+
+    /**
+     * Constructor.
+     *
+     * @param options the options for this handler
+     */
+    public BatchHandler(Options options) {
+        Objects.requireNonNull(options, "options");
+
+        this.options = options;
+    }
+
+    @Override
+    public Object handle(RequestCycle requestCycle) throws Exception {
+        Objects.requireNonNull(requestCycle, "requestCycle");
+
+        if (requestCycle.isBatchSubRequest()) {
+            return new StandardErrorResponse(400, "batch requests cannot be nested");
+        }
+        List<BatchRequestItem> items = requestCycle.getHighlevelRequest().parseBody(new TypeToken<List<BatchRequestItem>>() {});
+        if (items.size() > options.maxSubRequests()) {
+            return new StandardErrorResponse(400, "too many sub-requests in batch request");
+        }
+
+        // Each worker takes the next unprocessed sub-request until none are left. This limits concurrency without
+        // blocking any threads. The current thread acts as one of the workers.
+        BatchResponseItem[] results = new BatchResponseItem[items.size()];
+        AtomicInteger nextIndex = new AtomicInteger();
+        Runnable worker = () -> {
+            for (int i = nextIndex.getAndIncrement(); i < results.length; i = nextIndex.getAndIncrement()) {
+                results[i] = execute(requestCycle, items.get(i));
+            }
+        };
+        int workerCount = Math.min(items.size(), options.maxConcurrency());
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 1; i < workerCount; i++) {
+            futures.add(CompletableFuture.runAsync(worker, options.executor()));
+        }
+        worker.run();
+        for (CompletableFuture<Void> future : futures) {
+            future.join();
+        }
+        return List.of(results);
+    }
+
+    private BatchResponseItem execute(RequestCycle parentRequestCycle, BatchRequestItem item) {
+        RestApi api = parentRequestCycle.getApi();
+        JsonEngine jsonEngine = api.getJsonEngine();
+
+        Map<String, String[]> queryParameters = new HashMap<>();
+        for (Map.Entry<String, String> entry : item.query().orElse(Map.of()).entrySet()) {
+            queryParameters.put(entry.getKey(), new String[] {entry.getValue()});
+        }
+        String contentType = item.body().isPresent() ? "application/json" : null;
+        byte[] body = new byte[0];
+        if (item.body().isPresent()) {
+            ByteArrayOutputStream bodyStream = new ByteArrayOutputStream();
+            jsonEngine.writeTo(item.body().getValue(), bodyStream);
+            body = bodyStream.toByteArray();
+        }
+        Request parentRequest = parentRequestCycle.getHighlevelRequest();
+        var exchange = new InMemoryExchange(item.method(), item.path(), queryParameters,
+                name -> getSubRequestHeader(api, parentRequest, name, contentType), contentType, body);
+        exchange.setRemoteAddress(parentRequest.getRemoteAddress());
+        var requestCycle = new RequestCycle(api, exchange);
+        requestCycle.markAsBatchSubRequest();
+        api.handle(requestCycle);
+
+        byte[] responseBody = exchange.getResponseBody();
+        if (responseBody.length == 0) {
+            return new BatchResponseItem(exchange.getResponseStatus(), OptionalField.ofNothing());
+        }
+        String responseContentType = exchange.getResponseContentType();
+        if (responseContentType != null && responseContentType.startsWith("application/json")) {
+            try {
+                JsonElement json = jsonEngine.deserialize(responseBody, JsonElement.class);
+                return new BatchResponseItem(exchange.getResponseStatus(), OptionalField.ofValue(json));
+            } catch (JsonDeserializationException e) {
+                // fall through and include the body as text
+            }
+        }
+        JsonElement text = JsonString.of(new String(responseBody, StandardCharsets.UTF_8));
+        return new BatchResponseItem(exchange.getResponseStatus(), OptionalField.ofValue(text));
+    }
+
+    private static String getSubRequestHeader(RestApi api, Request parentRequest, String name, String contentType) {
+        if (name.equalsIgnoreCase("Content-Type")) {
+            return contentType;
+        }
+        // sub-responses get parsed as JSON, even if the batch response is sent in another format
+        if (name.equalsIgnoreCase("Accept")) {
+            return "application/json";
+        }
+        // the body of the batch request is not the body of the sub-request
+        String lowerCaseName = name.toLowerCase(Locale.ROOT);
+        if (lowerCaseName.startsWith("content-") || lowerCaseName.equals("transfer-encoding")) {
+            return null;
+        }
+        // sub-responses get written again as part of the batch response, which uses the selected profile
+        if (name.equalsIgnoreCase(api.getOutputProfileHeader())) {
+            return null;
+        }
+        return parentRequest.getHeader(name);
+    }
+
+    /**
+     * Options for a batch handler.
+     *
+     * @param maxSubRequests the maximum number of sub-requests per batch request. Larger batch requests are rejected.
+     * @param maxConcurrency the maximum number of sub-requests of a single batch request that are processed at the
+     *                       same time
+     * @param executor the executor used to process sub-requests in parallel
+     */
+    public record Options(int maxSubRequests, int maxConcurrency, Executor executor) {
+
+        /**
+         * Constructor.
+         *
+         * @param maxSubRequests the maximum number of sub-requests per batch request
+         * @param maxConcurrency the maximum number of sub-requests processed at the same time
+         * @param executor the executor used to process sub-requests in parallel
+         */
+        public Options {
+            if (maxSubRequests < 1) {
+                throw new IllegalArgumentException("maxSubRequests must be positive");
+            }
+            if (maxConcurrency < 1) {
+                throw new IllegalArgumentException("maxConcurrency must be positive");
+            }
+            Objects.requireNonNull(executor, "executor");
+        }
+
+        /**
+         * Creates default options: At most 100 sub-requests per batch, processed 8 at a time, using a shared
+         * executor that runs each sub-request in its own virtual thread if the JVM supports virtual threads, and
+         * falls back to a cached pool of platform threads otherwise.
+         *
+         * @return the default options
+         */
+        public static Options createDefault() {
+            return new Options(100, 8, DefaultExecutorHolder.EXECUTOR);
+        }
+
+        /**
+         * Returns a copy of these options with the specified maximum number of sub-requests.
+         *
+         * @param maxSubRequests the maximum number of sub-requests per batch request
+         * @return the modified copy
+         */
+        public Options withMaxSubRequests(int maxSubRequests) {
+            return new Options(maxSubRequests, maxConcurrency, executor);
+        }
+
+        /**
+         * Returns a copy of these options with the specified maximum concurrency.
+         *
+         * @param maxConcurrency the maximum number of sub-requests processed at the same time
+         * @return the modified copy
+         */
+        public Options withMaxConcurrency(int maxConcurrency) {
+            return new Options(maxSubRequests, maxConcurrency, executor);
+        }
+
+        /**
+         * Returns a copy of these options with the specified executor.
+         *
+         * @param executor the executor used to process sub-requests in parallel
+         * @return the modified copy
+         */
+        public Options withExecutor(Executor executor) {
+            return new Options(maxSubRequests, maxConcurrency, executor);
+        }
+
+    }
+
+    // lazily creates the executor so it doesn't start any threads if batch requests are not used
+    private static final class DefaultExecutorHolder {
+        private static final Executor EXECUTOR = ExecutorUtil.newVirtualThreadPerTaskExecutorIfAvailable("grumpyrest-batch-");
+    }
+
+}
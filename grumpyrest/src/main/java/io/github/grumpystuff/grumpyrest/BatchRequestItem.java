@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest;
+
+import io.github.grumpystuff.grumpyjson.builtin.helper_types.OptionalField;
+import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A single sub-request within a batch request. See {@link BatchHandler}.
+ *
+ * @param method the HTTP method, e.g. "GET"
+ * @param path the request path, without querystring
+ * @param query the querystring parameters, if any
+ * @param body the request body, if any. If present, the sub-request has Content-Type application/json.
+ */
+public record BatchRequestItem(
+        String method,
+        String path,
+        OptionalField<Map<String, String>> query,
+        OptionalField<JsonElement> body
+) {
+
+    /**
+     * Constructor.
+     *
+     * @param method the HTTP method, e.g. "GET"
+     * @param path the request path, without querystring
+     * @param query the querystring parameters, if any
+     * @param body the request body, if any
+     */
+    public BatchRequestItem {
+        Objects.requireNonNull(method, "method");
+        Objects.requireNonNull(path, "path");
+        Objects.requireNonNull(query, "query");
+        Objects.requireNonNull(body, "body");
+    }
+
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest;
+
+import io.github.grumpystuff.grumpyjson.builtin.helper_types.OptionalField;
+import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
+
+import java.util.Objects;
+
+/**
+ * The result of a single sub-request within a batch request. See {@link BatchHandler}.
+ *
+ * @param status the HTTP status of the sub-response
+ * @param body the body of the sub-response, if any. A JSON body is included as JSON, any other body as a JSON
+ *             string that contains the body text.
+ */
+public record BatchResponseItem(int status, OptionalField<JsonElement> body) {
+
+    /**
+     * Constructor.
+     *
+     * @param status the HTTP status of the sub-response
+     * @param body the body of the sub-response, if any
+     */
+    public BatchResponseItem {
+        Objects.requireNonNull(body, "body");
+    }
+
+}
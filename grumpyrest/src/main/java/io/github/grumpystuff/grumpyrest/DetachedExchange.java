@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest;
+
+import io.github.grumpystuff.grumpyrest.response.ResponseTransmitter;
+import io.github.grumpystuff.grumpyrest.transport.Exchange;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A view of the request side of an {@link Exchange}, for a handler that runs in a separate thread because its route
+ * has a deadline (see {@link HandlerInvocation}). When the deadline passes, the request thread finishes the request
+ * while the handler may still be running, and after that, the server may recycle the original exchange. The handler
+ * must therefore not use the original exchange anymore at that point.
+ * <p>
+ * Simple request properties are copied when this object is created. Headers cannot be enumerated through the
+ * {@link Exchange} interface, and the request body should be streamed, so both are read from the original exchange
+ * on demand, until this object gets closed when the deadline passes. After that, reading a header throws an exception
+ * and reading the body throws an {@link IOException}. Closing waits for a read that is in progress, so a handler
+ * that is blocked reading a slow request body delays the response until the read returns or fails.
+ * <p>
+ * The response side only records what the handler sends through the response transmitter directly, so the request
+ * thread can copy it to the real response if the handler finishes in time.
+ */
+final class DetachedExchange implements Exchange {
+
+    private final Exchange original;
+    private final String method;
+    private final String path;
+    private final Map<String, String[]> queryParameters;
+    private final String remoteAddress;
+    private final String contentType;
+    // a lock instead of synchronized, so a virtual thread that blocks while reading the body does not pin its carrier
+    private final ReentrantLock lock = new ReentrantLock();
+    private final InputStream body = new DetachedInputStream();
+    private InputStream originalBody;
+    private long bytesRead;
+    private boolean closed;
+
+    private Integer responseStatus;
+    private String responseContentType;
+    private final List<Map.Entry<String, String>> responseHeaders = new ArrayList<>();
+    private ByteArrayOutputStream responseBody;
+
+    DetachedExchange(Exchange original) {
+        this.original = original;
+        this.method = original.getMethod();
+        this.path = original.getPath();
+        this.queryParameters = Map.copyOf(original.getQueryParameters());
+        this.remoteAddress = original.getRemoteAddress();
+        this.contentType = original.getContentType();
+    }
+
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    @Override
+    public String getPath() {
+        return path;
+    }
+
+    @Override
+    public Map<String, String[]> getQueryParameters() {
+        return queryParameters;
+    }
+
+    @Override
+    public String getHeader(String name) {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("the request has already been finished because its deadline has passed");
+            }
+            return original.getHeader(name);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String getRemoteAddress() {
+        return remoteAddress;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return body;
+    }
+
+    @Override
+    public void setStatus(int status) {
+        responseStatus = status;
+    }
+
+    @Override
+    public void setContentType(String contentType) {
+        responseContentType = contentType;
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        responseHeaders.add(Map.entry(name, value));
+    }
+
+    @Override
+    public OutputStream getOutputStream() {
+        if (responseBody == null) {
+            responseBody = new ByteArrayOutputStream();
+        }
+        return responseBody;
+    }
+
+    /**
+     * Cuts this view off from the original exchange. Called by the request thread when the deadline has passed, and
+     * waits for a header or body read that the handler thread is currently doing.
+     */
+    void close() {
+        lock.lock();
+        try {
+            closed = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of request body bytes read through this exchange. Must only be called by the request thread,
+     * after the handler thread has finished or this exchange has been closed.
+     */
+    long getBytesRead() {
+        lock.lock();
+        try {
+            return bytesRead;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sends what the handler has sent to this exchange's response side to the real response. Must only be called by
+     * the request thread, after the handler thread has finished.
+     */
+    void copyResponseTo(ResponseTransmitter responseTransmitter) throws IOException {
+        if (responseStatus != null) {
+            responseTransmitter.setStatus(responseStatus);
+        }
+        if (responseContentType != null) {
+            responseTransmitter.setContentType(responseContentType);
+        }
+        for (Map.Entry<String, String> header : responseHeaders) {
+            responseTransmitter.addCustomHeader(header.getKey(), header.getValue());
+        }
+        if (responseBody != null) {
+            responseBody.writeTo(responseTransmitter.getOutputStream());
+        }
+    }
+
+    private final class DetachedInputStream extends InputStream {
+
+        @Override
+        public int read() throws IOException {
+            lock.lock();
+            try {
+                int result = getOriginalBody().read();
+                if (result >= 0) {
+                    bytesRead++;
+                }
+                return result;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            lock.lock();
+            try {
+                int result = getOriginalBody().read(buffer, offset, length);
+                if (result > 0) {
+                    bytesRead += result;
+                }
+                return result;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private InputStream getOriginalBody() throws IOException {
+            if (closed) {
+                throw new IOException("the request has already been finished because its deadline has passed");
+            }
+            if (originalBody == null) {
+                originalBody = original.getInputStream();
+            }
+            return originalBody;
+        }
+
+    }
+
+}
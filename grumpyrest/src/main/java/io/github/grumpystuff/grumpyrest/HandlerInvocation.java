@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest;
+
+import io.github.grumpystuff.grumpyrest.limit.ConcurrencyLimiter;
+import io.github.grumpystuff.grumpyrest.response.standard.StandardErrorResponse;
+import io.github.grumpystuff.grumpyrest.util.AllocationUtil;
+import io.github.grumpystuff.grumpyrest.util.ExecutorUtil;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Invokes the handler of a matched route, after a permit has been obtained from the route's concurrency limiter (if
+ * any), and releases that permit when the handler has finished.
+ * <p>
+ * With a deadline, the handler runs in a separate thread -- a virtual thread if the JVM supports them -- while the
+ * request thread waits for it. When the deadline passes, the handler thread is interrupted and the request is
+ * answered with {@link StandardErrorResponse#DEADLINE_EXCEEDED}. A handler that ignores the interruption keeps
+ * running in the background, and keeps its permit, until it returns. If the deadline passes before the handler thread
+ * has even started, the handler is not called at all.
+ * <p>
+ * Because the request thread finishes the request while such a handler may still be running, the handler thread must
+ * not use anything that belongs to the request thread: it gets a detached copy of the request cycle (see
+ * {@link RequestCycle#detach()}), and it does not use the {@link RequestProbe}. Instead, it measures its own
+ * allocation if needed, and the request thread adds that to the probe after the handler has finished in time.
+ */
+final class HandlerInvocation implements Callable<Object> {
+
+    private final Route route;
+    private final RequestCycle requestCycle;
+    private final ConcurrencyLimiter limiter;
+    private final long startTime;
+    private final AtomicBoolean claimed = new AtomicBoolean();
+    private boolean measureAllocation;
+    private long allocatedBytes = -1;
+
+    HandlerInvocation(Route route, RequestCycle requestCycle, ConcurrencyLimiter limiter) {
+        this.route = route;
+        this.requestCycle = requestCycle;
+        this.limiter = limiter;
+        this.startTime = System.nanoTime();
+    }
+
+    @Override
+    public Object call() throws Exception {
+        if (!claimed.compareAndSet(false, true)) {
+            // the deadline has passed before this thread was started
+            return null;
+        }
+        long allocationStart = measureAllocation ? AllocationUtil.getCurrentThreadAllocatedBytes() : -1;
+        try {
+            return route.invokeHandler(requestCycle);
+        } finally {
+            if (allocationStart >= 0) {
+                long allocationEnd = AllocationUtil.getCurrentThreadAllocatedBytes();
+                allocatedBytes = allocationEnd < 0 ? -1 : allocationEnd - allocationStart;
+            }
+            releasePermit();
+        }
+    }
+
+    private void releasePermit() {
+        if (limiter != null) {
+            limiter.release(System.nanoTime() - startTime);
+        }
+    }
+
+    /**
+     * Runs the handler in a separate thread. The request cycle of this invocation must be a detached copy of the
+     * specified request cycle, which belongs to the request thread just like the probe.
+     */
+    Object callWithDeadline(long deadline, RequestCycle originalRequestCycle, RequestProbe probe) throws Exception {
+        measureAllocation = probe.isMeasuringAllocation();
+        Future<Object> future = ExecutorHolder.EXECUTOR.submit(this);
+        try {
+            Object result = future.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            finishInTime(originalRequestCycle, probe);
+            return result;
+        } catch (TimeoutException e) {
+            abandon(future, probe);
+            return StandardErrorResponse.DEADLINE_EXCEEDED;
+        } catch (InterruptedException e) {
+            abandon(future, probe);
+            throw e;
+        } catch (ExecutionException e) {
+            finishInTime(originalRequestCycle, probe);
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception exception) {
+                throw exception;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    // the handler thread has finished, so everything it did is visible to the request thread here
+    private void finishInTime(RequestCycle originalRequestCycle, RequestProbe probe) throws IOException {
+        DetachedExchange detachedExchange = (DetachedExchange) requestCycle.getExchange();
+        if (measureAllocation) {
+            probe.addAllocation(allocatedBytes);
+        }
+        probe.addBytesIn(detachedExchange.getBytesRead());
+        detachedExchange.copyResponseTo(originalRequestCycle.getResponseTransmitter());
+    }
+
+    private void abandon(Future<Object> future, RequestProbe probe) {
+        if (claimed.compareAndSet(false, true)) {
+            future.cancel(false);
+            releasePermit();
+        } else {
+            // interrupt first, which may end a blocking read of the request body that closing would wait for
+            future.cancel(true);
+        }
+        DetachedExchange detachedExchange = (DetachedExchange) requestCycle.getExchange();
+        detachedExchange.close();
+        probe.addBytesIn(detachedExchange.getBytesRead());
+    }
+
+    private static final class ExecutorHolder {
+        private static final ExecutorService EXECUTOR = ExecutorUtil.newVirtualThreadPerTaskExecutorIfAvailable("grumpyrest-handler-");
+    }
+
+}
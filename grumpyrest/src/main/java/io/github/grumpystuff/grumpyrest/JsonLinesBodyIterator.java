@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest;
+
+import io.github.grumpystuff.grumpyjson.JsonEngine;
+import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
+import io.github.grumpystuff.grumpyrest.response.FinishRequestException;
+import io.github.grumpystuff.grumpyrest.response.standard.StandardErrorResponse;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Reads and parses an NDJSON request body line by line. See {@link io.github.grumpystuff.grumpyrest.request.Request#parseBodyAsJsonLines(Class)}.
+ */
+final class JsonLinesBodyIterator implements Iterator<Object> {
+
+    private final JsonEngine jsonEngine;
+    private final BufferedReader reader;
+    private final Type type;
+    private int lineNumber = 0;
+    private String nextLine;
+    private boolean finished = false;
+
+    JsonLinesBodyIterator(JsonEngine jsonEngine, BufferedReader reader, Type type) {
+        Objects.requireNonNull(jsonEngine, "jsonEngine");
+        Objects.requireNonNull(reader, "reader");
+        Objects.requireNonNull(type, "type");
+
+        this.jsonEngine = jsonEngine;
+        this.reader = reader;
+        this.type = type;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (nextLine == null && !finished) {
+            String line;
+            try {
+                line = reader.readLine();
+            } catch (IOException e) {
+                throw new FinishRequestException(StandardErrorResponse.IO_ERROR);
+            }
+            if (line == null) {
+                finished = true;
+            } else {
+                lineNumber++;
+                if (!line.isBlank()) {
+                    nextLine = line;
+                }
+            }
+        }
+        return nextLine != null;
+    }
+
+    @Override
+    public Object next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String line = nextLine;
+        nextLine = null;
+        try {
+            return jsonEngine.deserialize(line, type);
+        } catch (JsonDeserializationException e) {
+            var errorNode = e.getFieldErrorNode().in("line " + lineNumber);
+            throw new FinishRequestException(StandardErrorResponse.requestBodyValidationFailed(errorNode));
+        }
+    }
+
+}
@@ -6,11 +6,15 @@
  */
 package io.github.grumpystuff.grumpyrest;
 
+import io.github.grumpystuff.grumpyjson.JsonEngine;
+import io.github.grumpystuff.grumpyjson.OutputProfile;
 import io.github.grumpystuff.grumpyjson.TypeToken;
 import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializationException;
 import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
 import io.github.grumpystuff.grumpyjson.registry.NotRegisteredException;
+import io.github.grumpystuff.grumpyjson.serialize.FieldSelection;
 import io.github.grumpystuff.grumpyjson.serialize.JsonSerializationException;
+import io.github.grumpystuff.grumpyrest.metrics.RequestPhase;
 import io.github.grumpystuff.grumpyrest.request.PathArgument;
 import io.github.grumpystuff.grumpyrest.request.Request;
 import io.github.grumpystuff.grumpyrest.request.path.PathUtil;
@@ -19,15 +23,25 @@ import io.github.grumpystuff.grumpyrest.response.FinishRequestException;
 import io.github.grumpystuff.grumpyrest.response.Response;
 import io.github.grumpystuff.grumpyrest.response.ResponseTransmitter;
 import io.github.grumpystuff.grumpyrest.servlet.RequestPathSourcingStrategy;
+import io.github.grumpystuff.grumpyrest.servlet.ServletExchange;
+import io.github.grumpystuff.grumpyrest.transport.Exchange;
+import io.github.grumpystuff.grumpyrest.util.MediaTypeUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import io.github.grumpystuff.grumpyrest.response.standard.StandardErrorResponse;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 
@@ -40,11 +54,18 @@ import java.util.Objects;
 public final class RequestCycle {
 
     private final RestApi api;
-    private final HttpServletRequest servletRequest;
-    private final HttpServletResponse servletResponse;
+    private final Exchange exchange;
     private final List<String> pathSegments;
 
     private RouteMatchResult routeMatchResult;
+    private FieldSelection fieldSelection;
+    private OutputProfile outputProfile;
+    private String responseMediaType;
+    private RequestProbe probe = RequestProbe.DISABLED;
+    private boolean hasDeadline;
+    private long deadline;
+    private boolean responseBodyStarted;
+    private boolean batchSubRequest;
 
     private final Request highlevelRequest;
     private final ResponseTransmitter responseTransmitter;
@@ -63,16 +84,25 @@ public final class RequestCycle {
         HttpServletResponse servletResponse,
         RequestPathSourcingStrategy requestPathSourcingStrategy
     ) {
+        this(api, new ServletExchange(servletRequest, servletResponse, requestPathSourcingStrategy));
+    }
+
+    /**
+     * Creates a request cycle for a request received through any transport (see {@link Exchange}). This is the
+     * constructor to use when adapting grumpyrest to a new server technology: create a request cycle for each
+     * incoming request and pass it to {@link RestApi#handle(RequestCycle)}.
+     *
+     * @param api the API that handles the request
+     * @param exchange the exchange to take the request from and send the response to
+     */
+    public RequestCycle(RestApi api, Exchange exchange) {
         Objects.requireNonNull(api, "api");
-        Objects.requireNonNull(servletRequest, "servletRequest");
-        Objects.requireNonNull(servletResponse, "servletResponse");
-        Objects.requireNonNull(requestPathSourcingStrategy, "requestPathSourcingStrategy");
+        Objects.requireNonNull(exchange, "exchange");
 
         this.api = api;
-        this.servletRequest = servletRequest;
-        this.servletResponse = servletResponse;
+        this.exchange = exchange;
 
-        String pathText = requestPathSourcingStrategy.getPath(servletRequest);
+        String pathText = exchange.getPath();
         if (pathText == null) {
             this.pathSegments = List.of();
         } else {
@@ -93,12 +123,24 @@ public final class RequestCycle {
     }
 
     /**
-     * Getter method for the underlying servlet request
+     * Getter method for the {@link Exchange} that this request cycle takes the request from and sends the response
+     * to.
      *
-     * @return the servlet request
+     * @return the exchange
+     */
+    public Exchange getExchange() {
+        return exchange;
+    }
+
+    /**
+     * Getter method for the underlying servlet request. Returns null if this request cycle is not based on the
+     * servlet API, e.g. for a sub-request of a batch request (see {@link BatchHandler}) or when using a different
+     * server technology.
+     *
+     * @return the servlet request, or null
      */
     public HttpServletRequest getServletRequest() {
-        return servletRequest;
+        return (exchange instanceof ServletExchange servletExchange) ? servletExchange.getServletRequest() : null;
     }
 
     /**
@@ -139,6 +181,54 @@ public final class RequestCycle {
         return needRouteMatchResult().pathArguments();
     }
 
+    /**
+     * Getter method for the field selection for the response, taken from the querystring if the matched route has
+     * field selection enabled (see {@link Route.Options#fieldSelectionParameter()}).
+     *
+     * @return the field selection, or null if the route does not use field selection or the request does not specify
+     * one
+     */
+    public FieldSelection getFieldSelection() {
+        return fieldSelection;
+    }
+
+    /**
+     * Getter method for the output profile for JSON responses. This is the profile selected by the client if the
+     * {@link RestApi} allows that (see {@link RestApi#setOutputProfileParameter(String)} and
+     * {@link RestApi#setOutputProfileHeader(String)}), and otherwise the default profile of the JSON engine.
+     *
+     * @return the output profile
+     */
+    public OutputProfile getOutputProfile() {
+        return outputProfile == null ? api.getJsonEngine().getOutputProfile() : outputProfile;
+    }
+
+    /**
+     * Getter method for the media type that JSON responses are sent in. This is "application/json" unless the
+     * {@link RestApi} has JSON engines for other formats (see {@link RestApi#registerJsonEngine(String, JsonEngine)})
+     * and the client prefers one of them according to its Accept header.
+     *
+     * @return the media type of JSON responses
+     */
+    public String getResponseMediaType() {
+        if (responseMediaType == null) {
+            List<String> candidates = api.getResponseMediaTypes();
+            responseMediaType = candidates.size() == 1 ? candidates.get(0)
+                    : MediaTypeUtil.negotiate(exchange.getHeader("Accept"), candidates);
+        }
+        return responseMediaType;
+    }
+
+    /**
+     * Getter method for the JSON engine that JSON responses are written with. This is the engine for the
+     * {@link #getResponseMediaType() response media type}.
+     *
+     * @return the JSON engine
+     */
+    public JsonEngine getResponseJsonEngine() {
+        return api.getJsonEngine(getResponseMediaType());
+    }
+
     /**
      * The high-level {@link Request} object that makes all relevant properties of the HTTP request available. This is
      * the object that gets passed to a {@link SimpleHandler} as the only parameter.
@@ -151,8 +241,8 @@ public final class RequestCycle {
 
     /**
      * Returns an object that is used by {@link Response} implementations to transmit the response to the client. It is
-     * an abstraction of the {@link HttpServletResponse} and contains methods to send headers as well as the response
-     * body.
+     * an abstraction of the {@link HttpServletResponse} (or, more generally, the response side of the
+     * {@link Exchange}) and contains methods to send headers as well as the response body.
      * <p>
      * The returned object is called a response <i>transmitter</i>, even though it abstracts the servlet
      * <i>response</i>, because the latter suffers from bad naming: That object isn't really the response itself as
@@ -164,24 +254,128 @@ public final class RequestCycle {
         return responseTransmitter;
     }
 
+    /**
+     * Returns the time left until the deadline for handling this request passes (see
+     * {@link Route.Options#deadline()}). This is zero if the deadline has already passed.
+     *
+     * @return the remaining time, or null if the request has no deadline
+     */
+    public Duration getRemainingDeadline() {
+        if (!hasDeadline) {
+            return null;
+        }
+        return Duration.ofNanos(Math.max(0, deadline - System.nanoTime()));
+    }
+
+    void setDeadline(long deadline) {
+        this.hasDeadline = true;
+        this.deadline = deadline;
+    }
+
+    /**
+     * Whether the response body has been started, i.e. whether anything has obtained the response output stream. From
+     * then on, the status line and headers may have been sent, and bytes written to the body are part of the response
+     * that the client sees.
+     */
+    boolean isResponseBodyStarted() {
+        return responseBodyStarted;
+    }
+
+    void selectOutputProfile() {
+        String value = null;
+        String source = null;
+        if (api.getOutputProfileParameter() != null) {
+            String[] values = exchange.getQueryParameters().get(api.getOutputProfileParameter());
+            if (values != null && values.length > 0) {
+                if (values.length > 1) {
+                    throw new FinishRequestException(new StandardErrorResponse(400, "invalid output profile",
+                            new StandardErrorResponse.Field(api.getOutputProfileParameter(), ExceptionMessages.DUPLICATE_PARAMETER)));
+                }
+                value = values[0];
+                source = api.getOutputProfileParameter();
+            }
+        }
+        if (value == null && api.getOutputProfileHeader() != null) {
+            value = exchange.getHeader(api.getOutputProfileHeader());
+            source = api.getOutputProfileHeader();
+        }
+        if (value != null) {
+            try {
+                outputProfile = OutputProfile.valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new FinishRequestException(new StandardErrorResponse(400, "invalid output profile",
+                        new StandardErrorResponse.Field(source, "unknown output profile: " + value)));
+            }
+        }
+    }
+
     void applyRouteMatchResult(RouteMatchResult matchResult) {
         Objects.requireNonNull(matchResult, "matchResult");
 
         this.routeMatchResult = matchResult;
+        String parameter = matchResult.route().options().fieldSelectionParameter();
+        if (parameter != null) {
+            String[] values = exchange.getQueryParameters().get(parameter);
+            if (values != null && values.length > 0) {
+                if (values.length > 1) {
+                    throw new FinishRequestException(new StandardErrorResponse(400, "invalid field selection",
+                            new StandardErrorResponse.Field(parameter, ExceptionMessages.DUPLICATE_PARAMETER)));
+                }
+                try {
+                    fieldSelection = api.parseFieldSelection(values[0]);
+                } catch (IllegalArgumentException e) {
+                    throw new FinishRequestException(new StandardErrorResponse(400, "invalid field selection",
+                            new StandardErrorResponse.Field(parameter, e.getMessage())));
+                }
+            }
+        }
+    }
+
+    /**
+     * Whether this request cycle is for a sub-request of a batch request (see {@link BatchHandler}).
+     */
+    boolean isBatchSubRequest() {
+        return batchSubRequest;
+    }
+
+    void markAsBatchSubRequest() {
+        this.batchSubRequest = true;
+    }
+
+    void setProbe(RequestProbe probe) {
+        this.probe = probe;
+    }
+
+    /**
+     * Creates a copy of this request cycle for a handler that runs in a separate thread (see
+     * {@link HandlerInvocation}). The copy is based on a {@link DetachedExchange}. It does not have a probe because
+     * the probe is only used by the request thread.
+     */
+    RequestCycle detach() {
+        RequestCycle copy = new RequestCycle(api, new DetachedExchange(exchange));
+        copy.routeMatchResult = routeMatchResult;
+        copy.fieldSelection = fieldSelection;
+        copy.outputProfile = outputProfile;
+        copy.responseMediaType = getResponseMediaType();
+        copy.hasDeadline = hasDeadline;
+        copy.deadline = deadline;
+        copy.batchSubRequest = batchSubRequest;
+        return copy;
     }
 
     private final class MyResponseTransmitter implements ResponseTransmitter {
 
         @Override
         public void setStatus(int status) {
-            servletResponse.setStatus(status);
+            exchange.setStatus(status);
+            probe.setStatus(status);
         }
 
         @Override
         public void setContentType(String contentType) {
             Objects.requireNonNull(contentType, "contentType");
 
-            servletResponse.setContentType(contentType);
+            exchange.setContentType(contentType);
         }
 
         @Override
@@ -189,50 +383,72 @@ public final class RequestCycle {
             Objects.requireNonNull(name, "name");
             Objects.requireNonNull(value, "value");
 
-            servletResponse.addHeader(name, value);
+            exchange.addHeader(name, value);
         }
 
         @Override
         public OutputStream getOutputStream() throws IOException {
-            return servletResponse.getOutputStream();
+            responseBodyStarted = true;
+            return probe.wrapOutputStream(exchange.getOutputStream());
+        }
+
+        @Override
+        public String getJsonContentType() {
+            return getResponseMediaType();
         }
 
         @Override
         public void writeJson(Object value) throws JsonSerializationException, IOException {
             Objects.requireNonNull(value, "value");
 
-            api.getJsonEngine().writeTo(value, servletResponse.getOutputStream());
+            getResponseJsonEngine().writeTo(value, getOutputStream(), getOutputProfile());
         }
 
     }
 
     private final class MyRequest implements Request {
 
+        private JsonEngine bodyJsonEngine;
         private JsonElement preParsedBody;
 
         @Override
         public String getMethod() {
-            return servletRequest.getMethod();
+            return exchange.getMethod();
         }
 
         @Override
         public String getHeader(String name) {
             Objects.requireNonNull(name, "name");
 
-            return servletRequest.getHeader(name);
+            return exchange.getHeader(name);
+        }
+
+        @Override
+        public String getRemoteAddress() {
+            return exchange.getRemoteAddress();
         }
 
         public List<PathArgument> getPathArguments() {
             return RequestCycle.this.getPathArguments();
         }
 
+        @Override
+        public Duration getRemainingDeadline() {
+            return RequestCycle.this.getRemainingDeadline();
+        }
+
         public Object parseQuerystring(Type type) throws QuerystringParsingException {
             Objects.requireNonNull(type, "type");
 
-            Map<String, String[]> querystringMulti = servletRequest.getParameterMap();
+            Map<String, String[]> querystringMulti = exchange.getQueryParameters();
             Map<String, String> querystringSingle = new HashMap<>();
             Map<String, String> errorMap = new HashMap<>();
+            String fieldSelectionParameter = routeMatchResult == null ? null
+                    : routeMatchResult.route().options().fieldSelectionParameter();
             for (Map.Entry<String, String[]> entry : querystringMulti.entrySet()) {
+                if (entry.getKey().equals(fieldSelectionParameter) || entry.getKey().equals(api.getOutputProfileParameter())) {
+                    continue;
+                }
                 String[] values = entry.getValue();
                 for (String value : values) {
                     if (querystringSingle.put(entry.getKey(), value) != null) {
@@ -270,7 +486,8 @@ public final class RequestCycle {
             Objects.requireNonNull(clazz, "clazz");
 
             try {
-                return api.getJsonEngine().deserialize(prepareParse(), clazz);
+                JsonElement body = prepareParse();
+                return bodyJsonEngine.deserialize(body, clazz);
             } catch (JsonDeserializationException e) {
                 throw new FinishRequestException(StandardErrorResponse.requestBodyValidationFailed(e));
             }
@@ -280,7 +497,8 @@ public final class RequestCycle {
             Objects.requireNonNull(typeToken, "typeToken");
 
             try {
-                return api.getJsonEngine().deserialize(prepareParse(), typeToken);
+                JsonElement body = prepareParse();
+                return bodyJsonEngine.deserialize(body, typeToken);
             } catch (JsonDeserializationException e) {
                 throw new FinishRequestException(StandardErrorResponse.requestBodyValidationFailed(e));
             }
@@ -290,7 +508,8 @@ public final class RequestCycle {
             Objects.requireNonNull(type, "type");
 
             try {
-                return api.getJsonEngine().deserialize(prepareParse(), type);
+                JsonElement body = prepareParse();
+                return bodyJsonEngine.deserialize(body, type);
             } catch (JsonDeserializationException e) {
                 throw new FinishRequestException(StandardErrorResponse.requestBodyValidationFailed(e));
             }
@@ -298,21 +517,44 @@ public final class RequestCycle {
 
         private JsonElement prepareParse() {
             if (preParsedBody == null) {
-                String contentType = servletRequest.getContentType();
-                if (contentType == null || !contentType.equals("application/json")) {
+                String contentType = exchange.getContentType();
+                JsonEngine engine = contentType == null ? null : api.getJsonEngine(contentType);
+                if (engine == null) {
                     throw new FinishRequestException(StandardErrorResponse.JSON_EXPECTED);
                 }
+                long parseStartTime = probe.beginNestedPhase();
                 try {
-                    preParsedBody = api.getJsonEngine().deserialize(servletRequest.getInputStream(), JsonElement.class);
+                    InputStream in = probe.wrapInputStream(exchange.getInputStream());
+                    preParsedBody = engine.deserialize(in, JsonElement.class);
+                    bodyJsonEngine = engine;
                 } catch (JsonDeserializationException e) {
                     throw new FinishRequestException(StandardErrorResponse.requestBodyValidationFailed(e));
                 } catch (IOException e) {
                     throw new FinishRequestException(StandardErrorResponse.IO_ERROR);
+                } finally {
+                    probe.endNestedPhase(RequestPhase.BODY_PARSE, parseStartTime);
                 }
             }
             return preParsedBody;
         }
 
+        @Override
+        public Iterator<?> parseBodyAsJsonLines(Type type) {
+            Objects.requireNonNull(type, "type");
+
+            String contentType = exchange.getContentType();
+            if (contentType == null || !MediaTypeUtil.getMediaType(contentType).equals("application/x-ndjson")) {
+                throw new FinishRequestException(StandardErrorResponse.JSON_LINES_EXPECTED);
+            }
+            BufferedReader reader;
+            try {
+                InputStream in = probe.wrapInputStream(exchange.getInputStream());
+                reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new FinishRequestException(StandardErrorResponse.IO_ERROR);
+            }
+            return new JsonLinesBodyIterator(api.getJsonEngine(), reader, type);
+        }
 
         public <T> T parseQuerystring(Class<T> clazz) throws QuerystringParsingException {
             Objects.requireNonNull(clazz, "clazz");
@@ -0,0 +1,299 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest;
+
+import io.github.grumpystuff.grumpyrest.jfr.FinishRequestEvent;
+import io.github.grumpystuff.grumpyrest.jfr.RequestEvent;
+import io.github.grumpystuff.grumpyrest.jfr.RequestPhaseEvent;
+import io.github.grumpystuff.grumpyrest.metrics.AllocationMeasurement;
+import io.github.grumpystuff.grumpyrest.metrics.RequestMeasurement;
+import io.github.grumpystuff.grumpyrest.metrics.RequestMetrics;
+import io.github.grumpystuff.grumpyrest.metrics.RequestPhase;
+import io.github.grumpystuff.grumpyrest.response.FinishRequestException;
+import io.github.grumpystuff.grumpyrest.util.AllocationUtil;
+import io.github.grumpystuff.grumpyrest.util.CountingInputStream;
+import io.github.grumpystuff.grumpyrest.util.CountingOutputStream;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Takes the measurements for a single request and passes them to the {@link RequestMetrics} when the request is
+ * finished, and emits Java Flight Recorder events if enabled. If neither metrics nor events are enabled, the shared
+ * {@link #DISABLED} instance is used, which does nothing at all.
+ * <p>
+ * Phases are timed back-to-back: ending a phase starts the next one. A nested phase (the body parse, which happens
+ * while the handler is running) is timed separately and its time is subtracted from the enclosing phase.
+ * <p>
+ * For requests sampled for allocation measurement, the allocated bytes of the current thread are taken at the same
+ * points. A value is discarded (reported as -1) if the thread at the end of a phase is not the thread at its start,
+ * which can happen if the handler continues on another thread, or if the JVM cannot measure it for the thread.
+ * <p>
+ * A probe is only used by the request thread. The handler of a route with a deadline runs in a separate thread, so it
+ * does not use the probe, and its body parse is not timed as a phase of its own but as part of the handler. Its
+ * allocation is measured by that thread and added to the handler phase with {@link #addAllocation(long)}, and the
+ * request body bytes it has read are added with {@link #addBytesIn(long)}.
+ */
+final class RequestProbe {
+
+    static final RequestProbe DISABLED = new RequestProbe(null, null, false, false, false, false);
+
+    private final RequestMetrics metrics;
+    private final RequestCycle requestCycle;
+    private final long startTime;
+    private final long[] phaseNanos;
+    private long phaseStartTime;
+    private long nestedNanos;
+    private Route route;
+    private int status = 200;
+    private long bytesIn;
+    private long bytesOut;
+
+    private final Thread allocationStartThread;
+    private final long allocationStart;
+    private final long[] phaseAllocations;
+    private Thread allocationPhaseThread;
+    private long allocationPhaseStart;
+    private long nestedAllocation;
+    private Thread nestedAllocationThread;
+    private long nestedAllocationStart;
+    private long otherThreadAllocation;
+    private long totalOtherThreadAllocation;
+
+    private final RequestEvent requestEvent;
+    private RequestPhaseEvent phaseEvent;
+    private RequestPhaseEvent nestedPhaseEvent;
+    private final boolean finishRequestEventEnabled;
+
+    private RequestProbe(RequestMetrics metrics, RequestCycle requestCycle, boolean measureAllocation,
+                         boolean requestEventEnabled, boolean phaseEventEnabled, boolean finishRequestEventEnabled) {
+        this.metrics = metrics;
+        this.requestCycle = requestCycle;
+        if (metrics == null) {
+            this.startTime = 0;
+            this.phaseNanos = null;
+        } else {
+            this.startTime = System.nanoTime();
+            this.phaseNanos = new long[RequestPhase.values().length];
+        }
+        this.phaseStartTime = startTime;
+        if (measureAllocation) {
+            this.phaseAllocations = new long[RequestPhase.values().length];
+            this.allocationStartThread = Thread.currentThread();
+            this.allocationStart = AllocationUtil.getCurrentThreadAllocatedBytes();
+            this.allocationPhaseThread = allocationStartThread;
+            this.allocationPhaseStart = allocationStart;
+        } else {
+            this.phaseAllocations = null;
+            this.allocationStartThread = null;
+            this.allocationStart = -1;
+        }
+        if (requestEventEnabled) {
+            this.requestEvent = new RequestEvent();
+            this.requestEvent.begin();
+        } else {
+            this.requestEvent = null;
+        }
+        if (phaseEventEnabled) {
+            this.phaseEvent = new RequestPhaseEvent();
+            this.phaseEvent.begin();
+        }
+        this.finishRequestEventEnabled = finishRequestEventEnabled;
+    }
+
+    static RequestProbe start(RequestMetrics metrics, int allocationSamplingInterval, RequestCycle requestCycle) {
+        boolean requestEventEnabled = new RequestEvent().isEnabled();
+        boolean phaseEventEnabled = new RequestPhaseEvent().isEnabled();
+        boolean finishRequestEventEnabled = new FinishRequestEvent().isEnabled();
+        if (metrics == RequestMetrics.NONE && !requestEventEnabled && !phaseEventEnabled && !finishRequestEventEnabled) {
+            return DISABLED;
+        }
+        boolean measureAllocation = metrics != RequestMetrics.NONE && allocationSamplingInterval > 0
+                && AllocationUtil.isSupported()
+                && ThreadLocalRandom.current().nextInt(allocationSamplingInterval) == 0;
+        return new RequestProbe(metrics == RequestMetrics.NONE ? null : metrics, requestCycle, measureAllocation,
+                requestEventEnabled, phaseEventEnabled, finishRequestEventEnabled);
+    }
+
+    /**
+     * Returns the bytes allocated since the specified start value, or -1 if that cannot be determined because the
+     * start value is unknown or the thread has changed.
+     */
+    private static long getAllocatedSince(Thread startThread, long start) {
+        if (start < 0 || Thread.currentThread() != startThread) {
+            return -1;
+        }
+        long now = AllocationUtil.getCurrentThreadAllocatedBytes();
+        return now < 0 ? -1 : now - start;
+    }
+
+    private boolean isEnabled() {
+        // only the DISABLED instance has no request cycle
+        return requestCycle != null;
+    }
+
+    private String getRouteName() {
+        return route == null ? null : route.method() + " " + route.path();
+    }
+
+    void endMatchPhase(RouteMatchResult matchResult) {
+        if (matchResult != null && isEnabled()) {
+            this.route = matchResult.route();
+        }
+        endPhase(RequestPhase.MATCH);
+    }
+
+    void endPhase(RequestPhase phase) {
+        if (metrics != null) {
+            long now = System.nanoTime();
+            phaseNanos[phase.ordinal()] += now - phaseStartTime - nestedNanos;
+            phaseStartTime = now;
+            nestedNanos = 0;
+        }
+        if (phaseAllocations != null) {
+            long allocated = getAllocatedSince(allocationPhaseThread, allocationPhaseStart);
+            phaseAllocations[phase.ordinal()] = (allocated < 0 || nestedAllocation < 0 || otherThreadAllocation < 0)
+                    ? -1 : allocated - nestedAllocation + otherThreadAllocation;
+            allocationPhaseThread = Thread.currentThread();
+            allocationPhaseStart = AllocationUtil.getCurrentThreadAllocatedBytes();
+            nestedAllocation = 0;
+            otherThreadAllocation = 0;
+        }
+        if (phaseEvent != null) {
+            commitPhaseEvent(phaseEvent, phase);
+            phaseEvent = new RequestPhaseEvent();
+            phaseEvent.begin();
+        }
+    }
+
+    private void commitPhaseEvent(RequestPhaseEvent event, RequestPhase phase) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.phase = phase.name();
+            event.route = getRouteName();
+            event.commit();
+        }
+    }
+
+    long beginNestedPhase() {
+        if (phaseAllocations != null) {
+            nestedAllocationThread = Thread.currentThread();
+            nestedAllocationStart = AllocationUtil.getCurrentThreadAllocatedBytes();
+        }
+        if (phaseEvent != null) {
+            nestedPhaseEvent = new RequestPhaseEvent();
+            nestedPhaseEvent.begin();
+        }
+        return metrics == null ? 0 : System.nanoTime();
+    }
+
+    void endNestedPhase(RequestPhase phase, long nestedStartTime) {
+        if (metrics != null) {
+            long nanos = System.nanoTime() - nestedStartTime;
+            phaseNanos[phase.ordinal()] += nanos;
+            nestedNanos += nanos;
+        }
+        if (phaseAllocations != null) {
+            long allocated = getAllocatedSince(nestedAllocationThread, nestedAllocationStart);
+            phaseAllocations[phase.ordinal()] = allocated;
+            nestedAllocation = (allocated < 0 || nestedAllocation < 0) ? -1 : nestedAllocation + allocated;
+        }
+        if (nestedPhaseEvent != null) {
+            commitPhaseEvent(nestedPhaseEvent, phase);
+            nestedPhaseEvent = null;
+        }
+    }
+
+    boolean isMeasuringAllocation() {
+        return phaseAllocations != null;
+    }
+
+    /**
+     * Adds bytes that another thread has allocated for the current phase, or marks the phase as unknown if the
+     * argument is negative. The other thread must have finished its work for the phase.
+     */
+    void addAllocation(long bytes) {
+        if (phaseAllocations != null) {
+            otherThreadAllocation = (bytes < 0 || otherThreadAllocation < 0) ? -1 : otherThreadAllocation + bytes;
+            totalOtherThreadAllocation = (bytes < 0 || totalOtherThreadAllocation < 0) ? -1 : totalOtherThreadAllocation + bytes;
+        }
+    }
+
+    void setStatus(int status) {
+        if (isEnabled()) {
+            this.status = status;
+        }
+    }
+
+    void addBytesIn(long bytes) {
+        if (metrics != null) {
+            bytesIn += bytes;
+        }
+    }
+
+    InputStream wrapInputStream(InputStream in) {
+        return metrics == null ? in : new CountingInputStream(in, n -> bytesIn += n);
+    }
+
+    OutputStream wrapOutputStream(OutputStream out) {
+        return metrics == null ? out : new CountingOutputStream(out, n -> bytesOut += n);
+    }
+
+    void onFinishRequestException(FinishRequestException exception) {
+        if (finishRequestEventEnabled) {
+            FinishRequestEvent event = new FinishRequestEvent();
+            if (event.shouldCommit()) {
+                event.route = getRouteName();
+                Object responseValue = exception.getWrappedResponseValue();
+                event.responseValueType = responseValue == null ? null : responseValue.getClass().getName();
+                event.commit();
+            }
+        }
+    }
+
+    void finish() {
+        if (requestEvent != null) {
+            requestEvent.end();
+            if (requestEvent.shouldCommit()) {
+                requestEvent.method = requestCycle.getExchange().getMethod();
+                requestEvent.path = requestCycle.getExchange().getPath();
+                requestEvent.route = getRouteName();
+                requestEvent.status = status;
+                requestEvent.commit();
+            }
+        }
+        if (metrics != null) {
+            AllocationMeasurement allocation = null;
+            if (phaseAllocations != null) {
+                long totalAllocated = getAllocatedSince(allocationStartThread, allocationStart);
+                allocation = new AllocationMeasurement(
+                        (totalAllocated < 0 || totalOtherThreadAllocation < 0) ? -1 : totalAllocated + totalOtherThreadAllocation,
+                        phaseAllocations[RequestPhase.MATCH.ordinal()],
+                        phaseAllocations[RequestPhase.BODY_PARSE.ordinal()],
+                        phaseAllocations[RequestPhase.HANDLER.ordinal()],
+                        phaseAllocations[RequestPhase.RESPONSE_FACTORY.ordinal()],
+                        phaseAllocations[RequestPhase.TRANSMIT.ordinal()]
+                );
+            }
+            metrics.record(new RequestMeasurement(
+                    route,
+                    status,
+                    bytesIn,
+                    bytesOut,
+                    System.nanoTime() - startTime,
+                    phaseNanos[RequestPhase.MATCH.ordinal()],
+                    phaseNanos[RequestPhase.BODY_PARSE.ordinal()],
+                    phaseNanos[RequestPhase.HANDLER.ordinal()],
+                    phaseNanos[RequestPhase.RESPONSE_FACTORY.ordinal()],
+                    phaseNanos[RequestPhase.TRANSMIT.ordinal()],
+                    allocation
+            ));
+        }
+    }
+
+}
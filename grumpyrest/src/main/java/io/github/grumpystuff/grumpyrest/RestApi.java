@@ -8,9 +8,17 @@ package io.github.grumpystuff.grumpyrest;
 
 import io.github.grumpystuff.grumpyjson.JsonEngine;
 import io.github.grumpystuff.grumpyjson.JsonRegistries;
+import io.github.grumpystuff.grumpyjson.OutputProfile;
 import io.github.grumpystuff.grumpyjson.deserialize.JsonDeserializer;
+import io.github.grumpystuff.grumpyjson.serialize.FieldSelection;
 import io.github.grumpystuff.grumpyjson.serialize.JsonSerializer;
 import io.github.grumpystuff.grumpyjson.serialize.JsonSerializerRegistry;
+import io.github.grumpystuff.grumpyrest.limit.ConcurrencyLimiter;
+import io.github.grumpystuff.grumpyrest.limit.ConcurrencyLimiterStats;
+import io.github.grumpystuff.grumpyrest.limit.RateLimiter;
+import io.github.grumpystuff.grumpyrest.limit.RateLimiterStats;
+import io.github.grumpystuff.grumpyrest.metrics.RequestMetrics;
+import io.github.grumpystuff.grumpyrest.metrics.RequestPhase;
 import io.github.grumpystuff.grumpyrest.request.HttpMethod;
 import io.github.grumpystuff.grumpyrest.request.path.Path;
 import io.github.grumpystuff.grumpyrest.request.querystring.QuerystringParser;
@@ -23,14 +31,22 @@ import io.github.grumpystuff.grumpyrest.request.stringparser.FromStringParserReg
 import io.github.grumpystuff.grumpyrest.response.standard.IdentityResponseFactory;
 import io.github.grumpystuff.grumpyrest.response.standard.JsonResponseFactory;
 import io.github.grumpystuff.grumpyrest.response.standard.StandardErrorResponse;
+import io.github.grumpystuff.grumpyrest.util.MediaTypeUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This class is the main Entry point into grumpyrest. It is used by the application to define the REST API in terms
@@ -40,11 +56,26 @@ public final class RestApi {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(RestApi.class);
 
+    private static final String JSON_MEDIA_TYPE = "application/json";
+
     private final JsonEngine jsonEngine;
+    private final Map<String, JsonEngine> alternativeJsonEngines = new LinkedHashMap<>();
+    private List<String> responseMediaTypes = List.of(JSON_MEDIA_TYPE);
     private final List<Route> routes = new ArrayList<>();
     private final ResponseFactoryRegistry responseFactoryRegistry = new ResponseFactoryRegistry();
     private final FromStringParserRegistry fromStringParserRegistry = new FromStringParserRegistry();
     private final QuerystringParserRegistry querystringParserRegistry = new QuerystringParserRegistry(fromStringParserRegistry);
+    private RequestMetrics metrics = RequestMetrics.NONE;
+    private int allocationSamplingInterval = 0;
+    private String outputProfileParameter = null;
+    private String outputProfileHeader = null;
+    private Duration defaultDeadline = null;
+
+    // Parsed field selections, keyed by their text form. Clients typically use a few distinct selections, but since
+    // the text comes from the client, the cache is bounded. When full, it gets cleared rather than refusing new
+    // entries, so junk selections cannot lock out the ones in regular use -- these are back after their next use.
+    private static final int MAX_CACHED_FIELD_SELECTIONS = 1000;
+    private final ConcurrentHashMap<String, FieldSelection> fieldSelectionCache = new ConcurrentHashMap<>();
 
     /**
      * Constructor.
@@ -170,6 +201,32 @@ public final class RestApi {
         addRoute(new Route(method, path, handler));
     }
 
+    /**
+     * Adds a route that handles batch requests at the specified path, using default options. See {@link BatchHandler}
+     * for details. Like any other route, this route takes precedence over any route added later.
+     *
+     * @param path the path to match. The route only matches POST requests.
+     */
+    public void addBatchRoute(String path) {
+        Objects.requireNonNull(path, "path");
+
+        addBatchRoute(path, BatchHandler.Options.createDefault());
+    }
+
+    /**
+     * Adds a route that handles batch requests at the specified path. See {@link BatchHandler} for details. Like any
+     * other route, this route takes precedence over any route added later.
+     *
+     * @param path the path to match. The route only matches POST requests.
+     * @param options the options for the batch handler
+     */
+    public void addBatchRoute(String path, BatchHandler.Options options) {
+        Objects.requireNonNull(path, "path");
+        Objects.requireNonNull(options, "options");
+
+        addComplexRoute(HttpMethod.POST, path, new BatchHandler(options));
+    }
+
     /**
      * Returns a snapshot of the currently present routes.
      *
@@ -309,11 +366,230 @@ public final class RestApi {
         return jsonEngine;
     }
 
+    /**
+     * Sets the {@link RequestMetrics} that receive measurements for each handled request. The default is
+     * {@link RequestMetrics#NONE}, which disables measuring.
+     *
+     * @param metrics the metrics
+     */
+    public void setMetrics(RequestMetrics metrics) {
+        Objects.requireNonNull(metrics, "metrics");
+
+        this.metrics = metrics;
+    }
+
+    /**
+     * Getter method for the {@link RequestMetrics} that receive measurements for each handled request.
+     *
+     * @return the metrics
+     */
+    public RequestMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Enables measuring the bytes allocated per request for one in every N requests, chosen at random. The default is
+     * 0, which disables allocation measurement. Allocation is only measured if {@link #setMetrics(RequestMetrics)
+     * metrics} are set, and only if the JVM supports measuring thread allocation; the result is reported as the
+     * {@link io.github.grumpystuff.grumpyrest.metrics.RequestMeasurement#allocation() allocation} of the measurement.
+     * <p>
+     * Measuring allocation is cheap but not free, so for high request rates, an interval like 100 gives a useful
+     * picture without affecting the other requests.
+     *
+     * @param allocationSamplingInterval the sampling interval: 0 to disable, 1 to measure every request, N to measure
+     *                                   one in N requests
+     */
+    public void setAllocationSamplingInterval(int allocationSamplingInterval) {
+        if (allocationSamplingInterval < 0) {
+            throw new IllegalArgumentException("allocationSamplingInterval cannot be negative");
+        }
+        this.allocationSamplingInterval = allocationSamplingInterval;
+    }
+
+    /**
+     * Getter method for the allocation sampling interval, see {@link #setAllocationSamplingInterval(int)}.
+     *
+     * @return the allocation sampling interval
+     */
+    public int getAllocationSamplingInterval() {
+        return allocationSamplingInterval;
+    }
+
+    /**
+     * Allows clients to select the {@link OutputProfile} for the JSON response through a querystring parameter, such
+     * as "format" for requests like {@code ?format=pretty}. The value is the name of the profile in any case. This
+     * parameter is not passed to the querystring parser. Requests that do not specify a profile use the default
+     * profile of the {@link JsonEngine}, see {@link JsonEngine#setOutputProfile(OutputProfile)}.
+     *
+     * @param outputProfileParameter the name of the querystring parameter, or null to disable this (the default)
+     */
+    public void setOutputProfileParameter(String outputProfileParameter) {
+        this.outputProfileParameter = outputProfileParameter;
+    }
+
+    /**
+     * Getter method for the name of the querystring parameter that selects the output profile, see
+     * {@link #setOutputProfileParameter(String)}.
+     *
+     * @return the name of the querystring parameter, or null if disabled
+     */
+    public String getOutputProfileParameter() {
+        return outputProfileParameter;
+    }
+
+    /**
+     * Allows clients to select the {@link OutputProfile} for the JSON response through an HTTP request header, such
+     * as "X-Output-Profile". The value is the name of the profile in any case. If both the querystring parameter and
+     * the header are present, the querystring parameter takes precedence.
+     *
+     * @param outputProfileHeader the name of the header, or null to disable this (the default)
+     */
+    public void setOutputProfileHeader(String outputProfileHeader) {
+        this.outputProfileHeader = outputProfileHeader;
+    }
+
+    /**
+     * Getter method for the name of the request header that selects the output profile, see
+     * {@link #setOutputProfileHeader(String)}.
+     *
+     * @return the name of the header, or null if disabled
+     */
+    public String getOutputProfileHeader() {
+        return outputProfileHeader;
+    }
+
+    /**
+     * Sets the deadline for handling requests of routes that do not specify their own (see
+     * {@link Route.Options#deadline()}). When the deadline passes, the handler gets interrupted and the client gets a
+     * {@link StandardErrorResponse#DEADLINE_EXCEEDED} response. Handlers can obtain the remaining time with
+     * {@link io.github.grumpystuff.grumpyrest.request.Request#getRemainingDeadline()} to pass it on to downstream calls.
+     * <p>
+     * Handlers of routes with a deadline run in a separate thread -- a virtual thread if the JVM supports them -- so
+     * thread-local state of the request thread, such as a logging MDC, is not visible to them. They also get a copy of
+     * the request cycle that is cut off from the request when the deadline passes, so the request thread can finish
+     * the request without the handler still using it. Anything such a handler sends through the response transmitter
+     * directly is buffered until it returns.
+     *
+     * @param defaultDeadline the deadline, or null for no deadline (the default)
+     */
+    public void setDefaultDeadline(Duration defaultDeadline) {
+        if (defaultDeadline != null && (defaultDeadline.isNegative() || defaultDeadline.isZero())) {
+            throw new IllegalArgumentException("defaultDeadline must be positive");
+        }
+        this.defaultDeadline = defaultDeadline;
+    }
+
+    /**
+     * Getter method for the deadline for routes that do not specify their own, see
+     * {@link #setDefaultDeadline(Duration)}.
+     *
+     * @return the deadline, or null for no deadline
+     */
+    public Duration getDefaultDeadline() {
+        return defaultDeadline;
+    }
+
+    /**
+     * Registers a JSON engine for an alternative format, such as CBOR, that gets used instead of the main JSON engine
+     * (see {@link #getJsonEngine()}) if the client asks for it. Requests whose Content-Type is the specified media
+     * type get their body parsed with that engine, and responses that would normally be sent as JSON are sent in that
+     * format if the client prefers it according to its Accept header. JSON is sent if the client has no preference,
+     * e.g. if it does not send an Accept header or accepts any type, so browsers keep getting JSON.
+     * <p>
+     * The engine should usually share the converters of the main JSON engine, so the same Java types can be sent in
+     * either format. It is sealed together with this API.
+     * <p>
+     * Streaming responses, such as {@link io.github.grumpystuff.grumpyrest.response.standard.JsonArrayStreamResponse},
+     * and the JSON lines format are not affected and always use JSON.
+     *
+     * @param mediaType the media type of the format, e.g. "application/cbor"
+     * @param jsonEngine the engine that reads and writes the format
+     */
+    public void registerJsonEngine(String mediaType, JsonEngine jsonEngine) {
+        Objects.requireNonNull(mediaType, "mediaType");
+        Objects.requireNonNull(jsonEngine, "jsonEngine");
+
+        mediaType = MediaTypeUtil.getMediaType(mediaType);
+        if (mediaType.equals(JSON_MEDIA_TYPE)) {
+            throw new IllegalArgumentException("cannot register an alternative engine for " + JSON_MEDIA_TYPE);
+        }
+        alternativeJsonEngines.put(mediaType, jsonEngine);
+        List<String> mediaTypes = new ArrayList<>();
+        mediaTypes.add(JSON_MEDIA_TYPE);
+        mediaTypes.addAll(alternativeJsonEngines.keySet());
+        responseMediaTypes = List.copyOf(mediaTypes);
+    }
+
+    /**
+     * Returns the JSON engine for the specified media type: the main JSON engine for "application/json", an engine
+     * registered with {@link #registerJsonEngine(String, JsonEngine)}, or null for any other media type.
+     *
+     * @param mediaType the media type
+     * @return the JSON engine, or null
+     */
+    public JsonEngine getJsonEngine(String mediaType) {
+        Objects.requireNonNull(mediaType, "mediaType");
+
+        mediaType = MediaTypeUtil.getMediaType(mediaType);
+        return mediaType.equals(JSON_MEDIA_TYPE) ? jsonEngine : alternativeJsonEngines.get(mediaType);
+    }
+
+    /**
+     * Returns the media types that responses can be sent in: "application/json" followed by the media types
+     * registered with {@link #registerJsonEngine(String, JsonEngine)}.
+     *
+     * @return the media types
+     */
+    public List<String> getResponseMediaTypes() {
+        return responseMediaTypes;
+    }
+
+    /**
+     * Returns the current state of all concurrency limiters used by the routes of this API (see
+     * {@link Route.Options#concurrencyLimiter()}), in the order of the routes that first use them. A limiter that is
+     * shared by several routes is only included once.
+     *
+     * @return the stats
+     */
+    public List<ConcurrencyLimiterStats> getConcurrencyLimiterStats() {
+        Set<ConcurrencyLimiter> limiters = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<ConcurrencyLimiterStats> result = new ArrayList<>();
+        for (Route route : routes) {
+            ConcurrencyLimiter limiter = route.options().concurrencyLimiter();
+            if (limiter != null && limiters.add(limiter)) {
+                result.add(limiter.getStats());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the current state of all rate limiters used by the routes of this API (see
+     * {@link Route.Options#rateLimiter()}), in the order of the routes that first use them. A limiter that is shared
+     * by several routes is only included once.
+     *
+     * @return the stats
+     */
+    public List<RateLimiterStats> getRateLimiterStats() {
+        Set<RateLimiter> limiters = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<RateLimiterStats> result = new ArrayList<>();
+        for (Route route : routes) {
+            RateLimiter limiter = route.options().rateLimiter();
+            if (limiter != null && limiters.add(limiter)) {
+                result.add(limiter.getStats());
+            }
+        }
+        return result;
+    }
+
     /**
      * Seals this API, also sealing all registries used in it.
      */
     public void seal() {
         jsonEngine.seal();
+        for (JsonEngine alternativeJsonEngine : alternativeJsonEngines.values()) {
+            alternativeJsonEngine.seal();
+        }
         fromStringParserRegistry.seal();
         querystringParserRegistry.seal();
         responseFactoryRegistry.seal();
@@ -356,19 +632,37 @@ public final class RestApi {
     public void handle(RequestCycle requestCycle) {
         Objects.requireNonNull(requestCycle, "requestCycle");
 
+        RequestProbe probe = RequestProbe.start(metrics, allocationSamplingInterval, requestCycle);
+        requestCycle.setProbe(probe);
         try {
 
+            // Responses differ by the request headers that select the media type and the output profile, so shared
+            // caches must not serve a response to a request that differs in these headers.
+            String vary = getVaryHeader();
+            if (vary != null) {
+                requestCycle.getResponseTransmitter().addCustomHeader("Vary", vary);
+            }
+
             // run the handler
             Object responseValue;
             try {
+                requestCycle.selectOutputProfile();
                 RouteMatchResult matchResult = match(requestCycle);
+                probe.endMatchPhase(matchResult);
                 if (matchResult != null) {
-                    requestCycle.applyRouteMatchResult(matchResult);
-                    responseValue = matchResult.route().invokeHandler(requestCycle);
+                    try {
+                        requestCycle.applyRouteMatchResult(matchResult);
+                        responseValue = invokeHandler(requestCycle, matchResult.route(), probe);
+                    } finally {
+                        probe.endPhase(RequestPhase.HANDLER);
+                    }
                 } else {
                     responseValue = StandardErrorResponse.UNKNOWN_URL;
                 }
             } catch (Exception e) {
+                if (e instanceof FinishRequestException finishRequestException) {
+                    probe.onFinishRequestException(finishRequestException);
+                }
                 responseValue = e;
             }
 
@@ -393,26 +687,81 @@ public final class RestApi {
                 LOGGER.error("could not create HTTP response for response value", e);
                 response = StandardErrorResponse.INTERNAL_SERVER_ERROR;
             }
+            probe.endPhase(RequestPhase.RESPONSE_FACTORY);
 
             // Transmit the response. Catching exceptions here is not useful because the response body has already been
             // started so we cannot change the status line anymore.
             response.transmit(requestCycle.getResponseTransmitter());
+            probe.endPhase(RequestPhase.TRANSMIT);
 
         } catch (Exception e) {
             // If we end up here, we cannot rely on the JSON serializer anymore (since that may the reason we ended
             // up here), so we just send a plain 500. If possible, we send an error text, but even that may fail (e.g.
             // something else requested a Writer even though everything here uses an OutputStream), so at least
-            // defend against that.
-            try {
-                var responseTransmitter = requestCycle.getResponseTransmitter();
-                responseTransmitter.setStatus(500);
-                responseTransmitter.setContentType("application/text");
-                responseTransmitter.getOutputStream().write("internal server error\n".getBytes(StandardCharsets.UTF_8));
-            } catch (Exception e2) {
-                // ignore -- typically I/O errors which are transient and we can't fix them
+            // defend against that. If the response body has already been started (e.g. a streamed response failed
+            // half-way), the response is final: the status line cannot be changed anymore, and the error text would
+            // only get appended to the partial body, so we leave it truncated for the client to detect.
+            if (!requestCycle.isResponseBodyStarted()) {
+                try {
+                    var responseTransmitter = requestCycle.getResponseTransmitter();
+                    responseTransmitter.setStatus(500);
+                    responseTransmitter.setContentType("application/text");
+                    responseTransmitter.getOutputStream().write("internal server error\n".getBytes(StandardCharsets.UTF_8));
+                } catch (Exception e2) {
+                    // ignore -- typically I/O errors which are transient and we can't fix them
+                }
             }
             LOGGER.error("exception during request handling", e);
+        } finally {
+            try {
+                probe.finish();
+            } catch (Exception e) {
+                LOGGER.error("exception while recording request metrics", e);
+            }
+        }
+    }
+
+    private Object invokeHandler(RequestCycle requestCycle, Route route, RequestProbe probe) throws Exception {
+        RateLimiter rateLimiter = route.options().rateLimiter();
+        if (rateLimiter != null) {
+            Response rejection = rateLimiter.check(requestCycle.getHighlevelRequest());
+            if (rejection != null) {
+                return rejection;
+            }
+        }
+        Duration deadline = route.options().deadline() == null ? defaultDeadline : route.options().deadline();
+        long deadlineTime = 0;
+        if (deadline != null) {
+            deadlineTime = System.nanoTime() + deadline.toNanos();
+            requestCycle.setDeadline(deadlineTime);
+        }
+        ConcurrencyLimiter limiter = route.options().concurrencyLimiter();
+        if (limiter != null && !limiter.acquire()) {
+            return limiter.getRejectionResponse();
+        }
+        RequestCycle handlerCycle = deadline == null ? requestCycle : requestCycle.detach();
+        HandlerInvocation invocation = new HandlerInvocation(route, handlerCycle, limiter);
+        return deadline == null ? invocation.call() : invocation.callWithDeadline(deadlineTime, requestCycle, probe);
+    }
+
+    private String getVaryHeader() {
+        boolean negotiated = responseMediaTypes.size() > 1;
+        if (outputProfileHeader == null) {
+            return negotiated ? "Accept" : null;
+        }
+        return negotiated ? "Accept, " + outputProfileHeader : outputProfileHeader;
+    }
+
+    FieldSelection parseFieldSelection(String text) {
+        FieldSelection selection = fieldSelectionCache.get(text);
+        if (selection == null) {
+            selection = FieldSelection.parse(text);
+            if (fieldSelectionCache.size() >= MAX_CACHED_FIELD_SELECTIONS) {
+                fieldSelectionCache.clear();
+            }
+            fieldSelectionCache.put(text, selection);
         }
+        return selection;
     }
 
     private static String getHintForMissingResponseFactory(Object value) {
@@ -6,11 +6,15 @@
  */
 package io.github.grumpystuff.grumpyrest;
 
+import io.github.grumpystuff.grumpyjson.serialize.FieldSelection;
+import io.github.grumpystuff.grumpyrest.limit.ConcurrencyLimiter;
+import io.github.grumpystuff.grumpyrest.limit.RateLimiter;
 import io.github.grumpystuff.grumpyrest.request.HttpMethod;
 import io.github.grumpystuff.grumpyrest.request.PathArgument;
 import io.github.grumpystuff.grumpyrest.request.path.Path;
 import io.github.grumpystuff.grumpyrest.request.stringparser.ParseFromStringService;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Objects;
 
@@ -34,13 +38,115 @@ import java.util.Objects;
  *     simplifies testing and mocking. Refer to these interfaces for details</li>
  * </ul>
  * <p>
- * The canonical constructor takes a {@link ComplexHandler} because this is the more general case.
+ * The canonical constructor takes a {@link ComplexHandler} because this is the more general case. Optional features
+ * are controlled by the route's {@link Options}; the other constructors use {@link Options#DEFAULT}.
  *
  * @param method the HTTP method to match
  * @param path the path pattern to match. May include path parameters.
  * @param handler the handler to invoke for requests that match this route
+ * @param options options for optional features of this route
  */
-public record Route(HttpMethod method, Path path, ComplexHandler handler) {
+public record Route(HttpMethod method, Path path, ComplexHandler handler, Options options) {
+
+    /**
+     * Options for optional features of a route.
+     *
+     * @param fieldSelectionParameter the name of the querystring parameter that selects the fields of the response
+     *                                (see {@link FieldSelection}), or null to disable field selection. This parameter
+     *                                is not passed to the querystring parser. Only JSON responses for plain response
+     *                                values are affected, not error responses or streamed responses.
+     * @param concurrencyLimiter the limiter for the number of requests this route handles at the same time, or null
+     *                           for no limit. Routes that use the same limiter share the limit.
+     * @param deadline the maximum time to handle a request, or null to use the default deadline of the
+     *                 {@link RestApi} (see {@link RestApi#setDefaultDeadline(Duration)}). The deadline starts when
+     *                 the route has been matched, so time spent waiting for the concurrency limiter counts towards it.
+     * @param rateLimiter the limiter for the number of requests per client and period, or null for no limit. Routes
+     *                    that use the same limiter share the limit. The rate limit is checked before the concurrency
+     *                    limit.
+     */
+    public record Options(String fieldSelectionParameter, ConcurrencyLimiter concurrencyLimiter, Duration deadline,
+                          RateLimiter rateLimiter) {
+
+        /**
+         * The default options, which disable all optional features.
+         */
+        public static final Options DEFAULT = new Options(null, null, null, null);
+
+        /**
+         * Constructor.
+         *
+         * @param fieldSelectionParameter the name of the querystring parameter that selects the fields of the
+         *                                response, or null to disable field selection
+         * @param concurrencyLimiter the concurrency limiter, or null for no limit
+         * @param deadline the maximum time to handle a request, or null to use the default deadline of the API
+         * @param rateLimiter the rate limiter, or null for no limit
+         */
+        public Options {
+            if (deadline != null && (deadline.isNegative() || deadline.isZero())) {
+                throw new IllegalArgumentException("deadline must be positive");
+            }
+        }
+
+        /**
+         * Constructor for options with only field selection.
+         *
+         * @param fieldSelectionParameter the name of the querystring parameter that selects the fields of the
+         *                                response, or null to disable field selection
+         */
+        public Options(String fieldSelectionParameter) {
+            this(fieldSelectionParameter, null, null, null);
+        }
+
+        /**
+         * Returns a copy of these options with field selection enabled.
+         *
+         * @param fieldSelectionParameter the name of the querystring parameter that selects the fields, such as
+         *                                "fields"
+         * @return the modified copy
+         */
+        public Options withFieldSelection(String fieldSelectionParameter) {
+            Objects.requireNonNull(fieldSelectionParameter, "fieldSelectionParameter");
+
+            return new Options(fieldSelectionParameter, concurrencyLimiter, deadline, rateLimiter);
+        }
+
+        /**
+         * Returns a copy of these options with the specified concurrency limiter.
+         *
+         * @param concurrencyLimiter the limiter
+         * @return the modified copy
+         */
+        public Options withConcurrencyLimiter(ConcurrencyLimiter concurrencyLimiter) {
+            Objects.requireNonNull(concurrencyLimiter, "concurrencyLimiter");
+
+            return new Options(fieldSelectionParameter, concurrencyLimiter, deadline, rateLimiter);
+        }
+
+        /**
+         * Returns a copy of these options with the specified deadline.
+         *
+         * @param deadline the maximum time to handle a request
+         * @return the modified copy
+         */
+        public Options withDeadline(Duration deadline) {
+            Objects.requireNonNull(deadline, "deadline");
+
+            return new Options(fieldSelectionParameter, concurrencyLimiter, deadline, rateLimiter);
+        }
+
+        /**
+         * Returns a copy of these options with the specified rate limiter.
+         *
+         * @param rateLimiter the limiter
+         * @return the modified copy
+         */
+        public Options withRateLimiter(RateLimiter rateLimiter) {
+            Objects.requireNonNull(rateLimiter, "rateLimiter");
+
+            return new Options(fieldSelectionParameter, concurrencyLimiter, deadline, rateLimiter);
+        }
+
+    }
 
     /**
      * Standard constructor.
@@ -48,11 +154,24 @@ public record Route(HttpMethod method, Path path, ComplexHandler handler) {
      * @param method the HTTP method to match
      * @param path the path pattern to match. May include path parameters.
      * @param handler the handler to invoke for requests that match this route
+     * @param options options for optional features of this route
      */
     public Route {
         Objects.requireNonNull(method, "method");
         Objects.requireNonNull(path, "path");
         Objects.requireNonNull(handler, "handler");
+        Objects.requireNonNull(options, "options");
+    }
+
+    /**
+     * Constructor with default options.
+     *
+     * @param method the HTTP method to match
+     * @param path the path pattern to match. May include path parameters.
+     * @param handler the handler to invoke for requests that match this route
+     */
+    public Route(HttpMethod method, Path path, ComplexHandler handler) {
+        this(method, path, handler, Options.DEFAULT);
     }
 
     /**
@@ -92,6 +211,18 @@ public record Route(HttpMethod method, Path path, ComplexHandler handler) {
         this(method, Path.parse(path), handler);
     }
 
+    /**
+     * Returns a copy of this route with different options.
+     *
+     * @param options the options for the copy
+     * @return the modified copy
+     */
+    public Route withOptions(Options options) {
+        Objects.requireNonNull(options, "options");
+
+        return new Route(method, path, handler, options);
+    }
+
     /**
      * Tries to match the specified request cycle against this route.
      *
@@ -101,7 +232,7 @@ public record Route(HttpMethod method, Path path, ComplexHandler handler) {
     public RouteMatchResult match(RequestCycle requestCycle) {
         Objects.requireNonNull(requestCycle, "requestCycle");
 
-        if (!method.matches(requestCycle.getServletRequest().getMethod())) {
+        if (!method.matches(requestCycle.getHighlevelRequest().getMethod())) {
             return null;
         }
         ParseFromStringService parseFromStringService = requestCycle.getApi().getFromStringParserRegistry();
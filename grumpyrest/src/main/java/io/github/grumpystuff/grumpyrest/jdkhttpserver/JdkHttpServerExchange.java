@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest.jdkhttpserver;
+
+import com.sun.net.httpserver.HttpExchange;
+import io.github.grumpystuff.grumpyrest.transport.Exchange;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * {@link Exchange} implementation based on the JDK's built-in HTTP server ({@link com.sun.net.httpserver}).
+ * <p>
+ * That server requires the status code to be sent before the body, and at the same time as the response headers.
+ * This class therefore keeps the status code and sends it together with all headers when the body output stream is
+ * first requested, or when {@link #finish()} is called if no body has been sent.
+ */
+public final class JdkHttpServerExchange implements Exchange {
+
+    private final HttpExchange httpExchange;
+    private final String path;
+    private Map<String, String[]> queryParameters;
+    private int status = 200;
+    private OutputStream outputStream;
+
+    /**
+     * Constructor.
+     *
+     * @param httpExchange the exchange from the JDK HTTP server
+     */
+    public JdkHttpServerExchange(HttpExchange httpExchange) {
+        Objects.requireNonNull(httpExchange, "httpExchange");
+
+        this.httpExchange = httpExchange;
+
+        // make the path relative to the context that the handler was registered for
+        String path = httpExchange.getRequestURI().getPath();
+        String contextPath = httpExchange.getHttpContext().getPath();
+        if (path != null && path.startsWith(contextPath)) {
+            path = path.substring(contextPath.length());
+        }
+        this.path = path;
+    }
+
+    /**
+     * Getter method for the exchange from the JDK HTTP server.
+     *
+     * @return the exchange
+     */
+    public HttpExchange getHttpExchange() {
+        return httpExchange;
+    }
+
+    @Override
+    public String getMethod() {
+        return httpExchange.getRequestMethod();
+    }
+
+    @Override
+    public String getPath() {
+        return path;
+    }
+
+    @Override
+    public Map<String, String[]> getQueryParameters() {
+        if (queryParameters == null) {
+            queryParameters = parseQuerystring(httpExchange.getRequestURI().getRawQuery());
+        }
+        return queryParameters;
+    }
+
+    private static Map<String, String[]> parseQuerystring(String querystring) {
+        Map<String, String[]> result = new HashMap<>();
+        if (querystring == null || querystring.isEmpty()) {
+            return result;
+        }
+        for (String part : querystring.split("&")) {
+            if (part.isEmpty()) {
+                continue;
+            }
+            int equalsIndex = part.indexOf('=');
+            String key = equalsIndex < 0 ? part : part.substring(0, equalsIndex);
+            String value = equalsIndex < 0 ? "" : part.substring(equalsIndex + 1);
+            key = URLDecoder.decode(key, StandardCharsets.UTF_8);
+            value = URLDecoder.decode(value, StandardCharsets.UTF_8);
+            result.merge(key, new String[] {value}, (a, b) -> {
+                String[] merged = new String[a.length + b.length];
+                System.arraycopy(a, 0, merged, 0, a.length);
+                System.arraycopy(b, 0, merged, a.length, b.length);
+                return merged;
+            });
+        }
+        return result;
+    }
+
+    @Override
+    public String getHeader(String name) {
+        Objects.requireNonNull(name, "name");
+
+        return httpExchange.getRequestHeaders().getFirst(name);
+    }
+
+    @Override
+    public String getRemoteAddress() {
+        InetSocketAddress address = httpExchange.getRemoteAddress();
+        if (address == null || address.getAddress() == null) {
+            return null;
+        }
+        return address.getAddress().getHostAddress();
+    }
+
+    @Override
+    public String getContentType() {
+        return getHeader("Content-Type");
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return httpExchange.getRequestBody();
+    }
+
+    @Override
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    @Override
+    public void setContentType(String contentType) {
+        Objects.requireNonNull(contentType, "contentType");
+
+        httpExchange.getResponseHeaders().set("Content-Type", contentType);
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(value, "value");
+
+        httpExchange.getResponseHeaders().add(name, value);
+    }
+
+    @Override
+    public OutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            // a response length of 0 means "chunked", i.e. unknown length
+            httpExchange.sendResponseHeaders(status, statusAllowsBody() ? 0 : -1);
+            outputStream = httpExchange.getResponseBody();
+        }
+        return outputStream;
+    }
+
+    private boolean statusAllowsBody() {
+        return status >= 200 && status != 204 && status != 304;
+    }
+
+    /**
+     * Finishes the exchange after the request has been handled: Sends the status code and headers if no body has
+     * been sent, then closes the exchange.
+     *
+     * @throws IOException on I/O errors
+     */
+    public void finish() throws IOException {
+        try {
+            if (outputStream == null) {
+                // a response length of -1 means "no body"
+                httpExchange.sendResponseHeaders(status, -1);
+            }
+        } finally {
+            httpExchange.close();
+        }
+    }
+
+}
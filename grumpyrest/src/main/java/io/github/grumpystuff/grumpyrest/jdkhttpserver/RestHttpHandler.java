@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest.jdkhttpserver;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import io.github.grumpystuff.grumpyrest.RequestCycle;
+import io.github.grumpystuff.grumpyrest.RestApi;
+import io.github.grumpystuff.grumpyrest.util.ExecutorUtil;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Objects;
+
+/**
+ * Adapts a {@link RestApi} to the JDK's built-in HTTP server ({@link com.sun.net.httpserver}). This is an
+ * alternative to running the API in a servlet container with the {@link io.github.grumpystuff.grumpyrest.servlet.RestServlet},
+ * and is useful for lightweight services that do not need the features of a full servlet container.
+ * <p>
+ * The simplest way to use this class is {@link #createServer(RestApi, InetSocketAddress)}. Alternatively, an
+ * instance of this class can be registered as a handler for a context of an existing server; request paths are then
+ * relative to the context path.
+ */
+public final class RestHttpHandler implements HttpHandler {
+
+    private final RestApi api;
+
+    /**
+     * Constructor.
+     *
+     * @param api the API definition
+     */
+    public RestHttpHandler(RestApi api) {
+        Objects.requireNonNull(api, "api");
+
+        this.api = api;
+    }
+
+    @Override
+    public void handle(HttpExchange httpExchange) throws IOException {
+        Objects.requireNonNull(httpExchange, "httpExchange");
+
+        JdkHttpServerExchange exchange = new JdkHttpServerExchange(httpExchange);
+        try {
+            api.handle(new RequestCycle(api, exchange));
+        } finally {
+            exchange.finish();
+        }
+    }
+
+    /**
+     * Creates an HTTP server that serves the specified API at the root path. The server uses an executor that runs
+     * each request in its own virtual thread if the JVM supports virtual threads (Java 21 and later), and a cached
+     * pool of platform threads otherwise. The server is not yet started; call {@link HttpServer#start()} to start
+     * it.
+     *
+     * @param api the API definition. This should have been sealed already.
+     * @param address the address to bind the server to
+     * @return the server
+     * @throws IOException on I/O errors, e.g. if the address is already in use
+     */
+    public static HttpServer createServer(RestApi api, InetSocketAddress address) throws IOException {
+        Objects.requireNonNull(api, "api");
+        Objects.requireNonNull(address, "address");
+
+        HttpServer server = HttpServer.create(address, 0);
+        server.createContext("/", new RestHttpHandler(api));
+        server.setExecutor(ExecutorUtil.newVirtualThreadPerTaskExecutorIfAvailable("grumpyrest-http-"));
+        return server;
+    }
+
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * NOT PUBLIC API
+ * <p>
+ * Java Flight Recorder event for a request that was finished early by throwing a
+ * {@link io.github.grumpystuff.grumpyrest.response.FinishRequestException}, e.g. because of a validation error in the
+ * request body. The event name is stable and can be used to configure recordings.
+ */
+@Name("grumpyrest.FinishRequest")
+@Label("REST Request Finished Early")
+@Category("grumpyrest")
+@Description("A request was finished early by throwing a FinishRequestException")
+public final class FinishRequestEvent extends Event {
+
+    /**
+     * NOT PUBLIC API
+     */
+    @Label("Route")
+    @Description("The method and path pattern of the matched route")
+    public String route;
+
+    /**
+     * NOT PUBLIC API
+     */
+    @Label("Response Value Type")
+    @Description("The class of the response value carried by the exception")
+    public String responseValueType;
+
+    /**
+     * NOT PUBLIC API
+     */
+    public FinishRequestEvent() {
+    }
+
+}
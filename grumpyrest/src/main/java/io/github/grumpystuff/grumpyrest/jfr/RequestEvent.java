@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * NOT PUBLIC API
+ * <p>
+ * Java Flight Recorder event for handling a request in {@link io.github.grumpystuff.grumpyrest.RestApi}. The event
+ * name is stable and can be used to configure recordings.
+ */
+@Name("grumpyrest.Request")
+@Label("REST Request")
+@Category("grumpyrest")
+@Description("Handling a request, from matching a route to transmitting the response")
+@StackTrace(false)
+public final class RequestEvent extends Event {
+
+    /**
+     * NOT PUBLIC API
+     */
+    @Label("Method")
+    public String method;
+
+    /**
+     * NOT PUBLIC API
+     */
+    @Label("Path")
+    @Description("The requested path")
+    public String path;
+
+    /**
+     * NOT PUBLIC API
+     */
+    @Label("Route")
+    @Description("The method and path pattern of the matched route, or null if no route matched")
+    public String route;
+
+    /**
+     * NOT PUBLIC API
+     */
+    @Label("Status")
+    @Description("The HTTP status code of the response")
+    public int status;
+
+    /**
+     * NOT PUBLIC API
+     */
+    public RequestEvent() {
+    }
+
+}
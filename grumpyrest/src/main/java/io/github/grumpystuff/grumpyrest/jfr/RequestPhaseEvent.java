@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * NOT PUBLIC API
+ * <p>
+ * Java Flight Recorder event for a single phase of handling a request. The phases are those of
+ * {@link io.github.grumpystuff.grumpyrest.metrics.RequestPhase}. Unlike for the request metrics, the time for the
+ * BODY_PARSE phase is not subtracted from the HANDLER phase, because the events overlap visibly in a recording
+ * anyway. The event name is stable and can be used to configure recordings.
+ */
+@Name("grumpyrest.RequestPhase")
+@Label("REST Request Phase")
+@Category("grumpyrest")
+@Description("A single phase of handling a request")
+@StackTrace(false)
+public final class RequestPhaseEvent extends Event {
+
+    /**
+     * NOT PUBLIC API
+     */
+    @Label("Phase")
+    public String phase;
+
+    /**
+     * NOT PUBLIC API
+     */
+    @Label("Route")
+    @Description("The method and path pattern of the matched route, or null if no route matched")
+    public String route;
+
+    /**
+     * NOT PUBLIC API
+     */
+    public RequestPhaseEvent() {
+    }
+
+}
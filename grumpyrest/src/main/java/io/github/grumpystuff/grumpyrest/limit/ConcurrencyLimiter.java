@@ -0,0 +1,351 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest.limit;
+
+import io.github.grumpystuff.grumpyrest.response.standard.ServiceUnavailableResponse;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Limits how many requests are handled at the same time, to keep a slow downstream dependency from tying up all
+ * request threads. A limiter is attached to routes through {@link io.github.grumpystuff.grumpyrest.Route.Options};
+ * attaching the same limiter to several routes makes them share the limit, as a route group.
+ * <p>
+ * While the limit is reached, further requests wait in a small queue for up to a configurable time. Requests that
+ * find the queue full, or that time out while waiting, are shed: their handler is not called and they get a
+ * pre-rendered {@link ServiceUnavailableResponse} instead. Sending the handler's response no longer counts towards
+ * the limit.
+ * <p>
+ * In adaptive mode, the limit is adjusted from the observed handler latency in AIMD style: it grows by one after
+ * about as many fast requests as the current limit (and only while the limit is actually being used), and shrinks
+ * by a factor when a request is slower than a latency threshold -- at most once per threshold interval, so a burst
+ * of slow requests that were all started under the old limit does not shrink it repeatedly.
+ * <p>
+ * Acquiring and releasing permits only uses atomic counters; threads only block while waiting in the queue.
+ * {@link #getStats()} returns the current state, and {@link io.github.grumpystuff.grumpyrest.RestApi#getConcurrencyLimiterStats()}
+ * returns it for all limiters of an API.
+ */
+public final class ConcurrencyLimiter {
+
+    private final String name;
+    private final Options options;
+    private final ServiceUnavailableResponse rejectionResponse;
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Queue<Thread> waiters = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger fastSinceLastChange = new AtomicInteger();
+    private final AtomicLong lastDecreaseTime;
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Constructor.
+     *
+     * @param name the name of this limiter, used in {@link #getStats()}
+     * @param options the options for this limiter
+     */
+    public ConcurrencyLimiter(String name, Options options) {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(options, "options");
+
+        this.name = name;
+        this.options = options;
+        this.rejectionResponse = new ServiceUnavailableResponse("server overloaded",
+                (int) Math.min(Integer.MAX_VALUE, options.retryAfter().toSeconds()));
+        this.limit = new AtomicInteger(options.limit());
+        long decreaseInterval = options.adaptive() == null ? 0 : options.adaptive().latencyThreshold().toNanos();
+        this.lastDecreaseTime = new AtomicLong(System.nanoTime() - decreaseInterval);
+    }
+
+    /**
+     * Constructor for a fixed limit without a queue.
+     *
+     * @param name the name of this limiter, used in {@link #getStats()}
+     * @param limit the maximum number of requests handled at the same time
+     */
+    public ConcurrencyLimiter(String name, int limit) {
+        this(name, Options.createDefault(limit));
+    }
+
+    /**
+     * Getter method for the name of this limiter.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Getter method for the options of this limiter.
+     *
+     * @return the options
+     */
+    public Options getOptions() {
+        return options;
+    }
+
+    /**
+     * Returns the response to send for requests that have been shed.
+     *
+     * @return the response
+     */
+    public ServiceUnavailableResponse getRejectionResponse() {
+        return rejectionResponse;
+    }
+
+    /**
+     * Tries to obtain a permit to handle a request, waiting in the queue if the limit is currently reached. Each
+     * successful call must be followed by a call to {@link #release(long)}.
+     *
+     * @return true if a permit was obtained, false if the request should be shed
+     */
+    public boolean acquire() {
+        if (tryAcquire() || (options.maxQueueLength() > 0 && waitInQueue())) {
+            accepted.increment();
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    private boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.get()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private boolean waitInQueue() {
+        if (queued.incrementAndGet() > options.maxQueueLength()) {
+            queued.decrementAndGet();
+            return false;
+        }
+        Thread thread = Thread.currentThread();
+        waiters.add(thread);
+        long deadline = System.nanoTime() + options.maxQueueTime().toNanos();
+        try {
+            while (true) {
+                if (tryAcquire()) {
+                    return true;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || thread.isInterrupted()) {
+                    return false;
+                }
+                LockSupport.parkNanos(this, remaining);
+            }
+        } finally {
+            waiters.remove(thread);
+            queued.decrementAndGet();
+
+            // a release may have woken this thread just before it left the queue, so pass the wake-up on
+            wakeUpWaiter();
+        }
+    }
+
+    private void wakeUpWaiter() {
+        Thread waiter = waiters.peek();
+        if (waiter != null && inFlight.get() < limit.get()) {
+            LockSupport.unpark(waiter);
+        }
+    }
+
+    /**
+     * Releases a permit obtained by {@link #acquire()}.
+     *
+     * @param latencyNanos the time in nanoseconds it took to handle the request, used to adjust the limit in
+     *                     adaptive mode
+     */
+    public void release(long latencyNanos) {
+        int previousInFlight = inFlight.getAndDecrement();
+        Adaptive adaptive = options.adaptive();
+        if (adaptive != null) {
+            adapt(adaptive, previousInFlight, latencyNanos);
+        }
+        wakeUpWaiter();
+    }
+
+    private void adapt(Adaptive adaptive, int previousInFlight, long latencyNanos) {
+        int currentLimit = limit.get();
+        long thresholdNanos = adaptive.latencyThreshold().toNanos();
+        if (latencyNanos > thresholdNanos) {
+            long now = System.nanoTime();
+            long lastDecrease = lastDecreaseTime.get();
+            if (now - lastDecrease >= thresholdNanos && lastDecreaseTime.compareAndSet(lastDecrease, now)) {
+                int newLimit = Math.max(adaptive.minLimit(), (int) (currentLimit * adaptive.backoffRatio()));
+                limit.compareAndSet(currentLimit, newLimit);
+                fastSinceLastChange.set(0);
+            }
+        } else if (previousInFlight * 2 >= currentLimit && currentLimit < adaptive.maxLimit()) {
+            if (fastSinceLastChange.incrementAndGet() >= currentLimit) {
+                fastSinceLastChange.set(0);
+                limit.compareAndSet(currentLimit, currentLimit + 1);
+            }
+        }
+    }
+
+    /**
+     * Returns the current state of this limiter. The values are read one after another without synchronization, so
+     * they may be slightly inconsistent with each other while requests are being handled.
+     *
+     * @return the stats
+     */
+    public ConcurrencyLimiterStats getStats() {
+        return new ConcurrencyLimiterStats(name, limit.get(), inFlight.get(), queued.get(), accepted.sum(), rejected.sum());
+    }
+
+    // ----------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Options for a {@link ConcurrencyLimiter}.
+     *
+     * @param limit the maximum number of requests handled at the same time; in adaptive mode, the initial limit
+     * @param maxQueueLength the maximum number of requests that wait for a permit while the limit is reached. 0
+     *                       disables the queue, so requests over the limit are shed immediately.
+     * @param maxQueueTime the maximum time a request waits in the queue before it gets shed
+     * @param retryAfter the time after which shed clients may retry, sent in the Retry-After header. This is rounded
+     *                   down to seconds.
+     * @param adaptive the parameters for adaptive mode, or null for a fixed limit
+     */
+    public record Options(int limit, int maxQueueLength, Duration maxQueueTime, Duration retryAfter, Adaptive adaptive) {
+
+        /**
+         * Constructor.
+         *
+         * @param limit the maximum number of requests handled at the same time; in adaptive mode, the initial limit
+         * @param maxQueueLength the maximum number of requests that wait for a permit while the limit is reached
+         * @param maxQueueTime the maximum time a request waits in the queue before it gets shed
+         * @param retryAfter the time after which shed clients may retry
+         * @param adaptive the parameters for adaptive mode, or null for a fixed limit
+         */
+        public Options {
+            if (limit < 1) {
+                throw new IllegalArgumentException("limit must be positive");
+            }
+            if (maxQueueLength < 0) {
+                throw new IllegalArgumentException("maxQueueLength cannot be negative");
+            }
+            Objects.requireNonNull(maxQueueTime, "maxQueueTime");
+            Objects.requireNonNull(retryAfter, "retryAfter");
+            if (maxQueueTime.isNegative()) {
+                throw new IllegalArgumentException("maxQueueTime cannot be negative");
+            }
+            if (retryAfter.isNegative()) {
+                throw new IllegalArgumentException("retryAfter cannot be negative");
+            }
+            if (adaptive != null && (limit < adaptive.minLimit() || limit > adaptive.maxLimit())) {
+                throw new IllegalArgumentException("limit must be between the minimum and maximum adaptive limit");
+            }
+        }
+
+        /**
+         * Creates options for a fixed limit without a queue, and a Retry-After of one second.
+         *
+         * @param limit the maximum number of requests handled at the same time
+         * @return the options
+         */
+        public static Options createDefault(int limit) {
+            return new Options(limit, 0, Duration.ZERO, Duration.ofSeconds(1), null);
+        }
+
+        /**
+         * Returns a copy of these options with the specified queue.
+         *
+         * @param maxQueueLength the maximum number of requests that wait for a permit while the limit is reached
+         * @param maxQueueTime the maximum time a request waits in the queue before it gets shed
+         * @return the modified copy
+         */
+        public Options withQueue(int maxQueueLength, Duration maxQueueTime) {
+            return new Options(limit, maxQueueLength, maxQueueTime, retryAfter, adaptive);
+        }
+
+        /**
+         * Returns a copy of these options with the specified Retry-After time.
+         *
+         * @param retryAfter the time after which shed clients may retry
+         * @return the modified copy
+         */
+        public Options withRetryAfter(Duration retryAfter) {
+            return new Options(limit, maxQueueLength, maxQueueTime, retryAfter, adaptive);
+        }
+
+        /**
+         * Returns a copy of these options with adaptive mode enabled. The current limit is used as the initial limit.
+         *
+         * @param adaptive the parameters for adaptive mode
+         * @return the modified copy
+         */
+        public Options withAdaptive(Adaptive adaptive) {
+            Objects.requireNonNull(adaptive, "adaptive");
+
+            return new Options(limit, maxQueueLength, maxQueueTime, retryAfter, adaptive);
+        }
+
+    }
+
+    /**
+     * Parameters for adaptive mode.
+     *
+     * @param minLimit the limit never shrinks below this value
+     * @param maxLimit the limit never grows above this value
+     * @param latencyThreshold requests that take longer than this shrink the limit
+     * @param backoffRatio the factor by which the limit shrinks, between 0 and 1 (exclusive)
+     */
+    public record Adaptive(int minLimit, int maxLimit, Duration latencyThreshold, double backoffRatio) {
+
+        /**
+         * Constructor.
+         *
+         * @param minLimit the limit never shrinks below this value
+         * @param maxLimit the limit never grows above this value
+         * @param latencyThreshold requests that take longer than this shrink the limit
+         * @param backoffRatio the factor by which the limit shrinks, between 0 and 1 (exclusive)
+         */
+        public Adaptive {
+            if (minLimit < 1) {
+                throw new IllegalArgumentException("minLimit must be positive");
+            }
+            if (maxLimit < minLimit) {
+                throw new IllegalArgumentException("maxLimit cannot be less than minLimit");
+            }
+            Objects.requireNonNull(latencyThreshold, "latencyThreshold");
+            if (latencyThreshold.isNegative() || latencyThreshold.isZero()) {
+                throw new IllegalArgumentException("latencyThreshold must be positive");
+            }
+            if (!(backoffRatio > 0 && backoffRatio < 1)) {
+                throw new IllegalArgumentException("backoffRatio must be between 0 and 1");
+            }
+        }
+
+        /**
+         * Constructor with a backoff ratio of 0.9.
+         *
+         * @param minLimit the limit never shrinks below this value
+         * @param maxLimit the limit never grows above this value
+         * @param latencyThreshold requests that take longer than this shrink the limit
+         */
+        public Adaptive(int minLimit, int maxLimit, Duration latencyThreshold) {
+            this(minLimit, maxLimit, latencyThreshold, 0.9);
+        }
+
+    }
+
+}
@@ -0,0 +1,21 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest.limit;
+
+/**
+ * The state of a {@link ConcurrencyLimiter} at a specific point in time, as returned by
+ * {@link ConcurrencyLimiter#getStats()}. This type can be converted to JSON by the default JSON registries.
+ *
+ * @param name the name of the limiter
+ * @param limit the current limit. This only changes in adaptive mode.
+ * @param inFlight the number of requests currently being handled
+ * @param queued the number of requests currently waiting in the queue
+ * @param accepted the total number of requests that obtained a permit, immediately or after waiting
+ * @param rejected the total number of requests that have been shed
+ */
+public record ConcurrencyLimiterStats(String name, int limit, int inFlight, int queued, long accepted, long rejected) {
+}
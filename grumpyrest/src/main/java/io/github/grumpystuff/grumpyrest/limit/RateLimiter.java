@@ -0,0 +1,289 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest.limit;
+
+import io.github.grumpystuff.grumpyrest.request.Request;
+import io.github.grumpystuff.grumpyrest.response.standard.RateLimitExceededResponse;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limits how many requests each client may send to a route within a period, e.g. 100 requests per minute. Clients
+ * are told apart by a key taken from the request, such as the remote address or an API key header (see
+ * {@link KeyExtractor}). A limiter is attached to routes through {@link io.github.grumpystuff.grumpyrest.Route.Options};
+ * attaching the same limiter to several routes makes them share the limit. The check runs after route matching and
+ * before the handler; requests over the limit get a {@link RateLimitExceededResponse}.
+ * <p>
+ * Each key has a token bucket that holds up to the limit and is refilled continuously over the period, so clients can
+ * send a burst of up to the limit, and then one request per period / limit. The bucket is implemented as a single
+ * {@link AtomicLong} that holds the time at which it will be full again (the "generic cell rate algorithm"), so a
+ * decision takes one map lookup and one compare-and-set, without locks.
+ * <p>
+ * Keys are spread over several stripes, each with its own map and a share of the maximum number of keys. A bucket
+ * that is full is indistinguishable from a new one, so when a stripe reaches its share, the full buckets of idle keys
+ * are removed -- at most once per period per stripe. If a stripe is still full of active keys, new keys in that stripe
+ * share a single overflow bucket until space is available again. This keeps memory bounded even if clients send
+ * requests with ever-changing keys.
+ */
+public final class RateLimiter {
+
+    private static final int STRIPE_COUNT = Math.min(16, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1));
+
+    private final String name;
+    private final Options options;
+    private final long periodNanos;
+    private final long intervalNanos;
+    private final String limitHeader;
+    private final Stripe[] stripes = new Stripe[STRIPE_COUNT];
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Constructor.
+     *
+     * @param name the name of this limiter, used in {@link #getStats()}
+     * @param options the options for this limiter
+     */
+    public RateLimiter(String name, Options options) {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(options, "options");
+
+        this.name = name;
+        this.options = options;
+        this.periodNanos = options.period().toNanos();
+        this.intervalNanos = Math.max(1, periodNanos / options.limit());
+        this.limitHeader = Integer.toString(options.limit());
+        long now = System.nanoTime();
+        int maxKeysPerStripe = Math.max(1, options.maxKeys() / STRIPE_COUNT);
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            stripes[i] = new Stripe(maxKeysPerStripe, now - periodNanos);
+        }
+    }
+
+    /**
+     * Getter method for the name of this limiter.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Getter method for the options of this limiter.
+     *
+     * @return the options
+     */
+    public Options getOptions() {
+        return options;
+    }
+
+    /**
+     * Checks whether a request is allowed, taking its key from the request with the {@link KeyExtractor}.
+     *
+     * @param request the request
+     * @return null if the request is allowed, or the response to send if it is not
+     */
+    public RateLimitExceededResponse check(Request request) {
+        Objects.requireNonNull(request, "request");
+
+        String key = options.keyExtractor().extractKey(request);
+        long waitNanos = tryAcquire(key == null ? "" : key);
+        if (waitNanos == 0) {
+            return null;
+        }
+        long retryAfterSeconds = (waitNanos + 999_999_999) / 1_000_000_000;
+        return new RateLimitExceededResponse(limitHeader, retryAfterSeconds);
+    }
+
+    /**
+     * Takes a token from the bucket for the specified key, if one is available.
+     *
+     * @param key the key
+     * @return 0 if a token was taken, or otherwise the time in nanoseconds until the next token is available
+     */
+    public long tryAcquire(String key) {
+        Objects.requireNonNull(key, "key");
+
+        long now = System.nanoTime();
+        AtomicLong bucket = getBucket(key, now);
+        while (true) {
+            long fullTime = bucket.get();
+            long newFullTime = (fullTime - now > 0 ? fullTime : now) + intervalNanos;
+            long excess = newFullTime - now - periodNanos;
+            if (excess > 0) {
+                rejected.increment();
+                return excess;
+            }
+            if (bucket.compareAndSet(fullTime, newFullTime)) {
+                allowed.increment();
+                return 0;
+            }
+        }
+    }
+
+    private AtomicLong getBucket(String key, long now) {
+        int hash = key.hashCode();
+        Stripe stripe = stripes[(hash ^ (hash >>> 16)) & (STRIPE_COUNT - 1)];
+        AtomicLong bucket = stripe.buckets.get(key);
+        return bucket == null ? stripe.addBucket(key, now, periodNanos) : bucket;
+    }
+
+    /**
+     * Returns the current state of this limiter.
+     *
+     * @return the stats
+     */
+    public RateLimiterStats getStats() {
+        int keys = 0;
+        for (Stripe stripe : stripes) {
+            keys += stripe.buckets.size();
+        }
+        return new RateLimiterStats(name, options.limit(), options.period().toMillis(), keys, allowed.sum(), rejected.sum());
+    }
+
+    private static final class Stripe {
+
+        private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        private final int maxKeys;
+        private final AtomicLong lastSweepTime;
+        private final AtomicLong overflowBucket;
+
+        Stripe(int maxKeys, long initialTime) {
+            this.maxKeys = maxKeys;
+            this.lastSweepTime = new AtomicLong(initialTime);
+            this.overflowBucket = new AtomicLong(initialTime);
+        }
+
+        AtomicLong addBucket(String key, long now, long periodNanos) {
+            if (buckets.size() >= maxKeys) {
+                long lastSweep = lastSweepTime.get();
+                if (now - lastSweep >= periodNanos && lastSweepTime.compareAndSet(lastSweep, now)) {
+                    buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+                }
+                if (buckets.size() >= maxKeys) {
+                    return overflowBucket;
+                }
+            }
+            AtomicLong bucket = new AtomicLong(now);
+            AtomicLong existing = buckets.putIfAbsent(key, bucket);
+            return existing == null ? bucket : existing;
+        }
+
+    }
+
+    // ----------------------------------------------------------------------------------------------------------------
+
+    /**
+     * Takes the key from a request that identifies the client for rate limiting. Requests for which the key is null
+     * share a single bucket.
+     */
+    @FunctionalInterface
+    public interface KeyExtractor {
+
+        /**
+         * Takes the key from the specified request.
+         *
+         * @param request the request
+         * @return the key, or null
+         */
+        String extractKey(Request request);
+
+        /**
+         * Returns an extractor that uses the value of a request header as the key, such as an API key.
+         *
+         * @param name the name of the header
+         * @return the extractor
+         */
+        static KeyExtractor header(String name) {
+            Objects.requireNonNull(name, "name");
+
+            return request -> request.getHeader(name);
+        }
+
+        /**
+         * Returns an extractor that uses the remote address as the key (see {@link Request#getRemoteAddress()}).
+         * Behind a proxy, this is the address of the proxy, so use a header set by the proxy instead.
+         *
+         * @return the extractor
+         */
+        static KeyExtractor remoteAddress() {
+            return Request::getRemoteAddress;
+        }
+
+    }
+
+    /**
+     * Options for a {@link RateLimiter}.
+     *
+     * @param limit the number of requests allowed per period, which is also the maximum burst size
+     * @param period the period
+     * @param keyExtractor takes the key that identifies the client from the request
+     * @param maxKeys the maximum number of keys to keep buckets for
+     */
+    public record Options(int limit, Duration period, KeyExtractor keyExtractor, int maxKeys) {
+
+        /**
+         * Constructor.
+         *
+         * @param limit the number of requests allowed per period, which is also the maximum burst size
+         * @param period the period
+         * @param keyExtractor takes the key that identifies the client from the request
+         * @param maxKeys the maximum number of keys to keep buckets for
+         */
+        public Options {
+            if (limit < 1) {
+                throw new IllegalArgumentException("limit must be positive");
+            }
+            Objects.requireNonNull(period, "period");
+            if (period.isNegative() || period.isZero()) {
+                throw new IllegalArgumentException("period must be positive");
+            }
+            Objects.requireNonNull(keyExtractor, "keyExtractor");
+            if (maxKeys < 1) {
+                throw new IllegalArgumentException("maxKeys must be positive");
+            }
+        }
+
+        /**
+         * Creates options that limit requests per remote address and keep buckets for up to 100000 keys.
+         *
+         * @param limit the number of requests allowed per period, which is also the maximum burst size
+         * @param period the period
+         * @return the options
+         */
+        public static Options createDefault(int limit, Duration period) {
+            return new Options(limit, period, KeyExtractor.remoteAddress(), 100_000);
+        }
+
+        /**
+         * Returns a copy of these options with the specified key extractor.
+         *
+         * @param keyExtractor takes the key that identifies the client from the request
+         * @return the modified copy
+         */
+        public Options withKeyExtractor(KeyExtractor keyExtractor) {
+            return new Options(limit, period, keyExtractor, maxKeys);
+        }
+
+        /**
+         * Returns a copy of these options with the specified maximum number of keys.
+         *
+         * @param maxKeys the maximum number of keys to keep buckets for
+         * @return the modified copy
+         */
+        public Options withMaxKeys(int maxKeys) {
+            return new Options(limit, period, keyExtractor, maxKeys);
+        }
+
+    }
+
+}
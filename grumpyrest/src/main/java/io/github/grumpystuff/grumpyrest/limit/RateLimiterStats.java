@@ -0,0 +1,21 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest.limit;
+
+/**
+ * The state of a {@link RateLimiter} at a specific point in time, as returned by {@link RateLimiter#getStats()}. This
+ * type can be converted to JSON by the default JSON registries.
+ *
+ * @param name the name of the limiter
+ * @param limit the number of requests allowed per period
+ * @param periodMillis the period in milliseconds
+ * @param keys the number of keys for which a bucket is currently kept
+ * @param allowed the total number of allowed requests
+ * @param rejected the total number of rejected requests
+ */
+public record RateLimiterStats(String name, int limit, long periodMillis, int keys, long allowed, long rejected) {
+}
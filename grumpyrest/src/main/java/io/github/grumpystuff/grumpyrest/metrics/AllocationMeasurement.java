@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest.metrics;
+
+/**
+ * The number of bytes allocated on the heap while handling a request, as measured for a sampled request (see
+ * {@link io.github.grumpystuff.grumpyrest.RestApi#setAllocationSamplingInterval(int)}).
+ * <p>
+ * Allocation is measured per thread, so a value is only correct if the whole phase ran on the same thread. If a phase
+ * started on one thread and ended on another, e.g. because the handler handed off work to an executor, or if the JVM
+ * cannot measure allocation for the current thread, the value for that phase is -1. Allocations made by other
+ * threads on behalf of the request are not included, except for the thread that runs the handler of a route with a
+ * deadline, whose allocation counts towards the handler phase, including its body parse. Phases that did not happen
+ * have a value of 0, like in {@link RequestMeasurement}.
+ *
+ * @param totalBytes the bytes allocated for handling the request as a whole
+ * @param matchBytes the bytes allocated in {@link RequestPhase#MATCH}
+ * @param bodyParseBytes the bytes allocated in {@link RequestPhase#BODY_PARSE}
+ * @param handlerBytes the bytes allocated in {@link RequestPhase#HANDLER}
+ * @param responseFactoryBytes the bytes allocated in {@link RequestPhase#RESPONSE_FACTORY}
+ * @param transmitBytes the bytes allocated in {@link RequestPhase#TRANSMIT}
+ */
+public record AllocationMeasurement(
+        long totalBytes,
+        long matchBytes,
+        long bodyParseBytes,
+        long handlerBytes,
+        long responseFactoryBytes,
+        long transmitBytes
+) {
+
+    /**
+     * Returns the allocated bytes for the specified phase.
+     *
+     * @param phase the phase
+     * @return the allocated bytes, or -1 if unknown
+     */
+    public long getPhaseBytes(RequestPhase phase) {
+        return switch (phase) {
+            case MATCH -> matchBytes;
+            case BODY_PARSE -> bodyParseBytes;
+            case HANDLER -> handlerBytes;
+            case RESPONSE_FACTORY -> responseFactoryBytes;
+            case TRANSMIT -> transmitBytes;
+        };
+    }
+
+}
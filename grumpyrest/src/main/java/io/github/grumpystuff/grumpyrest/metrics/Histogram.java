@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A histogram of non-negative values, such as durations in nanoseconds or sizes in bytes, that can be recorded to
+ * concurrently without locks.
+ * <p>
+ * Buckets are log-linear like in HDR histograms: Each power of two is split into 8 equally sized buckets, so the
+ * reported percentiles are accurate to within 12.5% regardless of magnitude. Values of 2^36 and more (about 69 seconds
+ * in nanoseconds, or 64 GiB in bytes) are counted in the last bucket. Values are not rounded when they are summed up
+ * or when the maximum is taken.
+ * <p>
+ * To keep cores from contending for the same cache lines, the counters are striped: each thread records into one of
+ * several stripes, chosen by its thread ID, and the stripes are only added up when taking a snapshot. Stripes are
+ * allocated when first used, so a histogram that is only ever recorded to by a few threads stays small.
+ */
+public final class Histogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 35;
+    private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKET_COUNT;
+    private static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+
+    private static final int SUM_INDEX = BUCKET_COUNT;
+    private static final int MAX_INDEX = BUCKET_COUNT + 1;
+    private static final int STRIPE_LENGTH = BUCKET_COUNT + 2;
+
+    private static final int STRIPE_COUNT = Math.min(8, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1));
+
+    private final AtomicReferenceArray<AtomicLongArray> stripes = new AtomicReferenceArray<>(STRIPE_COUNT);
+
+    /**
+     * Constructor.
+     */
+    public Histogram() {
+    }
+
+    /**
+     * Records a value.
+     *
+     * @param value the value to record. Negative values are recorded as 0.
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        AtomicLongArray stripe = getStripe();
+        stripe.incrementAndGet(getBucketIndex(value));
+        stripe.addAndGet(SUM_INDEX, value);
+        long max = stripe.get(MAX_INDEX);
+        while (value > max && !stripe.compareAndSet(MAX_INDEX, max, value)) {
+            max = stripe.get(MAX_INDEX);
+        }
+    }
+
+    private AtomicLongArray getStripe() {
+        long id = Thread.currentThread().getId();
+        int index = (int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & (STRIPE_COUNT - 1);
+        AtomicLongArray stripe = stripes.get(index);
+        if (stripe == null) {
+            stripes.compareAndSet(index, null, new AtomicLongArray(STRIPE_LENGTH));
+            stripe = stripes.get(index);
+        }
+        return stripe;
+    }
+
+    static int getBucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        if (value > MAX_VALUE) {
+            return BUCKET_COUNT - 1;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    /**
+     * Returns the highest value that gets counted in the specified bucket.
+     */
+    static long getBucketUpperBound(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+        int subBucket = index % SUB_BUCKET_COUNT;
+        long lowerBound = (long) (SUB_BUCKET_COUNT + subBucket) << (exponent - SUB_BUCKET_BITS);
+        return lowerBound + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+
+    /**
+     * Takes a snapshot of this histogram. Values recorded concurrently with taking the snapshot may or may not be
+     * included, and may be included only partially, e.g. in the count but not in the maximum.
+     *
+     * @return the snapshot
+     */
+    public HistogramSnapshot snapshot() {
+        long[] buckets = new long[BUCKET_COUNT];
+        long count = 0;
+        long sum = 0;
+        long max = 0;
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            AtomicLongArray stripe = stripes.get(i);
+            if (stripe == null) {
+                continue;
+            }
+            for (int j = 0; j < BUCKET_COUNT; j++) {
+                long bucketCount = stripe.get(j);
+                buckets[j] += bucketCount;
+                count += bucketCount;
+            }
+            sum += stripe.get(SUM_INDEX);
+            max = Math.max(max, stripe.get(MAX_INDEX));
+        }
+        return new HistogramSnapshot(
+                count,
+                sum,
+                max,
+                getPercentile(buckets, count, max, 0.5),
+                getPercentile(buckets, count, max, 0.9),
+                getPercentile(buckets, count, max, 0.99),
+                getPercentile(buckets, count, max, 0.999)
+        );
+    }
+
+    private static long getPercentile(long[] buckets, long count, long max, double fraction) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(count * fraction);
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return Math.min(getBucketUpperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+}
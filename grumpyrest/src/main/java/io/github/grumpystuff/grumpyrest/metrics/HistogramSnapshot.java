@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest.metrics;
+
+/**
+ * A snapshot of a {@link Histogram}. All values use the unit of the recorded values, e.g. nanoseconds for latencies.
+ * Percentiles are the upper bound of the histogram bucket that contains the percentile, but never more than the
+ * maximum, so they overestimate the exact value by at most 12.5%.
+ *
+ * @param count the number of recorded values
+ * @param total the sum of all recorded values
+ * @param max the highest recorded value
+ * @param p50 the median
+ * @param p90 the 90th percentile
+ * @param p99 the 99th percentile
+ * @param p999 the 99.9th percentile
+ */
+public record HistogramSnapshot(
+        long count,
+        long total,
+        long max,
+        long p50,
+        long p90,
+        long p99,
+        long p999
+) {
+}
@@ -0,0 +1,19 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest.metrics;
+
+import java.util.List;
+
+/**
+ * All metrics collected by a {@link StandardRequestMetrics} at a specific point in time. This type can be converted
+ * to JSON by the default JSON registries, so it can be returned by a handler as-is.
+ *
+ * @param routes metrics for all routes that have handled at least one request, in no particular order
+ * @param unmatched metrics for requests that did not match any route
+ */
+public record MetricsSnapshot(List<RouteMetricsSnapshot> routes, RouteMetricsSnapshot unmatched) {
+}
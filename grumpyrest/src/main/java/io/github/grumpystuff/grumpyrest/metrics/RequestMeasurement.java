@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest.metrics;
+
+import io.github.grumpystuff.grumpyrest.Route;
+
+/**
+ * Measurements taken while handling a single request, passed to {@link RequestMetrics} when the request is finished.
+ * All times are in nanoseconds. Phases that did not happen, such as the handler for an unmatched request, have a
+ * time of 0.
+ *
+ * @param route the route that matched the request, or null if no route matched
+ * @param status the HTTP status code of the response
+ * @param bytesIn the number of request body bytes read
+ * @param bytesOut the number of response body bytes written
+ * @param totalNanos the time for handling the request as a whole
+ * @param matchNanos the time for {@link RequestPhase#MATCH}
+ * @param bodyParseNanos the time for {@link RequestPhase#BODY_PARSE}
+ * @param handlerNanos the time for {@link RequestPhase#HANDLER}
+ * @param responseFactoryNanos the time for {@link RequestPhase#RESPONSE_FACTORY}
+ * @param transmitNanos the time for {@link RequestPhase#TRANSMIT}
+ * @param allocation the bytes allocated while handling the request, or null if allocation was not measured for this
+ *                   request (see {@link io.github.grumpystuff.grumpyrest.RestApi#setAllocationSamplingInterval(int)})
+ */
+public record RequestMeasurement(
+        Route route,
+        int status,
+        long bytesIn,
+        long bytesOut,
+        long totalNanos,
+        long matchNanos,
+        long bodyParseNanos,
+        long handlerNanos,
+        long responseFactoryNanos,
+        long transmitNanos,
+        AllocationMeasurement allocation
+) {
+
+    /**
+     * Returns the time for the specified phase.
+     *
+     * @param phase the phase
+     * @return the time in nanoseconds
+     */
+    public long getPhaseNanos(RequestPhase phase) {
+        return switch (phase) {
+            case MATCH -> matchNanos;
+            case BODY_PARSE -> bodyParseNanos;
+            case HANDLER -> handlerNanos;
+            case RESPONSE_FACTORY -> responseFactoryNanos;
+            case TRANSMIT -> transmitNanos;
+        };
+    }
+
+}
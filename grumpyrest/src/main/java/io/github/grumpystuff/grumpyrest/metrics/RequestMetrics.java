@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest.metrics;
+
+import io.github.grumpystuff.grumpyrest.RestApi;
+
+/**
+ * Receives measurements about handled requests. This is the extension point for monitoring: Set an implementation
+ * with {@link RestApi#setMetrics(RequestMetrics)}, either {@link StandardRequestMetrics} or a custom one that
+ * forwards the measurements to a monitoring system.
+ * <p>
+ * The default is {@link #NONE}, which the {@link RestApi} recognizes to skip taking measurements completely, so no
+ * clock is read and no streams are wrapped.
+ * <p>
+ * Implementations are called concurrently from all threads that handle requests, and are called after the response
+ * has been transmitted but before request handling returns, so they should be fast and must not block.
+ */
+public interface RequestMetrics {
+
+    /**
+     * Implementation that ignores all measurements. Using this implementation disables measuring.
+     */
+    RequestMetrics NONE = measurement -> {};
+
+    /**
+     * Records the measurements for a finished request.
+     *
+     * @param measurement the measurement
+     */
+    void record(RequestMeasurement measurement);
+
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest.metrics;
+
+/**
+ * The phases of handling a request for which {@link RequestMetrics} receive separate timings.
+ */
+public enum RequestPhase {
+
+    /**
+     * Matching the request against the routes of the API.
+     */
+    MATCH,
+
+    /**
+     * Reading the request body and parsing it as JSON. This happens while the handler is running, but is not
+     * included in {@link #HANDLER}. Only covers bodies parsed with
+     * {@link io.github.grumpystuff.grumpyrest.request.Request#parseBody(Class)} and its variants; streamed bodies are
+     * read by the handler itself.
+     */
+    BODY_PARSE,
+
+    /**
+     * Running the handler, excluding {@link #BODY_PARSE}.
+     */
+    HANDLER,
+
+    /**
+     * Selecting a response factory and creating the response from the response value.
+     */
+    RESPONSE_FACTORY,
+
+    /**
+     * Transmitting the response to the client.
+     */
+    TRANSMIT,
+
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest.metrics;
+
+import java.util.Map;
+
+/**
+ * Metrics for a single route, or for unmatched requests, as returned by {@link StandardRequestMetrics#snapshot()}.
+ *
+ * @param route the HTTP method and path pattern of the route, e.g. "GET /users/:id", or "(unmatched)" for requests
+ *              that did not match any route
+ * @param requestCount the number of handled requests
+ * @param bytesIn the total number of request body bytes read
+ * @param bytesOut the total number of response body bytes written
+ * @param statusCounts the number of responses per HTTP status code
+ * @param total latencies in nanoseconds for handling requests as a whole
+ * @param phases latencies in nanoseconds per phase, keyed by the name of the {@link RequestPhase}. Phases that did not happen for a
+ *               request (i.e. a time of 0 in the {@link RequestMeasurement}) are not counted, so for example the count
+ *               for BODY_PARSE is the number of requests whose body was parsed.
+ * @param allocatedBytes bytes allocated for handling requests as a whole. Only requests sampled for allocation
+ *                       measurement are counted, so the count is usually lower than the request count.
+ * @param phaseAllocatedBytes bytes allocated per phase, keyed by the name of the {@link RequestPhase}. Like for the
+ *                            latencies, phases that did not happen are not counted, and neither are phases for which
+ *                            allocation could not be measured.
+ */
+public record RouteMetricsSnapshot(
+        String route,
+        long requestCount,
+        long bytesIn,
+        long bytesOut,
+        Map<String, Long> statusCounts,
+        HistogramSnapshot total,
+        Map<String, HistogramSnapshot> phases,
+        HistogramSnapshot allocatedBytes,
+        Map<String, HistogramSnapshot> phaseAllocatedBytes
+) {
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest.metrics;
+
+import io.github.grumpystuff.grumpyrest.Route;
+import io.github.grumpystuff.grumpyrest.SimpleHandler;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Built-in {@link RequestMetrics} implementation that keeps request counts, status counts, transferred bytes,
+ * latency histograms and (for requests sampled for it) allocation histograms per route in memory. All counters are
+ * striped and lock-free (see {@link LongAdder} and {@link Histogram}), so recording does not make request threads
+ * contend with each other.
+ * <p>
+ * The collected metrics can be obtained with {@link #snapshot()}, or exposed through a read-only route:
+ * <pre>
+ *     StandardRequestMetrics metrics = new StandardRequestMetrics();
+ *     api.setMetrics(metrics);
+ *     api.addRoute(HttpMethod.GET, "/metrics", metrics.createSnapshotHandler());
+ * </pre>
+ * Metrics are kept for the lifetime of this object and never reset.
+ */
+public final class StandardRequestMetrics implements RequestMetrics {
+
+    private static final int MAX_STATUS = 599;
+
+    private final ConcurrentMap<Route, RouteMetrics> routeMetrics = new ConcurrentHashMap<>();
+    private final RouteMetrics unmatchedMetrics = new RouteMetrics("(unmatched)");
+
+    /**
+     * Constructor.
+     */
+    public StandardRequestMetrics() {
+    }
+
+    @Override
+    public void record(RequestMeasurement measurement) {
+        Objects.requireNonNull(measurement, "measurement");
+
+        Route route = measurement.route();
+        RouteMetrics metrics;
+        if (route == null) {
+            metrics = unmatchedMetrics;
+        } else {
+            metrics = routeMetrics.get(route);
+            if (metrics == null) {
+                metrics = routeMetrics.computeIfAbsent(route, r -> new RouteMetrics(r.method() + " " + r.path()));
+            }
+        }
+        metrics.record(measurement);
+    }
+
+    /**
+     * Takes a snapshot of the metrics collected so far. Requests that are recorded concurrently with taking the
+     * snapshot may be included only partially.
+     *
+     * @return the snapshot
+     */
+    public MetricsSnapshot snapshot() {
+        List<RouteMetricsSnapshot> routes = new ArrayList<>();
+        for (RouteMetrics metrics : routeMetrics.values()) {
+            routes.add(metrics.snapshot());
+        }
+        return new MetricsSnapshot(List.copyOf(routes), unmatchedMetrics.snapshot());
+    }
+
+    /**
+     * Creates a handler that responds with a {@link #snapshot()} as JSON. Add this handler to the API to make the
+     * metrics available to monitoring tools. Note that the metrics reveal information about the API and its usage,
+     * so the route should not be publicly accessible.
+     *
+     * @return the handler
+     */
+    public SimpleHandler createSnapshotHandler() {
+        return request -> snapshot();
+    }
+
+    private static final class RouteMetrics {
+
+        private final String name;
+        private final LongAdder requestCount = new LongAdder();
+        private final LongAdder bytesIn = new LongAdder();
+        private final LongAdder bytesOut = new LongAdder();
+        private final AtomicReferenceArray<LongAdder> statusCounts = new AtomicReferenceArray<>(MAX_STATUS + 1);
+        private final Histogram total = new Histogram();
+        private final Histogram[] phases = new Histogram[RequestPhase.values().length];
+        private final Histogram allocatedBytes = new Histogram();
+        private final Histogram[] phaseAllocatedBytes = new Histogram[RequestPhase.values().length];
+
+        RouteMetrics(String name) {
+            this.name = name;
+            for (int i = 0; i < phases.length; i++) {
+                phases[i] = new Histogram();
+                phaseAllocatedBytes[i] = new Histogram();
+            }
+        }
+
+        void record(RequestMeasurement measurement) {
+            requestCount.increment();
+            bytesIn.add(measurement.bytesIn());
+            bytesOut.add(measurement.bytesOut());
+            int status = Math.max(0, Math.min(MAX_STATUS, measurement.status()));
+            LongAdder statusCount = statusCounts.get(status);
+            if (statusCount == null) {
+                statusCounts.compareAndSet(status, null, new LongAdder());
+                statusCount = statusCounts.get(status);
+            }
+            statusCount.increment();
+            total.record(measurement.totalNanos());
+            for (RequestPhase phase : RequestPhase.values()) {
+                long nanos = measurement.getPhaseNanos(phase);
+                if (nanos > 0) {
+                    phases[phase.ordinal()].record(nanos);
+                }
+            }
+            AllocationMeasurement allocation = measurement.allocation();
+            if (allocation != null) {
+                if (allocation.totalBytes() >= 0) {
+                    allocatedBytes.record(allocation.totalBytes());
+                }
+                for (RequestPhase phase : RequestPhase.values()) {
+                    long bytes = allocation.getPhaseBytes(phase);
+                    if (bytes >= 0 && measurement.getPhaseNanos(phase) > 0) {
+                        phaseAllocatedBytes[phase.ordinal()].record(bytes);
+                    }
+                }
+            }
+        }
+
+        RouteMetricsSnapshot snapshot() {
+            Map<String, Long> statusCountsSnapshot = new TreeMap<>();
+            for (int i = 0; i <= MAX_STATUS; i++) {
+                LongAdder statusCount = statusCounts.get(i);
+                if (statusCount != null) {
+                    statusCountsSnapshot.put(Integer.toString(i), statusCount.sum());
+                }
+            }
+            Map<String, HistogramSnapshot> phasesSnapshot = new LinkedHashMap<>();
+            Map<String, HistogramSnapshot> phaseAllocatedBytesSnapshot = new LinkedHashMap<>();
+            for (RequestPhase phase : RequestPhase.values()) {
+                phasesSnapshot.put(phase.name(), phases[phase.ordinal()].snapshot());
+                phaseAllocatedBytesSnapshot.put(phase.name(), phaseAllocatedBytes[phase.ordinal()].snapshot());
+            }
+            return new RouteMetricsSnapshot(
+                    name,
+                    requestCount.sum(),
+                    bytesIn.sum(),
+                    bytesOut.sum(),
+                    statusCountsSnapshot,
+                    total.snapshot(),
+                    phasesSnapshot,
+                    allocatedBytes.snapshot(),
+                    phaseAllocatedBytesSnapshot
+            );
+        }
+
+    }
+
+}
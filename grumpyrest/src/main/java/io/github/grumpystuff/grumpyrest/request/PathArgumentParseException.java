@@ -11,6 +11,8 @@ import io.github.grumpystuff.grumpyrest.response.standard.StandardErrorResponse;
  * other string) and sends a standard response for a 404 error. This is needed because in general, parsing
  * a string from an arbitrary source might correspond to a 400 error or an internal (500) error, and might even
  * reveal sensitive information to the client, so no response factory will handle it by default.
+ * <p>
+ * Like {@link FromStringParserException}, this exception does not record a stack trace.
  */
 public final class PathArgumentParseException extends Exception implements SelfResponseFactory {
 
@@ -18,7 +20,7 @@ public final class PathArgumentParseException extends Exception implements SelfR
     private final String value;
 
     public PathArgumentParseException(String name, String value, FromStringParserException cause) {
-        super(buildMessage(name), cause);
+        super(buildMessage(name), cause, true, false);
         this.name = name;
         this.value = value;
     }
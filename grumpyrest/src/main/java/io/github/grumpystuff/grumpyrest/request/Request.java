@@ -9,9 +9,13 @@ import io.github.grumpystuff.grumpyrest.ComplexHandler;
 import io.github.grumpystuff.grumpyrest.RequestCycle;
 import io.github.grumpystuff.grumpyrest.SimpleHandler;
 import io.github.grumpystuff.grumpyrest.request.stringparser.FromStringParserRegistry;
+import io.github.grumpystuff.grumpyrest.response.FinishRequestException;
 
 import java.lang.reflect.Type;
+import java.time.Duration;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * This interface provides access to all properties of an HTTP request that are relevant for the REST API.
@@ -41,6 +45,18 @@ public interface Request {
      */
     String getHeader(String name);
 
+    /**
+     * Getter method for the IP address of the client, or of the last proxy in front of it. Sub-requests of a batch
+     * request return the address of the batch request.
+     * <p>
+     * The default implementation returns null, i.e. an unknown address.
+     *
+     * @return the remote address, or null if the transport does not know it
+     */
+    default String getRemoteAddress() {
+        return null;
+    }
+
     /**
      * Getter method for the path arguments bound to path parameters in the matched route.
      * <p>
@@ -59,6 +75,20 @@ public interface Request {
      */
     List<PathArgument> getPathArguments();
 
+    /**
+     * Returns the time left until the deadline for handling this request passes, see
+     * {@link io.github.grumpystuff.grumpyrest.Route.Options#deadline()}. Handlers that call other services should pass
+     * it on as the timeout for these calls, and can stop early if it has become zero. When the deadline passes, the
+     * handler thread gets interrupted.
+     * <p>
+     * The default implementation returns null, i.e. no deadline.
+     *
+     * @return the remaining time, or null if the request has no deadline
+     */
+    default Duration getRemainingDeadline() {
+        return null;
+    }
+
     /**
      * Parses the whole querystring into an object. This object is usually a Java record with a one-to-one mapping
      * of querystring parameters to record fields, but custom parsing can be defined through the
@@ -129,4 +159,61 @@ public interface Request {
      */
     Object parseBody(Type type);
 
+    /**
+     * Parses the request body as NDJSON (newline-delimited JSON, also known as JSON Lines), that is, one JSON value
+     * per line. This requires the Content-Type application/x-ndjson. Each line is parsed using the
+     * {@link JsonEngine} just like {@link #parseBody(Class)} would parse a whole body. Empty lines are skipped.
+     * <p>
+     * The lines are read and parsed lazily while iterating, so the body can be processed with constant memory no
+     * matter how large it is. As a consequence, errors are detected lazily too: If a line is malformed or does not
+     * match the expected type, the iterator throws a {@link FinishRequestException} that responds with the field
+     * errors for that line, with field paths starting at "line N" (counting from 1). Any elements returned before
+     * that point have already been processed by the caller, so if the request must be processed all-or-nothing, the
+     * caller has to take care of that itself.
+     * <p>
+     * The body can only be consumed once, so this method cannot be combined with {@code parseBody}.
+     * <p>
+     * This method delegates to {@link #parseBodyAsJsonLines(Type)}, so implementations of this interface only have to
+     * implement that method to support NDJSON.
+     *
+     * @param clazz the class to parse each line as
+     * @return an iterator for the parsed lines
+     * @param <T> the static type of the class to parse as
+     */
+    default <T> Iterator<T> parseBodyAsJsonLines(Class<T> clazz) {
+        Objects.requireNonNull(clazz, "clazz");
+
+        //noinspection unchecked
+        return (Iterator<T>) parseBodyAsJsonLines((Type) clazz);
+    }
+
+    /**
+     * Parses the request body as NDJSON (newline-delimited JSON), that is, one JSON value per line. See
+     * {@link #parseBodyAsJsonLines(Class)} for details.
+     *
+     * @param typeToken a type token for the type to parse each line as
+     * @return an iterator for the parsed lines
+     * @param <T> the static type to parse as
+     */
+    default <T> Iterator<T> parseBodyAsJsonLines(TypeToken<T> typeToken) {
+        Objects.requireNonNull(typeToken, "typeToken");
+
+        //noinspection unchecked
+        return (Iterator<T>) parseBodyAsJsonLines(typeToken.getType());
+    }
+
+    /**
+     * Parses the request body as NDJSON (newline-delimited JSON), that is, one JSON value per line. See
+     * {@link #parseBodyAsJsonLines(Class)} for details.
+     * <p>
+     * The default implementation throws an {@link UnsupportedOperationException}, for implementations of this
+     * interface that were written before NDJSON support was added.
+     *
+     * @param type the type to parse each line as
+     * @return an iterator for the parsed lines
+     */
+    default Iterator<?> parseBodyAsJsonLines(Type type) {
+        throw new UnsupportedOperationException("this request does not support parsing the body as JSON lines");
+    }
+
 }
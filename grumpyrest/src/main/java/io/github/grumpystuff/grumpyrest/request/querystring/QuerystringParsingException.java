@@ -13,6 +13,8 @@ import java.util.Map;
 /**
  * Represents one or more errors from parsing the querystring. This is different from a {@link FromStringParserException}
  * in that the latter only describes a problem with a single field.
+ * <p>
+ * Like {@link FromStringParserException}, this exception does not record a stack trace.
  */
 public class QuerystringParsingException extends Exception {
 
@@ -27,7 +29,7 @@ public class QuerystringParsingException extends Exception {
      * @param fieldErrors the field errors
      */
     public QuerystringParsingException(Map<String, String> fieldErrors) {
-        super("exception during querystring parsing");
+        super("exception during querystring parsing", null, true, false);
         this.fieldErrors = Map.copyOf(fieldErrors);
     }
 
@@ -9,6 +9,12 @@ package io.github.grumpystuff.grumpyrest.request.stringparser;
 /**
  * This exception gets thrown by a {@link FromStringParser} if the string to parse does not conform to the parser's
  * expectation.
+ * <p>
+ * This exception does not record a stack trace. It describes invalid input sent by the client, not a problem in the
+ * code, so the stack trace would be of no use, and clients can cause it as often as they like, so capturing one each
+ * time would make malformed requests needlessly expensive. The exceptions that wrap or collect parser errors,
+ * {@link io.github.grumpystuff.grumpyrest.request.PathArgumentParseException} and
+ * {@link io.github.grumpystuff.grumpyrest.request.querystring.QuerystringParsingException}, follow the same rule.
  */
 public class FromStringParserException extends Exception {
 
@@ -19,7 +25,7 @@ public class FromStringParserException extends Exception {
      *                for JSON / whole-querystring!
      */
     public FromStringParserException(String message) {
-        super(message);
+        super(message, null, true, false);
     }
 
 }
@@ -19,6 +19,9 @@ package io.github.grumpystuff.grumpyrest.response;
  * the normal mechanism to handle response values, but will usually be one of two cases: Either the response value is
  * JSON-able (normal response, as well as standard error response) or is a {@link Response} itself (redirect,
  * request for HTTP authentication, or similar).
+ * <p>
+ * Since this exception is used for control flow, such as responding with a 404 when an entity is not found, it does
+ * not record a stack trace, which would otherwise be the main cost of throwing it.
  */
 public class FinishRequestException extends RuntimeException implements ResponseValueWrapper {
 
@@ -33,6 +36,7 @@ public class FinishRequestException extends RuntimeException implements Response
      * @param responseValue the response value to respond
      */
     public FinishRequestException(Object responseValue) {
+        super(null, null, true, false);
         this.responseValue = responseValue;
     }
 
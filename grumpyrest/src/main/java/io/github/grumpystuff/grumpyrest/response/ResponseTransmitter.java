@@ -45,6 +45,19 @@ public interface ResponseTransmitter {
      */
     void addCustomHeader(String name, String value);
 
+    /**
+     * Returns the Content-Type to set for a response whose body is written by {@link #writeJson(Object)}. This is
+     * "application/json" unless the client has asked for another format that the API supports, such as CBOR, see
+     * {@link io.github.grumpystuff.grumpyrest.RequestCycle#getResponseMediaType()}.
+     * <p>
+     * This is neither a header method nor a body method and can be called at any time.
+     *
+     * @return the Content-Type
+     */
+    default String getJsonContentType() {
+        return "application/json";
+    }
+
     /**
      * Body method: Obtains the output stream to send body data to the client.
      *
@@ -55,9 +68,12 @@ public interface ResponseTransmitter {
 
     /**
      * Body method: Converts the specified value to JSON and sends it to the client using the body output stream.
+     * The JSON is formatted according to the output profile of the request, see
+     * {@link io.github.grumpystuff.grumpyrest.RequestCycle#getOutputProfile()}, and encoded in the format that
+     * {@link #getJsonContentType()} returns.
      * <p>
-     * This method does not set the Content-Type to JSON to keep the separation into header methods and body methods
-     * clean.
+     * This method does not set the Content-Type to keep the separation into header methods and body methods clean.
+     * Callers should set it to {@link #getJsonContentType()} before.
      *
      * @param value the value to convert to JSON
      * @throws JsonSerializationException if the value is in an inconsistent state or in a state that cannot be converted to JSON
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest.response.standard;
+
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Common base class for response values whose elements are taken from an {@link Iterator} or {@link Stream} one by
+ * one, converted to JSON and written to the client, so memory usage stays bounded no matter how many elements there
+ * are. The subclasses define how the elements are framed in the response body: {@link JsonArrayStream} sends a JSON
+ * array, {@link JsonLinesStream} sends one element per line.
+ * <p>
+ * The element class is used to check before sending anything that elements can be converted to JSON at all, so a
+ * missing serializer results in a normal 500 response. Each element must be an instance of that class (or a subclass
+ * if the serializer supports it). Null elements are not allowed.
+ * <p>
+ * Once the first element has been sent, the HTTP status and headers have been sent too and cannot be changed anymore.
+ * If converting an element to JSON fails after that point (or the iterator itself throws an exception), transmission
+ * stops and the exception is reported like any other failure during transmission. The subclasses describe what the
+ * client sees in that case.
+ * <p>
+ * If the elements are taken from a {@link Stream}, that stream gets closed when transmission ends, whether successful
+ * or not.
+ *
+ * @param <T> the static element type
+ */
+public abstract class ElementStream<T> {
+
+    /**
+     * The number of elements after which the output is flushed, unless specified otherwise.
+     */
+    public static final int DEFAULT_FLUSH_INTERVAL = 100;
+
+    private final Class<T> elementClass;
+    private final Iterator<? extends T> elements;
+    private final Runnable closeHandler;
+    private final int flushInterval;
+
+    ElementStream(Class<T> elementClass, Iterator<? extends T> elements, Runnable closeHandler) {
+        this.elementClass = elementClass;
+        this.elements = elements;
+        this.closeHandler = closeHandler;
+        this.flushInterval = DEFAULT_FLUSH_INTERVAL;
+    }
+
+    ElementStream(ElementStream<T> original, int flushInterval) {
+        if (flushInterval < 1) {
+            throw new IllegalArgumentException("flushInterval must be positive");
+        }
+        this.elementClass = original.elementClass;
+        this.elements = original.elements;
+        this.closeHandler = original.closeHandler;
+        this.flushInterval = flushInterval;
+    }
+
+    /**
+     * Returns a copy of this object that flushes the output after the specified number of elements. Smaller values
+     * make elements arrive at the client earlier, larger values reduce the overhead for flushing.
+     *
+     * @param flushInterval the number of elements after which to flush; must be positive
+     * @return the modified copy
+     */
+    public abstract ElementStream<T> withFlushInterval(int flushInterval);
+
+    /**
+     * Getter method for the element class.
+     *
+     * @return the element class
+     */
+    public final Class<T> getElementClass() {
+        return elementClass;
+    }
+
+    /**
+     * Getter method for the iterator that provides the elements. Note that the iterator can only be consumed once.
+     *
+     * @return the element iterator
+     */
+    public final Iterator<? extends T> getElements() {
+        return elements;
+    }
+
+    /**
+     * Getter method for the number of elements after which the output is flushed.
+     *
+     * @return the flush interval
+     */
+    public final int getFlushInterval() {
+        return flushInterval;
+    }
+
+    /**
+     * Releases the underlying element source, if it needs to be released. This is called by the framework when
+     * transmission ends.
+     */
+    public final void close() {
+        if (closeHandler != null) {
+            closeHandler.run();
+        }
+    }
+
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest.response.standard;
+
+import io.github.grumpystuff.grumpyjson.JsonEngine;
+import io.github.grumpystuff.grumpyjson.OutputProfile;
+import io.github.grumpystuff.grumpyjson.serialize.JsonSerializationException;
+import io.github.grumpystuff.grumpyjson.util.CloseShieldOutputStream;
+import io.github.grumpystuff.grumpyjson.util.CloseShieldWriter;
+import io.github.grumpystuff.grumpyrest.response.Response;
+import io.github.grumpystuff.grumpyrest.response.ResponseTransmitter;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Objects;
+
+/**
+ * Sends an {@link ElementStream} to the client element by element, with HTTP status code 200. Subclasses only define
+ * the content type and how elements are framed; iterating, flushing, error paths and closing the stream are handled
+ * here.
+ */
+abstract class ElementStreamResponse implements Response {
+
+    private final JsonEngine jsonEngine;
+    private final OutputProfile outputProfile;
+    private final ElementStream<?> stream;
+    private final String contentType;
+    private final String description;
+
+    ElementStreamResponse(JsonEngine jsonEngine, OutputProfile outputProfile, ElementStream<?> stream,
+                          String contentType, String description) {
+        Objects.requireNonNull(jsonEngine, "jsonEngine");
+        Objects.requireNonNull(outputProfile, "outputProfile");
+        Objects.requireNonNull(stream, "stream");
+
+        this.jsonEngine = jsonEngine;
+        this.outputProfile = outputProfile;
+        this.stream = stream;
+        this.contentType = contentType;
+        this.description = description;
+    }
+
+    @Override
+    public final void transmit(ResponseTransmitter responseTransmitter) throws IOException {
+        Objects.requireNonNull(responseTransmitter, "responseTransmitter");
+
+        try {
+            responseTransmitter.setStatus(200);
+            responseTransmitter.setContentType(contentType);
+
+            // The JSON engine may close the writer it writes to, which must not end the whole response, so each
+            // element is written through a close shield. Likewise, closing our own writer at the end flushes the
+            // encoder but must not close the servlet's stream.
+            Writer writer = new OutputStreamWriter(new CloseShieldOutputStream(responseTransmitter.getOutputStream()), StandardCharsets.UTF_8);
+            Writer elementWriter = new CloseShieldWriter(writer);
+            writeStart(writer);
+            Iterator<?> iterator = stream.getElements();
+            int index = 0;
+            while (iterator.hasNext()) {
+                Object element = iterator.next();
+                if (index > 0) {
+                    writeSeparator(writer);
+                }
+                if (element == null) {
+                    throw new JsonSerializationException("null element at index " + index + " in " + description);
+                }
+                try {
+                    writeElement(jsonEngine, outputProfile, element, elementWriter);
+                } catch (JsonSerializationException e) {
+                    throw new JsonSerializationException(e.getFieldErrorNode().in(Integer.toString(index)));
+                }
+                writeElementEnd(writer);
+                index++;
+                if (index % stream.getFlushInterval() == 0) {
+                    writer.flush();
+                }
+            }
+            writeEnd(writer);
+            writer.close();
+        } finally {
+            stream.close();
+        }
+    }
+
+    /**
+     * Writes the text that comes before the first element.
+     */
+    void writeStart(Writer writer) throws IOException {
+    }
+
+    /**
+     * Writes the text between two elements.
+     */
+    void writeSeparator(Writer writer) throws IOException {
+    }
+
+    /**
+     * Writes a single element with the specified output profile.
+     */
+    abstract void writeElement(JsonEngine jsonEngine, OutputProfile outputProfile, Object element, Writer writer)
+            throws JsonSerializationException;
+
+    /**
+     * Writes the text that comes after each element that has been written successfully.
+     */
+    void writeElementEnd(Writer writer) throws IOException {
+    }
+
+    /**
+     * Writes the text that comes after the last element, once all elements have been written successfully.
+     */
+    void writeEnd(Writer writer) throws IOException {
+    }
+
+}
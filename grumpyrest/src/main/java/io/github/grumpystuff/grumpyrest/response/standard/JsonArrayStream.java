@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest.response.standard;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * A response value that gets sent to the client as a JSON array, but unlike a {@link java.util.List} is not
+ * materialized in memory as a whole. This is useful for large result sets such as exports. See {@link ElementStream}
+ * for how elements are taken and converted.
+ * <p>
+ * Errors in the middle of the stream: the array is left unterminated, i.e. the closing bracket is never sent. The
+ * client therefore always sees a body that is not valid JSON, and cannot mistake a truncated result for a complete
+ * one. Each element is converted to a JSON tree before any of its text is written, so the body never contains half an
+ * element because of a conversion error.
+ *
+ * @param <T> the static element type
+ */
+public final class JsonArrayStream<T> extends ElementStream<T> {
+
+    private JsonArrayStream(Class<T> elementClass, Iterator<? extends T> elements, Runnable closeHandler) {
+        super(elementClass, elements, closeHandler);
+    }
+
+    private JsonArrayStream(JsonArrayStream<T> original, int flushInterval) {
+        super(original, flushInterval);
+    }
+
+    /**
+     * Creates a JSON array stream that takes its elements from an iterator.
+     *
+     * @param elementClass the class of the elements
+     * @param elements the iterator that provides the elements
+     * @return the JSON array stream
+     * @param <T> the static element type
+     */
+    public static <T> JsonArrayStream<T> of(Class<T> elementClass, Iterator<? extends T> elements) {
+        Objects.requireNonNull(elementClass, "elementClass");
+        Objects.requireNonNull(elements, "elements");
+
+        return new JsonArrayStream<>(elementClass, elements, null);
+    }
+
+    /**
+     * Creates a JSON array stream that takes its elements from a {@link Stream}. The stream will be closed when
+     * transmission ends.
+     *
+     * @param elementClass the class of the elements
+     * @param elements the stream that provides the elements
+     * @return the JSON array stream
+     * @param <T> the static element type
+     */
+    public static <T> JsonArrayStream<T> of(Class<T> elementClass, Stream<? extends T> elements) {
+        Objects.requireNonNull(elementClass, "elementClass");
+        Objects.requireNonNull(elements, "elements");
+
+        return new JsonArrayStream<>(elementClass, elements.iterator(), elements::close);
+    }
+
+    @Override
+    public JsonArrayStream<T> withFlushInterval(int flushInterval) {
+        return new JsonArrayStream<>(this, flushInterval);
+    }
+
+}
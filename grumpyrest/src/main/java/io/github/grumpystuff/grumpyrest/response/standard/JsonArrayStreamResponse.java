@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest.response.standard;
+
+import io.github.grumpystuff.grumpyjson.JsonEngine;
+import io.github.grumpystuff.grumpyjson.OutputProfile;
+import io.github.grumpystuff.grumpyjson.serialize.JsonSerializationException;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Sends a {@link JsonArrayStream} to the client element by element, with HTTP status code 200. See that class for
+ * details, especially on the behavior when an error occurs in the middle of the stream.
+ */
+public final class JsonArrayStreamResponse extends ElementStreamResponse {
+
+    /**
+     * Constructor for a response that writes the elements with the default output profile of the JSON engine.
+     *
+     * @param jsonEngine the JSON engine used to convert the elements to JSON
+     * @param stream the stream to send
+     */
+    public JsonArrayStreamResponse(JsonEngine jsonEngine, JsonArrayStream<?> stream) {
+        this(jsonEngine, jsonEngine.getOutputProfile(), stream);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param jsonEngine the JSON engine used to convert the elements to JSON
+     * @param outputProfile the output profile used to write each element
+     * @param stream the stream to send
+     */
+    public JsonArrayStreamResponse(JsonEngine jsonEngine, OutputProfile outputProfile, JsonArrayStream<?> stream) {
+        super(jsonEngine, outputProfile, stream, "application/json", "JSON array stream");
+    }
+
+    @Override
+    void writeStart(Writer writer) throws IOException {
+        writer.write('[');
+    }
+
+    @Override
+    void writeSeparator(Writer writer) throws IOException {
+        writer.write(',');
+    }
+
+    @Override
+    void writeElement(JsonEngine jsonEngine, OutputProfile outputProfile, Object element, Writer writer)
+            throws JsonSerializationException {
+        jsonEngine.writeTo(element, writer, outputProfile);
+    }
+
+    @Override
+    void writeEnd(Writer writer) throws IOException {
+        writer.write(']');
+    }
+
+}
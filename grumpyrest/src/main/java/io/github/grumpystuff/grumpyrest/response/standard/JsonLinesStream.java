@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest.response.standard;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * A response value that gets sent to the client in NDJSON format (newline-delimited JSON, also known as JSON Lines),
+ * using the Content-Type application/x-ndjson. Each element is converted to JSON and sent as a single line. This is
+ * useful for bulk exports, especially if the client wants to process elements incrementally, because each line can be
+ * parsed on its own. See {@link ElementStream} for how elements are taken and converted.
+ * <p>
+ * Errors in the middle of the stream: every complete line ends with a line break, so the client can recognize the
+ * last line as incomplete if it lacks one. Note, though, that the client cannot distinguish a stream that was aborted
+ * between two elements from a complete one by the format alone -- if that matters, the application should send a
+ * final element that marks the end of the stream.
+ *
+ * @param <T> the static element type
+ */
+public final class JsonLinesStream<T> extends ElementStream<T> {
+
+    private JsonLinesStream(Class<T> elementClass, Iterator<? extends T> elements, Runnable closeHandler) {
+        super(elementClass, elements, closeHandler);
+    }
+
+    private JsonLinesStream(JsonLinesStream<T> original, int flushInterval) {
+        super(original, flushInterval);
+    }
+
+    /**
+     * Creates a JSON lines stream that takes its elements from an iterator.
+     *
+     * @param elementClass the class of the elements
+     * @param elements the iterator that provides the elements
+     * @return the JSON lines stream
+     * @param <T> the static element type
+     */
+    public static <T> JsonLinesStream<T> of(Class<T> elementClass, Iterator<? extends T> elements) {
+        Objects.requireNonNull(elementClass, "elementClass");
+        Objects.requireNonNull(elements, "elements");
+
+        return new JsonLinesStream<>(elementClass, elements, null);
+    }
+
+    /**
+     * Creates a JSON lines stream that takes its elements from a {@link Stream}. The stream will be closed when
+     * transmission ends.
+     *
+     * @param elementClass the class of the elements
+     * @param elements the stream that provides the elements
+     * @return the JSON lines stream
+     * @param <T> the static element type
+     */
+    public static <T> JsonLinesStream<T> of(Class<T> elementClass, Stream<? extends T> elements) {
+        Objects.requireNonNull(elementClass, "elementClass");
+        Objects.requireNonNull(elements, "elements");
+
+        return new JsonLinesStream<>(elementClass, elements.iterator(), elements::close);
+    }
+
+    @Override
+    public JsonLinesStream<T> withFlushInterval(int flushInterval) {
+        return new JsonLinesStream<>(this, flushInterval);
+    }
+
+}
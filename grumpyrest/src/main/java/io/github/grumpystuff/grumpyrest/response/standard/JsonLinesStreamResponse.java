@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest.response.standard;
+
+import io.github.grumpystuff.grumpyjson.JsonEngine;
+import io.github.grumpystuff.grumpyjson.OutputProfile;
+import io.github.grumpystuff.grumpyjson.serialize.JsonSerializationException;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Sends a {@link JsonLinesStream} to the client line by line, with HTTP status code 200. See that class for
+ * details, especially on the behavior when an error occurs in the middle of the stream.
+ */
+public final class JsonLinesStreamResponse extends ElementStreamResponse {
+
+    /**
+     * Constructor for a response that writes the elements with the default output profile of the JSON engine.
+     *
+     * @param jsonEngine the JSON engine used to convert the elements to JSON
+     * @param stream the stream to send
+     */
+    public JsonLinesStreamResponse(JsonEngine jsonEngine, JsonLinesStream<?> stream) {
+        this(jsonEngine, jsonEngine.getOutputProfile(), stream);
+    }
+
+    /**
+     * Constructor. Since each element must be written as a single line, {@link OutputProfile#PRETTY} is treated like
+     * {@link OutputProfile#COMPACT}.
+     *
+     * @param jsonEngine the JSON engine used to convert the elements to JSON
+     * @param outputProfile the output profile used to write each element
+     * @param stream the stream to send
+     */
+    public JsonLinesStreamResponse(JsonEngine jsonEngine, OutputProfile outputProfile, JsonLinesStream<?> stream) {
+        super(jsonEngine, outputProfile, stream, "application/x-ndjson", "JSON lines stream");
+    }
+
+    @Override
+    void writeElement(JsonEngine jsonEngine, OutputProfile outputProfile, Object element, Writer writer)
+            throws JsonSerializationException {
+        jsonEngine.writeTo(element, writer, outputProfile == OutputProfile.PRETTY ? OutputProfile.COMPACT : outputProfile);
+    }
+
+    @Override
+    void writeElementEnd(Writer writer) throws IOException {
+        writer.write('\n');
+    }
+
+}
@@ -7,6 +7,8 @@
 package io.github.grumpystuff.grumpyrest.response.standard;
 
 import io.github.grumpystuff.grumpyjson.JsonEngine;
+import io.github.grumpystuff.grumpyjson.serialize.FieldSelection;
+import io.github.grumpystuff.grumpyjson.serialize.JsonSerializationException;
 import io.github.grumpystuff.grumpyrest.RequestCycle;
 import io.github.grumpystuff.grumpyrest.response.Response;
 import io.github.grumpystuff.grumpyrest.response.ResponseFactory;
@@ -15,7 +17,12 @@ import java.util.Objects;
 
 /**
  * Converts any JSON-able value into a {@link Response} by invoking the {@link JsonEngine}, then sending the result
- * with HTTP status code 200.
+ * with HTTP status code 200. If the request selects fields (see {@link RequestCycle#getFieldSelection()}), only the
+ * selected fields are serialized.
+ * <p>
+ * This factory also accepts a {@link JsonArrayStream} or {@link JsonLinesStream} whose elements are JSON-able, and
+ * sends it element by element using a {@link JsonArrayStreamResponse} or {@link JsonLinesStreamResponse}, with the
+ * output profile selected for the request (see {@link RequestCycle#getOutputProfile()}).
  */
 public final class JsonResponseFactory implements ResponseFactory {
 
@@ -29,19 +36,45 @@ public final class JsonResponseFactory implements ResponseFactory {
     public Response createResponse(RequestCycle requestCycle, Object value) {
         Objects.requireNonNull(requestCycle, "requestCycle");
 
-        if (value == null || !requestCycle.getApi().getJsonEngine().supportsClassForSerialization(value.getClass())) {
+        JsonEngine jsonEngine = requestCycle.getApi().getJsonEngine();
+        if (value instanceof JsonArrayStream<?> stream) {
+            checkElementClass(jsonEngine, stream, "JSON array stream");
+            return new JsonArrayStreamResponse(jsonEngine, requestCycle.getOutputProfile(), stream);
+        }
+        if (value instanceof JsonLinesStream<?> stream) {
+            checkElementClass(jsonEngine, stream, "JSON lines stream");
+            return new JsonLinesStreamResponse(jsonEngine, requestCycle.getOutputProfile(), stream);
+        }
+        if (value == null || !jsonEngine.supportsClassForSerialization(value.getClass())) {
             return null;
         }
-        return createResponseForSupportedValue(value);
+        return createResponseForSupportedValue(value, requestCycle.getFieldSelection());
+    }
+
+    private static void checkElementClass(JsonEngine jsonEngine, ElementStream<?> stream, String description) {
+        if (!jsonEngine.supportsClassForSerialization(stream.getElementClass())) {
+            stream.close();
+            throw new JsonSerializationException("no serializer for element class of " + description + ": " +
+                    stream.getElementClass());
+        }
     }
 
-    private Response createResponseForSupportedValue(Object value) {
+    private Response createResponseForSupportedValue(Object value, FieldSelection fieldSelection) {
         Objects.requireNonNull(value, "value");
         
         return responseTransmitter -> {
             responseTransmitter.setStatus(200);
-            responseTransmitter.setContentType("application/json");
-            responseTransmitter.writeJson(value);
+            responseTransmitter.setContentType(responseTransmitter.getJsonContentType());
+            if (fieldSelection == null) {
+                responseTransmitter.writeJson(value);
+            } else {
+                FieldSelection previousSelection = FieldSelection.setCurrent(fieldSelection);
+                try {
+                    responseTransmitter.writeJson(value);
+                } finally {
+                    FieldSelection.setCurrent(previousSelection);
+                }
+            }
         };
     }
 
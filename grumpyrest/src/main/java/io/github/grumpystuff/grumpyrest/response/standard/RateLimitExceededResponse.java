@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest.response.standard;
+
+import io.github.grumpystuff.grumpyrest.response.Response;
+import io.github.grumpystuff.grumpyrest.response.ResponseTransmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * A 429 response, sent when a client has exceeded a rate limit. Besides Retry-After, it sends the RateLimit-Limit,
+ * RateLimit-Remaining and RateLimit-Reset headers from the IETF draft for rate limit headers. Like
+ * {@link ServiceUnavailableResponse}, the body has the format of a {@link StandardErrorResponse} but is rendered in
+ * advance and always sent as application/json.
+ *
+ * @param limit the number of requests allowed per period, sent in the RateLimit-Limit header
+ * @param retryAfterSeconds the number of seconds after which the client may retry, sent in the Retry-After and
+ *                          RateLimit-Reset headers
+ */
+public record RateLimitExceededResponse(String limit, long retryAfterSeconds) implements Response {
+
+    private static final byte[] BODY = "{\"message\":\"rate limit exceeded\",\"fields\":[]}".getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * Constructor.
+     *
+     * @param limit the number of requests allowed per period
+     * @param retryAfterSeconds the number of seconds after which the client may retry
+     */
+    public RateLimitExceededResponse {
+        Objects.requireNonNull(limit, "limit");
+        if (retryAfterSeconds < 0) {
+            throw new IllegalArgumentException("retryAfterSeconds cannot be negative");
+        }
+    }
+
+    @Override
+    public void transmit(ResponseTransmitter responseTransmitter) throws IOException {
+        Objects.requireNonNull(responseTransmitter, "responseTransmitter");
+
+        String retryAfter = Long.toString(retryAfterSeconds);
+        responseTransmitter.setStatus(429);
+        responseTransmitter.setContentType("application/json");
+        responseTransmitter.addCustomHeader("Retry-After", retryAfter);
+        responseTransmitter.addCustomHeader("RateLimit-Limit", limit);
+        responseTransmitter.addCustomHeader("RateLimit-Remaining", "0");
+        responseTransmitter.addCustomHeader("RateLimit-Reset", retryAfter);
+        responseTransmitter.getOutputStream().write(BODY);
+    }
+
+}
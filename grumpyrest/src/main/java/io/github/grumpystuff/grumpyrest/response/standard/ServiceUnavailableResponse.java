@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest.response.standard;
+
+import io.github.grumpystuff.grumpyrest.response.Response;
+import io.github.grumpystuff.grumpyrest.response.ResponseTransmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * A 503 response with a Retry-After header, sent when the server sheds load. The body has the format of a
+ * {@link StandardErrorResponse} but is rendered once when this object is created, so sending it costs no JSON
+ * serialization -- which matters because it is sent exactly when the server is busiest. For the same reason, the
+ * body is always sent as application/json, regardless of the format the client asked for.
+ */
+public final class ServiceUnavailableResponse implements Response {
+
+    private final int retryAfterSeconds;
+    private final String retryAfterHeader;
+    private final byte[] body;
+
+    /**
+     * Constructor.
+     *
+     * @param message the error message for the response body. This is rendered to JSON without escaping, so it must
+     *                not contain characters that need escaping in a JSON string.
+     * @param retryAfterSeconds the number of seconds after which the client may retry, sent in the Retry-After
+     *                          header. Must not be negative.
+     */
+    public ServiceUnavailableResponse(String message, int retryAfterSeconds) {
+        Objects.requireNonNull(message, "message");
+        if (retryAfterSeconds < 0) {
+            throw new IllegalArgumentException("retryAfterSeconds cannot be negative");
+        }
+        for (int i = 0; i < message.length(); i++) {
+            char c = message.charAt(i);
+            if (c < 0x20 || c == '"' || c == '\\') {
+                throw new IllegalArgumentException("message contains characters that need escaping");
+            }
+        }
+
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.retryAfterHeader = Integer.toString(retryAfterSeconds);
+        this.body = ("{\"message\":\"" + message + "\",\"fields\":[]}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Getter method for the number of seconds after which the client may retry.
+     *
+     * @return the number of seconds
+     */
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    @Override
+    public void transmit(ResponseTransmitter responseTransmitter) throws IOException {
+        Objects.requireNonNull(responseTransmitter, "responseTransmitter");
+
+        responseTransmitter.setStatus(503);
+        responseTransmitter.setContentType("application/json");
+        responseTransmitter.addCustomHeader("Retry-After", retryAfterHeader);
+        responseTransmitter.getOutputStream().write(body);
+    }
+
+}
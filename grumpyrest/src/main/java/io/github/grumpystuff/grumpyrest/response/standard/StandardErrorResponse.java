@@ -67,11 +67,23 @@ public record StandardErrorResponse(int status, String message, List<Field> fiel
      */
     public static final StandardErrorResponse JSON_EXPECTED = new StandardErrorResponse(415, "expected application/json content type");
 
+    /**
+     * Endpoints that consume the request body as NDJSON (newline-delimited JSON) send this response for other request
+     * content types.
+     */
+    public static final StandardErrorResponse JSON_LINES_EXPECTED = new StandardErrorResponse(415, "expected application/x-ndjson content type");
+
     /**
      * The standard response for "something went wrong in the server", usually an uncaught exception.
      */
     public static final StandardErrorResponse INTERNAL_SERVER_ERROR = new StandardErrorResponse(500, "internal server error");
 
+    /**
+     * This response is sent when the handler did not finish within the deadline of its route, see
+     * {@link io.github.grumpystuff.grumpyrest.Route.Options#deadline()}.
+     */
+    public static final StandardErrorResponse DEADLINE_EXCEEDED = new StandardErrorResponse(504, "deadline exceeded");
+
     /**
      * This is an error response for failed request body validation. The error lists the fields that failed
      * validation and their error messages.
@@ -143,7 +155,7 @@ public record StandardErrorResponse(int status, String message, List<Field> fiel
         Objects.requireNonNull(responseTransmitter, "responseTransmitter");
 
         responseTransmitter.setStatus(status);
-        responseTransmitter.setContentType("application/json");
+        responseTransmitter.setContentType(responseTransmitter.getJsonContentType());
         responseTransmitter.writeJson(new Body(message, fields));
     }
 
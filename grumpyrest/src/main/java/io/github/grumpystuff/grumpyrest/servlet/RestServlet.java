@@ -48,7 +48,7 @@ public class RestServlet extends HttpServlet {
         Objects.requireNonNull(servletRequest, "servletRequest");
         Objects.requireNonNull(servletResponse, "servletResponse");
 
-        api.handle(new RequestCycle(api, servletRequest, servletResponse, requestPathSourcingStrategy));
+        api.handle(new RequestCycle(api, new ServletExchange(servletRequest, servletResponse, requestPathSourcingStrategy)));
     }
 
     @Override
@@ -56,7 +56,7 @@ public class RestServlet extends HttpServlet {
         Objects.requireNonNull(servletRequest, "servletRequest");
         Objects.requireNonNull(servletResponse, "servletResponse");
 
-        api.handle(new RequestCycle(api, servletRequest, servletResponse, requestPathSourcingStrategy));
+        api.handle(new RequestCycle(api, new ServletExchange(servletRequest, servletResponse, requestPathSourcingStrategy)));
     }
 
     @Override
@@ -64,7 +64,7 @@ public class RestServlet extends HttpServlet {
         Objects.requireNonNull(servletRequest, "servletRequest");
         Objects.requireNonNull(servletResponse, "servletResponse");
 
-        api.handle(new RequestCycle(api, servletRequest, servletResponse, requestPathSourcingStrategy));
+        api.handle(new RequestCycle(api, new ServletExchange(servletRequest, servletResponse, requestPathSourcingStrategy)));
     }
 
     @Override
@@ -72,7 +72,7 @@ public class RestServlet extends HttpServlet {
         Objects.requireNonNull(servletRequest, "servletRequest");
         Objects.requireNonNull(servletResponse, "servletResponse");
 
-        api.handle(new RequestCycle(api, servletRequest, servletResponse, requestPathSourcingStrategy));
+        api.handle(new RequestCycle(api, new ServletExchange(servletRequest, servletResponse, requestPathSourcingStrategy)));
     }
 
 }
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest.servlet;
+
+import io.github.grumpystuff.grumpyrest.transport.Exchange;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * {@link Exchange} implementation based on the servlet API.
+ */
+public final class ServletExchange implements Exchange {
+
+    private final HttpServletRequest servletRequest;
+    private final HttpServletResponse servletResponse;
+    private final String path;
+
+    /**
+     * Constructor.
+     *
+     * @param servletRequest the servlet request
+     * @param servletResponse the servlet response
+     * @param requestPathSourcingStrategy how to determine the request path from the servlet request
+     */
+    public ServletExchange(
+        HttpServletRequest servletRequest,
+        HttpServletResponse servletResponse,
+        RequestPathSourcingStrategy requestPathSourcingStrategy
+    ) {
+        Objects.requireNonNull(servletRequest, "servletRequest");
+        Objects.requireNonNull(servletResponse, "servletResponse");
+        Objects.requireNonNull(requestPathSourcingStrategy, "requestPathSourcingStrategy");
+
+        this.servletRequest = servletRequest;
+        this.servletResponse = servletResponse;
+        this.path = requestPathSourcingStrategy.getPath(servletRequest);
+    }
+
+    /**
+     * Getter method for the servlet request.
+     *
+     * @return the servlet request
+     */
+    public HttpServletRequest getServletRequest() {
+        return servletRequest;
+    }
+
+    /**
+     * Getter method for the servlet response.
+     *
+     * @return the servlet response
+     */
+    public HttpServletResponse getServletResponse() {
+        return servletResponse;
+    }
+
+    @Override
+    public String getMethod() {
+        return servletRequest.getMethod();
+    }
+
+    @Override
+    public String getPath() {
+        return path;
+    }
+
+    @Override
+    public Map<String, String[]> getQueryParameters() {
+        return servletRequest.getParameterMap();
+    }
+
+    @Override
+    public String getHeader(String name) {
+        return servletRequest.getHeader(name);
+    }
+
+    @Override
+    public String getRemoteAddress() {
+        return servletRequest.getRemoteAddr();
+    }
+
+    @Override
+    public String getContentType() {
+        return servletRequest.getContentType();
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return servletRequest.getInputStream();
+    }
+
+    @Override
+    public void setStatus(int status) {
+        servletResponse.setStatus(status);
+    }
+
+    @Override
+    public void setContentType(String contentType) {
+        servletResponse.setContentType(contentType);
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        servletResponse.addHeader(name, value);
+    }
+
+    @Override
+    public OutputStream getOutputStream() throws IOException {
+        return servletResponse.getOutputStream();
+    }
+
+}
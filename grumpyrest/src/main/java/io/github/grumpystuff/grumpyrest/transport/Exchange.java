@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest.transport;
+
+import io.github.grumpystuff.grumpyrest.RequestCycle;
+import io.github.grumpystuff.grumpyrest.response.ResponseTransmitter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+
+/**
+ * The transport SPI: This interface represents a single HTTP request and the means to send a response for it, as
+ * provided by whatever server technology is used to receive HTTP requests. A {@link RequestCycle} only accesses the
+ * request and response through this interface, so supporting a new server technology only requires an
+ * implementation of this interface plus the glue code that creates a request cycle for each incoming request and
+ * passes it to the API.
+ * <p>
+ * Implementations are provided for the servlet API, for the JDK's built-in HTTP server, and for in-memory requests.
+ * <p>
+ * The response methods follow the same rules as {@link ResponseTransmitter}: All "header" methods must be called
+ * before the body output stream is obtained.
+ */
+public interface Exchange {
+
+    /**
+     * Returns the HTTP method of the request, such as "GET".
+     *
+     * @return the HTTP method
+     */
+    String getMethod();
+
+    /**
+     * Returns the request path, relative to the root of the REST API. Leading and trailing slashes are ignored.
+     *
+     * @return the request path
+     */
+    String getPath();
+
+    /**
+     * Returns the querystring parameters. Each parameter may have multiple values if it appears multiple times in
+     * the querystring.
+     *
+     * @return the querystring parameters
+     */
+    Map<String, String[]> getQueryParameters();
+
+    /**
+     * Returns the value of a request header, or null if the header is not present. If the header is present multiple
+     * times, the first value is returned.
+     *
+     * @param name the header name (case-insensitive)
+     * @return the header value or null
+     */
+    String getHeader(String name);
+
+    /**
+     * Returns the IP address of the client, or of the last proxy in front of it, in textual form. Returns null if
+     * not known, which is the default for transports that do not implement this method.
+     *
+     * @return the remote address or null
+     */
+    default String getRemoteAddress() {
+        return null;
+    }
+
+    /**
+     * Returns the Content-Type of the request body, or null if not known.
+     *
+     * @return the Content-Type
+     */
+    String getContentType();
+
+    /**
+     * Returns a stream to read the request body.
+     *
+     * @return the request body stream
+     * @throws IOException on I/O errors
+     */
+    InputStream getInputStream() throws IOException;
+
+    /**
+     * Header method: Sets the HTTP status code of the response.
+     *
+     * @param status the HTTP status code
+     */
+    void setStatus(int status);
+
+    /**
+     * Header method: Sets the Content-Type of the response.
+     *
+     * @param contentType the Content-Type
+     */
+    void setContentType(String contentType);
+
+    /**
+     * Header method: Adds a response header.
+     *
+     * @param name the header name
+     * @param value the header value
+     */
+    void addHeader(String name, String value);
+
+    /**
+     * Body method: Returns a stream to write the response body.
+     *
+     * @return the response body stream
+     * @throws IOException on I/O errors
+     */
+    OutputStream getOutputStream() throws IOException;
+
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest.transport;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.UnaryOperator;
+
+/**
+ * {@link Exchange} implementation that takes the request from memory and captures the response in memory. This is
+ * used for sub-requests of batch requests, and is also useful to invoke a REST API in-process, e.g. for tests and
+ * benchmarks.
+ */
+public final class InMemoryExchange implements Exchange {
+
+    private final String method;
+    private final String path;
+    private final Map<String, String[]> queryParameters;
+    private final UnaryOperator<String> headers;
+    private final String contentType;
+    private final byte[] body;
+    private String remoteAddress;
+
+    private int responseStatus = 200;
+    private String responseContentType;
+    private final List<Map.Entry<String, String>> responseHeaders = new ArrayList<>();
+    private final ByteArrayOutputStream responseBody = new ByteArrayOutputStream();
+
+    /**
+     * Constructor.
+     *
+     * @param method the HTTP method
+     * @param path the request path
+     * @param queryParameters the querystring parameters
+     * @param headers maps header names to header values, returning null for absent headers. The Content-Type header
+     *                is not taken from here, but from the contentType parameter.
+     * @param contentType the Content-Type of the request body, or null if there is no body
+     * @param body the request body
+     */
+    public InMemoryExchange(String method, String path, Map<String, String[]> queryParameters,
+                            UnaryOperator<String> headers, String contentType, byte[] body) {
+        Objects.requireNonNull(method, "method");
+        Objects.requireNonNull(path, "path");
+        Objects.requireNonNull(queryParameters, "queryParameters");
+        Objects.requireNonNull(headers, "headers");
+        Objects.requireNonNull(body, "body");
+
+        this.method = method;
+        this.path = path;
+        this.queryParameters = queryParameters;
+        this.headers = headers;
+        this.contentType = contentType;
+        this.body = body;
+    }
+
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    @Override
+    public String getPath() {
+        return path;
+    }
+
+    @Override
+    public Map<String, String[]> getQueryParameters() {
+        return queryParameters;
+    }
+
+    @Override
+    public String getHeader(String name) {
+        Objects.requireNonNull(name, "name");
+
+        return name.equalsIgnoreCase("Content-Type") ? contentType : headers.apply(name);
+    }
+
+    @Override
+    public String getRemoteAddress() {
+        return remoteAddress;
+    }
+
+    /**
+     * Sets the address to return from {@link #getRemoteAddress()}. The default is null.
+     *
+     * @param remoteAddress the remote address, or null
+     */
+    public void setRemoteAddress(String remoteAddress) {
+        this.remoteAddress = remoteAddress;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return new ByteArrayInputStream(body);
+    }
+
+    @Override
+    public void setStatus(int status) {
+        this.responseStatus = status;
+    }
+
+    @Override
+    public void setContentType(String contentType) {
+        this.responseContentType = contentType;
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        responseHeaders.add(Map.entry(name, value));
+    }
+
+    @Override
+    public OutputStream getOutputStream() {
+        return responseBody;
+    }
+
+    /**
+     * Getter method for the HTTP status code of the response.
+     *
+     * @return the HTTP status code
+     */
+    public int getResponseStatus() {
+        return responseStatus;
+    }
+
+    /**
+     * Getter method for the Content-Type of the response.
+     *
+     * @return the Content-Type, or null if none was set
+     */
+    public String getResponseContentType() {
+        return responseContentType;
+    }
+
+    /**
+     * Getter method for the custom headers of the response, in the order they were added.
+     *
+     * @return the response headers
+     */
+    public List<Map.Entry<String, String>> getResponseHeaders() {
+        return List.copyOf(responseHeaders);
+    }
+
+    /**
+     * Getter method for the body of the response.
+     *
+     * @return the response body
+     */
+    public byte[] getResponseBody() {
+        return responseBody.toByteArray();
+    }
+
+}
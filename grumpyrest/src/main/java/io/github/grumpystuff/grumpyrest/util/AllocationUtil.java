@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest.util;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * NOT PUBLIC API
+ */
+public final class AllocationUtil {
+
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN = findThreadMXBean();
+
+    // prevent instantiation
+    private AllocationUtil() {
+    }
+
+    private static com.sun.management.ThreadMXBean findThreadMXBean() {
+        try {
+            if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                    && bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+                return bean;
+            }
+        } catch (Throwable ignored) {
+            // jdk.management module not present or access denied
+        }
+        return null;
+    }
+
+    /**
+     * NOT PUBLIC API
+     * <p>
+     * Checks whether the JVM can measure the number of bytes allocated by a thread.
+     *
+     * @return true if supported, false if not
+     */
+    public static boolean isSupported() {
+        return THREAD_MX_BEAN != null;
+    }
+
+    /**
+     * NOT PUBLIC API
+     * <p>
+     * Returns the number of bytes allocated by the current thread so far, or -1 if this cannot be measured. The
+     * latter happens if not supported at all, and may happen for virtual threads depending on the JVM.
+     *
+     * @return the allocated bytes, or -1
+     */
+    public static long getCurrentThreadAllocatedBytes() {
+        return THREAD_MX_BEAN == null ? -1 : THREAD_MX_BEAN.getCurrentThreadAllocatedBytes();
+    }
+
+}
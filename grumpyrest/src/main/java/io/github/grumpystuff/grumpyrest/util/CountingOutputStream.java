@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest.util;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.function.LongConsumer;
+
+/**
+ * NOT PUBLIC API
+ * <p>
+ * Reports the number of bytes written to the wrapped stream.
+ */
+public final class CountingOutputStream extends FilterOutputStream {
+
+    private final LongConsumer counter;
+
+    /**
+     * NOT PUBLIC API
+     *
+     * @param out the stream to wrap
+     * @param counter receives the number of bytes for each write operation
+     */
+    public CountingOutputStream(OutputStream out, LongConsumer counter) {
+        super(out);
+        this.counter = counter;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        out.write(b);
+        counter.accept(1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+        counter.accept(len);
+    }
+
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * NOT PUBLIC API
+ */
+public final class ExecutorUtil {
+
+    // prevent instantiation
+    private ExecutorUtil() {
+    }
+
+    /**
+     * NOT PUBLIC API
+     * <p>
+     * Creates an executor that runs each task in a new virtual thread if the JVM supports virtual threads (Java 21
+     * and later). On older JVMs, this falls back to a cached pool of daemon platform threads. The lookup is done
+     * reflectively because grumpyrest itself is compiled for Java 17.
+     *
+     * @param threadNamePrefix prefix for the names of platform threads, if they are used
+     * @return the executor
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutorIfAvailable(String threadNamePrefix) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger counter = new AtomicInteger();
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, threadNamePrefix + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest.util;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * NOT PUBLIC API
+ */
+public final class MediaTypeUtil {
+
+    // prevent instantiation
+    private MediaTypeUtil() {
+    }
+
+    /**
+     * NOT PUBLIC API
+     * <p>
+     * Returns the media type part of a Content-Type header value, without parameters such as the charset, in lower
+     * case.
+     *
+     * @param contentType ...
+     * @return ...
+     */
+    public static String getMediaType(String contentType) {
+        int semicolonIndex = contentType.indexOf(';');
+        String mediaType = semicolonIndex < 0 ? contentType : contentType.substring(0, semicolonIndex);
+        return mediaType.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * NOT PUBLIC API
+     * <p>
+     * Selects one of the candidate media types based on an Accept header. Each candidate gets the quality value of
+     * the most specific matching media range in the header. The candidate with the highest quality value wins; on
+     * ties, the earlier candidate wins. If the header is missing or no candidate is acceptable, the first candidate
+     * is returned, since sending something the client did not ask for is still more useful than an error.
+     *
+     * @param acceptHeader ...
+     * @param candidates ... (in lower case)
+     * @return ...
+     */
+    public static String negotiate(String acceptHeader, List<String> candidates) {
+        String first = candidates.get(0);
+        if (acceptHeader == null || acceptHeader.isBlank()) {
+            return first;
+        }
+        String[] ranges = acceptHeader.split(",");
+        String best = first;
+        double bestQuality = 0;
+        for (String candidate : candidates) {
+            double quality = getQuality(ranges, candidate);
+            if (quality > bestQuality) {
+                best = candidate;
+                bestQuality = quality;
+            }
+        }
+        return best;
+    }
+
+    // returns the quality value of the most specific range that matches the media type, or 0 if none matches
+    private static double getQuality(String[] ranges, String mediaType) {
+        String typeWildcard = mediaType.substring(0, mediaType.indexOf('/') + 1) + "*";
+        int bestSpecificity = -1;
+        double quality = 0;
+        for (String range : ranges) {
+            String[] parts = range.split(";");
+            String rangeType = parts[0].trim().toLowerCase(Locale.ROOT);
+            int specificity;
+            if (rangeType.equals(mediaType)) {
+                specificity = 2;
+            } else if (rangeType.equals(typeWildcard)) {
+                specificity = 1;
+            } else if (rangeType.equals("*/*")) {
+                specificity = 0;
+            } else {
+                continue;
+            }
+            if (specificity > bestSpecificity) {
+                bestSpecificity = specificity;
+                quality = parseQuality(parts);
+            }
+        }
+        return quality;
+    }
+
+    private static double parseQuality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.length() > 2 && (parameter.charAt(0) == 'q' || parameter.charAt(0) == 'Q') && parameter.charAt(1) == '=') {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    // treat malformed quality values as the default
+                    return 1;
+                }
+            }
+        }
+        return 1;
+    }
+
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest;
+
+import io.github.grumpystuff.grumpyjson.TypeToken;
+import io.github.grumpystuff.grumpyjson.gson.GsonBasedJsonEngine;
+import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
+import io.github.grumpystuff.grumpyrest.request.HttpMethod;
+import io.github.grumpystuff.grumpyrest.response.standard.StandardErrorResponse;
+import io.github.grumpystuff.grumpyrest.transport.InMemoryExchange;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchHandlerTest {
+
+    private final RestApi api = new RestApi(new GsonBasedJsonEngine());
+
+    public BatchHandlerTest() {
+        api.addBatchRoute("/batch", BatchHandler.Options.createDefault().withMaxSubRequests(5).withMaxConcurrency(2));
+        api.addRoute(HttpMethod.GET, "/hello/:name", request -> new Greeting("hello " + request.getPathArguments().get(0).getText()));
+        api.addRoute(HttpMethod.GET, "/search", request -> new Greeting(request.parseQuerystring(SearchQuery.class).q()));
+        api.addRoute(HttpMethod.POST, "/echo", request -> request.parseBody(Greeting.class));
+        api.addRoute(HttpMethod.GET, "/header", request -> new Greeting(request.getHeader("X-Test")));
+        api.addRoute(HttpMethod.POST, "/body-headers", request -> new Greeting(request.getHeader("Content-Type") + ","
+                + request.getHeader("Content-Length") + "," + request.getHeader("Content-Encoding")));
+        api.addRoute(HttpMethod.GET, "/missing", request -> StandardErrorResponse.ID_NOT_FOUND);
+        api.seal();
+    }
+
+    private InMemoryExchange runBatchRaw(String body) {
+        byte[] bodyBytes = body.getBytes(StandardCharsets.UTF_8);
+        Map<String, String> headers = Map.of("X-Test", "foo", "Content-Type", "application/json",
+                "Content-Length", Integer.toString(bodyBytes.length), "Content-Encoding", "identity");
+        var exchange = new InMemoryExchange("POST", "/batch", Map.of(), headers::get, "application/json", bodyBytes);
+        api.handle(new RequestCycle(api, exchange));
+        return exchange;
+    }
+
+    private List<BatchResponseItem> runBatch(String body) throws Exception {
+        var exchange = runBatchRaw(body);
+        assertEquals(200, exchange.getResponseStatus());
+        String responseText = new String(exchange.getResponseBody(), StandardCharsets.UTF_8);
+        return api.getJsonEngine().deserialize(responseText, new TypeToken<List<BatchResponseItem>>() {});
+    }
+
+    @Test
+    public void testTooManySubRequests() {
+        var exchange = runBatchRaw("""
+                [
+                    {"method": "GET", "path": "/hello/world"},
+                    {"method": "GET", "path": "/search", "query": {"q": "shoes"}},
+                    {"method": "POST", "path": "/echo", "body": {"text": "echo"}},
+                    {"method": "GET", "path": "/header"},
+                    {"method": "GET", "path": "/missing"},
+                    {"method": "GET", "path": "/unknown"}
+                ]
+                """);
+        assertEquals(400, exchange.getResponseStatus());
+    }
+
+    @Test
+    public void testResults() throws Exception {
+        List<BatchResponseItem> results = runBatch("""
+                [
+                    {"method": "GET", "path": "/hello/world"},
+                    {"method": "GET", "path": "/search", "query": {"q": "shoes"}},
+                    {"method": "POST", "path": "/echo", "body": {"text": "echo"}},
+                    {"method": "GET", "path": "/header"},
+                    {"method": "GET", "path": "/missing"}
+                ]
+                """);
+        assertEquals(5, results.size());
+        assertEquals(200, results.get(0).status());
+        assertEquals(api.getJsonEngine().toJsonElement(new Greeting("hello world")), results.get(0).body().getValue());
+        assertEquals(api.getJsonEngine().toJsonElement(new Greeting("shoes")), results.get(1).body().getValue());
+        assertEquals(api.getJsonEngine().toJsonElement(new Greeting("echo")), results.get(2).body().getValue());
+        assertEquals(api.getJsonEngine().toJsonElement(new Greeting("foo")), results.get(3).body().getValue());
+        assertEquals(404, results.get(4).status());
+    }
+
+    @Test
+    public void testUnknownUrlAndNesting() throws Exception {
+        List<BatchResponseItem> results = runBatch("""
+                [
+                    {"method": "GET", "path": "/unknown"},
+                    {"method": "POST", "path": "/batch", "body": []}
+                ]
+                """);
+        assertEquals(2, results.size());
+        assertEquals(404, results.get(0).status());
+        assertEquals(400, results.get(1).status());
+        assertEquals(api.getJsonEngine().deserialize("{\"message\":\"batch requests cannot be nested\",\"fields\":[]}",
+                JsonElement.class), results.get(1).body().getValue());
+    }
+
+    @Test
+    public void testBodyHeadersAreNotForwarded() throws Exception {
+        List<BatchResponseItem> results = runBatch("""
+                [
+                    {"method": "POST", "path": "/body-headers", "body": {}}
+                ]
+                """);
+        assertEquals(api.getJsonEngine().toJsonElement(new Greeting("application/json,null,null")), results.get(0).body().getValue());
+    }
+
+    public record Greeting(String text) {}
+
+    public record SearchQuery(String q) {}
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest;
+
+import io.github.grumpystuff.grumpyjson.cbor.CborJsonEngine;
+import io.github.grumpystuff.grumpyjson.gson.GsonBasedJsonEngine;
+import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
+import io.github.grumpystuff.grumpyrest.request.HttpMethod;
+import io.github.grumpystuff.grumpyrest.transport.InMemoryExchange;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContentNegotiationTest {
+
+    private final GsonBasedJsonEngine jsonEngine = new GsonBasedJsonEngine();
+    private final CborJsonEngine cborEngine = new CborJsonEngine(jsonEngine);
+    private final RestApi api = new RestApi(jsonEngine);
+
+    public ContentNegotiationTest() {
+        api.registerJsonEngine("application/cbor", cborEngine);
+        SimpleHandler getHandler = request -> new Value(2, "foo");
+        api.addRoute(HttpMethod.GET, "/value", getHandler);
+        SimpleHandler postHandler = request -> request.parseBody(Value.class);
+        api.addRoute(HttpMethod.POST, "/value", postHandler);
+        api.seal();
+    }
+
+    private InMemoryExchange run(String method, String accept, String contentType, byte[] body) {
+        var exchange = new InMemoryExchange(method, "/value", Map.of(), name -> name.equals("Accept") ? accept : null,
+                contentType, body);
+        api.handle(new RequestCycle(api, exchange));
+        return exchange;
+    }
+
+    private static byte[] json(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private byte[] cbor(Object value) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        cborEngine.writeTo(value, out);
+        return out.toByteArray();
+    }
+
+    private void assertJson(InMemoryExchange exchange) {
+        assertEquals(200, exchange.getResponseStatus());
+        assertEquals("application/json", exchange.getResponseContentType());
+        assertEquals(List.of(Map.entry("Vary", "Accept")), exchange.getResponseHeaders());
+        assertEquals("{\"id\":2,\"name\":\"foo\"}", new String(exchange.getResponseBody(), StandardCharsets.UTF_8));
+    }
+
+    private void assertCbor(InMemoryExchange exchange) throws Exception {
+        assertEquals(200, exchange.getResponseStatus());
+        assertEquals("application/cbor", exchange.getResponseContentType());
+        assertEquals(List.of(Map.entry("Vary", "Accept")), exchange.getResponseHeaders());
+        assertEquals(new Value(2, "foo"), cborEngine.deserialize(new ByteArrayInputStream(exchange.getResponseBody()), Value.class));
+    }
+
+    @Test
+    public void testJsonByDefault() {
+        assertJson(run("GET", null, null, new byte[0]));
+        assertJson(run("GET", "*/*", null, new byte[0]));
+        assertJson(run("GET", "application/*", null, new byte[0]));
+        assertJson(run("GET", "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8", null, new byte[0]));
+        assertJson(run("GET", "text/plain", null, new byte[0]));
+    }
+
+    @Test
+    public void testCbor() throws Exception {
+        assertCbor(run("GET", "application/cbor", null, new byte[0]));
+        assertCbor(run("GET", "application/json;q=0.5, application/cbor", null, new byte[0]));
+        assertCbor(run("GET", "application/cbor, */*;q=0.1", null, new byte[0]));
+        assertJson(run("GET", "application/cbor;q=0.5, application/json", null, new byte[0]));
+        assertJson(run("GET", "application/cbor;q=0, */*", null, new byte[0]));
+    }
+
+    @Test
+    public void testRequestBody() throws Exception {
+        assertJson(run("POST", null, "application/json", json("{\"id\":2,\"name\":\"foo\"}")));
+        assertJson(run("POST", null, "application/cbor", cbor(new Value(2, "foo"))));
+        assertCbor(run("POST", "application/cbor", "application/json; charset=utf-8", json("{\"id\":2,\"name\":\"foo\"}")));
+        assertEquals(415, run("POST", null, "text/plain", json("{\"id\":2,\"name\":\"foo\"}")).getResponseStatus());
+    }
+
+    @Test
+    public void testErrorResponseUsesNegotiatedFormat() throws Exception {
+        var exchange = run("POST", "application/cbor", "application/json", json("{\"id\":2}"));
+        assertEquals(400, exchange.getResponseStatus());
+        assertEquals("application/cbor", exchange.getResponseContentType());
+        JsonElement body = cborEngine.deserialize(new ByteArrayInputStream(exchange.getResponseBody()), JsonElement.class);
+        assertTrue(body.deserializerExpectsObject().containsKey("message"));
+    }
+
+    @Test
+    public void testNoVaryWithoutAlternatives() {
+        RestApi jsonOnlyApi = new RestApi(new GsonBasedJsonEngine());
+        jsonOnlyApi.addRoute(HttpMethod.GET, "/value", request -> new Value(2, "foo"));
+        jsonOnlyApi.seal();
+        var exchange = new InMemoryExchange("GET", "/value", Map.of(), name -> null, null, new byte[0]);
+        jsonOnlyApi.handle(new RequestCycle(jsonOnlyApi, exchange));
+        assertEquals(200, exchange.getResponseStatus());
+        assertEquals(List.of(), exchange.getResponseHeaders());
+    }
+
+    public record Value(int id, String name) {}
+
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest;
+
+import io.github.grumpystuff.grumpyjson.gson.GsonBasedJsonEngine;
+import io.github.grumpystuff.grumpyrest.limit.ConcurrencyLimiter;
+import io.github.grumpystuff.grumpyrest.metrics.AllocationMeasurement;
+import io.github.grumpystuff.grumpyrest.metrics.RequestMeasurement;
+import io.github.grumpystuff.grumpyrest.request.HttpMethod;
+import io.github.grumpystuff.grumpyrest.response.FinishRequestException;
+import io.github.grumpystuff.grumpyrest.response.standard.StandardErrorResponse;
+import io.github.grumpystuff.grumpyrest.transport.Exchange;
+import io.github.grumpystuff.grumpyrest.transport.InMemoryExchange;
+import io.github.grumpystuff.grumpyrest.util.AllocationUtil;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class DeadlineTest {
+
+    private final RestApi api = new RestApi(new GsonBasedJsonEngine());
+    private final ConcurrencyLimiter limiter = new ConcurrencyLimiter("hanging", 1);
+    private final CountDownLatch interrupted = new CountDownLatch(1);
+
+    public DeadlineTest() {
+        api.setDefaultDeadline(Duration.ofMinutes(1));
+        SimpleHandler hangingHandler = request -> {
+            try {
+                Thread.sleep(Duration.ofMinutes(1).toMillis());
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return new Remaining(0);
+        };
+        Route.Options hangingOptions = Route.Options.DEFAULT.withDeadline(Duration.ofMillis(50)).withConcurrencyLimiter(limiter);
+        api.addRoute(new Route(HttpMethod.GET, "/hanging", hangingHandler).withOptions(hangingOptions));
+        SimpleHandler failingHandler = request -> {
+            throw new FinishRequestException(StandardErrorResponse.ID_NOT_FOUND);
+        };
+        api.addRoute(HttpMethod.GET, "/failing", failingHandler);
+        api.addRoute(HttpMethod.GET, "/remaining", request -> new Remaining(request.getRemainingDeadline().toMillis()));
+        api.seal();
+    }
+
+    private InMemoryExchange run(RestApi api, String path) {
+        var exchange = new InMemoryExchange("GET", path, Map.of(), name -> null, null, new byte[0]);
+        api.handle(new RequestCycle(api, exchange));
+        return exchange;
+    }
+
+    @Test
+    public void testDeadlineExceeded() throws Exception {
+        var exchange = run(api, "/hanging");
+        assertEquals(504, exchange.getResponseStatus());
+        assertEquals("{\"message\":\"deadline exceeded\",\"fields\":[]}", new String(exchange.getResponseBody(), StandardCharsets.UTF_8));
+
+        // the handler gets interrupted, and then releases its permit
+        assertTrue(interrupted.await(20, TimeUnit.SECONDS));
+        while (limiter.getStats().inFlight() > 0) {
+            Thread.onSpinWait();
+        }
+    }
+
+    @Test
+    public void testExceptionFromHandler() {
+        assertEquals(404, run(api, "/failing").getResponseStatus());
+    }
+
+    @Test
+    public void testRemainingDeadline() throws Exception {
+        var exchange = run(api, "/remaining");
+        assertEquals(200, exchange.getResponseStatus());
+        String body = new String(exchange.getResponseBody(), StandardCharsets.UTF_8);
+        long millis = api.getJsonEngine().deserialize(body, Remaining.class).millis();
+        assertTrue(millis > 0 && millis <= Duration.ofMinutes(1).toMillis(), body);
+    }
+
+    @Test
+    public void testNoDeadline() {
+        RestApi api = new RestApi(new GsonBasedJsonEngine());
+        api.addRoute(HttpMethod.GET, "/remaining", request -> {
+            assertNull(request.getRemainingDeadline());
+            return new Remaining(0);
+        });
+        api.seal();
+        assertEquals(200, run(api, "/remaining").getResponseStatus());
+    }
+
+    @Test
+    public void testInvalidDeadline() {
+        assertThrows(IllegalArgumentException.class, () -> Route.Options.DEFAULT.withDeadline(Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> api.setDefaultDeadline(Duration.ofSeconds(-1)));
+    }
+
+    @Test
+    public void testAllocationMeasuredOnHandlerThread() {
+        assumeTrue(AllocationUtil.isSupported());
+        List<RequestMeasurement> measurements = new CopyOnWriteArrayList<>();
+        RestApi api = new RestApi(new GsonBasedJsonEngine());
+        api.setMetrics(measurements::add);
+        api.setAllocationSamplingInterval(1);
+        api.setDefaultDeadline(Duration.ofMinutes(1));
+        api.addRoute(HttpMethod.POST, "/echo", request -> request.parseBody(Remaining.class));
+        api.seal();
+
+        byte[] body = "{\"millis\": 123}".getBytes(StandardCharsets.UTF_8);
+        var exchange = new InMemoryExchange("POST", "/echo", Map.of(), name -> null, "application/json", body);
+        api.handle(new RequestCycle(api, exchange));
+        assertEquals("{\"millis\":123}", new String(exchange.getResponseBody(), StandardCharsets.UTF_8));
+
+        // the body is parsed by the handler thread, so it counts towards the handler phase
+        assertEquals(1, measurements.size());
+        assertEquals(body.length, measurements.get(0).bytesIn());
+        AllocationMeasurement allocation = measurements.get(0).allocation();
+        assertTrue(allocation.handlerBytes() > 0, allocation.toString());
+        assertEquals(0, allocation.bodyParseBytes());
+        assertTrue(allocation.totalBytes() >= allocation.handlerBytes(), allocation.toString());
+    }
+
+    @Test
+    public void testAbandonedHandlerDoesNotUseRequestThreadState() throws Exception {
+        List<RequestMeasurement> measurements = new CopyOnWriteArrayList<>();
+        CountDownLatch proceed = new CountDownLatch(1);
+        CompletableFuture<Void> lateResult = new CompletableFuture<>();
+        RestApi api = new RestApi(new GsonBasedJsonEngine());
+        api.setMetrics(measurements::add);
+        api.setAllocationSamplingInterval(1);
+        api.setDefaultDeadline(Duration.ofMillis(50));
+        ComplexHandler lateHandler = requestCycle -> {
+            // ignore the interruption and keep using the request after the deadline
+            while (true) {
+                try {
+                    proceed.await();
+                    break;
+                } catch (InterruptedException e) {
+                    // ignore
+                }
+            }
+            try {
+                var request = requestCycle.getHighlevelRequest();
+                assertThrows(FinishRequestException.class, () -> request.parseBody(Remaining.class));
+                assertThrows(IllegalStateException.class, () -> request.getHeader("X-Test"));
+                requestCycle.getResponseTransmitter().writeJson(new Remaining(1));
+                lateResult.complete(null);
+            } catch (Throwable t) {
+                lateResult.completeExceptionally(t);
+            }
+            return new Remaining(0);
+        };
+        api.addRoute(new Route(HttpMethod.POST, "/late", lateHandler));
+        api.seal();
+
+        byte[] body = "{\"millis\": 123}".getBytes(StandardCharsets.UTF_8);
+        var exchange = new ThreadCheckingExchange(new InMemoryExchange("POST", "/late", Map.of(), name -> "x", "application/json", body));
+        api.handle(new RequestCycle(api, exchange));
+        assertEquals(504, exchange.delegate.getResponseStatus());
+        assertEquals(1, measurements.size());
+        AllocationMeasurement allocation = measurements.get(0).allocation();
+        if (allocation != null) {
+            assertTrue(allocation.handlerBytes() >= 0, allocation.toString());
+        }
+
+        // the late handler is cut off from the request, and nothing it does reaches the request thread
+        proceed.countDown();
+        lateResult.get(20, TimeUnit.SECONDS);
+        assertEquals(List.of(), exchange.foreignThreads);
+        assertEquals(1, measurements.size());
+        assertEquals("{\"message\":\"deadline exceeded\",\"fields\":[]}", new String(exchange.delegate.getResponseBody(), StandardCharsets.UTF_8));
+    }
+
+    public record Remaining(long millis) {}
+
+    private static final class ThreadCheckingExchange implements Exchange {
+
+        private final InMemoryExchange delegate;
+        private final Thread owner = Thread.currentThread();
+        private final List<Thread> foreignThreads = new CopyOnWriteArrayList<>();
+
+        ThreadCheckingExchange(InMemoryExchange delegate) {
+            this.delegate = delegate;
+        }
+
+        private InMemoryExchange check() {
+            if (Thread.currentThread() != owner) {
+                foreignThreads.add(Thread.currentThread());
+            }
+            return delegate;
+        }
+
+        @Override
+        public String getMethod() {
+            return check().getMethod();
+        }
+
+        @Override
+        public String getPath() {
+            return check().getPath();
+        }
+
+        @Override
+        public Map<String, String[]> getQueryParameters() {
+            return check().getQueryParameters();
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return check().getHeader(name);
+        }
+
+        @Override
+        public String getContentType() {
+            return check().getContentType();
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return check().getInputStream();
+        }
+
+        @Override
+        public void setStatus(int status) {
+            check().setStatus(status);
+        }
+
+        @Override
+        public void setContentType(String contentType) {
+            check().setContentType(contentType);
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            check().addHeader(name, value);
+        }
+
+        @Override
+        public OutputStream getOutputStream() throws IOException {
+            return check().getOutputStream();
+        }
+
+    }
+
+}
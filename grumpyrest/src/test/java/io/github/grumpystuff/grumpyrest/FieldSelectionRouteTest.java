@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest;
+
+import io.github.grumpystuff.grumpyjson.gson.GsonBasedJsonEngine;
+import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
+import io.github.grumpystuff.grumpyrest.request.HttpMethod;
+import io.github.grumpystuff.grumpyrest.transport.InMemoryExchange;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FieldSelectionRouteTest {
+
+    private final RestApi api = new RestApi(new GsonBasedJsonEngine());
+
+    public FieldSelectionRouteTest() {
+        Route.Options options = Route.Options.DEFAULT.withFieldSelection("fields");
+        SimpleHandler handler = request -> {
+            request.parseQuerystring(Query.class);
+            return createCategory();
+        };
+        api.addRoute(new Route(HttpMethod.GET, "/selectable", handler).withOptions(options));
+        api.addRoute(HttpMethod.GET, "/fixed", request -> createCategory());
+        api.seal();
+    }
+
+    private static Category createCategory() {
+        return new Category(1, "shoes", List.of(new Product(2, "boot", 10), new Product(3, "sandal", 20)));
+    }
+
+    private InMemoryExchange run(String path, Map<String, String[]> query) {
+        var exchange = new InMemoryExchange("GET", path, query, name -> null, null, new byte[0]);
+        api.handle(new RequestCycle(api, exchange));
+        return exchange;
+    }
+
+    private JsonElement getBody(InMemoryExchange exchange) throws Exception {
+        return api.getJsonEngine().deserialize(new String(exchange.getResponseBody(), StandardCharsets.UTF_8), JsonElement.class);
+    }
+
+    @Test
+    public void testNoSelection() throws Exception {
+        var exchange = run("/selectable", Map.of());
+        assertEquals(200, exchange.getResponseStatus());
+        assertEquals(api.getJsonEngine().toJsonElement(createCategory()), getBody(exchange));
+    }
+
+    @Test
+    public void testSelection() throws Exception {
+        var exchange = run("/selectable", Map.of("fields", new String[] {"name,products.price"}));
+        assertEquals(200, exchange.getResponseStatus());
+        assertEquals(api.getJsonEngine().toJsonElement(new Selected("shoes", List.of(new Price(10), new Price(20)))), getBody(exchange));
+    }
+
+    @Test
+    public void testInvalidSelection() {
+        assertEquals(400, run("/selectable", Map.of("fields", new String[] {"name,"})).getResponseStatus());
+        assertEquals(400, run("/selectable", Map.of("fields", new String[] {"id", "name"})).getResponseStatus());
+        assertEquals(400, run("/selectable", Map.of("fields", new String[] {"a.".repeat(100_000) + "a"})).getResponseStatus());
+    }
+
+    @Test
+    public void testCacheDoesNotLockOutSelections() {
+        for (int i = 0; i < 5000; i++) {
+            api.parseFieldSelection("junk" + i);
+        }
+        assertSame(api.parseFieldSelection("name"), api.parseFieldSelection("name"));
+    }
+
+    @Test
+    public void testNotEnabledForRoute() throws Exception {
+        var exchange = run("/fixed", Map.of("fields", new String[] {"name"}));
+        assertEquals(200, exchange.getResponseStatus());
+        assertEquals(api.getJsonEngine().toJsonElement(createCategory()), getBody(exchange));
+    }
+
+    public record Query() {}
+
+    public record Product(int id, String name, int price) {}
+
+    public record Category(int id, String name, List<Product> products) {}
+
+    public record Price(int price) {}
+
+    public record Selected(String name, List<Price> products) {}
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest;
+
+import io.github.grumpystuff.grumpyjson.JsonEngine;
+import io.github.grumpystuff.grumpyjson.gson.GsonBasedJsonEngine;
+import io.github.grumpystuff.grumpyrest.request.HttpMethod;
+import io.github.grumpystuff.grumpyrest.response.FinishRequestException;
+import io.github.grumpystuff.grumpyrest.response.standard.StandardErrorResponse;
+import io.github.grumpystuff.grumpyrest.transport.InMemoryExchange;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonLinesBodyIteratorTest {
+
+    private final JsonEngine engine = new GsonBasedJsonEngine();
+
+    public JsonLinesBodyIteratorTest() {
+        engine.seal();
+    }
+
+    private Iterator<Object> iterator(String body) {
+        return new JsonLinesBodyIterator(engine, new BufferedReader(new StringReader(body)), Element.class);
+    }
+
+    @Test
+    public void testEmpty() {
+        Iterator<Object> iterator = iterator("");
+        assertFalse(iterator.hasNext());
+        assertThrows(NoSuchElementException.class, iterator::next);
+    }
+
+    @Test
+    public void testLines() {
+        Iterator<Object> iterator = iterator("{\"name\": \"a\", \"value\": 1}\n\n{\"name\": \"b\", \"value\": 2}\r\n  \n");
+        List<Object> result = new ArrayList<>();
+        iterator.forEachRemaining(result::add);
+        assertEquals(List.of(new Element("a", 1), new Element("b", 2)), result);
+    }
+
+    @Test
+    public void testNextWithoutHasNext() {
+        Iterator<Object> iterator = iterator("{\"name\": \"a\", \"value\": 1}\n{\"name\": \"b\", \"value\": 2}");
+        assertEquals(new Element("a", 1), iterator.next());
+        assertEquals(new Element("b", 2), iterator.next());
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void testErrorMentionsLineNumber() {
+        Iterator<Object> iterator = iterator("{\"name\": \"a\", \"value\": 1}\n\n{\"name\": \"b\", \"value\": \"x\"}\n");
+        assertEquals(new Element("a", 1), iterator.next());
+        FinishRequestException exception = assertThrows(FinishRequestException.class, iterator::next);
+        StandardErrorResponse response = (StandardErrorResponse) exception.getWrappedResponseValue();
+        assertEquals(400, response.status());
+        assertEquals(1, response.fields().size());
+        assertEquals("line 3.value", response.fields().get(0).path());
+    }
+
+    @Test
+    public void testContentTypeWithParameters() {
+        RestApi api = new RestApi(new GsonBasedJsonEngine());
+        api.addRoute(HttpMethod.POST, "/import", request -> {
+            List<Element> result = new ArrayList<>();
+            request.parseBodyAsJsonLines(Element.class).forEachRemaining(result::add);
+            return result.size();
+        });
+        api.seal();
+        byte[] body = "{\"name\": \"a\", \"value\": 1}\n".getBytes(StandardCharsets.UTF_8);
+
+        var exchange = new InMemoryExchange("POST", "/import", Map.of(), name -> null, "Application/X-NDJSON; charset=utf-8", body);
+        api.handle(new RequestCycle(api, exchange));
+        assertEquals(200, exchange.getResponseStatus());
+        assertEquals("1", new String(exchange.getResponseBody(), StandardCharsets.UTF_8));
+
+        exchange = new InMemoryExchange("POST", "/import", Map.of(), name -> null, "application/json", body);
+        api.handle(new RequestCycle(api, exchange));
+        assertEquals(415, exchange.getResponseStatus());
+    }
+
+    public record Element(String name, int value) {}
+
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest;
+
+import io.github.grumpystuff.grumpyjson.gson.GsonBasedJsonEngine;
+import io.github.grumpystuff.grumpyrest.request.HttpMethod;
+import io.github.grumpystuff.grumpyrest.response.standard.JsonArrayStream;
+import io.github.grumpystuff.grumpyrest.response.standard.JsonLinesStream;
+import io.github.grumpystuff.grumpyrest.transport.InMemoryExchange;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OutputProfileSelectionTest {
+
+    private final RestApi api = new RestApi(new GsonBasedJsonEngine());
+
+    public OutputProfileSelectionTest() {
+        api.setOutputProfileParameter("format");
+        api.setOutputProfileHeader("X-Output-Profile");
+        api.addRoute(HttpMethod.GET, "/value", request -> {
+            request.parseQuerystring(Query.class);
+            return new Value(2, 1);
+        });
+        api.addRoute(HttpMethod.GET, "/array-stream", request ->
+                JsonArrayStream.of(Value.class, List.of(new Value(2, 1), new Value(4, 3)).iterator()));
+        api.addRoute(HttpMethod.GET, "/lines-stream", request ->
+                JsonLinesStream.of(Value.class, List.of(new Value(2, 1)).iterator()));
+        api.seal();
+    }
+
+    private InMemoryExchange run(Map<String, String[]> query, String header) {
+        return run("/value", query, header);
+    }
+
+    private InMemoryExchange run(String path, Map<String, String[]> query, String header) {
+        var exchange = new InMemoryExchange("GET", path, query, name -> name.equals("X-Output-Profile") ? header : null,
+                null, new byte[0]);
+        api.handle(new RequestCycle(api, exchange));
+        return exchange;
+    }
+
+    private static String getBody(InMemoryExchange exchange) {
+        assertEquals(200, exchange.getResponseStatus());
+        return new String(exchange.getResponseBody(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testDefault() {
+        assertEquals("{\"b\":2,\"a\":1}", getBody(run(Map.of(), null)));
+    }
+
+    @Test
+    public void testVary() {
+        assertEquals(List.of(Map.entry("Vary", "X-Output-Profile")), run(Map.of(), null).getResponseHeaders());
+    }
+
+    @Test
+    public void testParameter() {
+        assertTrue(getBody(run(Map.of("format", new String[] {"pretty"}), null)).contains("\n"));
+        assertEquals("{\"a\":1,\"b\":2}", getBody(run(Map.of("format", new String[] {"CANONICAL"}), null)));
+    }
+
+    @Test
+    public void testHeader() {
+        assertEquals("{\"a\":1,\"b\":2}", getBody(run(Map.of(), "canonical")));
+        assertEquals("{\"b\":2,\"a\":1}", getBody(run(Map.of("format", new String[] {"compact"}), "canonical")));
+    }
+
+    @Test
+    public void testStreams() {
+        Map<String, String[]> canonical = Map.of("format", new String[] {"canonical"});
+        assertEquals("[{\"a\":1,\"b\":2},{\"a\":3,\"b\":4}]", getBody(run("/array-stream", canonical, null)));
+        assertEquals("{\"a\":1,\"b\":2}\n", getBody(run("/lines-stream", canonical, null)));
+
+        // JSON lines cannot be pretty-printed
+        assertEquals("{\"b\":2,\"a\":1}\n", getBody(run("/lines-stream", Map.of(), "pretty")));
+    }
+
+    @Test
+    public void testUnknownProfile() {
+        assertEquals(400, run(Map.of("format", new String[] {"fancy"}), null).getResponseStatus());
+        assertEquals(400, run(Map.of(), "fancy").getResponseStatus());
+    }
+
+    public record Query() {}
+
+    public record Value(int b, int a) {}
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest.jdkhttpserver;
+
+import com.sun.net.httpserver.HttpServer;
+import io.github.grumpystuff.grumpyjson.gson.GsonBasedJsonEngine;
+import io.github.grumpystuff.grumpyrest.RestApi;
+import io.github.grumpystuff.grumpyrest.request.HttpMethod;
+import io.github.grumpystuff.grumpyrest.response.standard.StatusOnlyResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RestHttpHandlerTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private RestApi api;
+    private HttpServer server;
+
+    @BeforeEach
+    public void startServer() throws Exception {
+        api = new RestApi(new GsonBasedJsonEngine());
+        api.addRoute(HttpMethod.GET, "/hello/:name", request -> new Greeting("hello " + request.getPathArguments().get(0).getText()));
+        api.addRoute(HttpMethod.GET, "/search", request -> new Greeting(request.parseQuerystring(SearchQuery.class).q()));
+        api.addRoute(HttpMethod.POST, "/echo", request -> request.parseBody(Greeting.class));
+        api.addRoute(HttpMethod.GET, "/header", request -> new Greeting(request.getHeader("X-Test")));
+        api.addRoute(HttpMethod.DELETE, "/nothing", request -> new StatusOnlyResponse(204));
+        api.seal();
+        server = RestHttpHandler.createServer(api, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        server.start();
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    private HttpRequest.Builder request(String pathAndQuery) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + server.getAddress().getPort() + pathAndQuery));
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private Greeting parseGreeting(HttpResponse<String> response) throws Exception {
+        assertEquals("application/json", response.headers().firstValue("Content-Type").orElse(null));
+        return api.getJsonEngine().deserialize(response.body(), Greeting.class);
+    }
+
+    @Test
+    public void testPathArgument() throws Exception {
+        HttpResponse<String> response = send(request("/hello/world").build());
+        assertEquals(200, response.statusCode());
+        assertEquals(new Greeting("hello world"), parseGreeting(response));
+    }
+
+    @Test
+    public void testQuerystring() throws Exception {
+        HttpResponse<String> response = send(request("/search?q=red%20shoes").build());
+        assertEquals(200, response.statusCode());
+        assertEquals(new Greeting("red shoes"), parseGreeting(response));
+    }
+
+    @Test
+    public void testBody() throws Exception {
+        HttpRequest request = request("/echo")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"text\": \"echo\"}"))
+                .build();
+        HttpResponse<String> response = send(request);
+        assertEquals(200, response.statusCode());
+        assertEquals(new Greeting("echo"), parseGreeting(response));
+    }
+
+    @Test
+    public void testHeader() throws Exception {
+        HttpResponse<String> response = send(request("/header").header("X-Test", "foo").build());
+        assertEquals(200, response.statusCode());
+        assertEquals(new Greeting("foo"), parseGreeting(response));
+    }
+
+    @Test
+    public void testNoBody() throws Exception {
+        HttpResponse<String> response = send(request("/nothing").DELETE().build());
+        assertEquals(204, response.statusCode());
+        assertEquals("", response.body());
+    }
+
+    @Test
+    public void testUnknownUrl() throws Exception {
+        HttpResponse<String> response = send(request("/unknown").build());
+        assertEquals(404, response.statusCode());
+    }
+
+    public record Greeting(String text) {}
+
+    public record SearchQuery(String q) {}
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest.jfr;
+
+import io.github.grumpystuff.grumpyjson.gson.GsonBasedJsonEngine;
+import io.github.grumpystuff.grumpyrest.RequestCycle;
+import io.github.grumpystuff.grumpyrest.RestApi;
+import io.github.grumpystuff.grumpyrest.request.HttpMethod;
+import io.github.grumpystuff.grumpyrest.transport.InMemoryExchange;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestEventTest {
+
+    public record Greeting(String text) {}
+
+    private final RestApi api = new RestApi(new GsonBasedJsonEngine());
+
+    public RequestEventTest() {
+        api.addRoute(HttpMethod.POST, "/echo/:id", request -> request.parseBody(Greeting.class));
+        api.seal();
+    }
+
+    private void handle(String path, String body) {
+        var exchange = new InMemoryExchange("POST", path, Map.of(), name -> null, "application/json",
+                body.getBytes(StandardCharsets.UTF_8));
+        api.handle(new RequestCycle(api, exchange));
+    }
+
+    /**
+     * Records all grumpyrest events while handling requests, until the expected number of request events arrived.
+     * Events are only counted for the "/echo/..." paths used here to ignore requests from other tests running
+     * concurrently.
+     */
+    private List<RecordedEvent> recordRequests(int expectedRequests, Runnable body) throws Exception {
+        List<RecordedEvent> events = new ArrayList<>();
+        CountDownLatch latch = new CountDownLatch(expectedRequests);
+        try (RecordingStream stream = new RecordingStream()) {
+            for (String name : List.of("grumpyrest.Request", "grumpyrest.RequestPhase", "grumpyrest.FinishRequest")) {
+                stream.enable(name).withThreshold(Duration.ZERO);
+                stream.onEvent(name, event -> {
+                    synchronized (events) {
+                        events.add(event);
+                    }
+                    if (name.equals("grumpyrest.Request") && event.getString("path").startsWith("/echo/")) {
+                        latch.countDown();
+                    }
+                });
+            }
+            stream.startAsync();
+            body.run();
+            assertTrue(latch.await(20, TimeUnit.SECONDS), "events not received");
+            // the other events of the same request are emitted earlier, so they have arrived by now
+        }
+        synchronized (events) {
+            return List.copyOf(events);
+        }
+    }
+
+    private static List<RecordedEvent> filter(List<RecordedEvent> events, String name) {
+        return events.stream().filter(event -> event.getEventType().getName().equals(name)).toList();
+    }
+
+    @Test
+    public void testEvents() throws Exception {
+        List<RecordedEvent> events = recordRequests(2, () -> {
+            handle("/echo/1", "{\"text\": \"hello\"}");
+            handle("/echo/2", "{\"wrong\": \"hello\"}");
+        });
+
+        List<RecordedEvent> requests = filter(events, "grumpyrest.Request");
+        assertEquals(2, requests.size());
+        for (RecordedEvent request : requests) {
+            assertEquals("POST", request.getString("method"));
+            assertEquals("POST /echo/:id", request.getString("route"));
+        }
+        assertEquals(List.of(200, 400), requests.stream().map(e -> e.getInt("status")).sorted().toList());
+
+        List<String> phases = filter(events, "grumpyrest.RequestPhase").stream()
+                .filter(e -> "POST /echo/:id".equals(e.getString("route")))
+                .map(e -> e.getString("phase"))
+                .sorted()
+                .toList();
+        assertEquals(List.of("BODY_PARSE", "BODY_PARSE", "HANDLER", "HANDLER", "MATCH", "MATCH",
+                "RESPONSE_FACTORY", "RESPONSE_FACTORY", "TRANSMIT", "TRANSMIT"), phases);
+
+        List<RecordedEvent> finishRequests = filter(events, "grumpyrest.FinishRequest");
+        assertEquals(1, finishRequests.size());
+        assertEquals("POST /echo/:id", finishRequests.get(0).getString("route"));
+        assertEquals("io.github.grumpystuff.grumpyrest.response.standard.StandardErrorResponse",
+                finishRequests.get(0).getString("responseValueType"));
+    }
+
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest.limit;
+
+import io.github.grumpystuff.grumpyjson.gson.GsonBasedJsonEngine;
+import io.github.grumpystuff.grumpyrest.RequestCycle;
+import io.github.grumpystuff.grumpyrest.RestApi;
+import io.github.grumpystuff.grumpyrest.Route;
+import io.github.grumpystuff.grumpyrest.SimpleHandler;
+import io.github.grumpystuff.grumpyrest.request.HttpMethod;
+import io.github.grumpystuff.grumpyrest.transport.InMemoryExchange;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrencyLimiterTest {
+
+    @Test
+    public void testFixedLimit() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("test", 2);
+        assertTrue(limiter.acquire());
+        assertTrue(limiter.acquire());
+        assertFalse(limiter.acquire());
+        assertEquals(new ConcurrencyLimiterStats("test", 2, 2, 0, 2, 1), limiter.getStats());
+
+        limiter.release(0);
+        assertTrue(limiter.acquire());
+        assertFalse(limiter.acquire());
+        assertEquals(new ConcurrencyLimiterStats("test", 2, 2, 0, 3, 2), limiter.getStats());
+    }
+
+    @Test
+    public void testQueue() throws Exception {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("test",
+                ConcurrencyLimiter.Options.createDefault(1).withQueue(1, Duration.ofSeconds(20)));
+        assertTrue(limiter.acquire());
+        CompletableFuture<Boolean> waiting = CompletableFuture.supplyAsync(limiter::acquire);
+        awaitQueued(limiter, 1);
+
+        // the queue is full
+        assertFalse(limiter.acquire());
+
+        limiter.release(0);
+        assertTrue(waiting.get(20, TimeUnit.SECONDS));
+        assertEquals(new ConcurrencyLimiterStats("test", 1, 1, 0, 2, 1), limiter.getStats());
+    }
+
+    @Test
+    public void testQueueTimeout() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("test",
+                ConcurrencyLimiter.Options.createDefault(1).withQueue(1, Duration.ofMillis(20)));
+        assertTrue(limiter.acquire());
+        assertFalse(limiter.acquire());
+        assertEquals(new ConcurrencyLimiterStats("test", 1, 1, 0, 1, 1), limiter.getStats());
+    }
+
+    @Test
+    public void testAdaptiveLimit() {
+        ConcurrencyLimiter.Adaptive adaptive = new ConcurrencyLimiter.Adaptive(1, 5, Duration.ofMinutes(1), 0.5);
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("test",
+                ConcurrencyLimiter.Options.createDefault(4).withAdaptive(adaptive));
+
+        // the limit grows after as many fast requests as the limit while the limit is used
+        for (int i = 0; i < 2; i++) {
+            for (int j = 0; j < 4; j++) {
+                assertTrue(limiter.acquire());
+            }
+            for (int j = 0; j < 4; j++) {
+                limiter.release(1000);
+            }
+        }
+        assertEquals(5, limiter.getStats().limit());
+
+        // but not while it is not used, and not above the maximum
+        for (int i = 0; i < 20; i++) {
+            assertTrue(limiter.acquire());
+            limiter.release(1000);
+        }
+        assertEquals(5, limiter.getStats().limit());
+
+        // a slow request shrinks it, but only once per threshold interval
+        assertTrue(limiter.acquire());
+        limiter.release(Duration.ofMinutes(2).toNanos());
+        assertEquals(2, limiter.getStats().limit());
+        assertTrue(limiter.acquire());
+        limiter.release(Duration.ofMinutes(2).toNanos());
+        assertEquals(2, limiter.getStats().limit());
+    }
+
+    @Test
+    public void testInvalidOptions() {
+        assertThrows(IllegalArgumentException.class, () -> ConcurrencyLimiter.Options.createDefault(0));
+        assertThrows(IllegalArgumentException.class, () -> ConcurrencyLimiter.Options.createDefault(1).withQueue(-1, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> ConcurrencyLimiter.Options.createDefault(10)
+                .withAdaptive(new ConcurrencyLimiter.Adaptive(1, 5, Duration.ofSeconds(1))));
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrencyLimiter.Adaptive(1, 5, Duration.ofSeconds(1), 1.0));
+    }
+
+    @Test
+    public void testShedding() throws Exception {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("group",
+                ConcurrencyLimiter.Options.createDefault(1).withRetryAfter(Duration.ofSeconds(5)));
+        CountDownLatch latch = new CountDownLatch(1);
+        RestApi api = new RestApi(new GsonBasedJsonEngine());
+        Route.Options options = Route.Options.DEFAULT.withConcurrencyLimiter(limiter);
+        SimpleHandler slowHandler = request -> {
+            assertTrue(latch.await(20, TimeUnit.SECONDS));
+            return new Result("slow");
+        };
+        SimpleHandler fastHandler = request -> new Result("fast");
+        api.addRoute(new Route(HttpMethod.GET, "/slow", slowHandler).withOptions(options));
+        api.addRoute(new Route(HttpMethod.GET, "/fast", fastHandler).withOptions(options));
+        api.addRoute(HttpMethod.GET, "/unlimited", request -> new Result("unlimited"));
+        api.seal();
+
+        CompletableFuture<InMemoryExchange> slow = CompletableFuture.supplyAsync(() -> run(api, "/slow"));
+        while (limiter.getStats().inFlight() == 0) {
+            Thread.onSpinWait();
+        }
+
+        // routes that share the limiter are shed, other routes are not affected
+        InMemoryExchange shed = run(api, "/fast");
+        assertEquals(503, shed.getResponseStatus());
+        assertEquals("application/json", shed.getResponseContentType());
+        assertEquals(List.of(Map.entry("Retry-After", "5")), shed.getResponseHeaders());
+        assertEquals("{\"message\":\"server overloaded\",\"fields\":[]}", new String(shed.getResponseBody(), StandardCharsets.UTF_8));
+        assertEquals(200, run(api, "/unlimited").getResponseStatus());
+        assertEquals(List.of(new ConcurrencyLimiterStats("group", 1, 1, 0, 1, 1)), api.getConcurrencyLimiterStats());
+
+        latch.countDown();
+        assertEquals(200, slow.get(20, TimeUnit.SECONDS).getResponseStatus());
+        assertEquals(200, run(api, "/fast").getResponseStatus());
+        assertEquals(List.of(new ConcurrencyLimiterStats("group", 1, 0, 0, 2, 1)), api.getConcurrencyLimiterStats());
+    }
+
+    private static InMemoryExchange run(RestApi api, String path) {
+        var exchange = new InMemoryExchange("GET", path, Map.of(), name -> null, null, new byte[0]);
+        api.handle(new RequestCycle(api, exchange));
+        return exchange;
+    }
+
+    private static void awaitQueued(ConcurrencyLimiter limiter, int queued) {
+        while (limiter.getStats().queued() < queued) {
+            Thread.onSpinWait();
+        }
+    }
+
+    public record Result(String text) {}
+
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest.limit;
+
+import io.github.grumpystuff.grumpyjson.gson.GsonBasedJsonEngine;
+import io.github.grumpystuff.grumpyrest.RequestCycle;
+import io.github.grumpystuff.grumpyrest.RestApi;
+import io.github.grumpystuff.grumpyrest.Route;
+import io.github.grumpystuff.grumpyrest.SimpleHandler;
+import io.github.grumpystuff.grumpyrest.request.HttpMethod;
+import io.github.grumpystuff.grumpyrest.transport.InMemoryExchange;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimiterTest {
+
+    @Test
+    public void testBurstAndKeys() {
+        RateLimiter limiter = new RateLimiter("test", RateLimiter.Options.createDefault(3, Duration.ofMinutes(1)));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("a"));
+        }
+        long waitNanos = limiter.tryAcquire("a");
+        assertTrue(waitNanos > Duration.ofSeconds(19).toNanos() && waitNanos <= Duration.ofSeconds(20).toNanos(), Long.toString(waitNanos));
+
+        // other keys have their own bucket
+        assertEquals(0, limiter.tryAcquire("b"));
+        assertEquals(new RateLimiterStats("test", 3, 60_000, 2, 4, 1), limiter.getStats());
+    }
+
+    @Test
+    public void testRejection() {
+        // the period is long enough that the bucket cannot refill between the two calls, even on a slow machine
+        RateLimiter limiter = new RateLimiter("test", RateLimiter.Options.createDefault(1, Duration.ofSeconds(10)));
+        assertEquals(0, limiter.tryAcquire("a"));
+        long waitNanos = limiter.tryAcquire("a");
+        assertTrue(waitNanos > 0 && waitNanos <= Duration.ofSeconds(10).toNanos(), Long.toString(waitNanos));
+    }
+
+    @Test
+    public void testRefill() throws Exception {
+        RateLimiter limiter = new RateLimiter("test", RateLimiter.Options.createDefault(1, Duration.ofMillis(20)));
+        assertEquals(0, limiter.tryAcquire("a"));
+        Thread.sleep(40);
+        assertEquals(0, limiter.tryAcquire("a"));
+    }
+
+    @Test
+    public void testBoundedKeys() {
+        RateLimiter limiter = new RateLimiter("test", RateLimiter.Options.createDefault(1, Duration.ofMinutes(1)).withMaxKeys(1));
+        for (int i = 0; i < 1000; i++) {
+            limiter.tryAcquire("key" + i);
+        }
+
+        // keys that did not fit share an overflow bucket per stripe
+        RateLimiterStats stats = limiter.getStats();
+        assertTrue(stats.keys() <= 16, stats.toString());
+        assertTrue(stats.rejected() > 0, stats.toString());
+    }
+
+    @Test
+    public void testIdleKeysAreRemoved() throws Exception {
+        RateLimiter limiter = new RateLimiter("test", RateLimiter.Options.createDefault(1, Duration.ofMillis(20)).withMaxKeys(1));
+        for (int i = 0; i < 1000; i++) {
+            limiter.tryAcquire("key" + i);
+        }
+
+        // keys that have been idle for a period get removed to make space for new keys
+        Thread.sleep(40);
+        assertEquals(0, limiter.tryAcquire("new"));
+        assertTrue(limiter.getStats().keys() <= 16);
+    }
+
+    @Test
+    public void testInvalidOptions() {
+        assertThrows(IllegalArgumentException.class, () -> RateLimiter.Options.createDefault(0, Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class, () -> RateLimiter.Options.createDefault(1, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> RateLimiter.Options.createDefault(1, Duration.ofSeconds(1)).withMaxKeys(0));
+    }
+
+    @Test
+    public void testRoute() throws Exception {
+        RateLimiter limiter = new RateLimiter("api", RateLimiter.Options.createDefault(2, Duration.ofMinutes(1))
+                .withKeyExtractor(RateLimiter.KeyExtractor.header("X-Api-Key")));
+        RestApi api = new RestApi(new GsonBasedJsonEngine());
+        SimpleHandler handler = request -> new Result(request.getRemoteAddress());
+        api.addRoute(new Route(HttpMethod.GET, "/limited", handler).withOptions(Route.Options.DEFAULT.withRateLimiter(limiter)));
+        api.addRoute(HttpMethod.GET, "/unlimited", handler);
+        api.seal();
+
+        assertEquals(200, run(api, "/limited", "a").getResponseStatus());
+        assertEquals(200, run(api, "/limited", "a").getResponseStatus());
+        InMemoryExchange rejected = run(api, "/limited", "a");
+        assertEquals(429, rejected.getResponseStatus());
+        assertEquals("application/json", rejected.getResponseContentType());
+        assertEquals(List.of(Map.entry("Retry-After", "30"), Map.entry("RateLimit-Limit", "2"),
+                Map.entry("RateLimit-Remaining", "0"), Map.entry("RateLimit-Reset", "30")), rejected.getResponseHeaders());
+        assertEquals("{\"message\":\"rate limit exceeded\",\"fields\":[]}", new String(rejected.getResponseBody(), StandardCharsets.UTF_8));
+
+        // other clients and other routes are not affected
+        assertEquals(200, run(api, "/limited", "b").getResponseStatus());
+        InMemoryExchange unlimited = run(api, "/unlimited", "a");
+        assertEquals(200, unlimited.getResponseStatus());
+        assertEquals("{\"remoteAddress\":\"10.0.0.1\"}", new String(unlimited.getResponseBody(), StandardCharsets.UTF_8));
+        assertEquals(List.of(new RateLimiterStats("api", 2, 60_000, 2, 3, 1)), api.getRateLimiterStats());
+    }
+
+    private static InMemoryExchange run(RestApi api, String path, String apiKey) {
+        var exchange = new InMemoryExchange("GET", path, Map.of(), name -> name.equals("X-Api-Key") ? apiKey : null, null, new byte[0]);
+        exchange.setRemoteAddress("10.0.0.1");
+        api.handle(new RequestCycle(api, exchange));
+        return exchange;
+    }
+
+    public record Result(String remoteAddress) {}
+
+}
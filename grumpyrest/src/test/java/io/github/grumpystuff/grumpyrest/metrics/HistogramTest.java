@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HistogramTest {
+
+    @Test
+    public void testBucketsAreContiguous() {
+        long previousUpperBound = -1;
+        for (int i = 0; i < 272; i++) {
+            long upperBound = Histogram.getBucketUpperBound(i);
+            assertTrue(upperBound > previousUpperBound);
+            assertEquals(i, Histogram.getBucketIndex(previousUpperBound + 1));
+            assertEquals(i, Histogram.getBucketIndex(upperBound));
+            previousUpperBound = upperBound;
+        }
+        assertEquals(271, Histogram.getBucketIndex(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testEmpty() {
+        assertEquals(new HistogramSnapshot(0, 0, 0, 0, 0, 0, 0), new Histogram().snapshot());
+    }
+
+    @Test
+    public void testSnapshot() {
+        Histogram histogram = new Histogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+        histogram.record(-5);
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals(1001, snapshot.count());
+        assertEquals(500_500_000L, snapshot.total());
+        assertEquals(1_000_000L, snapshot.max());
+        assertWithinBucket(500_000, snapshot.p50());
+        assertWithinBucket(900_000, snapshot.p90());
+        assertWithinBucket(990_000, snapshot.p99());
+        assertEquals(1_000_000L, snapshot.p999());
+    }
+
+    private static void assertWithinBucket(long expected, long actual) {
+        assertTrue(actual >= expected, "expected at least " + expected + " but was " + actual);
+        assertTrue(actual <= expected * 1.125, "expected at most " + expected * 1.125 + " but was " + actual);
+    }
+
+    @Test
+    public void testConcurrentRecording() throws Exception {
+        Histogram histogram = new Histogram();
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 10_000; j++) {
+                    histogram.record(100);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals(80_000, snapshot.count());
+        assertEquals(8_000_000, snapshot.total());
+        assertEquals(100, snapshot.max());
+    }
+
+}
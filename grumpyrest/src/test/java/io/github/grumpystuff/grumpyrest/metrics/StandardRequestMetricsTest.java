@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest.metrics;
+
+import io.github.grumpystuff.grumpyjson.gson.GsonBasedJsonEngine;
+import io.github.grumpystuff.grumpyjson.json_model.JsonElement;
+import io.github.grumpystuff.grumpyrest.RequestCycle;
+import io.github.grumpystuff.grumpyrest.RestApi;
+import io.github.grumpystuff.grumpyrest.request.HttpMethod;
+import io.github.grumpystuff.grumpyrest.transport.InMemoryExchange;
+import io.github.grumpystuff.grumpyrest.util.AllocationUtil;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class StandardRequestMetricsTest {
+
+    public record Greeting(String text) {}
+
+    private final RestApi api = new RestApi(new GsonBasedJsonEngine());
+    private final StandardRequestMetrics metrics = new StandardRequestMetrics();
+
+    public StandardRequestMetricsTest() {
+        api.setMetrics(metrics);
+        api.addRoute(HttpMethod.GET, "/hello/:name", request -> new Greeting("hello " + request.getPathArguments().get(0).getText()));
+        api.addRoute(HttpMethod.POST, "/echo", request -> request.parseBody(Greeting.class));
+        api.addRoute(HttpMethod.GET, "/metrics", metrics.createSnapshotHandler());
+        api.seal();
+    }
+
+    private InMemoryExchange handle(String method, String path, String body) {
+        byte[] bodyBytes = body == null ? new byte[0] : body.getBytes(StandardCharsets.UTF_8);
+        var exchange = new InMemoryExchange(method, path, Map.of(), name -> null, body == null ? null : "application/json", bodyBytes);
+        api.handle(new RequestCycle(api, exchange));
+        return exchange;
+    }
+
+    private RouteMetricsSnapshot findRoute(MetricsSnapshot snapshot, String route) {
+        for (RouteMetricsSnapshot routeSnapshot : snapshot.routes()) {
+            if (routeSnapshot.route().equals(route)) {
+                return routeSnapshot;
+            }
+        }
+        return null;
+    }
+
+    @Test
+    public void testNothingRecordedByDefault() {
+        assertSame(RequestMetrics.NONE, new RestApi(new GsonBasedJsonEngine()).getMetrics());
+    }
+
+    @Test
+    public void testRecording() {
+        handle("GET", "/hello/world", null);
+        handle("GET", "/hello/there", null);
+        var echoExchange = handle("POST", "/echo", "{\"text\": \"hi\"}");
+        handle("POST", "/echo", "{\"wrong\": \"hi\"}");
+        handle("GET", "/unknown", null);
+        MetricsSnapshot snapshot = metrics.snapshot();
+
+        RouteMetricsSnapshot hello = findRoute(snapshot, "GET /hello/:name");
+        assertNotNull(hello);
+        assertEquals(2, hello.requestCount());
+        assertEquals(0, hello.bytesIn());
+        assertTrue(hello.bytesOut() > 0);
+        assertEquals(Map.of("200", 2L), hello.statusCounts());
+        assertEquals(2, hello.total().count());
+        assertEquals(2, hello.phases().get("MATCH").count());
+        assertEquals(2, hello.phases().get("HANDLER").count());
+        assertEquals(0, hello.phases().get("BODY_PARSE").count());
+        assertEquals(2, hello.phases().get("TRANSMIT").count());
+
+        RouteMetricsSnapshot echo = findRoute(snapshot, "POST /echo");
+        assertNotNull(echo);
+        assertEquals(2, echo.requestCount());
+        assertEquals(29, echo.bytesIn());
+        assertTrue(echo.bytesOut() >= echoExchange.getResponseBody().length);
+        assertEquals(Map.of("200", 1L, "400", 1L), echo.statusCounts());
+        assertEquals(2, echo.phases().get("BODY_PARSE").count());
+
+        assertEquals(1, snapshot.unmatched().requestCount());
+        assertEquals(Map.of("404", 1L), snapshot.unmatched().statusCounts());
+        assertEquals(0, snapshot.unmatched().phases().get("HANDLER").count());
+        assertEquals(0, hello.allocatedBytes().count());
+    }
+
+    @Test
+    public void testAllocationSampling() {
+        assumeTrue(AllocationUtil.isSupported());
+        api.setAllocationSamplingInterval(1);
+        handle("GET", "/hello/world", null);
+        handle("POST", "/echo", "{\"text\": \"hi\"}");
+        MetricsSnapshot snapshot = metrics.snapshot();
+
+        RouteMetricsSnapshot hello = findRoute(snapshot, "GET /hello/:name");
+        assertNotNull(hello);
+        assertEquals(1, hello.allocatedBytes().count());
+        assertTrue(hello.allocatedBytes().max() > 0);
+        assertEquals(1, hello.phaseAllocatedBytes().get("HANDLER").count());
+        assertEquals(0, hello.phaseAllocatedBytes().get("BODY_PARSE").count());
+
+        RouteMetricsSnapshot echo = findRoute(snapshot, "POST /echo");
+        assertNotNull(echo);
+        assertEquals(1, echo.phaseAllocatedBytes().get("BODY_PARSE").count());
+        assertTrue(echo.phaseAllocatedBytes().get("BODY_PARSE").max() > 0);
+    }
+
+    @Test
+    public void testNegativeSamplingInterval() {
+        assertThrows(IllegalArgumentException.class, () -> api.setAllocationSamplingInterval(-1));
+    }
+
+    @Test
+    public void testSnapshotRoute() throws Exception {
+        handle("GET", "/hello/world", null);
+        var exchange = handle("GET", "/metrics", null);
+        assertEquals(200, exchange.getResponseStatus());
+        String json = new String(exchange.getResponseBody(), StandardCharsets.UTF_8);
+        JsonElement element = api.getJsonEngine().deserialize(json, JsonElement.class);
+        List<JsonElement> routes = element.deserializerExpectsObject().get("routes").deserializerExpectsArray();
+        assertEquals(1, routes.size());
+        Map<String, JsonElement> route = routes.get(0).deserializerExpectsObject();
+        assertEquals("GET /hello/:name", route.get("route").deserializerExpectsString());
+        assertEquals(1, route.get("requestCount").deserializerExpectsNumber().intValue());
+    }
+
+}
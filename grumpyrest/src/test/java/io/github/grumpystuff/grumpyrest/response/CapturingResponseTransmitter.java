@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest.response;
+
+import io.github.grumpystuff.grumpyjson.JsonEngine;
+import io.github.grumpystuff.grumpyjson.serialize.JsonSerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Captures everything that gets sent through it in memory, for testing {@link Response} implementations.
+ */
+public final class CapturingResponseTransmitter implements ResponseTransmitter {
+
+    private final JsonEngine jsonEngine;
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+    private final List<String> headers = new ArrayList<>();
+    private int status = 200;
+    private String contentType;
+    private int flushCount = 0;
+
+    public CapturingResponseTransmitter(JsonEngine jsonEngine) {
+        this.jsonEngine = jsonEngine;
+    }
+
+    @Override
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    @Override
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    @Override
+    public void addCustomHeader(String name, String value) {
+        headers.add(name + ": " + value);
+    }
+
+    @Override
+    public OutputStream getOutputStream() {
+        return new OutputStream() {
+
+            @Override
+            public void write(int b) {
+                body.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                body.write(b, off, len);
+            }
+
+            @Override
+            public void flush() {
+                flushCount++;
+            }
+
+        };
+    }
+
+    @Override
+    public void writeJson(Object value) throws JsonSerializationException {
+        jsonEngine.writeTo(value, getOutputStream());
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public List<String> getHeaders() {
+        return headers;
+    }
+
+    public String getBodyText() {
+        return body.toString(StandardCharsets.UTF_8);
+    }
+
+    public int getFlushCount() {
+        return flushCount;
+    }
+
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest.response.standard;
+
+import io.github.grumpystuff.grumpyjson.JsonEngine;
+import io.github.grumpystuff.grumpyjson.gson.GsonBasedJsonEngine;
+import io.github.grumpystuff.grumpyjson.serialize.JsonSerializationException;
+import io.github.grumpystuff.grumpyrest.RequestCycle;
+import io.github.grumpystuff.grumpyrest.RestApi;
+import io.github.grumpystuff.grumpyrest.request.HttpMethod;
+import io.github.grumpystuff.grumpyrest.response.CapturingResponseTransmitter;
+import io.github.grumpystuff.grumpyrest.transport.InMemoryExchange;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonArrayStreamResponseTest {
+
+    private final JsonEngine engine = new GsonBasedJsonEngine();
+
+    public JsonArrayStreamResponseTest() {
+        engine.seal();
+    }
+
+    @Test
+    public void testEmpty() throws Exception {
+        var transmitter = new CapturingResponseTransmitter(engine);
+        new JsonArrayStreamResponse(engine, JsonArrayStream.of(String.class, List.<String>of().iterator())).transmit(transmitter);
+        assertEquals(200, transmitter.getStatus());
+        assertEquals("application/json", transmitter.getContentType());
+        assertEquals("[]", transmitter.getBodyText());
+    }
+
+    @Test
+    public void testElements() throws Exception {
+        var transmitter = new CapturingResponseTransmitter(engine);
+        var stream = JsonArrayStream.of(String.class, List.of("a", "b", "c").iterator());
+        new JsonArrayStreamResponse(engine, stream).transmit(transmitter);
+        assertEquals("[\"a\",\"b\",\"c\"]", transmitter.getBodyText());
+    }
+
+    @Test
+    public void testFlushInterval() throws Exception {
+        var transmitter = new CapturingResponseTransmitter(engine);
+        Iterator<Integer> iterator = IntStream.range(0, 10).boxed().iterator();
+        new JsonArrayStreamResponse(engine, JsonArrayStream.of(Integer.class, iterator).withFlushInterval(3)).transmit(transmitter);
+        assertEquals("[0,1,2,3,4,5,6,7,8,9]", transmitter.getBodyText());
+        // three periodic flushes, plus one when closing
+        assertEquals(4, transmitter.getFlushCount());
+    }
+
+    @Test
+    public void testStreamGetsClosed() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean(false);
+        var transmitter = new CapturingResponseTransmitter(engine);
+        var stream = Stream.of("a", "b").onClose(() -> closed.set(true));
+        new JsonArrayStreamResponse(engine, JsonArrayStream.of(String.class, stream)).transmit(transmitter);
+        assertEquals("[\"a\",\"b\"]", transmitter.getBodyText());
+        assertTrue(closed.get());
+    }
+
+    @Test
+    public void testFailureLeavesArrayUnterminated() {
+        AtomicBoolean closed = new AtomicBoolean(false);
+        var transmitter = new CapturingResponseTransmitter(engine);
+        var stream = Stream.of("a", "b", "c").map(x -> {
+            if (x.equals("c")) {
+                throw new RuntimeException("database went away");
+            }
+            return x;
+        }).onClose(() -> closed.set(true));
+        var response = new JsonArrayStreamResponse(engine, JsonArrayStream.of(String.class, stream).withFlushInterval(1));
+        assertThrows(RuntimeException.class, () -> response.transmit(transmitter));
+        assertEquals("[\"a\",\"b\"", transmitter.getBodyText());
+        assertTrue(closed.get());
+    }
+
+    @Test
+    public void testFailureThroughRestApi() {
+        RestApi api = new RestApi(new GsonBasedJsonEngine());
+        api.addRoute(HttpMethod.GET, "/stream", request -> {
+            var stream = Stream.of("a", "b", "c").map(x -> {
+                if (x.equals("c")) {
+                    throw new RuntimeException("database went away");
+                }
+                return x;
+            });
+            return new JsonArrayStreamResponse(api.getJsonEngine(), JsonArrayStream.of(String.class, stream).withFlushInterval(1));
+        });
+        api.seal();
+        var exchange = new InMemoryExchange("GET", "/stream", Map.of(), name -> null, null, new byte[0]);
+        api.handle(new RequestCycle(api, exchange));
+
+        // the body has been started, so no error text gets appended to it
+        assertEquals(200, exchange.getResponseStatus());
+        assertEquals("application/json", exchange.getResponseContentType());
+        assertEquals("[\"a\",\"b\"", new String(exchange.getResponseBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testNullElement() {
+        var transmitter = new CapturingResponseTransmitter(engine);
+        var response = new JsonArrayStreamResponse(engine, JsonArrayStream.of(String.class, Arrays.asList("a", null).iterator()));
+        assertThrows(JsonSerializationException.class, () -> response.transmit(transmitter));
+    }
+
+}
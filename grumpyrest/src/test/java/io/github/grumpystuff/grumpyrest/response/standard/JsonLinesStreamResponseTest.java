@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2023 Martin Geisse
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+package io.github.grumpystuff.grumpyrest.response.standard;
+
+import io.github.grumpystuff.grumpyjson.JsonEngine;
+import io.github.grumpystuff.grumpyjson.gson.GsonBasedJsonEngine;
+import io.github.grumpystuff.grumpyjson.serialize.JsonSerializationException;
+import io.github.grumpystuff.grumpyrest.response.CapturingResponseTransmitter;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonLinesStreamResponseTest {
+
+    private final JsonEngine engine = new GsonBasedJsonEngine();
+
+    public JsonLinesStreamResponseTest() {
+        engine.seal();
+    }
+
+    @Test
+    public void testEmpty() throws Exception {
+        var transmitter = new CapturingResponseTransmitter(engine);
+        new JsonLinesStreamResponse(engine, JsonLinesStream.of(String.class, List.<String>of().iterator())).transmit(transmitter);
+        assertEquals(200, transmitter.getStatus());
+        assertEquals("application/x-ndjson", transmitter.getContentType());
+        assertEquals("", transmitter.getBodyText());
+    }
+
+    @Test
+    public void testElements() throws Exception {
+        var transmitter = new CapturingResponseTransmitter(engine);
+        var stream = JsonLinesStream.of(String.class, List.of("a", "b", "c").iterator());
+        new JsonLinesStreamResponse(engine, stream).transmit(transmitter);
+        assertEquals("\"a\"\n\"b\"\n\"c\"\n", transmitter.getBodyText());
+    }
+
+    @Test
+    public void testFlushInterval() throws Exception {
+        var transmitter = new CapturingResponseTransmitter(engine);
+        Iterator<Integer> iterator = IntStream.range(0, 10).boxed().iterator();
+        new JsonLinesStreamResponse(engine, JsonLinesStream.of(Integer.class, iterator).withFlushInterval(3)).transmit(transmitter);
+        assertEquals("0\n1\n2\n3\n4\n5\n6\n7\n8\n9\n", transmitter.getBodyText());
+        // three periodic flushes, plus one when closing
+        assertEquals(4, transmitter.getFlushCount());
+    }
+
+    @Test
+    public void testStreamGetsClosed() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean(false);
+        var transmitter = new CapturingResponseTransmitter(engine);
+        var stream = Stream.of("a", "b").onClose(() -> closed.set(true));
+        new JsonLinesStreamResponse(engine, JsonLinesStream.of(String.class, stream)).transmit(transmitter);
+        assertEquals("\"a\"\n\"b\"\n", transmitter.getBodyText());
+        assertTrue(closed.get());
+    }
+
+    @Test
+    public void testFailureStopsTransmission() {
+        AtomicBoolean closed = new AtomicBoolean(false);
+        var transmitter = new CapturingResponseTransmitter(engine);
+        var stream = Stream.of("a", "b", "c").map(x -> {
+            if (x.equals("c")) {
+                throw new RuntimeException("database went away");
+            }
+            return x;
+        }).onClose(() -> closed.set(true));
+        var response = new JsonLinesStreamResponse(engine, JsonLinesStream.of(String.class, stream).withFlushInterval(1));
+        assertThrows(RuntimeException.class, () -> response.transmit(transmitter));
+        assertEquals("\"a\"\n\"b\"\n", transmitter.getBodyText());
+        assertTrue(closed.get());
+    }
+
+    @Test
+    public void testRecordsAreSingleLine() throws Exception {
+        var transmitter = new CapturingResponseTransmitter(engine);
+        var stream = JsonLinesStream.of(Element.class, List.of(new Element("a", List.of(1, 2)), new Element("b", List.of())).iterator());
+        new JsonLinesStreamResponse(engine, stream).transmit(transmitter);
+        String[] lines = transmitter.getBodyText().split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(new Element("a", List.of(1, 2)), engine.deserialize(lines[0], Element.class));
+        assertEquals(new Element("b", List.of()), engine.deserialize(lines[1], Element.class));
+    }
+
+    @Test
+    public void testNullElement() {
+        var transmitter = new CapturingResponseTransmitter(engine);
+        var response = new JsonLinesStreamResponse(engine, JsonLinesStream.of(String.class, Arrays.asList("a", null).iterator()));
+        assertThrows(JsonSerializationException.class, () -> response.transmit(transmitter));
+    }
+
+    public record Element(String name, List<Integer> values) {}
+
+}